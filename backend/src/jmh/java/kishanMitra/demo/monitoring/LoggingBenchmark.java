@@ -0,0 +1,149 @@
+package kishanMitra.demo.monitoring;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.slf4j.LoggerFactory;
+import org.slf4j.MDC;
+
+import ch.qos.logback.classic.AsyncAppender;
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.encoder.PatternLayoutEncoder;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.Appender;
+import ch.qos.logback.core.OutputStreamAppender;
+
+/**
+ * What a request thread pays for one per-request log line ("location found"), from four threads
+ * at once: {@code println} as before, logback writing on the calling thread, logback through the
+ * async appender of {@code logback-spring.xml}, and async with {@link SampledLogFilter} keeping
+ * 1 in 100. {@code sinkMicros} is the time the console takes per line (a container log driver
+ * under load), spent while the writer holds the stream lock. With a slow sink the async queue
+ * fills up and the appender drops events rather than wait; that is the behaviour being measured.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(4)
+public class LoggingBenchmark {
+
+    private static final String DISTRICT = "Kanpur Nagar";
+    private static final String STATE = "Uttar Pradesh";
+
+    @Param({"println", "sync", "async", "sampled"})
+    public String mode;
+
+    @Param({"0", "20"})
+    public int sinkMicros;
+
+    private PrintStream stdout;
+    private LoggerContext context;
+    private org.slf4j.Logger log;
+
+    @State(Scope.Thread)
+    public static class Request {
+        @Setup
+        public void setUp() {
+            MDC.put(RequestIdFilter.MDC_KEY, Long.toHexString(Thread.currentThread().threadId() | Long.MIN_VALUE));
+        }
+    }
+
+    @Setup
+    public void setUp() {
+        OutputStream console = new SlowConsole(sinkMicros);
+        stdout = new PrintStream(console, true);
+
+        context = (LoggerContext) LoggerFactory.getILoggerFactory();
+        context.reset();
+        PatternLayoutEncoder encoder = new PatternLayoutEncoder();
+        encoder.setContext(context);
+        encoder.setPattern("%d{yyyy-MM-dd'T'HH:mm:ss.SSSXXX} %5p --- [%15.15t] [%X{requestId:-},%X{traceId:-}] %-40.40logger{39} : %m %kvp%n");
+        encoder.start();
+        OutputStreamAppender<ILoggingEvent> consoleAppender = new OutputStreamAppender<>();
+        consoleAppender.setContext(context);
+        consoleAppender.setName("CONSOLE");
+        consoleAppender.setEncoder(encoder);
+        consoleAppender.setOutputStream(console);
+        consoleAppender.start();
+
+        Appender<ILoggingEvent> appender = consoleAppender;
+        if (mode.equals("async") || mode.equals("sampled")) {
+            AsyncAppender async = new AsyncAppender();
+            async.setContext(context);
+            async.setName("ASYNC_CONSOLE");
+            async.setQueueSize(8192);
+            async.setNeverBlock(true);
+            async.addAppender(consoleAppender);
+            async.start();
+            appender = async;
+        }
+        if (mode.equals("sampled")) {
+            SampledLogFilter filter = new SampledLogFilter();
+            filter.setEvery(100);
+            filter.start();
+            context.addTurboFilter(filter);
+        }
+        Logger root = context.getLogger(Logger.ROOT_LOGGER_NAME);
+        root.setLevel(Level.INFO);
+        root.addAppender(appender);
+        log = context.getLogger("kishanMitra.demo.service.LocationService");
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.stop();
+    }
+
+    @Benchmark
+    public void locationFound(Request request) {
+        if (mode.equals("println")) {
+            stdout.println("Location Found: " + DISTRICT + ", " + STATE);
+        } else if (log.isInfoEnabled(SampledLogFilter.SAMPLED)) {
+            log.atInfo().addKeyValue("district", DISTRICT).addKeyValue("state", STATE)
+                    .log("Location found: {}, {}", DISTRICT, STATE);
+        }
+    }
+
+    /** Discards the bytes; each flush (one per line for both writers) takes {@code micros}. */
+    private static final class SlowConsole extends OutputStream {
+
+        private final long nanos;
+
+        SlowConsole(int micros) {
+            this.nanos = TimeUnit.MICROSECONDS.toNanos(micros);
+        }
+
+        @Override
+        public void write(int b) {
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+        }
+
+        @Override
+        public void flush() {
+            long end = System.nanoTime() + nanos;
+            while (System.nanoTime() < end) Thread.onSpinWait();
+        }
+    }
+}
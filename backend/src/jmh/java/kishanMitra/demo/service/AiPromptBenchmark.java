@@ -0,0 +1,72 @@
+package kishanMitra.demo.service;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import io.micrometer.observation.ObservationRegistry;
+
+import kishanMitra.demo.cache.SharedCacheTier;
+import kishanMitra.demo.dto.AgronomicFeatures;
+import kishanMitra.demo.dto.DashboardData;
+import kishanMitra.demo.monitoring.StageTracer;
+
+/** Cost of deriving the feature vector from a populated dashboard and rendering each Gemini prompt from it. */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AiPromptBenchmark {
+
+    private AIService aiService;
+    private DashboardData data;
+    private AgronomicFeatures features;
+
+    @Setup
+    public void setUp() throws Exception {
+        aiService = new AIService(null, new StageTracer(ObservationRegistry.NOOP), SharedCacheTier.none());
+        data = BenchmarkFixtures.dashboardData();
+        features = AgronomicFeatures.from(data);
+    }
+
+    @Benchmark
+    public AgronomicFeatures features() {
+        return AgronomicFeatures.from(data);
+    }
+
+    @Benchmark
+    public String cacheKey() {
+        return features.cacheKey();
+    }
+
+    @Benchmark
+    public String soilPrompt() {
+        return aiService.buildSoilPrompt(26.4499, 80.3319);
+    }
+
+    @Benchmark
+    public String recommendationPrompt() {
+        return aiService.buildRecommendationPrompt(features);
+    }
+
+    @Benchmark
+    public String chatbotPrompt() {
+        return aiService.buildChatbotPrompt("Which fertilizer should I apply to wheat this week?", features, "", "hi");
+    }
+
+    @Benchmark
+    public String summaryPrompt() {
+        return aiService.buildSummaryPrompt(BenchmarkFixtures.RECOMMENDATION, features);
+    }
+}
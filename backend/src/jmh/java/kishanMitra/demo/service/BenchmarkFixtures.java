@@ -0,0 +1,204 @@
+package kishanMitra.demo.service;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Random;
+
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.mock.http.client.MockClientHttpRequest;
+import org.springframework.mock.http.client.MockClientHttpResponse;
+import org.springframework.web.client.RestTemplate;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import kishanMitra.demo.cache.SharedCacheTier;
+import kishanMitra.demo.dto.ClimateData;
+import kishanMitra.demo.dto.DashboardData;
+import kishanMitra.demo.dto.SoilData;
+import kishanMitra.demo.dto.WeatherData;
+
+/**
+ * Deterministic upstream payloads shaped like the real Open-Meteo, OpenWeatherMap, Gemini and
+ * agmarknet responses, and a RestTemplate that serves them in-process.
+ */
+final class BenchmarkFixtures {
+
+    static final ObjectMapper MAPPER = new ObjectMapper();
+
+    static final String SOIL_JSON = """
+            {"ph": 7.2, "soilOrganicCarbon": 6.4, "cationExchangeCapacity": 18.5, "bulkDensity": 1.38,
+             "soilType": "Alluvial loam", "nitrogen": 240, "phosphorus": 18, "potassium": 260,
+             "electricalConductivity": 0.42, "salinity": 0.3, "sandPercent": 38, "siltPercent": 40,
+             "clayPercent": 22, "subsoilMoisture": 0.28, "soilTemperature": 27.5}""";
+
+    static final String RECOMMENDATION = "Wheat — alluvial loam, cool Rabi nights and assured canal irrigation suit high-yield wheat here.";
+
+    private BenchmarkFixtures() {
+    }
+
+    static byte[] forecastJson() {
+        Random random = new Random(7);
+        ObjectNode root = MAPPER.createObjectNode();
+        root.put("latitude", 26.44).put("longitude", 80.33).put("timezone", "Asia/Kolkata");
+        ObjectNode current = root.putObject("current");
+        current.put("time", "2025-10-01T12:00").put("temperature_2m", 31.4).put("relative_humidity_2m", 62)
+                .put("apparent_temperature", 35.2).put("wind_speed_10m", 9.7).put("wind_gusts_10m", 21.6)
+                .put("pressure_msl", 1004.8).put("visibility", 24140).put("uv_index", 6.35);
+        ObjectNode daily = root.putObject("daily");
+        ArrayNode time = daily.putArray("time");
+        ArrayNode max = daily.putArray("temperature_2m_max");
+        ArrayNode min = daily.putArray("temperature_2m_min");
+        ArrayNode rain = daily.putArray("precipitation_sum");
+        ArrayNode wind = daily.putArray("wind_speed_10m_max");
+        ArrayNode uv = daily.putArray("uv_index_max");
+        LocalDate day = LocalDate.of(2025, 10, 1);
+        for (int i = 0; i < 7; i++) {
+            time.add(day.plusDays(i).toString());
+            max.add(round(30 + random.nextDouble() * 6));
+            min.add(round(20 + random.nextDouble() * 5));
+            rain.add(round(random.nextDouble() * 12));
+            wind.add(round(8 + random.nextDouble() * 10));
+            uv.add(round(5 + random.nextDouble() * 3));
+        }
+        return bytes(root);
+    }
+
+    /** Thirty years of daily values, as the climate API returns for 1991-2020. */
+    static byte[] climateJson() {
+        Random random = new Random(11);
+        ObjectNode root = MAPPER.createObjectNode();
+        ObjectNode daily = root.putObject("daily");
+        ArrayNode time = daily.putArray("time");
+        ArrayNode mean = daily.putArray("temperature_2m_mean");
+        ArrayNode max = daily.putArray("temperature_2m_max");
+        ArrayNode min = daily.putArray("temperature_2m_min");
+        ArrayNode rain = daily.putArray("precipitation_sum");
+        for (LocalDate day = LocalDate.of(1991, 1, 1); day.getYear() <= 2020; day = day.plusDays(1)) {
+            double seasonal = 8 * Math.sin((day.getDayOfYear() - 80) * 2 * Math.PI / 365.25);
+            time.add(day.toString());
+            mean.add(round(25 + seasonal + random.nextGaussian()));
+            max.add(round(31 + seasonal + random.nextGaussian()));
+            min.add(round(19 + seasonal + random.nextGaussian()));
+            rain.add(random.nextInt(4) == 0 ? round(random.nextDouble() * 25) : 0.0);
+        }
+        return bytes(root);
+    }
+
+    static byte[] archiveJson() {
+        Random random = new Random(13);
+        ObjectNode root = MAPPER.createObjectNode();
+        ArrayNode rain = root.putObject("daily").putArray("precipitation_sum");
+        for (int i = 0; i <= 90; i++) {
+            rain.add(round(random.nextDouble() * 6));
+        }
+        return bytes(root);
+    }
+
+    static String agmarknetJson(int rows) {
+        Random random = new Random(17);
+        ArrayNode root = MAPPER.createArrayNode();
+        for (int i = 0; i < rows; i++) {
+            int min = 1200 + random.nextInt(800);
+            root.addObject()
+                    .put(MarketPriceService.FIELD_SERIAL_NO, String.valueOf(i + 1))
+                    .put(MarketPriceService.FIELD_CITY, "Azadpur")
+                    .put(MarketPriceService.FIELD_COMMODITY, "Onion")
+                    .put(MarketPriceService.FIELD_MIN_PRICE, String.valueOf(min))
+                    .put(MarketPriceService.FIELD_MAX_PRICE, String.format("%,d", min + 900))
+                    .put(MarketPriceService.FIELD_MODAL_PRICE, String.valueOf(min + 450))
+                    .put(MarketPriceService.FIELD_DATE, LocalDate.of(2025, 10, 1).minusDays(i).toString())
+                    .put(MarketPriceService.FIELD_STATE, "Delhi");
+        }
+        return root.toString();
+    }
+
+    static byte[] geminiJson(String text) {
+        ObjectNode root = MAPPER.createObjectNode();
+        root.putArray("candidates").addObject().putObject("content").putArray("parts").addObject().put("text", text);
+        return bytes(root);
+    }
+
+    /** A fully populated dashboard, as {@code DataAggregationService} hands it to the prompt builders. */
+    static DashboardData dashboardData() throws IOException {
+        DashboardData data = new DashboardData();
+        data.setDistrict("Kanpur Nagar");
+        data.setState("Uttar Pradesh");
+        data.setCurrentSeason("Rabi (Winter)");
+        data.setGroundwaterIndex(42.5);
+        data.setSoilData(MAPPER.readValue(SOIL_JSON, SoilData.class));
+        data.getSoilData().setTopsoilMoisture(0.31);
+        WeatherData weather = new WeatherDataService(null, SharedCacheTier.none()).parse(MAPPER.readTree(forecastJson()));
+        data.setWeatherData(weather);
+        ClimateData climate = new ClimateDataService(null).parse(MAPPER.readTree(climateJson()));
+        climate.setKoppenGeigerClassification("Humid subtropical (Cwa)");
+        data.setClimateData(climate);
+        return data;
+    }
+
+    /**
+     * RestTemplate whose requests never leave the JVM: each one is answered from the fixtures
+     * above by host, the way the real upstreams would answer it.
+     */
+    static RestTemplate stubbedRestTemplate() {
+        byte[] forecast = forecastJson();
+        byte[] climate = climateJson();
+        byte[] archive = archiveJson();
+        byte[] geo = "[{\"name\":\"Kanpur Nagar\",\"state\":\"Uttar Pradesh\",\"country\":\"IN\"}]".getBytes(StandardCharsets.UTF_8);
+        byte[] soil = geminiJson(SOIL_JSON);
+        byte[] recommendation = geminiJson(RECOMMENDATION);
+
+        ClientHttpRequestFactory factory = (URI uri, HttpMethod method) -> new MockClientHttpRequest(method, uri) {
+            @Override
+            protected ClientHttpResponse executeInternal() {
+                String host = uri.getHost();
+                byte[] body = switch (host) {
+                    case "api.openweathermap.org" -> geo;
+                    case "climate-api.open-meteo.com" -> climate;
+                    case "archive-api.open-meteo.com" -> archive;
+                    case "api.open-meteo.com" -> uri.getQuery().contains("daily=") ? forecast : currentOnly(uri.getQuery());
+                    case "generativelanguage.googleapis.com" ->
+                            getBodyAsString().contains("soil data simulation") ? soil : recommendation;
+                    default -> throw new IllegalStateException("No fixture for " + uri);
+                };
+                MockClientHttpResponse response = new MockClientHttpResponse(body, HttpStatus.OK);
+                response.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+                return response;
+            }
+        };
+        return new RestTemplate(factory);
+    }
+
+    /** Answers {@code current=a,b} point queries with a value for each requested variable. */
+    private static byte[] currentOnly(String query) {
+        ObjectNode root = MAPPER.createObjectNode();
+        ObjectNode current = root.putObject("current");
+        for (String param : query.split("&")) {
+            if (param.startsWith("current=")) {
+                for (String variable : param.substring("current=".length()).split(",")) {
+                    current.put(variable, 0.27);
+                }
+            }
+        }
+        return bytes(root);
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 10) / 10.0;
+    }
+
+    private static byte[] bytes(Object node) {
+        try {
+            return MAPPER.writeValueAsBytes(node);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
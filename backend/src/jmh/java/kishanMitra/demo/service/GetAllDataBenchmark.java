@@ -0,0 +1,109 @@
+package kishanMitra.demo.service;
+
+import java.time.Duration;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.client.RestTemplate;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micrometer.observation.ObservationRegistry;
+
+import kishanMitra.demo.cache.LruCache;
+import kishanMitra.demo.cache.SharedCacheTier;
+import kishanMitra.demo.cluster.TileRouter;
+import kishanMitra.demo.dto.KishanMitraResponse;
+import kishanMitra.demo.llm.GeminiLlmProvider;
+import kishanMitra.demo.llm.LlmProvider;
+import kishanMitra.demo.llm.LlmProviderSettings;
+import kishanMitra.demo.llm.LlmRequest;
+import kishanMitra.demo.llm.LlmRouter;
+import kishanMitra.demo.monitoring.StageTracer;
+import kishanMitra.demo.precompute.RecommendationSnapshotStore;
+
+/**
+ * End-to-end {@link DataAggregationService#getAllData} with every upstream answered in-process,
+ * so the number is our own CPU cost per request. {@code cold} empties the in-process weather and
+ * recommendation caches before every call, so each one pays for URL building, HTTP message
+ * conversion, decoding, prompt building and assembly; {@code warm} is a tile asked for again,
+ * answered from those caches.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 3)
+@Measurement(iterations = 5, time = 3)
+@Fork(1)
+public class GetAllDataBenchmark {
+
+    @Param({"cold", "warm"})
+    public String caches;
+
+    private DataAggregationService dataAggregationService;
+    private LruCache<?, ?> weatherCache;
+    private LruCache<?, ?> recommendationCache;
+
+    @Setup
+    public void setUp() {
+        RestTemplate restTemplate = BenchmarkFixtures.stubbedRestTemplate();
+        StageTracer stageTracer = new StageTracer(ObservationRegistry.NOOP);
+
+        LlmProviderSettings gemini = new LlmProviderSettings("gemini-primary",
+                "https://generativelanguage.googleapis.com/v1beta/models/gemini-2.5-flash:generateContent", "benchmark-key",
+                "", 1.0, EnumSet.allOf(LlmProvider.Capability.class), EnumSet.allOf(LlmRequest.Workload.class));
+        LlmRouter llmRouter = new LlmRouter(List.of(new GeminiLlmProvider(gemini, restTemplate, 0)), new SimpleMeterRegistry(),
+                2, Duration.ofSeconds(5), 100, Duration.ofMinutes(2), 0);
+        AIService aiService = new AIService(llmRouter, stageTracer, SharedCacheTier.none());
+        LocationService locationService = new LocationService(restTemplate);
+        ReflectionTestUtils.setField(locationService, "apiKey", "benchmark-key");
+        ReflectionTestUtils.setField(locationService, "geoUrl", "https://api.openweathermap.org/geo/1.0/reverse");
+        SoilDataService soilDataService = new SoilDataService(restTemplate, aiService);
+        ReflectionTestUtils.setField(soilDataService, "forecastUrl", "https://api.open-meteo.com/v1/forecast");
+        ReflectionTestUtils.setField(soilDataService, "archiveUrl", "https://archive-api.open-meteo.com/v1/archive");
+        WeatherDataService weatherDataService = new WeatherDataService(restTemplate, SharedCacheTier.none());
+        ReflectionTestUtils.setField(weatherDataService, "forecastUrl", "https://api.open-meteo.com/v1/forecast");
+        ClimateDataService climateDataService = new ClimateDataService(restTemplate);
+        ReflectionTestUtils.setField(climateDataService, "climateUrl", "https://climate-api.open-meteo.com/v1/climate");
+
+        dataAggregationService = new DataAggregationService(new DevelopmentDataService(), locationService,
+                soilDataService, weatherDataService, climateDataService, aiService, new CropInfoService(),
+                new PesticideInfoService(), stageTracer, new RecommendationSnapshotStore(), TileRouter.standalone());
+
+        weatherCache = (LruCache<?, ?>) ReflectionTestUtils.getField(weatherDataService, "cache");
+        recommendationCache = (LruCache<?, ?>) ReflectionTestUtils.getField(aiService, "recommendationCache");
+
+        KishanMitraResponse warmup = dataAggregationService.getAllData(26.4499, 80.3319);
+        if (!BenchmarkFixtures.RECOMMENDATION.equals(warmup.getCropRecommendation().getRecommendationText())) {
+            throw new IllegalStateException("Stubbed upstreams did not produce a live response: "
+                    + warmup.getCropRecommendation().getRecommendationText());
+        }
+    }
+
+    // Per invocation is fine here: a call takes milliseconds, so the setup and its timestamps are noise
+    @Setup(Level.Invocation)
+    public void clearCaches() {
+        if (caches.equals("cold")) {
+            weatherCache.clear();
+            recommendationCache.clear();
+        }
+    }
+
+    @Benchmark
+    public KishanMitraResponse getAllData() {
+        return dataAggregationService.getAllData(26.4499, 80.3319);
+    }
+}
@@ -0,0 +1,90 @@
+package kishanMitra.demo.service;
+
+import java.io.ByteArrayOutputStream;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import kishanMitra.demo.dto.AiCropRecommendation;
+import kishanMitra.demo.dto.KishanMitraResponse;
+
+/**
+ * Serialization of a full {@code /api/all-data} response with each mapper Spring MVC negotiates
+ * (JSON, CBOR, Smile), with and without gzip, and without the static profiles (the
+ * {@code profilesVersion} case). Payload sizes are printed once per format in setup.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ResponseSerializationBenchmark {
+
+    @Param({"json", "cbor", "smile"})
+    public String format;
+
+    private ObjectMapper objectMapper;
+    private KishanMitraResponse response;
+    private KishanMitraResponse withoutProfiles;
+
+    @Setup
+    public void setUp() throws Exception {
+        objectMapper = switch (format) {
+            case "cbor" -> Jackson2ObjectMapperBuilder.cbor().build();
+            case "smile" -> Jackson2ObjectMapperBuilder.smile().build();
+            default -> Jackson2ObjectMapperBuilder.json().build();
+        };
+        response = new KishanMitraResponse();
+        response.setDashboardData(BenchmarkFixtures.dashboardData());
+        AiCropRecommendation recommendation = new AiCropRecommendation();
+        recommendation.setRecommendationText(BenchmarkFixtures.RECOMMENDATION);
+        response.setCropRecommendation(recommendation);
+        response.setProfilesVersion("0123456789ab");
+
+        withoutProfiles = objectMapper.convertValue(response, KishanMitraResponse.class);
+        response.setCropProfiles(new CropInfoService().getCropProfiles());
+        response.setPesticideProfiles(new PesticideInfoService().getPesticideProfiles());
+
+        System.out.printf("%n%s payload: full %d B (gzip %d B), without profiles %d B (gzip %d B)%n", format,
+                fullResponse().length, fullResponseGzip().length,
+                responseWithoutProfiles().length, gzip(responseWithoutProfiles()).length);
+    }
+
+    @Benchmark
+    public byte[] fullResponse() throws Exception {
+        return objectMapper.writeValueAsBytes(response);
+    }
+
+    @Benchmark
+    public byte[] fullResponseGzip() throws Exception {
+        return gzip(objectMapper.writeValueAsBytes(response));
+    }
+
+    @Benchmark
+    public byte[] responseWithoutProfiles() throws Exception {
+        return objectMapper.writeValueAsBytes(withoutProfiles);
+    }
+
+    private static byte[] gzip(byte[] body) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(body.length / 3);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(body);
+        }
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,63 @@
+package kishanMitra.demo.service;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import kishanMitra.demo.cache.SharedCacheTier;
+import kishanMitra.demo.dto.ClimateData;
+import kishanMitra.demo.dto.MarketPrice;
+import kishanMitra.demo.dto.WeatherData;
+
+/**
+ * Decoding of upstream payloads from raw bytes to our DTOs, i.e. the Jackson tree read the
+ * RestTemplate does plus the services' own mapping.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class UpstreamDecodingBenchmark {
+
+    private final WeatherDataService weatherDataService = new WeatherDataService(null, SharedCacheTier.none());
+    private final ClimateDataService climateDataService = new ClimateDataService(null);
+    private final MarketPriceService marketPriceService = new MarketPriceService(null);
+
+    private byte[] forecast;
+    private byte[] climate;
+    private String agmarknet;
+
+    @Setup
+    public void setUp() {
+        forecast = BenchmarkFixtures.forecastJson();
+        climate = BenchmarkFixtures.climateJson();
+        agmarknet = BenchmarkFixtures.agmarknetJson(30);
+    }
+
+    @Benchmark
+    public WeatherData openMeteoForecast() throws Exception {
+        return weatherDataService.parse(BenchmarkFixtures.MAPPER.readTree(forecast));
+    }
+
+    @Benchmark
+    public ClimateData openMeteoClimateNormals() throws Exception {
+        return climateDataService.parse(BenchmarkFixtures.MAPPER.readTree(climate));
+    }
+
+    @Benchmark
+    public List<MarketPrice> agmarknetPrices() {
+        return marketPriceService.parseApiResponse(agmarknet, "Delhi");
+    }
+}
@@ -0,0 +1,156 @@
+package kishanMitra.demo.loadtest;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.BiFunction;
+
+/**
+ * Closed-model load generator: {@code concurrency} virtual-thread users each send a request,
+ * wait for the full response, and send the next, for a warm-up period and then a measured one.
+ * Every measured latency is kept, so percentiles are exact rather than bucketed.
+ */
+final class LoadDriver {
+
+    /** Farm coordinates spread across the main agricultural states. */
+    private static final double[][] COORDINATES = {
+            {26.4499, 80.3319}, {30.9010, 75.8573}, {19.9975, 73.7898}, {16.3067, 80.4365}, {22.7196, 75.8577},
+            {29.6857, 76.9905}, {23.2324, 87.8615}, {22.3039, 70.8022}, {15.8497, 74.4977}, {10.7870, 79.1378},
+            {25.5941, 85.1376}, {21.1458, 79.0882}};
+    private static final String[] COMMODITIES = {"Wheat", "Rice", "Onion", "Potato", "Tomato", "Mustard", "Cotton"};
+    private static final String[] QUESTIONS = {
+            "Which fertilizer should I apply to wheat this week?",
+            "How often should I irrigate mustard in this weather?",
+            "What can I spray for aphids on my chickpea crop?"};
+
+    record Scenario(String name, BiFunction<URI, Random, HttpRequest> request) {}
+
+    record Result(String endpoint, long requests, long errors, double seconds, double throughput,
+                  double p50Ms, double p99Ms, double p999Ms, double maxMs) {
+
+        String row() {
+            return String.format(Locale.ROOT, "%-16s %9d %7d %10.1f %9.1f %9.1f %9.1f %9.1f",
+                    endpoint, requests, errors, throughput, p50Ms, p99Ms, p999Ms, maxMs);
+        }
+
+        static String header() {
+            return String.format(Locale.ROOT, "%-16s %9s %7s %10s %9s %9s %9s %9s",
+                    "endpoint", "requests", "errors", "req/s", "p50 ms", "p99 ms", "p999 ms", "max ms");
+        }
+    }
+
+    private final URI target;
+    private final int concurrency;
+    private final HttpClient client;
+
+    LoadDriver(URI target, int concurrency) {
+        this.target = target;
+        this.concurrency = concurrency;
+        this.client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .build();
+    }
+
+    static List<Scenario> scenarios(String lang) {
+        String langParam = lang == null || lang.isBlank() ? "" : "&lang=" + lang;
+        return List.of(
+                new Scenario("all-data", (base, random) -> get(base, "/api/all-data", coordinates(random, "lat", "lon") + langParam)),
+                new Scenario("summary", (base, random) -> get(base, "/api/summary", coordinates(random, "lat", "lon") + langParam)),
+                new Scenario("chatbot", (base, random) -> {
+                    double[] point = COORDINATES[random.nextInt(COORDINATES.length)];
+                    String body = String.format(Locale.ROOT, "{\"message\":\"%s\",\"latitude\":%f,\"longitude\":%f,\"languageCode\":\"%s\"}",
+                            QUESTIONS[random.nextInt(QUESTIONS.length)], point[0], point[1], lang == null || lang.isBlank() ? "en" : lang);
+                    return HttpRequest.newBuilder(base.resolve("/api/chatbot")).timeout(Duration.ofSeconds(120))
+                            .header("Content-Type", "application/json")
+                            .POST(HttpRequest.BodyPublishers.ofString(body)).build();
+                }),
+                new Scenario("market-prices", (base, random) -> get(base, "/api/market-prices", coordinates(random, "lat", "lon")
+                        + "&nearest=3&commodity=" + COMMODITIES[random.nextInt(COMMODITIES.length)])),
+                new Scenario("ping", (base, random) -> get(base, "/api/ping", "")));
+    }
+
+    Result run(Scenario scenario, Duration warmup, Duration duration) throws Exception {
+        long warmupEnd = System.nanoTime() + warmup.toNanos();
+        long end = warmupEnd + duration.toNanos();
+        try (ExecutorService users = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<long[]>> futures = new ArrayList<>(concurrency);
+            for (int user = 0; user < concurrency; user++) {
+                Random random = new Random(31L * user + scenario.name().hashCode());
+                futures.add(users.submit(() -> runUser(scenario, random, warmupEnd, end)));
+            }
+            long[][] perUser = new long[concurrency][];
+            long errors = 0;
+            int total = 0;
+            for (int i = 0; i < concurrency; i++) {
+                long[] latencies = futures.get(i).get();
+                errors += latencies[0];
+                perUser[i] = latencies;
+                total += latencies.length - 1;
+            }
+            long[] all = new long[total];
+            int offset = 0;
+            for (long[] latencies : perUser) {
+                System.arraycopy(latencies, 1, all, offset, latencies.length - 1);
+                offset += latencies.length - 1;
+            }
+            Arrays.sort(all);
+            double seconds = duration.toNanos() / 1e9;
+            return new Result(scenario.name(), total, errors, seconds, total / seconds,
+                    percentile(all, 0.50), percentile(all, 0.99), percentile(all, 0.999),
+                    all.length == 0 ? 0 : all[all.length - 1] / 1e6);
+        }
+    }
+
+    /** @return the error count in slot 0, then the latency in nanos of each measured request. */
+    private long[] runUser(Scenario scenario, Random random, long warmupEnd, long end) {
+        long[] latencies = new long[1024];
+        int count = 1;
+        long errors = 0;
+        while (true) {
+            long start = System.nanoTime();
+            if (start >= end) break;
+            boolean ok;
+            try {
+                HttpResponse<Void> response = client.send(scenario.request().apply(target, random), HttpResponse.BodyHandlers.discarding());
+                ok = response.statusCode() < 400;
+            } catch (Exception e) {
+                ok = false;
+            }
+            long finish = System.nanoTime();
+            if (start < warmupEnd) continue;
+            if (!ok) errors++;
+            if (count == latencies.length) latencies = Arrays.copyOf(latencies, count * 2);
+            latencies[count++] = finish - start;
+        }
+        latencies[0] = errors;
+        return Arrays.copyOf(latencies, count);
+    }
+
+    private static double percentile(long[] sorted, double p) {
+        if (sorted.length == 0) return 0;
+        int rank = (int) Math.ceil(p * sorted.length);
+        return sorted[Math.max(0, rank - 1)] / 1e6;
+    }
+
+    private static String coordinates(Random random, String latName, String lonName) {
+        double[] point = COORDINATES[random.nextInt(COORDINATES.length)];
+        return String.format(Locale.ROOT, "%s=%.4f&%s=%.4f", latName, point[0], lonName, point[1]);
+    }
+
+    private static HttpRequest get(URI base, String path, String query) {
+        return HttpRequest.newBuilder(base.resolve(path + (query.isEmpty() ? "" : "?" + query)))
+                .timeout(Duration.ofSeconds(120)).GET().build();
+    }
+}
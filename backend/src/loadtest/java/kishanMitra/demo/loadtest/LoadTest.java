@@ -0,0 +1,198 @@
+package kishanMitra.demo.loadtest;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import kishanMitra.demo.DemoApplication;
+import kishanMitra.demo.upstream.Upstream;
+
+/**
+ * Offline load test: starts a stub for every upstream, boots the backend against them (or
+ * drives an already running one with {@code --target}), and reports throughput and
+ * p50/p99/p999 per {@code /api} endpoint.
+ *
+ * <pre>
+ * mvn -Ploadtest test-compile exec:exec -Dloadtest.args="--concurrency=32 --duration=60"
+ *
+ *   --concurrency=N           simultaneous users (16)
+ *   --warmup=S --duration=S   seconds per endpoint (10, 30)
+ *   --endpoints=a,b           all-data,summary,chatbot,market-prices,ping (all but ping)
+ *   --lang=hi                 exercise the translation path
+ *   --latency-scale=F         multiply every stub latency, e.g. 0 to measure our own overhead (1)
+ *   --stub.&lt;upstream&gt;=SPEC    e.g. --stub.gemini=median=2500,p99=9000,error=0.05,quota=15
+ *   --record=DIR              proxy to the real APIs and capture their responses (needs real keys)
+ *   --replay=DIR              serve captured responses, falling back to synthetic ones
+ *   --target=URL              drive a backend started separately; use with --stub-port-base
+ *   --stub-port-base=P        fixed stub ports P, P+1, ... instead of ephemeral ones
+ *   --out=FILE                JSON results (target/loadtest-result.json)
+ * </pre>
+ */
+public final class LoadTest {
+
+    private static final Map<Upstream, String> PROPERTIES = new EnumMap<>(Map.of(
+            Upstream.GEMINI, "gemini.api.url",
+            Upstream.OPEN_METEO_FORECAST, "open-meteo.forecast.url",
+            Upstream.OPEN_METEO_ARCHIVE, "open-meteo.archive.url",
+            Upstream.OPEN_METEO_CLIMATE, "open-meteo.climate.url",
+            Upstream.OPENWEATHERMAP_GEO, "openweathermap.geo.url",
+            Upstream.GOOGLE_TRANSLATE, "translate.google.api.url",
+            Upstream.AGMARKNET, "agmarknet.api.url"));
+
+    private static final Map<Upstream, String> REAL_URLS = new EnumMap<>(Map.of(
+            Upstream.GEMINI, "https://generativelanguage.googleapis.com/v1beta/models/gemini-2.5-flash:generateContent",
+            Upstream.OPEN_METEO_FORECAST, "https://api.open-meteo.com/v1/forecast",
+            Upstream.OPEN_METEO_ARCHIVE, "https://archive-api.open-meteo.com/v1/archive",
+            Upstream.OPEN_METEO_CLIMATE, "https://climate-api.open-meteo.com/v1/climate",
+            Upstream.OPENWEATHERMAP_GEO, "https://api.openweathermap.org/geo/1.0/reverse",
+            Upstream.GOOGLE_TRANSLATE, "https://translation.googleapis.com/language/translate/v2",
+            Upstream.AGMARKNET, "http://localhost:5000"));
+
+    /** Rough production latencies observed from India; override per run with --stub.&lt;upstream&gt;. */
+    private static final Map<Upstream, StubBehavior> DEFAULT_BEHAVIOR = new EnumMap<>(Map.of(
+            Upstream.GEMINI, new StubBehavior(1800, 6000, 0.01, 0),
+            Upstream.OPEN_METEO_FORECAST, new StubBehavior(120, 600, 0, 0),
+            Upstream.OPEN_METEO_ARCHIVE, new StubBehavior(250, 1200, 0, 0),
+            Upstream.OPEN_METEO_CLIMATE, new StubBehavior(900, 3000, 0, 0),
+            Upstream.OPENWEATHERMAP_GEO, new StubBehavior(150, 700, 0, 0),
+            Upstream.GOOGLE_TRANSLATE, new StubBehavior(180, 800, 0, 0),
+            Upstream.AGMARKNET, new StubBehavior(400, 2500, 0.02, 0)));
+
+    private LoadTest() {
+    }
+
+    public static void main(String[] argv) throws Exception {
+        Map<String, String> args = parseArgs(argv);
+        int concurrency = Integer.parseInt(args.getOrDefault("concurrency", "16"));
+        Duration warmup = Duration.ofSeconds(Long.parseLong(args.getOrDefault("warmup", "10")));
+        Duration duration = Duration.ofSeconds(Long.parseLong(args.getOrDefault("duration", "30")));
+        List<String> endpoints = Arrays.asList(args.getOrDefault("endpoints", "all-data,summary,chatbot,market-prices").split(","));
+        double latencyScale = Double.parseDouble(args.getOrDefault("latency-scale", "1"));
+        int portBase = Integer.parseInt(args.getOrDefault("stub-port-base", "0"));
+        Path out = Path.of(args.getOrDefault("out", "target/loadtest-result.json"));
+
+        UpstreamStub.Mode mode = args.containsKey("record") ? UpstreamStub.Mode.RECORD
+                : args.containsKey("replay") ? UpstreamStub.Mode.REPLAY : UpstreamStub.Mode.SYNTHETIC;
+        RecordedResponses recordings = mode == UpstreamStub.Mode.SYNTHETIC ? null
+                : new RecordedResponses(Path.of(args.getOrDefault("record", args.get("replay"))));
+
+        List<UpstreamStub> stubs = new ArrayList<>();
+        Map<String, String> overrides = startStubs(args, latencyScale, portBase, mode, recordings, stubs);
+
+        ConfigurableApplicationContext app = null;
+        URI target;
+        try {
+            if (args.containsKey("target")) {
+                target = URI.create(args.get("target"));
+                System.out.println("Driving " + target + "; it must be started with:");
+                System.out.println(overrides.entrySet().stream().map(e -> "--" + e.getKey() + "=" + e.getValue()).collect(Collectors.joining(" ")));
+            } else {
+                System.setProperty("spring.devtools.restart.enabled", "false");
+                overrides.put("server.port", "0");
+                // As command-line arguments, so they win over application.properties
+                app = new SpringApplicationBuilder(DemoApplication.class).run(overrides.entrySet().stream()
+                        .map(e -> "--" + e.getKey() + "=" + e.getValue()).toArray(String[]::new));
+                target = URI.create("http://127.0.0.1:" + app.getEnvironment().getProperty("local.server.port"));
+            }
+
+            LoadDriver driver = new LoadDriver(target, concurrency);
+            Map<String, LoadDriver.Scenario> scenarios = LoadDriver.scenarios(args.get("lang")).stream()
+                    .collect(Collectors.toMap(LoadDriver.Scenario::name, s -> s, (a, b) -> a, LinkedHashMap::new));
+            List<LoadDriver.Result> results = new ArrayList<>();
+            for (String endpoint : endpoints) {
+                LoadDriver.Scenario scenario = scenarios.get(endpoint.trim());
+                if (scenario == null) throw new IllegalArgumentException("Unknown endpoint '" + endpoint + "', expected one of " + scenarios.keySet());
+                System.out.printf("%s: %d users, %ds warm-up, %ds measured...%n", scenario.name(), concurrency, warmup.toSeconds(), duration.toSeconds());
+                results.add(driver.run(scenario, warmup, duration));
+            }
+
+            System.out.println();
+            System.out.println(LoadDriver.Result.header());
+            results.forEach(result -> System.out.println(result.row()));
+            System.out.println();
+            Map<String, Object> stubStats = new LinkedHashMap<>();
+            for (UpstreamStub stub : stubs) {
+                Map<String, Object> stats = new LinkedHashMap<>();
+                stats.put("requests", stub.requests.get());
+                stats.put("injectedErrors", stub.injectedErrors.get());
+                stats.put("quotaRejections", stub.quotaRejections.get());
+                if (mode == UpstreamStub.Mode.REPLAY) stats.put("replayMisses", stub.replayMisses.get());
+                stubStats.put(stub.upstream().tag(), stats);
+                System.out.printf("stub %-20s %s%n", stub.upstream().tag(), stats);
+            }
+
+            Map<String, Object> report = new LinkedHashMap<>();
+            report.put("concurrency", concurrency);
+            report.put("warmupSeconds", warmup.toSeconds());
+            report.put("durationSeconds", duration.toSeconds());
+            report.put("mode", mode.name().toLowerCase());
+            report.put("latencyScale", latencyScale);
+            report.put("endpoints", results);
+            report.put("upstreams", stubStats);
+            if (out.getParent() != null) Files.createDirectories(out.getParent());
+            new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(out.toFile(), report);
+            System.out.println("Results written to " + out.toAbsolutePath());
+        } finally {
+            if (app != null) app.close();
+            stubs.forEach(UpstreamStub::close);
+        }
+    }
+
+    /**
+     * Starts a stub per upstream, adding each to {@code stubs}.
+     * @return the backend properties that point it at the stubs
+     */
+    static Map<String, String> startStubs(Map<String, String> args, double latencyScale, int portBase, UpstreamStub.Mode mode,
+                                          RecordedResponses recordings, List<UpstreamStub> stubs) throws IOException {
+        StubResponses responses = StubResponses.create();
+        Map<String, String> overrides = new LinkedHashMap<>();
+        int port = portBase;
+        for (Map.Entry<Upstream, String> entry : PROPERTIES.entrySet()) {
+            Upstream upstream = entry.getKey();
+            StubBehavior behavior = StubBehavior.parse(args.get("stub." + upstream.tag()), DEFAULT_BEHAVIOR.get(upstream)).scaled(latencyScale);
+            URI realUrl = URI.create(upstream == Upstream.AGMARKNET ? args.getOrDefault("agmarknet-url", REAL_URLS.get(upstream)) : REAL_URLS.get(upstream));
+            UpstreamStub stub = new UpstreamStub(upstream, realUrl, behavior, mode, recordings, responses);
+            stub.start(portBase > 0 ? port++ : 0);
+            stubs.add(stub);
+            overrides.put(entry.getValue(), stub.url());
+            System.out.printf("stub %-20s %s  %s%n", upstream.tag(), stub.url(), mode == UpstreamStub.Mode.RECORD ? "(recording)" : behavior);
+        }
+        if (mode != UpstreamStub.Mode.RECORD) {
+            // Distinct keys, so per-key quotas and the key fallback chain behave as in production
+            overrides.put("gemini.api.key", "loadtest-primary");
+            overrides.put("gemini.secondary.api.key", "loadtest-secondary");
+            overrides.put("gemini.tertiary.api.key", "loadtest-tertiary");
+            overrides.put("gemini.quaternary.api.key", "loadtest-quaternary");
+            // Only Gemini is stubbed; the OpenAI-compatible chat providers would call out
+            overrides.put("llm.providers", "gemini-primary,gemini-secondary");
+            overrides.put("openweathermap.api.key", "loadtest");
+            overrides.put("translate.google.api.key", "loadtest");
+        }
+        return overrides;
+    }
+
+    static Map<String, String> parseArgs(String[] argv) {
+        Map<String, String> args = new LinkedHashMap<>();
+        for (String arg : argv) {
+            if (!arg.startsWith("--")) throw new IllegalArgumentException("Expected --name=value, got " + arg);
+            String[] kv = arg.substring(2).split("=", 2);
+            args.put(kv[0], kv.length > 1 ? kv[1] : "true");
+        }
+        return args;
+    }
+}
@@ -0,0 +1,76 @@
+package kishanMitra.demo.loadtest;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import kishanMitra.demo.upstream.Upstream;
+
+/**
+ * Captured upstream responses on disk, one JSON file per distinct request under
+ * {@code <dir>/<upstream>/}. Requests are keyed on method, path, query and body with API keys
+ * and moving date windows left out, so a capture taken one day replays the next.
+ */
+final class RecordedResponses {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final Set<String> IGNORED_PARAMS = Set.of("key", "appid", "start_date", "end_date");
+
+    private final Path dir;
+
+    RecordedResponses(Path dir) {
+        this.dir = dir;
+    }
+
+    record Recorded(int status, String contentType, byte[] body) {}
+
+    Recorded find(Upstream upstream, String method, URI uri, byte[] body) throws IOException {
+        Path file = file(upstream, method, uri, body);
+        if (!Files.exists(file)) return null;
+        JsonNode node = MAPPER.readTree(file.toFile());
+        return new Recorded(node.path("status").asInt(), node.path("contentType").asText("application/json"),
+                node.path("body").asText().getBytes(StandardCharsets.UTF_8));
+    }
+
+    void save(Upstream upstream, String method, URI uri, byte[] requestBody, Recorded response) throws IOException {
+        Path file = file(upstream, method, uri, requestBody);
+        Files.createDirectories(file.getParent());
+        ObjectNode node = MAPPER.createObjectNode();
+        node.put("request", method + " " + uri.getPath() + "?" + normalizedQuery(uri));
+        node.put("status", response.status());
+        node.put("contentType", response.contentType());
+        node.put("body", new String(response.body(), StandardCharsets.UTF_8));
+        MAPPER.writerWithDefaultPrettyPrinter().writeValue(file.toFile(), node);
+    }
+
+    private Path file(Upstream upstream, String method, URI uri, byte[] body) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update((method + " " + uri.getPath() + "?" + normalizedQuery(uri) + "\n").getBytes(StandardCharsets.UTF_8));
+            digest.update(body);
+            return dir.resolve(upstream.tag()).resolve(HexFormat.of().formatHex(digest.digest(), 0, 12) + ".json");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static String normalizedQuery(URI uri) {
+        if (uri.getRawQuery() == null) return "";
+        return Arrays.stream(uri.getRawQuery().split("&"))
+                .filter(param -> !IGNORED_PARAMS.contains(param.split("=", 2)[0]))
+                .sorted()
+                .collect(Collectors.joining("&"));
+    }
+}
@@ -0,0 +1,146 @@
+package kishanMitra.demo.loadtest;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+/**
+ * Cold-start benchmark: starts the upstream stubs, then launches the backend as a fresh process
+ * several times per variant and reports the time from launch to the first successful
+ * {@code /api/ping} and {@code /api/all-data}. Variants whose artifact is missing are skipped.
+ *
+ * <pre>
+ * mvn -Pfast-startup package
+ * mvn -Ploadtest test-compile exec:exec -Dloadtest.main=kishanMitra.demo.loadtest.StartupBenchmark -Dloadtest.args="--runs=5"
+ *
+ *   --variants=a,b       jar (mvn package), aot-cds (-Pfast-startup), native (-Pnative native:compile)
+ *   --runs=N             launches per variant (5)
+ *   --latency-scale=F    stub latencies, 0 by default so only our own startup is measured
+ *   --out=FILE           JSON results (target/startup-result.json)
+ * </pre>
+ */
+public final class StartupBenchmark {
+
+    private static final String JAR = "target/demo-0.0.1-SNAPSHOT.jar";
+    private static final String FAST_STARTUP_DIR = "target/fast-startup";
+    private static final String NATIVE = "target/demo";
+    private static final Duration START_TIMEOUT = Duration.ofSeconds(120);
+
+    private StartupBenchmark() {
+    }
+
+    public static void main(String[] argv) throws Exception {
+        Map<String, String> args = LoadTest.parseArgs(argv);
+        int runs = Integer.parseInt(args.getOrDefault("runs", "5"));
+        List<String> variants = Arrays.asList(args.getOrDefault("variants", "jar,aot-cds,native").split(","));
+        double latencyScale = Double.parseDouble(args.getOrDefault("latency-scale", "0"));
+        Path out = Path.of(args.getOrDefault("out", "target/startup-result.json"));
+
+        List<UpstreamStub> stubs = new ArrayList<>();
+        Map<String, String> overrides = LoadTest.startStubs(args, latencyScale, 0, UpstreamStub.Mode.SYNTHETIC, null, stubs);
+        HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofMillis(200)).build();
+        Map<String, Object> report = new LinkedHashMap<>();
+        try {
+            System.out.printf("%n%-10s %6s %14s %14s%n", "variant", "runs", "ping p50 ms", "all-data p50 ms");
+            for (String variant : variants) {
+                List<String> command = command(variant.trim());
+                if (command == null) {
+                    System.out.printf("%-10s skipped, not built%n", variant);
+                    continue;
+                }
+                long[] ping = new long[runs];
+                long[] allData = new long[runs];
+                for (int run = 0; run < runs; run++) {
+                    long[] times = launch(command, overrides, client);
+                    ping[run] = times[0];
+                    allData[run] = times[1];
+                }
+                Map<String, Object> result = new LinkedHashMap<>();
+                result.put("command", String.join(" ", command));
+                result.put("pingMillis", ping);
+                result.put("allDataMillis", allData);
+                report.put(variant, result);
+                System.out.printf("%-10s %6d %14d %14d%n", variant, runs, median(ping), median(allData));
+            }
+            if (out.getParent() != null) Files.createDirectories(out.getParent());
+            new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(out.toFile(), report);
+            System.out.println("Results written to " + out.toAbsolutePath());
+        } finally {
+            stubs.forEach(UpstreamStub::close);
+        }
+    }
+
+    private static List<String> command(String variant) {
+        String java = Path.of(System.getProperty("java.home"), "bin", "java").toString();
+        String jar = Path.of(FAST_STARTUP_DIR, new File(JAR).getName()).toString();
+        return switch (variant) {
+            case "jar" -> Files.exists(Path.of(JAR)) ? List.of(java, "-jar", JAR) : null;
+            case "aot-cds" -> Files.exists(Path.of(FAST_STARTUP_DIR, "app.jsa"))
+                    ? List.of(java, "-XX:SharedArchiveFile=" + FAST_STARTUP_DIR + "/app.jsa", "-Dspring.aot.enabled=true", "-jar", jar)
+                    : null;
+            case "native" -> Files.isExecutable(Path.of(NATIVE)) ? List.of(NATIVE) : null;
+            default -> throw new IllegalArgumentException("Unknown variant '" + variant + "', expected jar, aot-cds or native");
+        };
+    }
+
+    /** @return milliseconds from launch to the first 200 from /api/ping and from /api/all-data */
+    private static long[] launch(List<String> command, Map<String, String> overrides, HttpClient client) throws Exception {
+        int port;
+        try (ServerSocket socket = new ServerSocket(0)) {
+            port = socket.getLocalPort();
+        }
+        List<String> full = new ArrayList<>(command);
+        full.add("--server.port=" + port);
+        overrides.forEach((key, value) -> full.add("--" + key + "=" + value));
+
+        long start = System.nanoTime();
+        Process process = new ProcessBuilder(full).redirectErrorStream(true)
+                .redirectOutput(ProcessBuilder.Redirect.DISCARD).start();
+        try {
+            URI base = URI.create("http://127.0.0.1:" + port);
+            long ping = awaitOk(client, base.resolve("/api/ping"), start, process);
+            long allData = awaitOk(client, base.resolve("/api/all-data?lat=26.4499&lon=80.3319"), start, process);
+            return new long[] {ping, allData};
+        } finally {
+            process.destroy();
+            process.waitFor();
+        }
+    }
+
+    private static long awaitOk(HttpClient client, URI uri, long start, Process process) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(uri).timeout(START_TIMEOUT).GET().build();
+        while (System.nanoTime() - start < START_TIMEOUT.toNanos()) {
+            if (!process.isAlive()) throw new IllegalStateException("Backend exited with " + process.exitValue());
+            try {
+                if (client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+                    return (System.nanoTime() - start) / 1_000_000;
+                }
+            } catch (IOException e) {
+                // Not listening yet
+            }
+            Thread.sleep(20);
+        }
+        throw new IllegalStateException("No 200 from " + uri + " within " + START_TIMEOUT.toSeconds() + "s");
+    }
+
+    private static long median(long[] values) {
+        long[] sorted = values.clone();
+        Arrays.sort(sorted);
+        return sorted[sorted.length / 2];
+    }
+}
@@ -0,0 +1,53 @@
+package kishanMitra.demo.loadtest;
+
+import java.util.Locale;
+import java.util.Random;
+
+/**
+ * How a stub upstream misbehaves: a log-normal latency fitted to a median and p99, a share of
+ * requests failing with the upstream's own 5xx payload, and a per-key, per-minute quota after
+ * which it answers like the real API does when exhausted.
+ * Parsed from specs like {@code median=1800,p99=6000,error=0.02,quota=15}.
+ */
+record StubBehavior(double medianMs, double p99Ms, double errorRate, int quotaPerMinute) {
+
+    private static final double Z_99 = 2.3263;
+
+    static StubBehavior parse(String spec, StubBehavior defaults) {
+        double median = defaults.medianMs;
+        double p99 = defaults.p99Ms;
+        double error = defaults.errorRate;
+        int quota = defaults.quotaPerMinute;
+        if (spec != null && !spec.isBlank()) {
+            for (String part : spec.split(",")) {
+                String[] kv = part.split("=", 2);
+                if (kv.length != 2) throw new IllegalArgumentException("Expected key=value in stub spec: " + part);
+                String value = kv[1].trim();
+                switch (kv[0].trim().toLowerCase(Locale.ROOT)) {
+                    case "median" -> median = Double.parseDouble(value);
+                    case "p99" -> p99 = Double.parseDouble(value);
+                    case "error" -> error = Double.parseDouble(value);
+                    case "quota" -> quota = Integer.parseInt(value);
+                    default -> throw new IllegalArgumentException("Unknown stub setting '" + kv[0] + "'");
+                }
+            }
+        }
+        return new StubBehavior(median, Math.max(p99, median), error, quota);
+    }
+
+    StubBehavior scaled(double latencyScale) {
+        return new StubBehavior(medianMs * latencyScale, p99Ms * latencyScale, errorRate, quotaPerMinute);
+    }
+
+    long sampleLatencyMs(Random random) {
+        if (medianMs <= 0) return 0;
+        double sigma = Math.log(p99Ms / medianMs) / Z_99;
+        return Math.round(medianMs * Math.exp(sigma * random.nextGaussian()));
+    }
+
+    @Override
+    public String toString() {
+        return String.format(Locale.ROOT, "median=%.0fms p99=%.0fms error=%.1f%% quota=%s",
+                medianMs, p99Ms, errorRate * 100, quotaPerMinute > 0 ? quotaPerMinute + "/min/key" : "none");
+    }
+}
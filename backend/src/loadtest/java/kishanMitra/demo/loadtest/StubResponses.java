@@ -0,0 +1,246 @@
+package kishanMitra.demo.loadtest;
+
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Random;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import kishanMitra.demo.upstream.Upstream;
+
+/**
+ * Synthetic bodies in each upstream's real response shape, limited to what the services
+ * actually read: Gemini candidates, Open-Meteo current/daily blocks, OpenWeatherMap reverse
+ * geocoding, Google Translate v2 and the agmarknet proxy rows.
+ */
+final class StubResponses {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private static final String[][] DISTRICTS = {
+            {"Kanpur Nagar", "Uttar Pradesh"}, {"Ludhiana", "Punjab"}, {"Nashik", "Maharashtra"},
+            {"Guntur", "Andhra Pradesh"}, {"Indore", "Madhya Pradesh"}, {"Karnal", "Haryana"},
+            {"Bardhaman", "West Bengal"}, {"Rajkot", "Gujarat"}, {"Belagavi", "Karnataka"}, {"Thanjavur", "Tamil Nadu"}};
+    private static final String[] CROPS = {"Wheat", "Rice", "Mustard", "Chickpea", "Maize", "Cotton", "Soybean"};
+
+    private final byte[] climateNormals = climateNormals();
+
+    private StubResponses() {
+    }
+
+    static StubResponses create() {
+        return new StubResponses();
+    }
+
+    byte[] body(Upstream upstream, URI uri, byte[] requestBody, Random random) {
+        return switch (upstream) {
+            case GEMINI -> gemini(requestBody, random);
+            case OPEN_METEO_FORECAST -> uri.getRawQuery().contains("daily=") ? forecasts(uri.getRawQuery(), random) : currentOnly(uri.getRawQuery(), random);
+            case OPEN_METEO_ARCHIVE -> archive(random);
+            case OPEN_METEO_CLIMATE -> climateNormals;
+            case OPENWEATHERMAP_GEO -> geo(uri);
+            case GOOGLE_TRANSLATE -> translate(requestBody);
+            case AGMARKNET -> agmarknet(uri, random);
+            case OPENAI, DEEPSEEK, OTHER -> json(MAPPER.createObjectNode());
+        };
+    }
+
+    /** The payload each upstream sends with a 5xx, or when a key's quota is used up. */
+    static Failure failure(Upstream upstream, boolean quota) {
+        return switch (upstream) {
+            case GEMINI -> quota
+                    ? new Failure(429, "{\"error\":{\"code\":429,\"message\":\"Resource has been exhausted (e.g. check quota).\",\"status\":\"RESOURCE_EXHAUSTED\"}}")
+                    : new Failure(503, "{\"error\":{\"code\":503,\"message\":\"The model is overloaded. Please try again later.\",\"status\":\"UNAVAILABLE\"}}");
+            case OPENWEATHERMAP_GEO -> quota
+                    ? new Failure(429, "{\"cod\":429,\"message\":\"Your account is temporary blocked due to exceeding of requests limitation of your subscription type.\"}")
+                    : new Failure(502, "{\"cod\":502,\"message\":\"Bad gateway\"}");
+            case GOOGLE_TRANSLATE -> quota
+                    ? new Failure(403, "{\"error\":{\"code\":403,\"message\":\"User Rate Limit Exceeded\",\"errors\":[{\"reason\":\"userRateLimitExceeded\"}]}}")
+                    : new Failure(500, "{\"error\":{\"code\":500,\"message\":\"Internal error encountered.\",\"status\":\"INTERNAL\"}}");
+            case AGMARKNET -> quota
+                    ? new Failure(429, "Too Many Requests")
+                    : new Failure(500, "Internal Server Error");
+            default -> quota
+                    ? new Failure(429, "{\"error\":true,\"reason\":\"Daily API request limit exceeded. Please try again tomorrow.\"}")
+                    : new Failure(502, "{\"error\":true,\"reason\":\"Bad gateway\"}");
+        };
+    }
+
+    record Failure(int status, String body) {
+        byte[] bytes() {
+            return body.getBytes(StandardCharsets.UTF_8);
+        }
+    }
+
+    private byte[] gemini(byte[] requestBody, Random random) {
+        JsonNode request = readTree(requestBody);
+        String prompt = request.path("contents").path(0).path("parts").path(0).path("text").asText("");
+        boolean structured = "application/json".equals(request.path("generationConfig").path("responseMimeType").asText());
+        String crop = CROPS[random.nextInt(CROPS.length)];
+        String text;
+        if (prompt.contains("soil data simulation")) {
+            ObjectNode soil = MAPPER.createObjectNode();
+            soil.put("ph", round(6.0 + random.nextDouble() * 2)).put("soilOrganicCarbon", round(4 + random.nextDouble() * 10))
+                    .put("cationExchangeCapacity", round(8 + random.nextDouble() * 15)).put("bulkDensity", round(1.2 + random.nextDouble() * 0.4))
+                    .put("soilType", random.nextBoolean() ? "Alluvial loam" : "Black cotton clay")
+                    .put("nitrogen", 180 + random.nextInt(120)).put("phosphorus", 10 + random.nextInt(20)).put("potassium", 150 + random.nextInt(200))
+                    .put("electricalConductivity", round(random.nextDouble())).put("salinity", round(random.nextDouble() * 0.5))
+                    .put("sandPercent", 35).put("siltPercent", 40).put("clayPercent", 25)
+                    .put("subsoilMoisture", round(random.nextDouble() * 0.4)).put("soilTemperature", round(20 + random.nextDouble() * 10));
+            // Without a response schema the model wraps its JSON in a markdown fence
+            text = structured ? soil.toString() : "```json\n" + soil.toPrettyString() + "\n```";
+        } else if (prompt.contains("farmer-friendly plan")) {
+            text = "- Best crop: " + crop + " (suits the soil and season)\n- Prefer neem-based sprays; use imidacloprid only on heavy aphid attack\n"
+                    + "- Irrigation: medium, every 10-12 days\n- Fertilizer: DAP at sowing, urea top-dress at 30 days\n- Harvest in about 120 days";
+        } else if (prompt.contains("Answer the farmer's question")) {
+            text = "Apply urea as a top dressing after the first irrigation. Split the dose to avoid losses.";
+        } else {
+            text = crop + " — suited to the local soil, season and expected rainfall for a good yield.";
+        }
+        ObjectNode root = MAPPER.createObjectNode();
+        ObjectNode candidate = root.putArray("candidates").addObject();
+        candidate.putObject("content").put("role", "model").putArray("parts").addObject().put("text", text);
+        candidate.put("finishReason", "STOP");
+        root.putObject("usageMetadata").put("promptTokenCount", prompt.length() / 4).put("candidatesTokenCount", text.length() / 4);
+        return json(root);
+    }
+
+    /** One forecast, or an array of them when several comma-separated coordinates are asked for, as Open-Meteo does. */
+    private static byte[] forecasts(String query, Random random) {
+        int locations = 1;
+        for (String param : query.split("&")) {
+            if (param.startsWith("latitude=")) locations = param.split(",|%2C").length;
+        }
+        if (locations == 1) return json(forecast(random));
+        ArrayNode all = MAPPER.createArrayNode();
+        for (int i = 0; i < locations; i++) all.add(forecast(random));
+        return json(all);
+    }
+
+    private static ObjectNode forecast(Random random) {
+        ObjectNode root = MAPPER.createObjectNode();
+        root.put("latitude", 26.44).put("longitude", 80.33).put("timezone", "Asia/Kolkata");
+        root.putObject("current").put("time", LocalDate.now() + "T12:00")
+                .put("temperature_2m", round(25 + random.nextDouble() * 10)).put("relative_humidity_2m", 40 + random.nextInt(50))
+                .put("apparent_temperature", round(27 + random.nextDouble() * 10)).put("wind_speed_10m", round(random.nextDouble() * 20))
+                .put("wind_gusts_10m", round(10 + random.nextDouble() * 25)).put("pressure_msl", round(1000 + random.nextDouble() * 15))
+                .put("visibility", 24140).put("uv_index", round(random.nextDouble() * 9));
+        ObjectNode daily = root.putObject("daily");
+        ArrayNode time = daily.putArray("time");
+        ArrayNode max = daily.putArray("temperature_2m_max");
+        ArrayNode min = daily.putArray("temperature_2m_min");
+        ArrayNode rain = daily.putArray("precipitation_sum");
+        ArrayNode wind = daily.putArray("wind_speed_10m_max");
+        ArrayNode uv = daily.putArray("uv_index_max");
+        for (int i = 0; i < 7; i++) {
+            time.add(LocalDate.now().plusDays(i).toString());
+            max.add(round(28 + random.nextDouble() * 8));
+            min.add(round(18 + random.nextDouble() * 6));
+            rain.add(round(random.nextDouble() * 12));
+            wind.add(round(8 + random.nextDouble() * 10));
+            uv.add(round(5 + random.nextDouble() * 4));
+        }
+        return root;
+    }
+
+    private static byte[] currentOnly(String query, Random random) {
+        ObjectNode root = MAPPER.createObjectNode();
+        ObjectNode current = root.putObject("current");
+        for (String param : query.split("&")) {
+            if (param.startsWith("current=")) {
+                for (String variable : param.substring("current=".length()).split(",")) {
+                    current.put(variable, variable.startsWith("soil_temperature") ? round(20 + random.nextDouble() * 10) : round(random.nextDouble() * 0.45));
+                }
+            }
+        }
+        return json(root);
+    }
+
+    private static byte[] archive(Random random) {
+        ObjectNode root = MAPPER.createObjectNode();
+        ArrayNode rain = root.putObject("daily").putArray("precipitation_sum");
+        for (int i = 0; i <= 90; i++) {
+            rain.add(random.nextInt(3) == 0 ? round(random.nextDouble() * 15) : 0.0);
+        }
+        return json(root);
+    }
+
+    /** Thirty years of daily values, as the climate API returns them; built once since it is large. */
+    private static byte[] climateNormals() {
+        Random random = new Random(11);
+        ObjectNode root = MAPPER.createObjectNode();
+        ObjectNode daily = root.putObject("daily");
+        ArrayNode time = daily.putArray("time");
+        ArrayNode mean = daily.putArray("temperature_2m_mean");
+        ArrayNode max = daily.putArray("temperature_2m_max");
+        ArrayNode min = daily.putArray("temperature_2m_min");
+        ArrayNode rain = daily.putArray("precipitation_sum");
+        for (LocalDate day = LocalDate.of(1991, 1, 1); day.getYear() <= 2020; day = day.plusDays(1)) {
+            double seasonal = 8 * Math.sin((day.getDayOfYear() - 80) * 2 * Math.PI / 365.25);
+            time.add(day.toString());
+            mean.add(round(25 + seasonal + random.nextGaussian()));
+            max.add(round(31 + seasonal + random.nextGaussian()));
+            min.add(round(19 + seasonal + random.nextGaussian()));
+            rain.add(random.nextInt(4) == 0 ? round(random.nextDouble() * 25) : 0.0);
+        }
+        return json(root);
+    }
+
+    private static byte[] geo(URI uri) {
+        String[] district = DISTRICTS[Math.floorMod(uri.getRawQuery().hashCode(), DISTRICTS.length)];
+        ArrayNode root = MAPPER.createArrayNode();
+        root.addObject().put("name", district[0]).put("state", district[1]).put("country", "IN");
+        return json(root);
+    }
+
+    private static byte[] translate(byte[] requestBody) {
+        JsonNode request = readTree(requestBody);
+        ObjectNode root = MAPPER.createObjectNode();
+        root.putObject("data").putArray("translations").addObject()
+                .put("translatedText", "[" + request.path("target").asText() + "] " + request.path("q").asText())
+                .put("detectedSourceLanguage", "en");
+        return json(root);
+    }
+
+    private static byte[] agmarknet(URI uri, Random random) {
+        String commodity = "Onion";
+        String market = "Azadpur";
+        for (String param : uri.getQuery().split("&")) {
+            if (param.startsWith("commodity=")) commodity = param.substring("commodity=".length());
+            if (param.startsWith("market=")) market = param.substring("market=".length());
+        }
+        ArrayNode root = MAPPER.createArrayNode();
+        for (int i = 0; i < 10; i++) {
+            int minPrice = 1200 + random.nextInt(800);
+            root.addObject().put("S.No", String.valueOf(i + 1)).put("City", market).put("Commodity", commodity)
+                    .put("Min Prize", String.valueOf(minPrice)).put("Max Prize", String.valueOf(minPrice + 900))
+                    .put("Model Prize", String.valueOf(minPrice + 450))
+                    .put("Date", LocalDate.now().minusDays(i).toString());
+        }
+        return json(root);
+    }
+
+    private static JsonNode readTree(byte[] body) {
+        try {
+            return MAPPER.readTree(body);
+        } catch (Exception e) {
+            return MAPPER.createObjectNode();
+        }
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 100) / 100.0;
+    }
+
+    private static byte[] json(JsonNode node) {
+        try {
+            return MAPPER.writeValueAsBytes(node);
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,179 @@
+package kishanMitra.demo.loadtest;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import kishanMitra.demo.upstream.Upstream;
+
+/**
+ * A local HTTP server standing in for one upstream. It serves on the same path as the real
+ * API, so only the host of the configured URL changes. Depending on the mode it answers with
+ * synthetic bodies, replays captured ones, or records the real API's answers.
+ */
+final class UpstreamStub implements AutoCloseable {
+
+    enum Mode { SYNTHETIC, RECORD, REPLAY }
+
+    private final Upstream upstream;
+    private final URI realUrl;
+    private final StubBehavior behavior;
+    private final Mode mode;
+    private final RecordedResponses recordings;
+    private final StubResponses responses;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final Map<String, QuotaWindow> quotas = new ConcurrentHashMap<>();
+    private final HttpClient realClient;
+    private HttpServer server;
+
+    final AtomicLong requests = new AtomicLong();
+    final AtomicLong injectedErrors = new AtomicLong();
+    final AtomicLong quotaRejections = new AtomicLong();
+    final AtomicLong replayMisses = new AtomicLong();
+
+    UpstreamStub(Upstream upstream, URI realUrl, StubBehavior behavior, Mode mode,
+                 RecordedResponses recordings, StubResponses responses) {
+        this.upstream = upstream;
+        this.realUrl = realUrl;
+        this.behavior = behavior;
+        this.mode = mode;
+        this.recordings = recordings;
+        this.responses = responses;
+        this.realClient = mode == Mode.RECORD ? HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(10)).build() : null;
+    }
+
+    void start(int port) throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", port), 1024);
+        server.setExecutor(executor);
+        server.createContext("/", this::handle);
+        server.start();
+    }
+
+    /** The URL to configure in place of the real one. */
+    String url() {
+        return "http://127.0.0.1:" + server.getAddress().getPort() + realUrl.getRawPath();
+    }
+
+    Upstream upstream() {
+        return upstream;
+    }
+
+    StubBehavior behavior() {
+        return behavior;
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try (exchange; InputStream in = exchange.getRequestBody()) {
+            byte[] requestBody = in.readAllBytes();
+            URI uri = exchange.getRequestURI();
+            String method = exchange.getRequestMethod();
+            requests.incrementAndGet();
+
+            if (mode == Mode.RECORD) {
+                RecordedResponses.Recorded real = forward(method, uri, exchange, requestBody);
+                recordings.save(upstream, method, uri, requestBody, real);
+                respond(exchange, real.status(), real.contentType(), real.body());
+                return;
+            }
+
+            Random random = ThreadLocalRandom.current();
+            sleep(behavior.sampleLatencyMs(random));
+            if (behavior.quotaPerMinute() > 0 && !quotaFor(apiKey(uri)).tryAcquire(behavior.quotaPerMinute())) {
+                quotaRejections.incrementAndGet();
+                StubResponses.Failure failure = StubResponses.failure(upstream, true);
+                respond(exchange, failure.status(), "application/json", failure.bytes());
+                return;
+            }
+            if (behavior.errorRate() > 0 && random.nextDouble() < behavior.errorRate()) {
+                injectedErrors.incrementAndGet();
+                StubResponses.Failure failure = StubResponses.failure(upstream, false);
+                respond(exchange, failure.status(), "application/json", failure.bytes());
+                return;
+            }
+
+            if (mode == Mode.REPLAY) {
+                RecordedResponses.Recorded recorded = recordings.find(upstream, method, uri, requestBody);
+                if (recorded != null) {
+                    respond(exchange, recorded.status(), recorded.contentType(), recorded.body());
+                    return;
+                }
+                replayMisses.incrementAndGet();
+            }
+            respond(exchange, 200, "application/json", responses.body(upstream, uri, requestBody, random));
+        } catch (Exception e) {
+            System.err.println("STUB_ERROR [" + upstream.tag() + "]: " + e);
+        }
+    }
+
+    private RecordedResponses.Recorded forward(String method, URI uri, HttpExchange exchange, byte[] body) throws Exception {
+        URI target = URI.create(realUrl.getScheme() + "://" + realUrl.getRawAuthority() + uri.getRawPath()
+                + (uri.getRawQuery() != null ? "?" + uri.getRawQuery() : ""));
+        HttpRequest.Builder request = HttpRequest.newBuilder(target).timeout(Duration.ofSeconds(60))
+                .method(method, body.length > 0 ? HttpRequest.BodyPublishers.ofByteArray(body) : HttpRequest.BodyPublishers.noBody());
+        String contentType = exchange.getRequestHeaders().getFirst("Content-Type");
+        if (contentType != null) request.header("Content-Type", contentType);
+        HttpResponse<byte[]> response = realClient.send(request.build(), HttpResponse.BodyHandlers.ofByteArray());
+        return new RecordedResponses.Recorded(response.statusCode(),
+                response.headers().firstValue("Content-Type").orElse("application/json"), response.body());
+    }
+
+    private static void respond(HttpExchange exchange, int status, String contentType, byte[] body) throws IOException {
+        exchange.getResponseHeaders().set("Content-Type", contentType);
+        exchange.sendResponseHeaders(status, body.length == 0 ? -1 : body.length);
+        if (body.length > 0) exchange.getResponseBody().write(body);
+    }
+
+    private static String apiKey(URI uri) {
+        if (uri.getRawQuery() != null) {
+            for (String param : uri.getRawQuery().split("&")) {
+                if (param.startsWith("key=") || param.startsWith("appid=")) return param.substring(param.indexOf('=') + 1);
+            }
+        }
+        return "";
+    }
+
+    private QuotaWindow quotaFor(String key) {
+        return quotas.computeIfAbsent(key, k -> new QuotaWindow());
+    }
+
+    private static void sleep(long millis) throws InterruptedException {
+        if (millis > 0) Thread.sleep(millis);
+    }
+
+    @Override
+    public void close() {
+        if (server != null) server.stop(0);
+        executor.shutdownNow();
+    }
+
+    /** Fixed one-minute window, like the per-minute request quotas of the real APIs. */
+    private static final class QuotaWindow {
+        private final AtomicLong windowStart = new AtomicLong(System.currentTimeMillis());
+        private final AtomicInteger used = new AtomicInteger();
+
+        boolean tryAcquire(int limit) {
+            long now = System.currentTimeMillis();
+            long start = windowStart.get();
+            if (now - start >= 60_000 && windowStart.compareAndSet(start, now)) {
+                used.set(0);
+            }
+            return used.incrementAndGet() <= limit;
+        }
+    }
+}
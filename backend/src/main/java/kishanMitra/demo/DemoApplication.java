@@ -3,11 +3,21 @@ package kishanMitra.demo;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.ImportRuntimeHints;
 import org.springframework.web.client.RestTemplate;
 import org.springframework.retry.annotation.EnableRetry;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+import kishanMitra.demo.config.NativeRuntimeHints;
+import kishanMitra.demo.monitoring.JfrUpstreamInterceptor;
+import kishanMitra.demo.upstream.UpstreamBulkheads;
+import kishanMitra.demo.upstream.UpstreamHedging;
+import kishanMitra.demo.upstream.UpstreamMetricsInterceptor;
 
 @SpringBootApplication
 @EnableRetry
+@EnableScheduling
+@ImportRuntimeHints(NativeRuntimeHints.class)
 public class DemoApplication {
 
     public static void main(String[] args) {
@@ -18,10 +28,20 @@ public class DemoApplication {
      * This method creates a RestTemplate "Bean" (object) that Spring can manage
      * and inject into other services, like your LocationService.
      * This will solve the RestTemplate error.
+     * Every call through it is timed per upstream by the {@link UpstreamMetricsInterceptor}
+     * and shows up in Flight Recordings via the {@link JfrUpstreamInterceptor}. Calls first pass
+     * the {@link UpstreamBulkheads}, which also set the per-upstream timeouts; slow calls to some
+     * upstreams are then hedged by {@link UpstreamHedging}.
      * @return A new RestTemplate instance.
      */
     @Bean
-    public RestTemplate restTemplate() {
-        return new RestTemplate();
+    public RestTemplate restTemplate(UpstreamBulkheads upstreamBulkheads, UpstreamHedging upstreamHedging,
+                                     UpstreamMetricsInterceptor upstreamMetricsInterceptor,
+                                     JfrUpstreamInterceptor jfrUpstreamInterceptor) {
+        RestTemplate restTemplate = new RestTemplate(upstreamHedging.wrap(upstreamBulkheads.requestFactory()));
+        restTemplate.getInterceptors().add(upstreamBulkheads);
+        restTemplate.getInterceptors().add(upstreamMetricsInterceptor);
+        restTemplate.getInterceptors().add(jfrUpstreamInterceptor);
+        return restTemplate;
     }
 }
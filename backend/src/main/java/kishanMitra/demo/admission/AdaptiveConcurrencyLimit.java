@@ -0,0 +1,82 @@
+package kishanMitra.demo.admission;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * An AIMD concurrency limit driven by request latency. Each endpoint keeps a slow-moving latency
+ * baseline, since a dashboard and a market-price lookup differ by an order of magnitude. A sample
+ * slower than {@code tolerance} times its endpoint's baseline means the instance (or an upstream it
+ * waits on) is queueing, so the limit is cut by {@code backoff}, at most once per baseline
+ * interval. Otherwise the limit grows by one per limit's worth of samples, but only while the
+ * limit is actually being used.
+ */
+public final class AdaptiveConcurrencyLimit {
+
+    private static final double BASELINE_ALPHA = 0.02;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final double tolerance;
+    private final double backoff;
+    private final AtomicInteger inflight = new AtomicInteger();
+    private final Map<String, Double> baselineNanos = new HashMap<>();
+    private volatile double limit;
+    private long lastDecreaseNanos;
+
+    public AdaptiveConcurrencyLimit(int initialLimit, int minLimit, int maxLimit, double tolerance, double backoff) {
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.tolerance = tolerance;
+        this.backoff = backoff;
+        this.limit = Math.max(minLimit, Math.min(maxLimit, initialLimit));
+    }
+
+    /** @return the number of requests in flight, including this one. */
+    public int acquire() {
+        return inflight.incrementAndGet();
+    }
+
+    public void release() {
+        inflight.decrementAndGet();
+    }
+
+    /**
+     * Feeds one completed request into the limit.
+     *
+     * @param inflightAtStart what {@link #acquire()} returned for the request
+     */
+    public synchronized void onSample(String endpoint, long latencyNanos, int inflightAtStart) {
+        Double baseline = baselineNanos.get(endpoint);
+        if (baseline == null) {
+            baselineNanos.put(endpoint, (double) latencyNanos);
+            return;
+        }
+        baselineNanos.put(endpoint, baseline + BASELINE_ALPHA * (latencyNanos - baseline));
+
+        long now = System.nanoTime();
+        if (latencyNanos > baseline * tolerance) {
+            if (now - lastDecreaseNanos >= baseline) {
+                lastDecreaseNanos = now;
+                limit = Math.max(minLimit, limit * backoff);
+            }
+        } else if (inflightAtStart * 2 >= limit) {
+            limit = Math.min(maxLimit, limit + 1 / limit);
+        }
+    }
+
+    public int getLimit() {
+        return (int) limit;
+    }
+
+    public int getInflight() {
+        return inflight.get();
+    }
+
+    /** @return the baseline latency of this endpoint in milliseconds, or 0 before its first sample. */
+    public synchronized long getBaselineMillis(String endpoint) {
+        Double baseline = baselineNanos.get(endpoint);
+        return baseline != null ? (long) (baseline / 1_000_000) : 0;
+    }
+}
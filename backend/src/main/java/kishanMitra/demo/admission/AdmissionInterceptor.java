@@ -0,0 +1,187 @@
+package kishanMitra.demo.admission;
+
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Admission control for {@code /api}. Requests are counted against an {@link AdaptiveConcurrencyLimit}
+ * and, once the instance is over it, served at a lower {@link ServiceLevel} before anything is refused:
+ * <ul>
+ *   <li>critical (ping, setup, profiles, market options): cheap and cached, never limited;</li>
+ *   <li>high (all-data, summary): full up to the limit, then without Gemini, then from the built-in
+ *       data, then refused;</li>
+ *   <li>normal (chatbot, market prices): full up to the limit, then refused;</li>
+ *   <li>low (batch): only while the instance is below {@code admission.low-priority-share}
+ *       of the limit.</li>
+ * </ul>
+ * A refused request gets a 503 with {@code Retry-After}; a degraded one an {@code X-Service-Level} header.
+ * Runs after the CORS check, so a browser can read the 503.
+ */
+@Component
+public class AdmissionInterceptor implements AsyncHandlerInterceptor {
+
+    public static final String SERVICE_LEVEL_HEADER = "X-Service-Level";
+    private static final String ATTRIBUTE = AdmissionInterceptor.class.getName() + ".admission";
+
+    enum Priority { CRITICAL, HIGH, NORMAL, LOW }
+
+    @Value("${admission.enabled:false}")
+    private boolean enabled;
+
+    @Value("${admission.no-llm-above:1.0}")
+    private double noLlmAbove = 1.0;
+
+    @Value("${admission.static-above:1.25}")
+    private double staticAbove = 1.25;
+
+    @Value("${admission.reject-above:1.5}")
+    private double rejectAbove = 1.5;
+
+    @Value("${admission.low-priority-share:0.5}")
+    private double lowPriorityShare = 0.5;
+
+    private final AdaptiveConcurrencyLimit limit;
+    private final MeterRegistry meterRegistry;
+
+    public AdmissionInterceptor(MeterRegistry meterRegistry,
+                                @Value("${admission.limit.initial:40}") int initialLimit,
+                                @Value("${admission.limit.min:8}") int minLimit,
+                                @Value("${admission.limit.max:150}") int maxLimit,
+                                @Value("${admission.limit.latency-tolerance:2.0}") double tolerance,
+                                @Value("${admission.limit.backoff:0.9}") double backoff) {
+        this.meterRegistry = meterRegistry;
+        this.limit = new AdaptiveConcurrencyLimit(initialLimit, minLimit, maxLimit, tolerance, backoff);
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) throws IOException {
+        if (!enabled || request.getDispatcherType() == DispatcherType.ASYNC) return true;
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        Priority priority = priorityOf(path);
+        if (priority == Priority.CRITICAL) return true;
+
+        int inflight = limit.acquire();
+        ServiceLevel level = decide(priority, inflight, limit.getLimit());
+        meterRegistry.counter("admission.decisions", "priority", priority.name().toLowerCase(),
+                "level", level != null ? level.name().toLowerCase() : "rejected").increment();
+        if (level == null) {
+            limit.release();
+            reject(response, path);
+            return false;
+        }
+        if (level != ServiceLevel.FULL) {
+            response.setHeader(SERVICE_LEVEL_HEADER, level.name().toLowerCase().replace('_', '-'));
+        }
+        ServiceLevel.set(level);
+        request.setAttribute(ATTRIBUTE, new Admission(path, priority, level, inflight, System.nanoTime()));
+        return true;
+    }
+
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        ServiceLevel.clear();
+        Admission admission = (Admission) request.getAttribute(ATTRIBUTE);
+        if (admission == null) return;
+        // Streamed responses (the batch) hold their slot until the stream ends
+        request.getAsyncContext().addListener(new AsyncListener() {
+            @Override
+            public void onComplete(AsyncEvent event) {
+                finish(admission, response.getStatus());
+            }
+
+            @Override
+            public void onTimeout(AsyncEvent event) {
+                finish(admission, HttpStatus.SERVICE_UNAVAILABLE.value());
+            }
+
+            @Override
+            public void onError(AsyncEvent event) {
+                finish(admission, HttpStatus.INTERNAL_SERVER_ERROR.value());
+            }
+
+            @Override
+            public void onStartAsync(AsyncEvent event) {
+            }
+        });
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        if (request.getDispatcherType() == DispatcherType.ASYNC) return;
+        ServiceLevel.clear();
+        Admission admission = (Admission) request.getAttribute(ATTRIBUTE);
+        if (admission != null && !request.isAsyncStarted()) {
+            finish(admission, ex != null ? HttpStatus.INTERNAL_SERVER_ERROR.value() : response.getStatus());
+        }
+    }
+
+    private void finish(Admission admission, int status) {
+        if (!admission.released().compareAndSet(false, true)) return;
+        limit.release();
+        // Only full-service answers say how long the real work takes; failures are often fast
+        if (admission.level() == ServiceLevel.FULL && admission.priority() != Priority.LOW && status < 500) {
+            limit.onSample(admission.path(), System.nanoTime() - admission.startNanos(), admission.inflight());
+        }
+    }
+
+    private void reject(HttpServletResponse response, String path) throws IOException {
+        long retryAfter = Math.max(1, Math.min(30, (limit.getBaselineMillis(path) * 2 + 999) / 1000));
+        response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(retryAfter));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.getWriter().write("{\"error\":\"Server is busy, please retry in " + retryAfter + " seconds\"}");
+    }
+
+    /** @return the level to serve at, or null to refuse the request. */
+    ServiceLevel decide(Priority priority, int inflight, int currentLimit) {
+        return switch (priority) {
+            case CRITICAL -> ServiceLevel.FULL;
+            case HIGH -> {
+                if (inflight <= currentLimit * noLlmAbove) yield ServiceLevel.FULL;
+                if (inflight <= currentLimit * staticAbove) yield ServiceLevel.NO_LLM;
+                if (inflight <= currentLimit * rejectAbove) yield ServiceLevel.STATIC;
+                yield null;
+            }
+            case NORMAL -> inflight <= currentLimit ? ServiceLevel.FULL : null;
+            case LOW -> inflight <= currentLimit * lowPriorityShare ? ServiceLevel.FULL : null;
+        };
+    }
+
+    static Priority priorityOf(String path) {
+        return switch (path) {
+            case "/api/all-data", "/api/summary", "/internal/cluster/all-data" -> Priority.HIGH;
+            case "/api/chatbot", "/api/market-prices" -> Priority.NORMAL;
+            case "/api/all-data/batch" -> Priority.LOW;
+            default -> Priority.CRITICAL;
+        };
+    }
+
+    public int getLimit() {
+        return limit.getLimit();
+    }
+
+    public int getInflight() {
+        return limit.getInflight();
+    }
+
+    private record Admission(String path, Priority priority, ServiceLevel level, int inflight, long startNanos,
+                             AtomicBoolean released) {
+        Admission(String path, Priority priority, ServiceLevel level, int inflight, long startNanos) {
+            this(path, priority, level, inflight, startNanos, new AtomicBoolean());
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package kishanMitra.demo.admission;
+
+/**
+ * How much work an admitted request may do, set per request by {@link AdmissionInterceptor}
+ * and read on the request thread by the services that call upstreams.
+ */
+public enum ServiceLevel {
+    /** Everything, including Gemini calls. */
+    FULL,
+    /** No Gemini calls: cached or precomputed answers, otherwise the existing hardcoded fallbacks. */
+    NO_LLM,
+    /** No upstream calls at all: the built-in development data for the dashboard. */
+    STATIC;
+
+    private static final ThreadLocal<ServiceLevel> CURRENT = new ThreadLocal<>();
+
+    static void set(ServiceLevel level) {
+        CURRENT.set(level);
+    }
+
+    static void clear() {
+        CURRENT.remove();
+    }
+
+    /** @return the level of the request running on this thread; {@link #FULL} outside a request. */
+    public static ServiceLevel current() {
+        ServiceLevel level = CURRENT.get();
+        return level != null ? level : FULL;
+    }
+
+    public boolean allowsLlm() {
+        return this == FULL;
+    }
+
+    public boolean allowsUpstreams() {
+        return this != STATIC;
+    }
+}
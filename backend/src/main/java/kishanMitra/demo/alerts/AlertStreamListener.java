@@ -0,0 +1,67 @@
+package kishanMitra.demo.alerts;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Predicate;
+
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import kishanMitra.demo.dto.WeatherAlert;
+
+/**
+ * Feeds one Server-Sent Events client. Alerts are published by the poller thread while it holds
+ * the subscription's lock, so this listener only queues them; a virtual thread of the client's
+ * own writes them to the socket. A slow client therefore delays nobody else, and one that falls
+ * {@link AlertSubscription#MAILBOX_SIZE} alerts behind is disconnected: it resumes from
+ * {@code Last-Event-ID}, which the mailbox still covers.
+ */
+public final class AlertStreamListener implements Predicate<List<WeatherAlert>> {
+
+    private final SseEmitter emitter;
+    private final ArrayBlockingQueue<WeatherAlert> queue = new ArrayBlockingQueue<>(AlertSubscription.MAILBOX_SIZE);
+    private final AtomicBoolean draining = new AtomicBoolean();
+    private volatile boolean closed;
+
+    public AlertStreamListener(SseEmitter emitter) {
+        this.emitter = emitter;
+    }
+
+    /** Queues the alerts; never blocks. Returns false once the client is gone or too far behind. */
+    @Override
+    public boolean test(List<WeatherAlert> alerts) {
+        if (closed) return false;
+        for (WeatherAlert alert : alerts) {
+            if (!queue.offer(alert)) {
+                // Completed by the sender thread, which may be inside a send holding the emitter's lock
+                closed = true;
+                break;
+            }
+        }
+        if (draining.compareAndSet(false, true)) {
+            Thread.ofVirtual().name("alerts-sse").start(this::drain);
+        }
+        return !closed;
+    }
+
+    private void drain() {
+        do {
+            WeatherAlert alert;
+            while (!closed && (alert = queue.poll()) != null) {
+                try {
+                    emitter.send(SseEmitter.event().id(Long.toString(alert.getSequence())).name("alert").data(alert));
+                } catch (IOException | IllegalStateException e) {
+                    // Client went away; it resumes from Last-Event-ID
+                    closed = true;
+                }
+            }
+            if (closed) {
+                queue.clear();
+                emitter.complete();
+                return;
+            }
+            draining.set(false);
+        } while (!queue.isEmpty() && draining.compareAndSet(false, true));
+    }
+}
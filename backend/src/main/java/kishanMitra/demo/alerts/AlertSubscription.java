@@ -0,0 +1,141 @@
+package kishanMitra.demo.alerts;
+
+import java.time.LocalDate;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Predicate;
+
+import kishanMitra.demo.dto.WeatherAlert;
+
+/**
+ * One client's thresholds for one tile, the alerts that are currently active for it and the
+ * last {@link #MAILBOX_SIZE} alerts sent, so a client that reconnects can catch up by sequence.
+ * Kept small, since there can be millions: the mailbox and listeners only exist once used.
+ */
+public final class AlertSubscription {
+
+    static final int MAILBOX_SIZE = 20;
+    private static final int[] NONE = new int[0];
+
+    private final String id;
+    private final int tileKey;
+    private final float[] thresholds = new float[TileForecast.Type.values().length];
+    private int[] active = NONE;
+    private long lastSequence;
+    private ArrayDeque<WeatherAlert> mailbox;
+    private List<Predicate<List<WeatherAlert>>> listeners;
+    private volatile long lastSeen = System.currentTimeMillis();
+
+    AlertSubscription(String id, int tileKey, double heavyRainMm, double heatC, double windKmh) {
+        this.id = id;
+        this.tileKey = tileKey;
+        thresholds[TileForecast.Type.HEAVY_RAIN.ordinal()] = (float) heavyRainMm;
+        thresholds[TileForecast.Type.HEAT.ordinal()] = (float) heatC;
+        thresholds[TileForecast.Type.HIGH_WIND.ordinal()] = (float) windKmh;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public int getTileKey() {
+        return tileKey;
+    }
+
+    long getLastSeen() {
+        return lastSeen;
+    }
+
+    void touch() {
+        lastSeen = System.currentTimeMillis();
+    }
+
+    /**
+     * Compares a new forecast with the alerts that are active now and publishes the difference:
+     * a new alert for each threshold now crossed, a cleared one for each that no longer is.
+     * Alerts for days that have passed are dropped without a message.
+     *
+     * @return the alerts published
+     */
+    synchronized List<WeatherAlert> evaluate(TileForecast forecast) {
+        int[] now = new int[forecast.days() * thresholds.length];
+        int count = 0;
+        for (int day = 0; day < forecast.days(); day++) {
+            for (TileForecast.Type type : TileForecast.Type.values()) {
+                if (forecast.value(type, day) >= thresholds[type.ordinal()]) {
+                    now[count++] = key(type, forecast.epochDays()[day]);
+                }
+            }
+        }
+        now = count == 0 ? NONE : Arrays.copyOf(now, count);
+        Arrays.sort(now);
+        if (Arrays.equals(now, active)) return List.of();
+
+        List<WeatherAlert> changes = new ArrayList<>();
+        for (int key : now) {
+            if (Arrays.binarySearch(active, key) < 0) changes.add(alert(key, forecast, true));
+        }
+        long firstDay = forecast.days() > 0 ? forecast.epochDays()[0] : Long.MAX_VALUE;
+        for (int key : active) {
+            if (Arrays.binarySearch(now, key) < 0 && (key & 0xFFFFFF) >= firstDay) changes.add(alert(key, forecast, false));
+        }
+        active = now;
+        publish(changes);
+        return changes;
+    }
+
+    /** @return the mailbox alerts with a sequence above {@code after}. */
+    synchronized List<WeatherAlert> since(long after) {
+        if (mailbox == null || after >= lastSequence) return List.of();
+        return mailbox.stream().filter(alert -> alert.getSequence() > after).toList();
+    }
+
+    /**
+     * Sends the alerts after {@code after} to the listener now, and future ones as they come.
+     * The listener returns false to stop receiving.
+     */
+    synchronized void listen(long after, Predicate<List<WeatherAlert>> listener) {
+        List<WeatherAlert> pending = since(after);
+        if (!pending.isEmpty() && !listener.test(pending)) return;
+        if (listeners == null) listeners = new ArrayList<>(1);
+        listeners.add(listener);
+    }
+
+    synchronized void unlisten(Predicate<List<WeatherAlert>> listener) {
+        if (listeners != null) listeners.remove(listener);
+    }
+
+    private void publish(List<WeatherAlert> alerts) {
+        if (alerts.isEmpty()) return;
+        if (mailbox == null) mailbox = new ArrayDeque<>(MAILBOX_SIZE);
+        for (WeatherAlert alert : alerts) {
+            alert.setSequence(++lastSequence);
+            if (mailbox.size() == MAILBOX_SIZE) mailbox.removeFirst();
+            mailbox.addLast(alert);
+        }
+        if (listeners != null) listeners.removeIf(listener -> !listener.test(alerts));
+    }
+
+    private WeatherAlert alert(int key, TileForecast forecast, boolean active) {
+        TileForecast.Type type = TileForecast.Type.values()[key >>> 24];
+        long epochDay = key & 0xFFFFFF;
+        int day = Arrays.binarySearch(forecast.epochDays(), epochDay);
+        WeatherAlert alert = new WeatherAlert();
+        alert.setType(type.tag());
+        alert.setDate(LocalDate.ofEpochDay(epochDay).toString());
+        alert.setValue(day >= 0 ? round(forecast.value(type, day)) : 0);
+        alert.setThreshold(round(thresholds[type.ordinal()]));
+        alert.setActive(active);
+        return alert;
+    }
+
+    private static double round(float value) {
+        return Math.round(value * 10) / 10.0;
+    }
+
+    private static int key(TileForecast.Type type, long epochDay) {
+        return type.ordinal() << 24 | (int) (epochDay & 0xFFFFFF);
+    }
+}
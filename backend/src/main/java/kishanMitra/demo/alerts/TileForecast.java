@@ -0,0 +1,43 @@
+package kishanMitra.demo.alerts;
+
+import java.util.Arrays;
+
+/**
+ * The few daily values the alerts look at, for one tile over the next days. Kept per tile
+ * between polls, so a tile whose forecast did not change is not evaluated again.
+ */
+record TileForecast(long[] epochDays, float[] rainMm, float[] maxTempC, float[] windKmh) {
+
+    enum Type {
+        HEAVY_RAIN("heavy-rain"),
+        HEAT("heat"),
+        HIGH_WIND("high-wind");
+
+        private final String tag;
+
+        Type(String tag) {
+            this.tag = tag;
+        }
+
+        String tag() {
+            return tag;
+        }
+    }
+
+    int days() {
+        return epochDays.length;
+    }
+
+    float value(Type type, int day) {
+        return switch (type) {
+            case HEAVY_RAIN -> rainMm[day];
+            case HEAT -> maxTempC[day];
+            case HIGH_WIND -> windKmh[day];
+        };
+    }
+
+    boolean sameAs(TileForecast other) {
+        return other != null && Arrays.equals(epochDays, other.epochDays) && Arrays.equals(rainMm, other.rainMm)
+                && Arrays.equals(maxTempC, other.maxTempC) && Arrays.equals(windKmh, other.windKmh);
+    }
+}
@@ -0,0 +1,266 @@
+package kishanMitra.demo.alerts;
+
+import java.net.URI;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.web.client.RestTemplate;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import kishanMitra.demo.dto.AlertSubscriptionRequest;
+import kishanMitra.demo.dto.WeatherAlert;
+import kishanMitra.demo.geo.GeoTile;
+
+/**
+ * Weather alert subscriptions. Subscriptions are grouped by {@link GeoTile}; every
+ * {@code alerts.poll-interval} the forecasts of all subscribed tiles are fetched from Open-Meteo,
+ * {@code alerts.batch-size} coordinates per request, so the upstream cost grows with the number
+ * of tiles, not of subscribers. A tile whose forecast is the same as on the last poll is skipped;
+ * for the others each subscription compares the new forecast with its active alerts and only
+ * the changes are pushed to its SSE stream or long-poll.
+ */
+@Service
+public class WeatherAlertService {
+
+    private static final Logger log = LoggerFactory.getLogger(WeatherAlertService.class);
+
+    private static final String DAILY = "precipitation_sum,temperature_2m_max,wind_speed_10m_max";
+
+    private final RestTemplate restTemplate;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${open-meteo.forecast.url}")
+    private String forecastUrl;
+
+    @Value("${alerts.enabled:false}")
+    private boolean enabled;
+
+    @Value("${alerts.poll-interval:30m}")
+    private Duration pollInterval = Duration.ofMinutes(30);
+
+    @Value("${alerts.batch-size:200}")
+    private int batchSize = 200;
+
+    @Value("${alerts.forecast-days:3}")
+    private int forecastDays = 3;
+
+    @Value("${alerts.subscription.ttl:30d}")
+    private Duration subscriptionTtl = Duration.ofDays(30);
+
+    @Value("${alerts.subscription.max:2000000}")
+    private int maxSubscriptions = 2_000_000;
+
+    @Value("${alerts.default.heavy-rain-mm:64.5}")
+    private double defaultHeavyRainMm = 64.5;
+
+    @Value("${alerts.default.heat-c:40}")
+    private double defaultHeatC = 40;
+
+    @Value("${alerts.default.wind-kmh:40}")
+    private double defaultWindKmh = 40;
+
+    private final Map<String, AlertSubscription> subscriptions = new ConcurrentHashMap<>();
+    private final Map<Integer, Set<AlertSubscription>> byTile = new ConcurrentHashMap<>();
+    private final Map<Integer, TileForecast> forecasts = new ConcurrentHashMap<>();
+    private final SecureRandom random = new SecureRandom();
+    private final AtomicBoolean running = new AtomicBoolean();
+    private volatile Map<String, Object> lastRun = Map.of();
+
+    public WeatherAlertService(RestTemplate restTemplate, MeterRegistry meterRegistry) {
+        this.restTemplate = restTemplate;
+        this.meterRegistry = meterRegistry;
+    }
+
+    /** Starts polling once the app is ready; not a @Scheduled job, so it stays out of tests when disabled. */
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!enabled) return;
+        ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(
+                Thread.ofPlatform().daemon().name("weather-alerts").factory());
+        scheduler.scheduleWithFixedDelay(this::pollSafely, 0, pollInterval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    public AlertSubscription subscribe(AlertSubscriptionRequest request) {
+        if (subscriptions.size() >= maxSubscriptions) return null;
+        byte[] idBytes = new byte[16];
+        random.nextBytes(idBytes);
+        GeoTile tile = GeoTile.of(request.getLatitude(), request.getLongitude());
+        AlertSubscription subscription = new AlertSubscription(Base64.getUrlEncoder().withoutPadding().encodeToString(idBytes),
+                tile.key(),
+                request.getHeavyRainMm() != null ? request.getHeavyRainMm() : defaultHeavyRainMm,
+                request.getHeatC() != null ? request.getHeatC() : defaultHeatC,
+                request.getWindKmh() != null ? request.getWindKmh() : defaultWindKmh);
+        subscriptions.put(subscription.getId(), subscription);
+        // Added inside compute, so an eviction sweep cannot drop the tile's set in between
+        byTile.compute(tile.key(), (key, tileSubscriptions) -> {
+            Set<AlertSubscription> set = tileSubscriptions != null ? tileSubscriptions : ConcurrentHashMap.newKeySet();
+            set.add(subscription);
+            return set;
+        });
+        // A tile that is already polled has a forecast to check against right away
+        TileForecast forecast = forecasts.get(tile.key());
+        if (forecast != null) subscription.evaluate(forecast);
+        return subscription;
+    }
+
+    public boolean unsubscribe(String id) {
+        AlertSubscription subscription = subscriptions.remove(id);
+        if (subscription == null) return false;
+        Set<AlertSubscription> tile = byTile.get(subscription.getTileKey());
+        if (tile != null) tile.remove(subscription);
+        return true;
+    }
+
+    /** @return the subscription, marked as still in use, or null when there is none. */
+    public AlertSubscription get(String id) {
+        AlertSubscription subscription = id != null ? subscriptions.get(id) : null;
+        if (subscription != null) subscription.touch();
+        return subscription;
+    }
+
+    public void listen(AlertSubscription subscription, long after, Predicate<List<WeatherAlert>> listener) {
+        subscription.listen(after, listener);
+    }
+
+    public void unlisten(AlertSubscription subscription, Predicate<List<WeatherAlert>> listener) {
+        subscription.unlisten(listener);
+    }
+
+    public int getSubscriptionCount() {
+        return subscriptions.size();
+    }
+
+    public int getTileCount() {
+        return byTile.size();
+    }
+
+    public Map<String, Object> startAsync() {
+        if (!running.get()) {
+            Thread.ofVirtual().name("weather-alerts-now").start(this::pollSafely);
+        }
+        return status();
+    }
+
+    public Map<String, Object> status() {
+        Map<String, Object> status = new LinkedHashMap<>();
+        status.put("running", running.get());
+        status.put("subscriptions", subscriptions.size());
+        status.put("tiles", byTile.size());
+        status.put("lastRun", lastRun);
+        return status;
+    }
+
+    private void pollSafely() {
+        try {
+            poll();
+        } catch (Exception e) {
+            log.error("Weather alert poll failed: {}", e.getMessage());
+        }
+    }
+
+    /** One cycle: drop stale subscriptions, fetch every subscribed tile in batches and publish the changes. */
+    public void poll() {
+        if (!running.compareAndSet(false, true)) return;
+        long start = System.currentTimeMillis();
+        try {
+            evictStale(start);
+            List<Integer> tiles = new ArrayList<>(byTile.keySet());
+            forecasts.keySet().retainAll(byTile.keySet());
+            int calls = 0, changedTiles = 0, alerts = 0, failedTiles = 0;
+            for (int from = 0; from < tiles.size(); from += batchSize) {
+                List<Integer> batch = tiles.subList(from, Math.min(from + batchSize, tiles.size()));
+                List<TileForecast> fetched = fetch(batch);
+                calls++;
+                for (int i = 0; i < batch.size(); i++) {
+                    TileForecast forecast = i < fetched.size() ? fetched.get(i) : null;
+                    if (forecast == null) {
+                        failedTiles++;
+                        continue;
+                    }
+                    if (forecast.sameAs(forecasts.put(batch.get(i), forecast))) continue;
+                    changedTiles++;
+                    for (AlertSubscription subscription : byTile.getOrDefault(batch.get(i), Set.of())) {
+                        alerts += subscription.evaluate(forecast).size();
+                    }
+                }
+            }
+            meterRegistry.counter("alerts.sent").increment(alerts);
+            lastRun = Map.of("startedAt", start, "tookMs", System.currentTimeMillis() - start, "tiles", tiles.size(),
+                    "upstreamCalls", calls, "changedTiles", changedTiles, "failedTiles", failedTiles, "alerts", alerts);
+        } finally {
+            running.set(false);
+        }
+    }
+
+    private void evictStale(long now) {
+        long ttl = subscriptionTtl.toMillis();
+        subscriptions.values().removeIf(subscription -> now - subscription.getLastSeen() > ttl);
+        for (Integer tile : byTile.keySet()) {
+            byTile.computeIfPresent(tile, (key, tileSubscriptions) -> {
+                tileSubscriptions.removeIf(subscription -> now - subscription.getLastSeen() > ttl);
+                return tileSubscriptions.isEmpty() ? null : tileSubscriptions;
+            });
+        }
+    }
+
+    /** @return one forecast per tile, in order; empty when the call failed. */
+    private List<TileForecast> fetch(List<Integer> tiles) {
+        List<GeoTile> cells = tiles.stream().map(GeoTile::fromKey).toList();
+        String url = String.format(Locale.ROOT, "%s?latitude=%s&longitude=%s&daily=%s&forecast_days=%d&timezone=Asia%%2FKolkata",
+                forecastUrl,
+                cells.stream().map(tile -> String.format(Locale.ROOT, "%.3f", tile.centerLat())).collect(Collectors.joining(",")),
+                cells.stream().map(tile -> String.format(Locale.ROOT, "%.3f", tile.centerLon())).collect(Collectors.joining(",")),
+                DAILY, forecastDays);
+        try {
+            JsonNode response = restTemplate.getForObject(URI.create(url), JsonNode.class);
+            if (response == null) return List.of();
+            // Open-Meteo answers a single coordinate with an object and several with an array
+            List<TileForecast> result = new ArrayList<>(tiles.size());
+            if (response.isArray()) response.forEach(node -> result.add(parse(node)));
+            else result.add(parse(response));
+            return result;
+        } catch (Exception e) {
+            log.warn("Error fetching alert forecasts for {} tiles: {}", tiles.size(), e.getMessage());
+            return List.of();
+        }
+    }
+
+    static TileForecast parse(JsonNode location) {
+        JsonNode daily = location.path("daily");
+        int days = daily.path("time").size();
+        long[] epochDays = new long[days];
+        float[] rain = new float[days];
+        float[] heat = new float[days];
+        float[] wind = new float[days];
+        for (int i = 0; i < days; i++) {
+            epochDays[i] = LocalDate.parse(daily.path("time").get(i).asText()).toEpochDay();
+            rain[i] = (float) daily.path("precipitation_sum").path(i).asDouble();
+            heat[i] = (float) daily.path("temperature_2m_max").path(i).asDouble();
+            wind[i] = (float) daily.path("wind_speed_10m_max").path(i).asDouble();
+        }
+        return new TileForecast(epochDays, rain, heat, wind);
+    }
+}
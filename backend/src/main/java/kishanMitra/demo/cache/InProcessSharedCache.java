@@ -0,0 +1,57 @@
+package kishanMitra.demo.cache;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A {@link SharedCache} in this JVM, dropping the least recently used entries when full.
+ * Instances are looked up by name, so several application contexts in one JVM (the multi-node
+ * tests) share one store, as separate processes share Redis.
+ */
+public final class InProcessSharedCache implements SharedCache {
+
+    private static final Map<String, InProcessSharedCache> NAMED = new ConcurrentHashMap<>();
+
+    private final LruCache<String, Entry> entries;
+
+    private record Entry(byte[] value, long expiresAt) {}
+
+    public InProcessSharedCache(int maxEntries) {
+        this.entries = new LruCache<>(maxEntries);
+    }
+
+    /** @return the store with this name, created on first use */
+    public static InProcessSharedCache named(String name, int maxEntries) {
+        return NAMED.computeIfAbsent(name, key -> new InProcessSharedCache(maxEntries));
+    }
+
+    @Override
+    public byte[] get(String key) {
+        Entry entry = entries.get(key);
+        if (entry == null) return null;
+        if (System.currentTimeMillis() >= entry.expiresAt()) {
+            entries.remove(key, entry);
+            return null;
+        }
+        return entry.value();
+    }
+
+    @Override
+    public void put(String key, byte[] value, Duration ttl) {
+        entries.put(key, new Entry(value, System.currentTimeMillis() + ttl.toMillis()));
+    }
+
+    @Override
+    public String type() {
+        return "memory";
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    public void clear() {
+        entries.clear();
+    }
+}
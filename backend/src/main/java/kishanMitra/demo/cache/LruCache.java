@@ -0,0 +1,86 @@
+package kishanMitra.demo.cache;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * A bounded in-process map that drops its least recently used entries when full, for the caches
+ * in front of upstream calls. Keys are spread over access-ordered stripes with a lock each, so
+ * request threads looking up different keys rarely wait for each other; recency is kept per
+ * stripe, which is close enough to a global LRU order for caches of thousands of entries.
+ */
+public final class LruCache<K, V> {
+
+    private static final int STRIPES = 16;
+
+    private final Stripe<K, V>[] stripes;
+
+    @SuppressWarnings("unchecked")
+    public LruCache(int maxEntries) {
+        int perStripe = Math.max(1, (maxEntries + STRIPES - 1) / STRIPES);
+        stripes = new Stripe[STRIPES];
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new Stripe<>(perStripe);
+        }
+    }
+
+    /** @return the value, which becomes the most recently used, or null */
+    public V get(K key) {
+        Stripe<K, V> stripe = stripe(key);
+        synchronized (stripe) {
+            return stripe.get(key);
+        }
+    }
+
+    public void put(K key, V value) {
+        Stripe<K, V> stripe = stripe(key);
+        synchronized (stripe) {
+            stripe.put(key, value);
+        }
+    }
+
+    /** Removes the entry only while it still maps to {@code value}. */
+    public void remove(K key, V value) {
+        Stripe<K, V> stripe = stripe(key);
+        synchronized (stripe) {
+            stripe.remove(key, value);
+        }
+    }
+
+    public int size() {
+        int size = 0;
+        for (Stripe<K, V> stripe : stripes) {
+            synchronized (stripe) {
+                size += stripe.size();
+            }
+        }
+        return size;
+    }
+
+    public void clear() {
+        for (Stripe<K, V> stripe : stripes) {
+            synchronized (stripe) {
+                stripe.clear();
+            }
+        }
+    }
+
+    private Stripe<K, V> stripe(K key) {
+        int hash = key.hashCode();
+        return stripes[(hash ^ (hash >>> 16)) & (STRIPES - 1)];
+    }
+
+    private static final class Stripe<K, V> extends LinkedHashMap<K, V> {
+        private final int maxEntries;
+
+        Stripe(int maxEntries) {
+            super(16, 0.75f, true);
+            this.maxEntries = maxEntries;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<K, V> eldest) {
+            return size() > maxEntries;
+        }
+    }
+}
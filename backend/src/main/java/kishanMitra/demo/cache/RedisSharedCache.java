@@ -0,0 +1,206 @@
+package kishanMitra.demo.cache;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * A {@link SharedCache} on a Redis server (or anything speaking its protocol), configured with a
+ * {@code redis://[:password@]host:port[/db]} URL. Only GET and SET with PX are needed, so this is
+ * a small RESP client over a pool of plain sockets rather than a driver. After a connection error
+ * the server is skipped for a second, so requests do not queue on its timeouts.
+ */
+public final class RedisSharedCache implements SharedCache, AutoCloseable {
+
+    private static final byte[] GET = ascii("GET");
+    private static final byte[] SET = ascii("SET");
+    private static final byte[] PX = ascii("PX");
+    private static final long DOWN_MILLIS = 1_000;
+
+    private final String host;
+    private final int port;
+    private final String password;
+    private final int database;
+    private final int timeoutMillis;
+    private final BlockingQueue<Connection> idle;
+    private volatile long downUntil;
+
+    public RedisSharedCache(String url, int poolSize, Duration timeout) {
+        URI uri = URI.create(url);
+        this.host = uri.getHost() != null ? uri.getHost() : "localhost";
+        this.port = uri.getPort() > 0 ? uri.getPort() : 6379;
+        String userInfo = uri.getUserInfo();
+        this.password = userInfo == null || userInfo.isEmpty() ? null : userInfo.substring(userInfo.indexOf(':') + 1);
+        String path = uri.getPath();
+        this.database = path == null || path.length() <= 1 ? 0 : Integer.parseInt(path.substring(1));
+        this.timeoutMillis = (int) timeout.toMillis();
+        this.idle = new ArrayBlockingQueue<>(Math.max(poolSize, 1));
+    }
+
+    @Override
+    public byte[] get(String key) throws IOException {
+        return (byte[]) execute(GET, key.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Override
+    public void put(String key, byte[] value, Duration ttl) throws IOException {
+        execute(SET, key.getBytes(StandardCharsets.UTF_8), value, PX, ascii(Long.toString(Math.max(ttl.toMillis(), 1))));
+    }
+
+    @Override
+    public String type() {
+        return "redis";
+    }
+
+    @Override
+    public void close() {
+        Connection connection;
+        while ((connection = idle.poll()) != null) {
+            connection.close();
+        }
+    }
+
+    private Object execute(byte[]... command) throws IOException {
+        if (System.currentTimeMillis() < downUntil) {
+            throw new IOException("Redis at " + host + ":" + port + " is marked down");
+        }
+        Connection connection = idle.poll();
+        boolean inStep = false;
+        try {
+            if (connection == null) connection = open();
+            Object reply = connection.call(command);
+            inStep = true;
+            return reply;
+        } catch (RedisErrorException e) {
+            // The server answered, so the connection is still in step
+            inStep = true;
+            throw e;
+        } catch (IOException e) {
+            downUntil = System.currentTimeMillis() + DOWN_MILLIS;
+            throw e;
+        } finally {
+            // Anything else, such as a reply that does not parse, leaves unread bytes behind
+            if (connection != null && !(inStep && idle.offer(connection))) connection.close();
+        }
+    }
+
+    private Connection open() throws IOException {
+        Socket socket = new Socket();
+        try {
+            socket.connect(new InetSocketAddress(host, port), timeoutMillis);
+            socket.setSoTimeout(timeoutMillis);
+            socket.setTcpNoDelay(true);
+            Connection connection = new Connection(socket);
+            if (password != null) connection.call(ascii("AUTH"), password.getBytes(StandardCharsets.UTF_8));
+            if (database != 0) connection.call(ascii("SELECT"), ascii(Integer.toString(database)));
+            return connection;
+        } catch (IOException e) {
+            socket.close();
+            // A refused AUTH or SELECT will not get better on the next request either
+            throw e instanceof RedisErrorException ? new IOException("Redis handshake failed: " + e.getMessage()) : e;
+        } catch (RuntimeException e) {
+            socket.close();
+            throw e;
+        }
+    }
+
+    private static byte[] ascii(String value) {
+        return value.getBytes(StandardCharsets.US_ASCII);
+    }
+
+    /** An error reply ({@code -ERR ...}) from the server. */
+    static final class RedisErrorException extends IOException {
+        RedisErrorException(String message) {
+            super(message);
+        }
+    }
+
+    private static final class Connection {
+        private final Socket socket;
+        private final InputStream in;
+        private final OutputStream out;
+
+        Connection(Socket socket) throws IOException {
+            this.socket = socket;
+            this.in = new BufferedInputStream(socket.getInputStream());
+            this.out = new BufferedOutputStream(socket.getOutputStream());
+        }
+
+        Object call(byte[]... command) throws IOException {
+            out.write('*');
+            out.write(ascii(Integer.toString(command.length)));
+            crlf();
+            for (byte[] argument : command) {
+                out.write('$');
+                out.write(ascii(Integer.toString(argument.length)));
+                crlf();
+                out.write(argument);
+                crlf();
+            }
+            out.flush();
+            return read();
+        }
+
+        private void crlf() throws IOException {
+            out.write('\r');
+            out.write('\n');
+        }
+
+        private Object read() throws IOException {
+            int type = in.read();
+            String line = readLine();
+            return switch (type) {
+                case '+' -> line;
+                case '-' -> throw new RedisErrorException(line);
+                case ':' -> Long.parseLong(line);
+                case '$' -> readBulk(Integer.parseInt(line));
+                case '*' -> {
+                    int count = Integer.parseInt(line);
+                    Object[] items = new Object[Math.max(count, 0)];
+                    for (int i = 0; i < items.length; i++) items[i] = read();
+                    yield count < 0 ? null : items;
+                }
+                case -1 -> throw new EOFException("Redis closed the connection");
+                default -> throw new IOException("Unexpected Redis reply type '" + (char) type + "'");
+            };
+        }
+
+        private byte[] readBulk(int length) throws IOException {
+            if (length < 0) return null;
+            byte[] value = in.readNBytes(length);
+            if (value.length < length) throw new EOFException("Redis closed the connection");
+            readLine();
+            return value;
+        }
+
+        private String readLine() throws IOException {
+            ByteArrayOutputStream line = new ByteArrayOutputStream(16);
+            int b;
+            while ((b = in.read()) != '\r') {
+                if (b == -1) throw new EOFException("Redis closed the connection");
+                line.write(b);
+            }
+            in.read(); // '\n'
+            return line.toString(StandardCharsets.UTF_8);
+        }
+
+        void close() {
+            try {
+                socket.close();
+            } catch (IOException ignored) {
+                // Closing anyway
+            }
+        }
+    }
+}
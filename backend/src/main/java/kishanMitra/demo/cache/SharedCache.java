@@ -0,0 +1,35 @@
+package kishanMitra.demo.cache;
+
+import java.io.IOException;
+import java.time.Duration;
+
+/**
+ * A byte cache shared by all instances of the backend, behind their own in-memory caches.
+ * Selected with {@code cache.shared.type}: {@code memory} ({@link InProcessSharedCache}) or
+ * {@code redis} ({@link RedisSharedCache}); {@link #NONE} when there is no shared tier.
+ */
+public interface SharedCache {
+
+    SharedCache NONE = new SharedCache() {
+        @Override
+        public byte[] get(String key) {
+            return null;
+        }
+
+        @Override
+        public void put(String key, byte[] value, Duration ttl) {
+        }
+
+        @Override
+        public String type() {
+            return "none";
+        }
+    };
+
+    /** @return the value, or null when there is none or it has expired */
+    byte[] get(String key) throws IOException;
+
+    void put(String key, byte[] value, Duration ttl) throws IOException;
+
+    String type();
+}
@@ -0,0 +1,75 @@
+package kishanMitra.demo.cache;
+
+import java.io.IOException;
+import java.time.Duration;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Typed access to the {@link SharedCache}, used by services on a miss in their own cache, so a
+ * value one instance fetched (a tile's forecast, a generated recommendation) is not fetched again
+ * by the others. Values are stored as Smile. The shared tier is best-effort: when it fails, the
+ * lookup is a miss and the write is dropped, counted in {@code cache.shared.lookups}.
+ */
+@Component
+public class SharedCacheTier {
+
+    private final SharedCache cache;
+    private final MeterRegistry meterRegistry;
+    private final ObjectMapper mapper = new ObjectMapper(new SmileFactory());
+
+    @Value("${cache.shared.prefix:km:}")
+    private String prefix = "km:";
+
+    public SharedCacheTier(SharedCache cache, MeterRegistry meterRegistry) {
+        this.cache = cache;
+        this.meterRegistry = meterRegistry;
+    }
+
+    /** A tier without a shared cache behind it, for code that builds services by hand. */
+    public static SharedCacheTier none() {
+        return new SharedCacheTier(SharedCache.NONE, new SimpleMeterRegistry());
+    }
+
+    public boolean isEnabled() {
+        return cache != SharedCache.NONE;
+    }
+
+    public String getType() {
+        return cache.type();
+    }
+
+    /** @return the shared value, or null on a miss, an error or when there is no shared tier */
+    public <T> T get(String namespace, Object key, Class<T> type) {
+        if (!isEnabled()) return null;
+        String result = "miss";
+        try {
+            byte[] bytes = cache.get(prefix + namespace + ":" + key);
+            if (bytes == null) return null;
+            T value = mapper.readValue(bytes, type);
+            result = "hit";
+            return value;
+        } catch (IOException | RuntimeException e) {
+            result = "error";
+            return null;
+        } finally {
+            meterRegistry.counter("cache.shared.lookups", "namespace", namespace, "result", result).increment();
+        }
+    }
+
+    public void put(String namespace, Object key, Object value, Duration ttl) {
+        if (!isEnabled() || ttl.isNegative() || ttl.isZero()) return;
+        try {
+            cache.put(prefix + namespace + ":" + key, mapper.writeValueAsBytes(value), ttl);
+        } catch (IOException | RuntimeException e) {
+            meterRegistry.counter("cache.shared.lookups", "namespace", namespace, "result", "write-error").increment();
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package kishanMitra.demo.chat;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import kishanMitra.demo.dto.AgronomicFeatures;
+import kishanMitra.demo.geo.GeoTile;
+
+/**
+ * One farmer's conversation with the chatbot: the agronomic digest of their farm, assembled on
+ * the first message, and the latest turns. Turns are kept encoded in one byte array
+ * (length-prefixed UTF-8); the oldest are dropped when the history goes over its token budget.
+ */
+public final class ChatSession {
+
+    /** Longest question or answer kept in the history; longer ones are cut. */
+    static final int MAX_STORED_CHARS = 1000;
+
+    private final String id;
+    private volatile GeoTile tile;
+    private volatile AgronomicFeatures features;
+    private volatile long lastUsed = System.currentTimeMillis();
+    private byte[] history = new byte[0];
+
+    public record Turn(String question, String answer) {}
+
+    ChatSession(String id, GeoTile tile, AgronomicFeatures features) {
+        this.id = id;
+        this.tile = tile;
+        this.features = features;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public GeoTile getTile() {
+        return tile;
+    }
+
+    public AgronomicFeatures getFeatures() {
+        return features;
+    }
+
+    /** Replaces the farm context when the farmer asks from another tile; the history is kept. */
+    public void updateContext(GeoTile tile, AgronomicFeatures features) {
+        this.tile = tile;
+        this.features = features;
+    }
+
+    long getLastUsed() {
+        return lastUsed;
+    }
+
+    void touch() {
+        lastUsed = System.currentTimeMillis();
+    }
+
+    /** Appends a turn, then drops the oldest ones until at most {@code maxTurns} fit in {@code maxTokens}. */
+    synchronized void addTurn(String question, String answer, int maxTokens, int maxTurns) {
+        List<Turn> turns = decode(history);
+        turns.add(new Turn(cut(question), cut(answer)));
+        int tokens = 0;
+        for (Turn turn : turns) tokens += estimateTokens(turn);
+        while (turns.size() > 1 && (turns.size() > maxTurns || tokens > maxTokens)) {
+            tokens -= estimateTokens(turns.remove(0));
+        }
+        history = encode(turns);
+    }
+
+    public synchronized List<Turn> getTurns() {
+        return decode(history);
+    }
+
+    /** The history as prompt lines, oldest first; empty when there is none. */
+    public String renderHistory() {
+        StringBuilder out = new StringBuilder();
+        for (Turn turn : getTurns()) {
+            if (!out.isEmpty()) out.append('\n');
+            out.append("Farmer: ").append(turn.question()).append('\n').append("Assistant: ").append(turn.answer());
+        }
+        return out.toString();
+    }
+
+    /** Roughly four UTF-8 bytes per token; Indic scripts take three bytes per character. */
+    static int estimateTokens(Turn turn) {
+        int bytes = turn.question().getBytes(StandardCharsets.UTF_8).length + turn.answer().getBytes(StandardCharsets.UTF_8).length;
+        return (bytes + 3) / 4;
+    }
+
+    private static String cut(String text) {
+        if (text == null) return "";
+        return text.length() > MAX_STORED_CHARS ? text.substring(0, MAX_STORED_CHARS) : text;
+    }
+
+    private static byte[] encode(List<Turn> turns) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(256);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            for (Turn turn : turns) {
+                out.writeUTF(turn.question());
+                out.writeUTF(turn.answer());
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    private static List<Turn> decode(byte[] history) {
+        List<Turn> turns = new ArrayList<>();
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(history))) {
+            while (in.available() > 0) {
+                turns.add(new Turn(in.readUTF(), in.readUTF()));
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return turns;
+    }
+}
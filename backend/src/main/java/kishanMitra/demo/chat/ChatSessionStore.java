@@ -0,0 +1,87 @@
+package kishanMitra.demo.chat;
+
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import kishanMitra.demo.dto.AgronomicFeatures;
+import kishanMitra.demo.geo.GeoTile;
+import kishanMitra.demo.monitoring.CacheLookupEvent;
+
+/**
+ * Chatbot sessions by id. A session expires {@code chat.session.ttl} after its last message.
+ * Expired sessions are swept when a session is created, at most once a minute or whenever
+ * {@code chat.session.max} are live; if the store is still full, the least recently used is dropped.
+ */
+@Component
+public class ChatSessionStore {
+
+    @Value("${chat.session.ttl:30m}")
+    private Duration ttl = Duration.ofMinutes(30);
+
+    @Value("${chat.session.max:20000}")
+    private int maxSessions = 20_000;
+
+    @Value("${chat.history.max-tokens:600}")
+    private int historyMaxTokens = 600;
+
+    @Value("${chat.history.max-turns:6}")
+    private int historyMaxTurns = 6;
+
+    private final Map<String, ChatSession> sessions = new ConcurrentHashMap<>();
+    private final SecureRandom random = new SecureRandom();
+    private volatile long lastSweep = System.currentTimeMillis();
+
+    private static final long SWEEP_INTERVAL_MS = 60_000;
+
+    /** @return the live session with this id, or null when there is none or it expired. */
+    public ChatSession get(String id) {
+        ChatSession session = id != null ? sessions.get(id) : null;
+        if (session != null && expired(session, System.currentTimeMillis())) {
+            sessions.remove(id, session);
+            session = null;
+        }
+        CacheLookupEvent.record("chat-session", session != null);
+        if (session != null) session.touch();
+        return session;
+    }
+
+    public ChatSession create(GeoTile tile, AgronomicFeatures features) {
+        long now = System.currentTimeMillis();
+        if (now - lastSweep >= SWEEP_INTERVAL_MS || sessions.size() >= maxSessions) {
+            lastSweep = now;
+            evictExpired(now);
+            if (sessions.size() >= maxSessions) {
+                sessions.values().stream().min(Comparator.comparingLong(ChatSession::getLastUsed))
+                        .ifPresent(oldest -> sessions.remove(oldest.getId(), oldest));
+            }
+        }
+        byte[] idBytes = new byte[16];
+        random.nextBytes(idBytes);
+        ChatSession session = new ChatSession(Base64.getUrlEncoder().withoutPadding().encodeToString(idBytes), tile, features);
+        sessions.put(session.getId(), session);
+        return session;
+    }
+
+    public void addTurn(ChatSession session, String question, String answer) {
+        session.addTurn(question, answer, historyMaxTokens, historyMaxTurns);
+    }
+
+    private void evictExpired(long now) {
+        sessions.values().removeIf(session -> expired(session, now));
+    }
+
+    public int getSessionCount() {
+        return sessions.size();
+    }
+
+    private boolean expired(ChatSession session, long now) {
+        return now - session.getLastUsed() >= ttl.toMillis();
+    }
+}
@@ -0,0 +1,90 @@
+package kishanMitra.demo.cluster;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import kishanMitra.demo.geo.GeoTile;
+
+/**
+ * The nodes of the cluster and which of them owns each geo tile. Every node is given the same
+ * {@code cluster.nodes} list (base URLs) and its own entry in it as {@code cluster.self}, so all
+ * of them agree on the owners without talking to each other. A node whose forward failed is
+ * left out for {@code cluster.down-cooldown}; its tiles go to the next node on the ring meanwhile.
+ */
+@Component
+public class ClusterMembership {
+
+    private final boolean enabled;
+    private final String self;
+    private final HashRing ring;
+    private final long downCooldownMillis;
+    private final Map<String, Long> downUntil = new ConcurrentHashMap<>();
+
+    public ClusterMembership(@Value("${cluster.enabled:false}") boolean enabled,
+                             @Value("${cluster.nodes:}") String nodes,
+                             @Value("${cluster.self:}") String self,
+                             @Value("${cluster.virtual-nodes:160}") int virtualNodes,
+                             @Value("${cluster.down-cooldown:10s}") Duration downCooldown) {
+        List<String> members = Arrays.stream(nodes.split(",")).map(ClusterMembership::normalize)
+                .filter(node -> !node.isEmpty()).distinct().toList();
+        this.self = normalize(self);
+        this.enabled = enabled && members.size() > 1;
+        if (this.enabled && !members.contains(this.self)) {
+            throw new IllegalStateException("cluster.self '" + self + "' is not one of cluster.nodes " + members);
+        }
+        this.ring = this.enabled ? new HashRing(members, virtualNodes) : null;
+        this.downCooldownMillis = downCooldown.toMillis();
+    }
+
+    /** A single node: every tile is its own. */
+    public static ClusterMembership standalone() {
+        return new ClusterMembership(false, "", "", 0, Duration.ZERO);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public String getSelf() {
+        return self;
+    }
+
+    /** @return the base URL of the node that owns the tile, or null when it is this one */
+    public String ownerOf(GeoTile tile) {
+        if (!enabled) return null;
+        long now = System.currentTimeMillis();
+        String owner = ring.owner(tile.key(), node -> node.equals(self) || downUntil.getOrDefault(node, 0L) <= now);
+        return owner == null || owner.equals(self) ? null : owner;
+    }
+
+    public void markDown(String node) {
+        downUntil.put(node, System.currentTimeMillis() + downCooldownMillis);
+    }
+
+    public Map<String, Object> status() {
+        Map<String, Object> status = new LinkedHashMap<>();
+        status.put("enabled", enabled);
+        status.put("self", self);
+        if (enabled) {
+            long now = System.currentTimeMillis();
+            Map<String, String> nodes = new LinkedHashMap<>();
+            for (String node : ring.nodes()) {
+                nodes.put(node, node.equals(self) ? "self" : downUntil.getOrDefault(node, 0L) > now ? "down" : "up");
+            }
+            status.put("nodes", nodes);
+        }
+        return status;
+    }
+
+    private static String normalize(String node) {
+        String trimmed = node.trim();
+        return trimmed.endsWith("/") ? trimmed.substring(0, trimmed.length() - 1) : trimmed;
+    }
+}
@@ -0,0 +1,63 @@
+package kishanMitra.demo.cluster;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Predicate;
+
+/**
+ * Consistent hashing of geo tiles onto nodes. Each node is placed on a 64-bit ring at
+ * {@code virtualNodes} points; a tile belongs to the first node clockwise from its own hash
+ * that is usable. When a node goes away only its tiles move, spread over the others.
+ */
+final class HashRing {
+
+    private final List<String> nodes;
+    private final long[] points;
+    private final String[] owners;
+
+    HashRing(List<String> nodes, int virtualNodes) {
+        this.nodes = List.copyOf(nodes);
+        int replicas = Math.max(virtualNodes, 1);
+        long[][] placed = new long[this.nodes.size() * replicas][];
+        int n = 0;
+        for (int node = 0; node < this.nodes.size(); node++) {
+            long seed = (long) this.nodes.get(node).hashCode() << 32;
+            for (int i = 0; i < replicas; i++) {
+                placed[n++] = new long[] {mix(seed | i), node};
+            }
+        }
+        Arrays.sort(placed, (a, b) -> Long.compare(a[0], b[0]));
+        this.points = new long[placed.length];
+        this.owners = new String[placed.length];
+        for (int i = 0; i < placed.length; i++) {
+            points[i] = placed[i][0];
+            owners[i] = this.nodes.get((int) placed[i][1]);
+        }
+    }
+
+    List<String> nodes() {
+        return nodes;
+    }
+
+    /** @return the owner of the tile among the usable nodes, or null when none is */
+    String owner(int tileKey, Predicate<String> usable) {
+        if (points.length == 0) return null;
+        int start = Arrays.binarySearch(points, mix(tileKey));
+        if (start < 0) start = -start - 1;
+        for (int i = 0; i < points.length; i++) {
+            String owner = owners[(start + i) % points.length];
+            if (usable.test(owner)) return owner;
+        }
+        return null;
+    }
+
+    /** The MurmurHash3 finalizer: spreads neighbouring tile keys all over the ring. */
+    static long mix(long x) {
+        x ^= x >>> 33;
+        x *= 0xff51afd7ed558ccdL;
+        x ^= x >>> 33;
+        x *= 0xc4ceb9fe1a85ec53L;
+        x ^= x >>> 33;
+        return x;
+    }
+}
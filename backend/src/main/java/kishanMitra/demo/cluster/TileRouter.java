@@ -0,0 +1,129 @@
+package kishanMitra.demo.cluster;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.slf4j.MDC;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.client.SimpleClientHttpRequestFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestClientException;
+import org.springframework.web.client.RestTemplate;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import kishanMitra.demo.admission.AdmissionInterceptor;
+import kishanMitra.demo.dto.DashboardSection;
+import kishanMitra.demo.dto.KishanMitraResponse;
+import kishanMitra.demo.geo.GeoTile;
+import kishanMitra.demo.monitoring.RequestIdFilter;
+
+/**
+ * Sends tile-keyed work to the node that owns the tile, so each tile's forecasts, soil and
+ * recommendation are computed and cached on one node instead of on all of them. Returns null
+ * whenever the work should be done here: this node owns the tile, the owner is unreachable
+ * (it is then marked down) or the owner is shedding load itself. Forwards are counted in
+ * {@code cluster.forwards}.
+ */
+@Component
+public class TileRouter {
+
+    private static final Logger log = LoggerFactory.getLogger(TileRouter.class);
+
+    public static final String SECRET_HEADER = "X-Cluster-Secret";
+    /** When the owner fetched the tile's forecast, in epoch millis; the forwarding node's ETags are built from it. */
+    public static final String WEATHER_FETCHED_AT_HEADER = "X-Weather-Fetched-At";
+    static final String ALL_DATA_PATH = "/internal/cluster/all-data";
+
+    private static final MediaType SMILE = MediaType.valueOf("application/x-jackson-smile");
+    private static final Set<DashboardSection> TILE_SECTIONS;
+
+    static {
+        Set<DashboardSection> sections = EnumSet.copyOf(DashboardSection.DASHBOARD);
+        sections.add(DashboardSection.RECOMMENDATION);
+        TILE_SECTIONS = Collections.unmodifiableSet(sections);
+    }
+
+    private final ClusterMembership membership;
+    private final MeterRegistry meterRegistry;
+    private final RestTemplate restTemplate;
+    private final String secret;
+
+    public TileRouter(ClusterMembership membership, MeterRegistry meterRegistry,
+                      @Value("${cluster.forward.timeout:20s}") Duration timeout,
+                      @Value("${cluster.secret:}") String secret) {
+        if (membership.isEnabled() && secret.isBlank()) {
+            // Owners answer forwarded requests with no admission control of the caller's; keep them internal
+            throw new IllegalStateException("cluster.secret must be set when cluster.enabled=true");
+        }
+        this.membership = membership;
+        this.meterRegistry = meterRegistry;
+        this.secret = secret;
+        SimpleClientHttpRequestFactory requestFactory = new SimpleClientHttpRequestFactory();
+        requestFactory.setConnectTimeout(Duration.ofMillis(500));
+        requestFactory.setReadTimeout(timeout);
+        this.restTemplate = new RestTemplate(requestFactory);
+    }
+
+    /** A router for a single node, for code that builds services by hand. */
+    public static TileRouter standalone() {
+        return new TileRouter(ClusterMembership.standalone(), new SimpleMeterRegistry(), Duration.ofSeconds(1), "");
+    }
+
+    /**
+     * The owner's response, and when the owner fetched the tile's forecast (0 when it has no fresh
+     * one), since this node has no forecast of its own to version the response with.
+     */
+    public record Forwarded(KishanMitraResponse response, long weatherFetchedAt) {}
+
+    /** @return the owner's response for these sections, or null to compute them here */
+    public Forwarded allData(double lat, double lon, Set<DashboardSection> sections) {
+        if (!membership.isEnabled() || Collections.disjoint(sections, TILE_SECTIONS)) return null;
+        String owner = membership.ownerOf(GeoTile.of(lat, lon));
+        if (owner == null) return null;
+
+        URI uri = URI.create(owner + ALL_DATA_PATH + "?lat=" + lat + "&lon=" + lon + "&fields="
+                + sections.stream().map(DashboardSection::param).collect(Collectors.joining(",")));
+        HttpHeaders headers = new HttpHeaders();
+        headers.setAccept(List.of(SMILE, MediaType.APPLICATION_JSON));
+        if (!secret.isEmpty()) headers.set(SECRET_HEADER, secret);
+        String requestId = MDC.get(RequestIdFilter.MDC_KEY);
+        if (requestId != null) headers.set(RequestIdFilter.HEADER, requestId);
+        String outcome = "failed";
+        try {
+            ResponseEntity<KishanMitraResponse> response = restTemplate.exchange(uri, HttpMethod.GET,
+                    new HttpEntity<>(headers), KishanMitraResponse.class);
+            // A degraded answer is worse than what this node, which admitted the request, can do
+            if (response.getHeaders().containsKey(AdmissionInterceptor.SERVICE_LEVEL_HEADER)) {
+                outcome = "degraded";
+                return null;
+            }
+            outcome = "ok";
+            String fetchedAt = response.getHeaders().getFirst(WEATHER_FETCHED_AT_HEADER);
+            return new Forwarded(response.getBody(), fetchedAt != null ? Long.parseLong(fetchedAt) : 0);
+        } catch (ResourceAccessException e) {
+            membership.markDown(owner);
+            log.atWarn().addKeyValue("node", owner).log("Cluster node {} unreachable, marked down: {}", owner, e.getMessage());
+            return null;
+        } catch (RestClientException | NumberFormatException e) {
+            // Rejected by the owner's admission control, or failed there: do it here
+            outcome = "rejected";
+            return null;
+        } finally {
+            meterRegistry.counter("cluster.forwards", "outcome", outcome).increment();
+        }
+    }
+}
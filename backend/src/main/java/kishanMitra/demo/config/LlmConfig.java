@@ -0,0 +1,93 @@
+package kishanMitra.demo.config;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.web.client.RestTemplate;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+import kishanMitra.demo.llm.GeminiLlmProvider;
+import kishanMitra.demo.llm.LlmProvider;
+import kishanMitra.demo.llm.LlmProviderSettings;
+import kishanMitra.demo.llm.LlmRequest;
+import kishanMitra.demo.llm.LlmRouter;
+import kishanMitra.demo.llm.OpenAiCompatibleLlmProvider;
+import kishanMitra.demo.llm.StubLlmProvider;
+
+/**
+ * The LLM providers named in {@code llm.providers}, each configured under
+ * {@code llm.provider.<name>.*} with a {@code type} of {@code gemini}, {@code openai} (any
+ * OpenAI-compatible API) or {@code stub}. A remote provider whose API key is blank or still a
+ * {@code YOUR_...} placeholder is left out rather than failed over to on every call.
+ */
+@Configuration
+public class LlmConfig {
+
+    private static final Logger log = LoggerFactory.getLogger(LlmConfig.class);
+
+    @Bean
+    public LlmRouter llmRouter(Environment env, RestTemplate restTemplate, MeterRegistry meterRegistry,
+                               @Value("${llm.providers:gemini-primary,gemini-secondary}") List<String> names,
+                               @Value("${gemini.thinking-budget:0}") int thinkingBudget,
+                               @Value("${llm.router.max-attempts:2}") int maxAttempts,
+                               @Value("${llm.router.error-penalty:5s}") Duration errorPenalty,
+                               @Value("${llm.router.cost-weight-ms:100}") double costWeightMillis,
+                               @Value("${llm.router.error-half-life:2m}") Duration errorHalfLife,
+                               @Value("${llm.router.explore-every:20}") int exploreEvery) {
+        List<LlmProvider> providers = new ArrayList<>();
+        for (String name : names) {
+            name = name.trim();
+            if (name.isEmpty()) continue;
+            String prefix = "llm.provider." + name + ".";
+            String type = env.getProperty(prefix + "type", "gemini").trim().toLowerCase(Locale.ROOT);
+            LlmProviderSettings settings = new LlmProviderSettings(name,
+                    env.getProperty(prefix + "url", ""),
+                    env.getProperty(prefix + "api-key", ""),
+                    env.getProperty(prefix + "model", ""),
+                    env.getProperty(prefix + "cost", Double.class, 1.0),
+                    capabilities(env.getProperty(prefix + "capabilities", "json-schema,json-object")),
+                    workloads(env.getProperty(prefix + "workloads", "data,chat")));
+            if (!type.equals("stub") && (settings.apiKey().isBlank() || settings.apiKey().startsWith("YOUR_"))) {
+                log.info("LLM provider {} has no API key, leaving it out", name);
+                continue;
+            }
+            providers.add(switch (type) {
+                case "gemini" -> new GeminiLlmProvider(settings, restTemplate, thinkingBudget);
+                case "openai" -> new OpenAiCompatibleLlmProvider(settings, restTemplate);
+                case "stub" -> new StubLlmProvider(settings, env.getProperty(prefix + "response", ""),
+                        env.getProperty(prefix + "latency", Duration.class, Duration.ZERO));
+                default -> throw new IllegalArgumentException("Unknown " + prefix + "type '" + type + "', expected gemini, openai or stub");
+            });
+        }
+        return new LlmRouter(providers, meterRegistry, maxAttempts, errorPenalty, costWeightMillis, errorHalfLife, exploreEvery);
+    }
+
+    private static Set<LlmProvider.Capability> capabilities(String list) {
+        Set<LlmProvider.Capability> capabilities = EnumSet.noneOf(LlmProvider.Capability.class);
+        for (String capability : list.split(",")) {
+            if (!capability.isBlank()) {
+                capabilities.add(LlmProvider.Capability.valueOf(capability.trim().replace('-', '_').toUpperCase(Locale.ROOT)));
+            }
+        }
+        return capabilities;
+    }
+
+    private static Set<LlmRequest.Workload> workloads(String list) {
+        Set<LlmRequest.Workload> workloads = EnumSet.noneOf(LlmRequest.Workload.class);
+        for (String workload : list.split(",")) {
+            if (!workload.isBlank()) workloads.add(LlmRequest.Workload.valueOf(workload.trim().toUpperCase(Locale.ROOT)));
+        }
+        return workloads;
+    }
+}
@@ -0,0 +1,160 @@
+package kishanMitra.demo.config;
+
+import org.slf4j.LoggerFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import ch.qos.logback.classic.AsyncAppender;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import kishanMitra.demo.admission.AdmissionInterceptor;
+import kishanMitra.demo.alerts.WeatherAlertService;
+import kishanMitra.demo.chat.ChatSessionStore;
+import kishanMitra.demo.llm.LlmRouter;
+import kishanMitra.demo.monitoring.SampledLogFilter;
+import kishanMitra.demo.precompute.RecommendationSnapshotStore;
+import kishanMitra.demo.service.AIService;
+import kishanMitra.demo.service.MarketPriceService;
+import kishanMitra.demo.service.TranslationService;
+import kishanMitra.demo.service.WeatherDataService;
+import kishanMitra.demo.upstream.Bulkhead;
+import kishanMitra.demo.upstream.UpstreamBulkheads;
+
+/**
+ * Gauges for our in-process caches. HTTP server timers, JVM, Tomcat thread pool and
+ * upstream timers are registered by Actuator and {@code UpstreamMetricsInterceptor}.
+ */
+@Configuration
+public class MetricsConfig {
+
+    @Bean
+    public MeterBinder marketPriceCacheMetrics(MarketPriceService marketPriceService) {
+        return registry -> {
+            Gauge.builder("cache.size", marketPriceService, MarketPriceService::getCachedMarketCount)
+                    .description("Entries in the live agmarknet price cache")
+                    .tag("cache", "market-prices")
+                    .register(registry);
+            Gauge.builder("cache.size", marketPriceService, MarketPriceService::getBulkMarketCount)
+                    .description("Commodity/mandi keys loaded by the last bulk ingest")
+                    .tag("cache", "market-prices-bulk")
+                    .register(registry);
+        };
+    }
+
+    @Bean
+    public MeterBinder recommendationCacheMetrics(AIService aiService) {
+        return registry -> Gauge.builder("cache.size", aiService, AIService::getCachedRecommendationCount)
+                .description("Crop recommendations cached by agronomic features")
+                .tag("cache", "crop-recommendation")
+                .register(registry);
+    }
+
+    @Bean
+    public MeterBinder recommendationSnapshotMetrics(RecommendationSnapshotStore snapshotStore) {
+        return registry -> Gauge.builder("cache.size", snapshotStore, RecommendationSnapshotStore::getTileCount)
+                .description("Tiles in the live precomputed recommendation snapshot")
+                .tag("cache", "recommendation-snapshot")
+                .register(registry);
+    }
+
+    @Bean
+    public MeterBinder prewarmedCacheMetrics(WeatherDataService weatherDataService, TranslationService translationService) {
+        return registry -> {
+            Gauge.builder("cache.size", weatherDataService, WeatherDataService::getCachedTileCount)
+                    .description("Forecasts cached per geo tile")
+                    .tag("cache", "weather")
+                    .register(registry);
+            Gauge.builder("cache.size", translationService, TranslationService::getCachedTranslationCount)
+                    .description("Translations cached per language and source text")
+                    .tag("cache", "translation")
+                    .register(registry);
+        };
+    }
+
+    @Bean
+    public MeterBinder chatSessionMetrics(ChatSessionStore chatSessionStore) {
+        return registry -> Gauge.builder("cache.size", chatSessionStore, ChatSessionStore::getSessionCount)
+                .description("Live chatbot sessions")
+                .tag("cache", "chat-session")
+                .register(registry);
+    }
+
+    @Bean
+    public MeterBinder admissionMetrics(AdmissionInterceptor admissionInterceptor) {
+        return registry -> {
+            Gauge.builder("admission.limit", admissionInterceptor, AdmissionInterceptor::getLimit)
+                    .description("Current adaptive concurrency limit for /api requests")
+                    .register(registry);
+            Gauge.builder("admission.inflight", admissionInterceptor, AdmissionInterceptor::getInflight)
+                    .description("Limited /api requests in flight")
+                    .register(registry);
+        };
+    }
+
+    @Bean
+    public MeterBinder bulkheadMetrics(UpstreamBulkheads upstreamBulkheads) {
+        return registry -> upstreamBulkheads.getBulkheads().forEach((upstream, bulkhead) -> {
+            Gauge.builder("bulkhead.active", bulkhead, Bulkhead::getActive)
+                    .description("Calls in flight to the upstream")
+                    .tag("upstream", upstream.tag())
+                    .register(registry);
+            Gauge.builder("bulkhead.waiting", bulkhead, Bulkhead::getWaiting)
+                    .description("Calls waiting for a free slot to the upstream")
+                    .tag("upstream", upstream.tag())
+                    .register(registry);
+            Gauge.builder("bulkhead.max", bulkhead, Bulkhead::getMaxConcurrent)
+                    .description("Concurrent calls allowed to the upstream")
+                    .tag("upstream", upstream.tag())
+                    .register(registry);
+        });
+    }
+
+    @Bean
+    public MeterBinder weatherAlertMetrics(WeatherAlertService weatherAlertService) {
+        return registry -> {
+            Gauge.builder("alerts.subscriptions", weatherAlertService, WeatherAlertService::getSubscriptionCount)
+                    .description("Live weather alert subscriptions")
+                    .register(registry);
+            Gauge.builder("alerts.tiles", weatherAlertService, WeatherAlertService::getTileCount)
+                    .description("Tiles polled for weather alerts")
+                    .register(registry);
+        };
+    }
+
+    @Bean
+    public MeterBinder llmRouterMetrics(LlmRouter llmRouter) {
+        return registry -> llmRouter.getProviderNames().forEach(provider -> {
+            Gauge.builder("llm.provider.latency", llmRouter, router -> router.getLatencyMillis(provider))
+                    .description("Latency EWMA of the provider's successful calls, in milliseconds")
+                    .tag("provider", provider)
+                    .register(registry);
+            Gauge.builder("llm.provider.errors", llmRouter, router -> router.getErrorRate(provider))
+                    .description("Error rate EWMA of the provider, decaying while it is not used")
+                    .tag("provider", provider)
+                    .register(registry);
+        });
+    }
+
+    /** The sampling filter and the async console appender configured in {@code logback-spring.xml}. */
+    @Bean
+    public MeterBinder loggingMetrics() {
+        return registry -> {
+            if (!(LoggerFactory.getILoggerFactory() instanceof LoggerContext context)) return;
+            context.getTurboFilterList().stream()
+                    .filter(SampledLogFilter.class::isInstance)
+                    .map(SampledLogFilter.class::cast)
+                    .findFirst()
+                    .ifPresent(filter -> FunctionCounter.builder("logging.sampled.dropped", filter, SampledLogFilter::getDropped)
+                            .description("Sampled log messages left out")
+                            .register(registry));
+            if (context.getLogger(Logger.ROOT_LOGGER_NAME).getAppender("ASYNC_CONSOLE") instanceof AsyncAppender async) {
+                Gauge.builder("logging.async.queued", async, AsyncAppender::getNumberOfElementsInQueue)
+                        .description("Log events waiting to be written to the console")
+                        .register(registry);
+            }
+        };
+    }
+}
@@ -0,0 +1,38 @@
+package kishanMitra.demo.config;
+
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+import org.springframework.aot.hint.BindingReflectionHintsRegistrar;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.context.annotation.ClassPathScanningCandidateComponentProvider;
+import org.springframework.util.ClassUtils;
+
+/**
+ * Hints for the AOT build and the GraalVM native image. Spring infers the controller request and
+ * response types, but the DTOs read and written with RestTemplate and our own ObjectMappers
+ * (Gemini requests, upstream payloads, snapshot entries) are only reached through Jackson
+ * reflection, so every class under {@code kishanMitra.demo.dto} gets binding hints.
+ * Runs at build time, so the package is scanned rather than listed.
+ */
+public class NativeRuntimeHints implements RuntimeHintsRegistrar {
+
+    private static final String DTO_PACKAGE = "kishanMitra.demo.dto";
+
+    @Override
+    public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+        ClassPathScanningCandidateComponentProvider scanner = new ClassPathScanningCandidateComponentProvider(false);
+        scanner.addIncludeFilter((reader, factory) -> true);
+        Set<Class<?>> types = new LinkedHashSet<>();
+        for (BeanDefinition candidate : scanner.findCandidateComponents(DTO_PACKAGE)) {
+            types.add(ClassUtils.resolveClassName(candidate.getBeanClassName(), classLoader));
+        }
+        new BindingReflectionHintsRegistrar().registerReflectionHints(hints.reflection(), types.toArray(Class<?>[]::new));
+
+        // The mandi list loaded by MandiLocationService and the warm-up fixtures
+        hints.resources().registerPattern("data/*.csv");
+        hints.resources().registerPattern("warmup/*.json");
+    }
+}
@@ -0,0 +1,34 @@
+package kishanMitra.demo.config;
+
+import java.time.Duration;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import kishanMitra.demo.cache.InProcessSharedCache;
+import kishanMitra.demo.cache.RedisSharedCache;
+import kishanMitra.demo.cache.SharedCache;
+
+/**
+ * The shared cache tier behind the per-instance caches, chosen by {@code cache.shared.type}:
+ * {@code none} (the default), {@code memory} for one JVM, or {@code redis} for several instances.
+ */
+@Configuration
+public class SharedCacheConfig {
+
+    @Bean
+    public SharedCache sharedCache(@Value("${cache.shared.type:none}") String type,
+                                   @Value("${cache.shared.memory.name:default}") String memoryName,
+                                   @Value("${cache.shared.memory.max-entries:100000}") int memoryMaxEntries,
+                                   @Value("${cache.shared.redis.url:redis://localhost:6379}") String redisUrl,
+                                   @Value("${cache.shared.redis.pool-size:16}") int redisPoolSize,
+                                   @Value("${cache.shared.redis.timeout:200ms}") Duration redisTimeout) {
+        return switch (type.trim().toLowerCase()) {
+            case "none", "" -> SharedCache.NONE;
+            case "memory" -> InProcessSharedCache.named(memoryName, memoryMaxEntries);
+            case "redis" -> new RedisSharedCache(redisUrl, redisPoolSize, redisTimeout);
+            default -> throw new IllegalArgumentException("Unknown cache.shared.type '" + type + "', expected none, memory or redis");
+        };
+    }
+}
@@ -0,0 +1,105 @@
+package kishanMitra.demo.controller;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Predicate;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.async.DeferredResult;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import kishanMitra.demo.alerts.AlertStreamListener;
+import kishanMitra.demo.alerts.AlertSubscription;
+import kishanMitra.demo.alerts.WeatherAlertService;
+import kishanMitra.demo.dto.AlertSubscriptionRequest;
+import kishanMitra.demo.dto.WeatherAlert;
+
+/**
+ * Weather alert subscriptions. A client registers a location and (optionally) its own thresholds,
+ * then receives heavy-rain, heat and high-wind alerts for the next days, either as a Server-Sent
+ * Events stream or by long-polling. Both resume after the last sequence the client has seen.
+ */
+@RestController
+@RequestMapping("/api/alerts")
+public class AlertController {
+
+    private final WeatherAlertService weatherAlertService;
+
+    @Value("${alerts.long-poll.timeout:25s}")
+    private Duration longPollTimeout = Duration.ofSeconds(25);
+
+    @Value("${alerts.sse.timeout:30m}")
+    private Duration sseTimeout = Duration.ofMinutes(30);
+
+    public AlertController(WeatherAlertService weatherAlertService) {
+        this.weatherAlertService = weatherAlertService;
+    }
+
+    /**
+     * How to use: POST /api/alerts/subscriptions with
+     * {"latitude": 26.45, "longitude": 80.33, "heavyRainMm": 50}
+     */
+    @PostMapping("/subscriptions")
+    public Map<String, String> subscribe(@RequestBody AlertSubscriptionRequest request) {
+        AlertSubscription subscription = weatherAlertService.subscribe(request);
+        if (subscription == null) {
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Alert subscriptions are full");
+        }
+        return Map.of("subscriptionId", subscription.getId());
+    }
+
+    @DeleteMapping("/subscriptions/{id}")
+    public ResponseEntity<Void> unsubscribe(@PathVariable String id) {
+        return weatherAlertService.unsubscribe(id) ? ResponseEntity.noContent().build() : ResponseEntity.notFound().build();
+    }
+
+    /**
+     * Long-poll: answers at once with the alerts after {@code after}, or waits up to
+     * {@code alerts.long-poll.timeout} for new ones and answers with an empty list.
+     */
+    @GetMapping("/{id}/poll")
+    public DeferredResult<List<WeatherAlert>> poll(@PathVariable String id, @RequestParam(defaultValue = "0") long after) {
+        AlertSubscription subscription = find(id);
+        DeferredResult<List<WeatherAlert>> result = new DeferredResult<>(longPollTimeout.toMillis(), List.of());
+        Predicate<List<WeatherAlert>> listener = alerts -> {
+            result.setResult(alerts);
+            return false;
+        };
+        result.onCompletion(() -> weatherAlertService.unlisten(subscription, listener));
+        weatherAlertService.listen(subscription, after, listener);
+        return result;
+    }
+
+    /** Server-Sent Events, one {@code alert} event per alert with its sequence as the event id. */
+    @GetMapping("/{id}/stream")
+    public SseEmitter stream(@PathVariable String id,
+                             @RequestHeader(value = "Last-Event-ID", required = false) Long lastEventId) {
+        AlertSubscription subscription = find(id);
+        SseEmitter emitter = new SseEmitter(sseTimeout.toMillis());
+        AlertStreamListener listener = new AlertStreamListener(emitter);
+        emitter.onCompletion(() -> weatherAlertService.unlisten(subscription, listener));
+        weatherAlertService.listen(subscription, lastEventId != null ? lastEventId : 0, listener);
+        return emitter;
+    }
+
+    private AlertSubscription find(String id) {
+        AlertSubscription subscription = weatherAlertService.get(id);
+        if (subscription == null) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Unknown or expired subscription");
+        }
+        return subscription;
+    }
+}
@@ -0,0 +1,74 @@
+package kishanMitra.demo.controller;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.Set;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+
+import kishanMitra.demo.cluster.TileRouter;
+import kishanMitra.demo.dto.DashboardSection;
+import kishanMitra.demo.dto.KishanMitraResponse;
+import kishanMitra.demo.geo.GeoTile;
+import kishanMitra.demo.service.DataAggregationService;
+import kishanMitra.demo.service.WeatherDataService;
+
+/**
+ * Node-to-node calls of the cluster, see {@link TileRouter}. Not under {@code /api}, so there is
+ * no CORS mapping for browsers; callers must send {@code cluster.secret}, and without one (a
+ * single node) every call is refused.
+ */
+@RestController
+@RequestMapping("/internal/cluster")
+public class ClusterController {
+
+    private final DataAggregationService dataAggregationService;
+    private final WeatherDataService weatherDataService;
+
+    @Value("${cluster.secret:}")
+    private String secret = "";
+
+    public ClusterController(DataAggregationService dataAggregationService, WeatherDataService weatherDataService) {
+        this.dataAggregationService = dataAggregationService;
+        this.weatherDataService = weatherDataService;
+    }
+
+    /**
+     * The owner's side of a forwarded {@code /api/all-data}: computed here, never forwarded again.
+     * Answers 502 rather than the built-in data when an upstream fails; the forwarding node decides.
+     */
+    @GetMapping("/all-data")
+    public ResponseEntity<KishanMitraResponse> allData(@RequestParam double lat, @RequestParam double lon,
+                                       @RequestParam(required = false) String fields,
+                                       @RequestHeader(value = TileRouter.SECRET_HEADER, required = false) String callerSecret) {
+        if (secret.isBlank() || callerSecret == null || !MessageDigest.isEqual(
+                secret.getBytes(StandardCharsets.UTF_8), callerSecret.getBytes(StandardCharsets.UTF_8))) {
+            throw new ResponseStatusException(HttpStatus.FORBIDDEN);
+        }
+        Set<DashboardSection> sections;
+        try {
+            sections = DashboardSection.parse(fields);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+        KishanMitraResponse response;
+        try {
+            response = dataAggregationService.getAllDataLocallyOrThrow(lat, lon, sections);
+        } catch (RuntimeException e) {
+            // The caller falls back itself, and its batch and chat callers must see the failure
+            throw new ResponseStatusException(HttpStatus.BAD_GATEWAY, e.getMessage());
+        }
+        long fetchedAt = weatherDataService.getFetchedAt(GeoTile.of(lat, lon));
+        return fetchedAt > 0
+                ? ResponseEntity.ok().header(TileRouter.WEATHER_FETCHED_AT_HEADER, Long.toString(fetchedAt)).body(response)
+                : ResponseEntity.ok(response);
+    }
+}
@@ -1,24 +1,55 @@
 package kishanMitra.demo.controller;
 
+import java.io.IOException;
+import java.time.Duration;
+import java.util.EnumSet;
 import java.util.HashMap;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
+import java.util.Set;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.util.MimeTypeUtils;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
 
+import kishanMitra.demo.admission.ServiceLevel;
+import kishanMitra.demo.chat.ChatSession;
+import kishanMitra.demo.chat.ChatSessionStore;
+import kishanMitra.demo.dto.AgronomicFeatures;
+import kishanMitra.demo.dto.BatchDashboardRequest;
 import kishanMitra.demo.dto.ChatbotRequest;
 import kishanMitra.demo.dto.DashboardData;
+import kishanMitra.demo.dto.DashboardSection;
 import kishanMitra.demo.dto.KishanMitraResponse;
 import kishanMitra.demo.dto.MarketPrice;
+import kishanMitra.demo.dto.NearbyMandi;
+import kishanMitra.demo.dto.ProfilesResponse;
 import kishanMitra.demo.dto.SummaryResponse;
+import kishanMitra.demo.geo.GeoTile;
+import kishanMitra.demo.prewarm.HotTileTracker;
 import kishanMitra.demo.service.AIService;
+import kishanMitra.demo.service.BatchDashboardService;
 import kishanMitra.demo.service.DataAggregationService;
+import kishanMitra.demo.service.MandiLocationService;
 import kishanMitra.demo.service.MarketPriceService;
+import kishanMitra.demo.service.ResponseVersionService;
+import kishanMitra.demo.service.StaticProfilesService;
 import kishanMitra.demo.service.TranslationService;
 
 /**
@@ -29,18 +60,54 @@ import kishanMitra.demo.service.TranslationService;
 @RequestMapping("/api")
 public class RecommendationController {
 
+    private static final Logger log = LoggerFactory.getLogger(RecommendationController.class);
+
     private final DataAggregationService dataAggregationService;
     private final AIService aiService;
     private final TranslationService translationService;
     private final MarketPriceService marketPriceService;
+    private final MandiLocationService mandiLocationService;
+    private final HotTileTracker hotTileTracker;
+    private final BatchDashboardService batchDashboardService;
+    private final StaticProfilesService staticProfilesService;
+    private final ResponseVersionService responseVersionService;
+    private final ChatSessionStore chatSessionStore;
+
+    private static final Set<DashboardSection> STATIC_SECTIONS =
+            EnumSet.of(DashboardSection.CROP_PROFILES, DashboardSection.PESTICIDE_PROFILES);
+
+    private static final MediaType SMILE = MediaType.valueOf("application/x-jackson-smile");
+
+    @Value("${batch.timeout-ms:300000}")
+    private long batchTimeoutMs;
+
+    @Value("${http.cache.all-data.max-age:5m}")
+    private Duration allDataMaxAge;
+
+    @Value("${http.cache.profiles.max-age:1d}")
+    private Duration profilesMaxAge;
+
+    @Value("${http.cache.market-options.max-age:1d}")
+    private Duration marketOptionsMaxAge;
 
     // The constructor now injects all the services it needs to delegate tasks to.
     public RecommendationController(DataAggregationService dataAggregationService, AIService aiService, 
-                                    TranslationService translationService, MarketPriceService marketPriceService) {
+                                    TranslationService translationService, MarketPriceService marketPriceService,
+                                    MandiLocationService mandiLocationService, HotTileTracker hotTileTracker,
+                                    BatchDashboardService batchDashboardService,
+                                    StaticProfilesService staticProfilesService,
+                                    ResponseVersionService responseVersionService,
+                                    ChatSessionStore chatSessionStore) {
         this.dataAggregationService = dataAggregationService;
         this.aiService = aiService;
         this.translationService = translationService;
         this.marketPriceService = marketPriceService;
+        this.mandiLocationService = mandiLocationService;
+        this.hotTileTracker = hotTileTracker;
+        this.batchDashboardService = batchDashboardService;
+        this.staticProfilesService = staticProfilesService;
+        this.responseVersionService = responseVersionService;
+        this.chatSessionStore = chatSessionStore;
     }
 
     /**
@@ -59,47 +126,147 @@ public class RecommendationController {
     /**
      * This is the GET endpoint for the entire frontend dashboard.
      * It fetches all soil, weather, climate, and crop data in a single call.
-     *
-    
+     * Screens that need less can pass {@code fields}, e.g. {@code fields=weather} or
+     * {@code fields=cropProfiles,pesticideProfiles}; only those sections are computed and returned.
+     * The static profiles are left out when {@code profilesVersion} matches the current version,
+     * which every response carries. Send {@code Accept: application/cbor} or
+     * {@code application/x-jackson-smile} for a compact binary body.
+     * Responses carry an ETag built from the data versions behind them; a matching
+     * {@code If-None-Match} is answered 304 without computing anything.
      */
     @GetMapping("/all-data")
-    public KishanMitraResponse getDashboardData(@RequestParam double lat, @RequestParam double lon, @RequestParam(required = false, name = "lang") String lang) {
+    public ResponseEntity<KishanMitraResponse> getDashboardData(@RequestParam double lat, @RequestParam double lon, @RequestParam(required = false, name = "lang") String lang,
+                                                @RequestParam(required = false) String fields,
+                                                @RequestParam(required = false) String profilesVersion,
+                                                @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept,
+                                                @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        Set<DashboardSection> sections;
+        try {
+            sections = DashboardSection.parse(fields);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+        hotTileTracker.record(lat, lon, lang);
+        String currentVersion = staticProfilesService.getVersion();
+        boolean withProfiles = !currentVersion.equals(profilesVersion)
+                && (sections.contains(DashboardSection.CROP_PROFILES) || sections.contains(DashboardSection.PESTICIDE_PROFILES));
+        CacheControl cacheControl = CacheControl.maxAge(allDataMaxAge).cachePrivate();
+        String etag = responseVersionService.allDataEtag(lat, lon, lang, sections, withProfiles, accept);
+        if (etag != null && matches(ifNoneMatch, etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).cacheControl(cacheControl)
+                    .varyBy(HttpHeaders.ACCEPT).build();
+        }
+
+        // The profiles come pre-translated from StaticProfilesService, not through the pipeline
+        Set<DashboardSection> computed = EnumSet.noneOf(DashboardSection.class);
+        computed.addAll(sections);
+        computed.removeAll(STATIC_SECTIONS);
         // Delegates all the complex data gathering to the aggregation service.
-        KishanMitraResponse resp = dataAggregationService.getAllData(lat, lon);
-        if (lang != null && !lang.isBlank() && !"en".equals(lang)) {
-            // Translate select text fields for UI: recommendation, crop names/notes, pesticide fields, Koppen label
-            if (resp.getCropRecommendation() != null) {
-                resp.getCropRecommendation().setRecommendationText(
-                        translationService.translateIfNeeded(resp.getCropRecommendation().getRecommendationText(), lang)
-                );
-            }
-            if (resp.getCropProfiles() != null) {
-                resp.getCropProfiles().forEach(c -> {
-                    c.setName(translationService.translateIfNeeded(c.getName(), lang));
-                    c.setSeason(translationService.translateIfNeeded(c.getSeason(), lang));
-                    c.setSoil(translationService.translateIfNeeded(c.getSoil(), lang));
-                    c.setNotes(translationService.translateIfNeeded(c.getNotes(), lang));
-                });
-            }
-            if (resp.getPesticideProfiles() != null) {
-                resp.getPesticideProfiles().forEach(p -> {
-                    p.setName(translationService.translateIfNeeded(p.getName(), lang));
-                    p.setTargetPest(translationService.translateIfNeeded(p.getTargetPest(), lang));
-                    p.setCrop(translationService.translateIfNeeded(p.getCrop(), lang));
-                    p.setModeOfAction(translationService.translateIfNeeded(p.getModeOfAction(), lang));
-                    p.setToxicity(translationService.translateIfNeeded(p.getToxicity(), lang));
-                    p.setPreHarvestInterval(translationService.translateIfNeeded(p.getPreHarvestInterval(), lang));
-                    p.setNotes(translationService.translateIfNeeded(p.getNotes(), lang));
-                });
-            }
-            if (resp.getDashboardData() != null && resp.getDashboardData().getClimateData() != null) {
-                var c = resp.getDashboardData().getClimateData();
-                c.setKoppenGeigerClassification(
-                        translationService.translateIfNeeded(c.getKoppenGeigerClassification(), lang)
-                );
+        // When an upstream fails the built-in data is sent instead, untagged, so no client keeps it.
+        KishanMitraResponse resp;
+        boolean builtIn = false;
+        try {
+            resp = dataAggregationService.getAllDataOrThrow(lat, lon, computed);
+        } catch (RuntimeException e) {
+            if (ServiceLevel.current().allowsUpstreams()) {
+                log.error("Critical API failure, switching to full hardcoded mock data mode: {}", e.getMessage());
             }
+            resp = dataAggregationService.getBuiltInData(lat, lon, computed);
+            builtIn = true;
+        }
+        translationService.translateResponse(resp, lang);
+
+        if (withProfiles) {
+            ProfilesResponse profiles = staticProfilesService.getProfiles(lang);
+            if (sections.contains(DashboardSection.CROP_PROFILES)) resp.setCropProfiles(profiles.getCropProfiles());
+            if (sections.contains(DashboardSection.PESTICIDE_PROFILES)) resp.setPesticideProfiles(profiles.getPesticideProfiles());
+        }
+        resp.setProfilesVersion(currentVersion);
+
+        // Versions taken after the work, so a cold tile's first response is tagged too
+        etag = responseVersionService.allDataEtag(lat, lon, lang, sections, withProfiles, accept);
+        // A degraded response must not be revalidated as if it were the full one
+        if (etag == null || builtIn || ServiceLevel.current() != ServiceLevel.FULL || (resp.getCropRecommendation() != null
+                && AIService.RECOMMENDATION_UNAVAILABLE.equals(resp.getCropRecommendation().getRecommendationText()))) {
+            return ResponseEntity.ok().cacheControl(CacheControl.noCache()).body(resp);
+        }
+        return ResponseEntity.ok().eTag(etag).cacheControl(cacheControl).varyBy(HttpHeaders.ACCEPT).body(resp);
+    }
+
+    /**
+     * The static crop and pesticide profiles on their own, for clients to cache by version.
+     * JSON is served from bytes serialized (and gzipped) once per language; CBOR and Smile
+     * requests go through the normal converters.
+     */
+    @GetMapping("/profiles")
+    public ResponseEntity<?> getProfiles(@RequestParam(required = false, name = "lang") String lang,
+                                         @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept,
+                                         @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        StaticProfilesService.SerializedProfiles serialized = staticProfilesService.getSerialized(lang);
+        ResponseEntity.BodyBuilder ok = ResponseEntity.ok().eTag(serialized.etag())
+                .cacheControl(CacheControl.maxAge(profilesMaxAge).cachePublic())
+                .varyBy(HttpHeaders.ACCEPT, HttpHeaders.ACCEPT_ENCODING);
+        if (!prefersJson(accept)) {
+            return ok.body(staticProfilesService.getProfiles(lang));
+        }
+        ok.contentType(MediaType.APPLICATION_JSON);
+        if (acceptEncoding != null && acceptEncoding.toLowerCase(Locale.ROOT).contains("gzip")) {
+            return ok.header(HttpHeaders.CONTENT_ENCODING, "gzip").body(serialized.gzipped());
+        }
+        return ok.body(serialized.json());
+    }
+
+    /** Weak comparison of {@code If-None-Match} against a tag, as for a GET. */
+    private static boolean matches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) return false;
+        String opaque = etag.startsWith("W/") ? etag.substring(2) : etag;
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.equals("*") || (tag.startsWith("W/") ? tag.substring(2) : tag).equals(opaque)) return true;
+        }
+        return false;
+    }
+
+    private static boolean prefersJson(String accept) {
+        if (accept == null || accept.isBlank()) return true;
+        List<MediaType> types = MediaType.parseMediaTypes(accept);
+        MimeTypeUtils.sortBySpecificity(types);
+        for (MediaType type : types) {
+            if (type.isCompatibleWith(MediaType.APPLICATION_JSON)) return true;
+            if (type.isCompatibleWith(MediaType.APPLICATION_CBOR) || type.isCompatibleWith(SMILE)) return false;
+        }
+        return true;
+    }
+
+    /**
+     * Dashboards for many farms in one call, streamed as NDJSON (one line per farm, in the order
+     * the tiles finish). Farms in the same ~28 km tile share one dashboard.
+     *
+     * How to use: POST /api/all-data/batch with
+     * {"lang": "hi", "farms": [{"id": "farm-1", "lat": 26.45, "lon": 80.33}, ...]}
+     */
+    @PostMapping("/all-data/batch")
+    public ResponseEntity<ResponseBodyEmitter> getDashboardDataBatch(@RequestBody BatchDashboardRequest request) {
+        List<BatchDashboardRequest.Farm> farms = request.getFarms() != null ? request.getFarms() : List.of();
+        if (farms.size() > batchDashboardService.getMaxFarms()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "At most " + batchDashboardService.getMaxFarms() + " farms per batch, got " + farms.size());
         }
-        return resp;
+        farms.forEach(farm -> hotTileTracker.record(farm.getLat(), farm.getLon(), request.getLang()));
+
+        ResponseBodyEmitter emitter = new ResponseBodyEmitter(batchTimeoutMs);
+        batchDashboardService.run(farms, request.getLang(), result -> {
+            try {
+                emitter.send(result, MediaType.APPLICATION_JSON);
+                emitter.send("\n", MediaType.TEXT_PLAIN);
+            } catch (IOException | IllegalStateException e) {
+                // Client went away or the emitter timed out; the remaining tiles still finish and warm the caches
+            }
+        }).whenComplete((done, error) -> {
+            if (error != null) emitter.completeWithError(error);
+            else emitter.complete();
+        });
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(emitter);
     }
 
     /**
@@ -111,7 +278,7 @@ public class RecommendationController {
         SummaryResponse out = new SummaryResponse();
         // one-line recommendation already generated in full
         String oneLine = full.getCropRecommendation() != null ? full.getCropRecommendation().getRecommendationText() : null;
-        String bullets = aiService.getFarmerSummary(full.getDashboardData());
+        String bullets = dataAggregationService.getFarmerSummary(lat, lon, full.getDashboardData());
 
         // Optional translation of text
         if (lang != null && !lang.isBlank() && !"en".equals(lang)) {
@@ -126,42 +293,82 @@ public class RecommendationController {
     /**
      * This is the POST endpoint for the conversational chatbot.
      * It uses the full data context to provide smart, relevant answers.
+     * The first message assembles the farm context into a session and returns its
+     * {@code sessionId}; later messages that send it back reuse the context and the recent
+     * turns without any upstream data calls.
      *
      * How to use: POST http://localhost:8080/api/chatbot with a JSON body.
      */
     @PostMapping("/chatbot")
     public Map<String, String> handleChatbotQuery(@RequestBody ChatbotRequest request) {
-        // Step 1: Get the full data context for the user's location. This is very efficient
-        // as it reuses the same logic as the dashboard.
-        KishanMitraResponse fullData = dataAggregationService.getAllData(request.getLatitude(), request.getLongitude());
-        DashboardData context = fullData.getDashboardData();
+        hotTileTracker.record(request.getLatitude(), request.getLongitude(), request.getLanguageCode());
+        // Step 1: Get the data context for the user's location, from their session when they have one.
+        // A new session (or a new tile) assembles it once, from the sections the recommendation uses.
+        // When an upstream fails, this turn is answered without a context and nothing is kept, so
+        // the next turn tries again instead of carrying made-up data for the rest of the session.
+        GeoTile tile = GeoTile.of(request.getLatitude(), request.getLongitude());
+        ChatSession session = chatSessionStore.get(request.getSessionId());
+        AgronomicFeatures features;
+        boolean keepTurn = true;
+        if (session != null && session.getTile().equals(tile)) {
+            features = session.getFeatures();
+        } else {
+            DashboardData context = null;
+            try {
+                context = dataAggregationService.getAllDataOrThrow(request.getLatitude(), request.getLongitude(),
+                        DashboardSection.RECOMMENDATION.requires()).getDashboardData();
+            } catch (RuntimeException e) {
+                keepTurn = false;
+            }
+            features = AgronomicFeatures.from(context != null ? context : new DashboardData());
+            if (keepTurn && session == null) {
+                session = chatSessionStore.create(tile, features);
+            } else if (keepTurn) {
+                session.updateContext(tile, features);
+            }
+        }
+
+        // Step 2: Pass the user's question, the farm context and the recent turns to the AI service.
+        String response = aiService.getChatbotResponse(request.getMessage(), features,
+                session != null ? session.renderHistory() : "", request.getLanguageCode());
+        if (keepTurn && !AIService.CHATBOT_UNAVAILABLE.equals(response)) {
+            chatSessionStore.addTurn(session, request.getMessage(), response);
+        }
 
-        // Step 2: Pass the user's question AND the rich data context to the AI service.
-        String response = aiService.getChatbotResponse(request.getMessage(), context, request.getLanguageCode());
-        
         // Return JSON response
         Map<String, String> result = new HashMap<>();
         result.put("response", response);
         result.put("success", "true");
+        if (session != null) result.put("sessionId", session.getId());
         return result;
     }
 
     /**
      * Get market prices for a specific commodity, state, and market
      * Example: GET /api/market-prices?commodity=Rice&state=Delhi&market=Azadpur
+     * Or from the mandis nearest to the farmer:
+     * GET /api/market-prices?lat=26.45&lon=80.33&nearest=3[&commodity=Rice]
      */
     @GetMapping("/market-prices")
     public Map<String, Object> getMarketPrices(
             @RequestParam(required = false) String commodity,
             @RequestParam(required = false) String state,
-            @RequestParam(required = false) String market) {
+            @RequestParam(required = false) String market,
+            @RequestParam(required = false) Double lat,
+            @RequestParam(required = false) Double lon,
+            @RequestParam(defaultValue = "3") int nearest) {
         
         Map<String, Object> response = new HashMap<>();
         
         try {
             List<MarketPrice> prices;
             
-            if (commodity != null && state != null && market != null) {
+            if (lat != null && lon != null) {
+                // Prices from the nearest mandis to the given coordinates
+                List<NearbyMandi> mandis = mandiLocationService.findNearest(lat, lon, Math.max(1, Math.min(nearest, 20)));
+                prices = marketPriceService.getMarketPricesForMandis(mandis, commodity);
+                response.put("mandis", mandis);
+            } else if (commodity != null && state != null && market != null) {
                 // Get prices for specific commodity
                 prices = marketPriceService.getMarketPrices(commodity, state, market);
             } else if (state != null) {
@@ -189,10 +396,14 @@ public class RecommendationController {
      * Get list of available commodities and states for the market prices dropdown
      */
     @GetMapping("/market-options")
-    public Map<String, Object> getMarketOptions() {
+    public ResponseEntity<Map<String, Object>> getMarketOptions() {
         Map<String, Object> response = new HashMap<>();
         response.put("commodities", marketPriceService.getAvailableCommodities());
         response.put("states", marketPriceService.getAvailableStates());
-        return response;
+        // The lists only change with a deploy; Spring answers a matching If-None-Match with 304
+        return ResponseEntity.ok()
+                .eTag("W/\"options-" + Integer.toHexString(response.hashCode()) + "\"")
+                .cacheControl(CacheControl.maxAge(marketOptionsMaxAge).cachePublic())
+                .body(response);
     }
 }
\ No newline at end of file
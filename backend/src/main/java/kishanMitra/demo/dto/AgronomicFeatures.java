@@ -0,0 +1,94 @@
+package kishanMitra.demo.dto;
+
+import java.util.List;
+
+/**
+ * Flat, immutable snapshot of the agronomic context of one location, derived once per request
+ * from {@link DashboardData}. The prompt templates render from it, and {@link #cacheKey()} groups
+ * farms whose inputs would produce the same recommendation.
+ */
+public record AgronomicFeatures(
+        String district,
+        String state,
+        String season,
+        String soilType,
+        double ph,
+        double soilOrganicCarbon,
+        double cationExchangeCapacity,
+        double bulkDensity,
+        double nitrogen,
+        double phosphorus,
+        double potassium,
+        double electricalConductivity,
+        double salinity,
+        double sandPercent,
+        double siltPercent,
+        double clayPercent,
+        double topsoilMoisture,
+        double subsoilMoisture,
+        double soilTemperature,
+        double forecastAvgMaxTemp,
+        double forecastTotalRain,
+        double climateAvgTemp,
+        double annualRainfall,
+        String koppenClass) {
+
+    /** Missing sections (e.g. a failed weather call) contribute zeros, as the prompts always did. */
+    public static AgronomicFeatures from(DashboardData data) {
+        SoilData soil = data.getSoilData() != null ? data.getSoilData() : new SoilData();
+        ClimateData climate = data.getClimateData() != null ? data.getClimateData() : new ClimateData();
+
+        // One pass for both forecast aggregates
+        double maxTempSum = 0;
+        double rainSum = 0;
+        int days = 0;
+        List<WeatherData.DailyForecast> forecast = data.getWeatherData() != null ? data.getWeatherData().getSevenDayForecast() : null;
+        if (forecast != null) {
+            for (WeatherData.DailyForecast day : forecast) {
+                maxTempSum += day.getMaxTemp();
+                rainSum += day.getPrecipitationSum();
+                days++;
+            }
+        }
+
+        return new AgronomicFeatures(
+                data.getDistrict(), data.getState(), data.getCurrentSeason(), soil.getSoilType(),
+                soil.getPh(), soil.getSoilOrganicCarbon(), soil.getCationExchangeCapacity(), soil.getBulkDensity(),
+                soil.getNitrogen(), soil.getPhosphorus(), soil.getPotassium(),
+                soil.getElectricalConductivity(), soil.getSalinity(),
+                soil.getSandPercent(), soil.getSiltPercent(), soil.getClayPercent(),
+                soil.getTopsoilMoisture(), soil.getSubsoilMoisture(), soil.getSoilTemperature(),
+                days > 0 ? maxTempSum / days : 0, rainSum,
+                climate.getAverageTemperature(), climate.getAnnualRainfall(), climate.getKoppenGeigerClassification());
+    }
+
+    /**
+     * Key quantized to the precision that matters agronomically (pH to 0.1, nutrients to
+     * 10 kg/ha, temperatures to 1°C, rain to 5 mm), so near-identical farms share an entry.
+     */
+    public String cacheKey() {
+        StringBuilder key = new StringBuilder(160);
+        key.append(district).append('|').append(state).append('|').append(season).append('|').append(soilType)
+                .append('|').append(Math.round(ph * 10))
+                .append('|').append(Math.round(soilOrganicCarbon))
+                .append('|').append(Math.round(cationExchangeCapacity))
+                .append('|').append(Math.round(bulkDensity * 10))
+                .append('|').append(Math.round(nitrogen / 10))
+                .append('|').append(Math.round(phosphorus / 10))
+                .append('|').append(Math.round(potassium / 10))
+                .append('|').append(Math.round(electricalConductivity * 10))
+                .append('|').append(Math.round(salinity * 10))
+                .append('|').append(Math.round(sandPercent / 5))
+                .append('|').append(Math.round(siltPercent / 5))
+                .append('|').append(Math.round(clayPercent / 5))
+                .append('|').append(Math.round(topsoilMoisture * 20))
+                .append('|').append(Math.round(subsoilMoisture * 20))
+                .append('|').append(Math.round(soilTemperature))
+                .append('|').append(Math.round(forecastAvgMaxTemp))
+                .append('|').append(Math.round(forecastTotalRain / 5))
+                .append('|').append(Math.round(climateAvgTemp))
+                .append('|').append(Math.round(annualRainfall / 50))
+                .append('|').append(koppenClass);
+        return key.toString();
+    }
+}
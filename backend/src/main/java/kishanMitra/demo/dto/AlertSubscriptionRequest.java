@@ -0,0 +1,12 @@
+package kishanMitra.demo.dto;
+
+import lombok.Data;
+
+@Data
+public class AlertSubscriptionRequest {
+    private double latitude;
+    private double longitude;
+    private Double heavyRainMm; // daily rainfall; omit for the default
+    private Double heatC;       // daily maximum temperature
+    private Double windKmh;     // daily maximum wind speed
+}
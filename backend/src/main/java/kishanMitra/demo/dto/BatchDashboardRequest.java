@@ -0,0 +1,18 @@
+package kishanMitra.demo.dto;
+
+import java.util.List;
+
+import lombok.Data;
+
+@Data
+public class BatchDashboardRequest {
+    private List<Farm> farms;
+    private String lang;     // optional, as for /api/all-data
+
+    @Data
+    public static class Farm {
+        private String id;   // echoed back so the client can match results, e.g. a farmer or plot id
+        private double lat;
+        private double lon;
+    }
+}
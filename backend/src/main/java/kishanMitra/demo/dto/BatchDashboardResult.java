@@ -0,0 +1,21 @@
+package kishanMitra.demo.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/** One NDJSON line of the batch dashboard stream: the dashboard for one farm, or why it failed. */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class BatchDashboardResult {
+    private String id;
+    private double lat;
+    private double lon;
+    private String tile;              // centre of the tile the dashboard was computed for
+    private KishanMitraResponse data;
+    private String error;
+}
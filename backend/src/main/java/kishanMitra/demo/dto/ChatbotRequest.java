@@ -8,4 +8,5 @@ public class ChatbotRequest {
     private double latitude;
     private double longitude;
     private String languageCode; // e.g., "hi", "en", "te", "bn"
+    private String sessionId; // from the previous reply; omit on the first message
 }
\ No newline at end of file
@@ -1,9 +1,13 @@
 package kishanMitra.demo.dto;
 
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonInclude;
+
 import lombok.Data;
 
 @Data
+@JsonInclude(JsonInclude.Include.NON_NULL) // sections left out by ?fields= are omitted
 public class DashboardData {
     // Location
     private String district;
@@ -11,10 +15,14 @@ public class DashboardData {
 
     // Calculated
     private String currentSeason;
-    private double groundwaterIndex; // 0-100 scale
+    private Double groundwaterIndex; // 0-100 scale
 
     // Real-time Data yess 
     private SoilData soilData;
     private WeatherData weatherData;
     private ClimateData climateData;
+
+    // Derived once per request for prompts and cache keys; not part of the API response
+    @JsonIgnore
+    private AgronomicFeatures features;
 }
\ No newline at end of file
@@ -0,0 +1,69 @@
+package kishanMitra.demo.dto;
+
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * The parts of a {@link KishanMitraResponse} a client can ask for with
+ * {@code /api/all-data?fields=...}. Each has its own upstream cost; the recommendation also
+ * needs the sections it is generated from.
+ */
+public enum DashboardSection {
+    LOCATION("location"),
+    SOIL("soil"),
+    WEATHER("weather"),
+    CLIMATE("climate"),
+    GROUNDWATER("groundwater"),
+    RECOMMENDATION("recommendation"),
+    CROP_PROFILES("cropProfiles"),
+    PESTICIDE_PROFILES("pesticideProfiles");
+
+    public static final Set<DashboardSection> ALL = Collections.unmodifiableSet(EnumSet.allOf(DashboardSection.class));
+    /** The sections that make up {@link DashboardData}. */
+    public static final Set<DashboardSection> DASHBOARD = Collections.unmodifiableSet(EnumSet.range(LOCATION, GROUNDWATER));
+
+    private final String param;
+
+    DashboardSection(String param) {
+        this.param = param;
+    }
+
+    public String param() {
+        return param;
+    }
+
+    /** @return the sections this one is computed from (the prompt context of the recommendation). */
+    public Set<DashboardSection> requires() {
+        return this == RECOMMENDATION ? EnumSet.of(LOCATION, SOIL, WEATHER, CLIMATE) : EnumSet.noneOf(DashboardSection.class);
+    }
+
+    /**
+     * Parses a comma-separated {@code fields} value, e.g. {@code weather,cropProfiles};
+     * {@code dashboardData} stands for all of its sections. Blank means everything.
+     * @throws IllegalArgumentException on an unknown name
+     */
+    public static Set<DashboardSection> parse(String fields) {
+        if (fields == null || fields.isBlank()) return ALL;
+        Set<DashboardSection> sections = EnumSet.noneOf(DashboardSection.class);
+        for (String name : fields.split(",")) {
+            String field = name.trim().toLowerCase(Locale.ROOT);
+            if (field.isEmpty()) continue;
+            if (field.equals("dashboarddata")) {
+                sections.addAll(DASHBOARD);
+                continue;
+            }
+            DashboardSection match = null;
+            for (DashboardSection section : values()) {
+                if (section.param.toLowerCase(Locale.ROOT).equals(field)) match = section;
+            }
+            if (match == null) {
+                throw new IllegalArgumentException("Unknown field '" + name.trim() + "', expected dashboardData or one of "
+                        + Set.of(values()).stream().map(DashboardSection::param).sorted().toList());
+            }
+            sections.add(match);
+        }
+        return sections.isEmpty() ? ALL : sections;
+    }
+}
@@ -0,0 +1,16 @@
+package kishanMitra.demo.dto;
+
+import lombok.Data;
+
+@Data
+public class IngestReport {
+    private String file;
+    private String format;          // "csv" or "json"
+    private long bytesRead;
+    private long rowsLoaded;
+    private long rowsSkipped;       // malformed rows (missing commodity/market)
+    private int batches;
+    private int marketsLoaded;      // distinct commodity/state/market keys now in the store
+    private long elapsedMs;
+    private double rowsPerSecond;
+}
@@ -1,12 +1,15 @@
 package kishanMitra.demo.dto;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.Data;
 import java.util.List;
 
 @Data
+@JsonInclude(JsonInclude.Include.NON_NULL) // sections left out by ?fields= are omitted
 public class KishanMitraResponse {
     private DashboardData dashboardData;
     private AiCropRecommendation cropRecommendation;
     private List<CropProfile> cropProfiles;
     private List<PesticideProfile> pesticideProfiles;
+    private String profilesVersion; // version of the static profiles; sent back to skip them next time
 }
\ No newline at end of file
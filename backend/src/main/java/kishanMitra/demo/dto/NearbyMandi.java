@@ -0,0 +1,16 @@
+package kishanMitra.demo.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class NearbyMandi {
+    private String market;
+    private String state;
+    private double latitude;
+    private double longitude;
+    private double distanceKm; // great-circle distance from the farmer
+}
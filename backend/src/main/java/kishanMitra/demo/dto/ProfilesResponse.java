@@ -0,0 +1,18 @@
+package kishanMitra.demo.dto;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/** The static crop and pesticide profiles, with the version clients send back as {@code profilesVersion}. */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProfilesResponse {
+    private String version;
+    private String lang;
+    private List<CropProfile> cropProfiles;
+    private List<PesticideProfile> pesticideProfiles;
+}
@@ -0,0 +1,13 @@
+package kishanMitra.demo.dto;
+
+import lombok.Data;
+
+@Data
+public class WeatherAlert {
+    private long sequence;     // per subscription; send the last one back to resume
+    private String type;       // heavy-rain, heat, high-wind
+    private String date;       // forecast day the alert is for
+    private double value;
+    private double threshold;
+    private boolean active;    // false once a later forecast drops below the threshold
+}
@@ -1,14 +1,21 @@
 package kishanMitra.demo.dto.gemini;
 
 import java.util.List;
+import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.Data;
 
 @Data
+@JsonInclude(JsonInclude.Include.NON_NULL)
 public class GeminiRequest {
     private List<Content> contents;
+    private GenerationConfig generationConfig;
     public GeminiRequest(String text) {
         this.contents = List.of(new Content(List.of(new Part(text))));
     }
+    public GeminiRequest(String text, GenerationConfig generationConfig) {
+        this(text);
+        this.generationConfig = generationConfig;
+    }
 }
 
 @Data
@@ -0,0 +1,30 @@
+package kishanMitra.demo.dto.gemini;
+
+import java.util.Map;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * The {@code generationConfig} block of a Gemini generateContent request. Unset fields are
+ * left out, so the model defaults apply.
+ */
+@Data
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class GenerationConfig {
+    private String responseMimeType;          // "application/json" for structured output
+    private Map<String, Object> responseSchema; // OpenAPI-style schema the JSON output must follow
+    private Integer maxOutputTokens;          // includes thinking tokens on 2.5 models
+    private Double temperature;
+    private ThinkingConfig thinkingConfig;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class ThinkingConfig {
+        private Integer thinkingBudget;       // 0 disables thinking, -1 lets the model decide
+    }
+}
@@ -0,0 +1,203 @@
+package kishanMitra.demo.geo;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Immutable k-d tree over points on the globe, for k-nearest lookups by lat/lon.
+ * Points are stored as unit vectors on the sphere, so the straight-line (chord) distance the
+ * tree prunes on is monotonic in great-circle distance: results are exact, with no
+ * lat/lon-box approximations near the poles or the antimeridian.
+ * The tree is laid out implicitly in flat arrays (median of each sub-range at its midpoint).
+ */
+public final class GeoKdTree<T> {
+
+    public static final double EARTH_RADIUS_KM = 6371.0088;
+
+    private final Object[] items;
+    private final double[][] coords; // [axis][node] -> x, y, z of the unit vector
+
+    private GeoKdTree(Object[] items, double[][] coords) {
+        this.items = items;
+        this.coords = coords;
+    }
+
+    public static <T> GeoKdTree<T> build(Collection<? extends T> points,
+                                         ToDoubleFunction<? super T> latitude,
+                                         ToDoubleFunction<? super T> longitude) {
+        int n = points.size();
+        Object[] items = new Object[n];
+        double[][] coords = new double[3][n];
+        int i = 0;
+        for (T point : points) {
+            items[i] = point;
+            double[] v = toUnitVector(latitude.applyAsDouble(point), longitude.applyAsDouble(point));
+            coords[0][i] = v[0];
+            coords[1][i] = v[1];
+            coords[2][i] = v[2];
+            i++;
+        }
+        arrange(items, coords, 0, n, 0);
+        return new GeoKdTree<>(items, coords);
+    }
+
+    public int size() {
+        return items.length;
+    }
+
+    /**
+     * @return up to {@code k} points closest to the given coordinates, nearest first.
+     */
+    @SuppressWarnings("unchecked")
+    public List<Neighbor<T>> nearest(double lat, double lon, int k) {
+        int limit = Math.min(k, items.length);
+        if (limit <= 0) return List.of();
+
+        double[] q = toUnitVector(lat, lon);
+        BoundedMaxHeap heap = new BoundedMaxHeap(limit);
+        search(0, items.length, 0, q, heap);
+
+        int[] order = heap.drainAscending();
+        double[] chords = heap.sortedDistances;
+        List<Neighbor<T>> result = new ArrayList<>(order.length);
+        for (int i = 0; i < order.length; i++) {
+            result.add(new Neighbor<>((T) items[order[i]], chordToKm(Math.sqrt(chords[i]))));
+        }
+        return result;
+    }
+
+    private void search(int lo, int hi, int axis, double[] q, BoundedMaxHeap heap) {
+        if (lo >= hi) return;
+        int mid = (lo + hi) >>> 1;
+
+        double dx = q[0] - coords[0][mid];
+        double dy = q[1] - coords[1][mid];
+        double dz = q[2] - coords[2][mid];
+        heap.offer(mid, dx * dx + dy * dy + dz * dz);
+
+        double diff = q[axis] - coords[axis][mid];
+        int next = axis == 2 ? 0 : axis + 1;
+        if (diff < 0) {
+            search(lo, mid, next, q, heap);
+            if (diff * diff < heap.worst()) search(mid + 1, hi, next, q, heap);
+        } else {
+            search(mid + 1, hi, next, q, heap);
+            if (diff * diff < heap.worst()) search(lo, mid, next, q, heap);
+        }
+    }
+
+    /** Quickselect the median of [lo, hi) on the current axis into the midpoint, then recurse. */
+    private static void arrange(Object[] items, double[][] coords, int lo, int hi, int axis) {
+        if (hi - lo <= 1) return;
+        int mid = (lo + hi) >>> 1;
+        int left = lo, right = hi - 1;
+        while (left < right) {
+            double pivot = coords[axis][(left + right) >>> 1];
+            int i = left, j = right;
+            while (i <= j) {
+                while (coords[axis][i] < pivot) i++;
+                while (coords[axis][j] > pivot) j--;
+                if (i <= j) swap(items, coords, i++, j--);
+            }
+            if (mid <= j) right = j;
+            else if (mid >= i) left = i;
+            else break;
+        }
+        int next = axis == 2 ? 0 : axis + 1;
+        arrange(items, coords, lo, mid, next);
+        arrange(items, coords, mid + 1, hi, next);
+    }
+
+    private static void swap(Object[] items, double[][] coords, int a, int b) {
+        Object item = items[a];
+        items[a] = items[b];
+        items[b] = item;
+        for (double[] axis : coords) {
+            double c = axis[a];
+            axis[a] = axis[b];
+            axis[b] = c;
+        }
+    }
+
+    private static double[] toUnitVector(double lat, double lon) {
+        double phi = Math.toRadians(lat);
+        double lambda = Math.toRadians(lon);
+        double cosPhi = Math.cos(phi);
+        return new double[] {cosPhi * Math.cos(lambda), cosPhi * Math.sin(lambda), Math.sin(phi)};
+    }
+
+    private static double chordToKm(double chord) {
+        return 2 * Math.asin(Math.min(1.0, chord / 2)) * EARTH_RADIUS_KM;
+    }
+
+    public record Neighbor<T>(T item, double distanceKm) {}
+
+    /** Fixed-capacity max-heap of (node, squared chord distance), so the worst candidate is at the root. */
+    private static final class BoundedMaxHeap {
+        private final int[] nodes;
+        private final double[] distances;
+        private int size;
+        private double[] sortedDistances;
+
+        BoundedMaxHeap(int capacity) {
+            nodes = new int[capacity];
+            distances = new double[capacity];
+        }
+
+        double worst() {
+            return size < nodes.length ? Double.POSITIVE_INFINITY : distances[0];
+        }
+
+        void offer(int node, double distance) {
+            if (size < nodes.length) {
+                int i = size++;
+                nodes[i] = node;
+                distances[i] = distance;
+                while (i > 0) {
+                    int parent = (i - 1) >>> 1;
+                    if (distances[parent] >= distances[i]) break;
+                    swapSlots(i, parent);
+                    i = parent;
+                }
+            } else if (distance < distances[0]) {
+                nodes[0] = node;
+                distances[0] = distance;
+                siftDown(0, size);
+            }
+        }
+
+        int[] drainAscending() {
+            int count = size;
+            // Heap sort in place: repeatedly move the max to the end
+            for (int end = count - 1; end > 0; end--) {
+                swapSlots(0, end);
+                siftDown(0, end);
+            }
+            sortedDistances = Arrays.copyOf(distances, count);
+            return Arrays.copyOf(nodes, count);
+        }
+
+        private void siftDown(int i, int end) {
+            while (true) {
+                int left = 2 * i + 1;
+                if (left >= end) return;
+                int largest = left + 1 < end && distances[left + 1] > distances[left] ? left + 1 : left;
+                if (distances[i] >= distances[largest]) return;
+                swapSlots(i, largest);
+                i = largest;
+            }
+        }
+
+        private void swapSlots(int a, int b) {
+            int n = nodes[a];
+            nodes[a] = nodes[b];
+            nodes[b] = n;
+            double d = distances[a];
+            distances[a] = distances[b];
+            distances[b] = d;
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package kishanMitra.demo.geo;
+
+import java.util.Locale;
+
+/**
+ * A cell of a fixed 0.25° lat/lon grid (about 28 km at Indian latitudes, a fraction of a
+ * district). Everything that is shared between farmers in the same area (precomputed
+ * recommendations, hot-area counters) is keyed by tile, so nearby coordinates share one entry.
+ */
+public record GeoTile(int row, int col) {
+
+    public static final double SIZE_DEGREES = 0.25;
+
+    private static final int ROWS = (int) Math.round(180 / SIZE_DEGREES);
+    private static final int COLUMNS = (int) Math.round(360 / SIZE_DEGREES);
+
+    public static GeoTile of(double lat, double lon) {
+        int row = (int) Math.floor((lat + 90) / SIZE_DEGREES);
+        int col = (int) Math.floor((lon + 180) / SIZE_DEGREES);
+        return new GeoTile(Math.clamp(row, 0, ROWS - 1), Math.floorMod(col, COLUMNS));
+    }
+
+    public static GeoTile fromKey(int key) {
+        return new GeoTile(key / COLUMNS, key % COLUMNS);
+    }
+
+    /** Dense, stable integer id ({@code row * columns + col}), used in snapshots and sketches. */
+    public int key() {
+        return row * COLUMNS + col;
+    }
+
+    public double centerLat() {
+        return (row + 0.5) * SIZE_DEGREES - 90;
+    }
+
+    public double centerLon() {
+        return (col + 0.5) * SIZE_DEGREES - 180;
+    }
+
+    @Override
+    public String toString() {
+        return String.format(Locale.ROOT, "%.3f,%.3f", centerLat(), centerLon());
+    }
+}
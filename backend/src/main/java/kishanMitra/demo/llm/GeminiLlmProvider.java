@@ -0,0 +1,55 @@
+package kishanMitra.demo.llm;
+
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.web.client.RestTemplate;
+
+import kishanMitra.demo.dto.gemini.GeminiRequest;
+import kishanMitra.demo.dto.gemini.GeminiResponse;
+import kishanMitra.demo.dto.gemini.GenerationConfig;
+
+/**
+ * Gemini {@code generateContent}, the key as a query parameter. Thinking is off by default
+ * ({@code gemini.thinking-budget=0}): these are short lookups where it only adds latency. A
+ * positive budget is added on top of the output limit, which counts it.
+ */
+public final class GeminiLlmProvider implements LlmProvider {
+
+    private final LlmProviderSettings settings;
+    private final RestTemplate restTemplate;
+    private final int thinkingBudget;
+
+    public GeminiLlmProvider(LlmProviderSettings settings, RestTemplate restTemplate, int thinkingBudget) {
+        this.settings = settings;
+        this.restTemplate = restTemplate;
+        this.thinkingBudget = thinkingBudget;
+    }
+
+    @Override
+    public LlmProviderSettings settings() {
+        return settings;
+    }
+
+    @Override
+    public String type() {
+        return "gemini";
+    }
+
+    @Override
+    public String generate(LlmRequest request) {
+        GenerationConfig config = new GenerationConfig();
+        config.setMaxOutputTokens(request.maxOutputTokens() + Math.max(thinkingBudget, 0));
+        config.setTemperature(request.temperature());
+        config.setThinkingConfig(new GenerationConfig.ThinkingConfig(thinkingBudget));
+        if (request.wantsJson()) {
+            config.setResponseMimeType("application/json");
+            config.setResponseSchema(request.jsonSchema());
+        }
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        GeminiResponse response = restTemplate.postForObject(settings.url() + "?key=" + settings.apiKey(),
+                new HttpEntity<>(new GeminiRequest(request.prompt(), config), headers), GeminiResponse.class);
+        return response != null ? response.getFirstCandidateText() : null;
+    }
+}
@@ -0,0 +1,27 @@
+package kishanMitra.demo.llm;
+
+/**
+ * An LLM API, with its own request and response mapping. Configured under
+ * {@code llm.provider.<name>.*} and chosen per call by the {@link LlmRouter}.
+ */
+public interface LlmProvider {
+
+    /** What a provider can do beyond plain text. */
+    enum Capability {
+        /** Follows a JSON schema (Gemini {@code responseSchema}, OpenAI {@code json_schema}). */
+        JSON_SCHEMA,
+        /** Answers with a JSON object, the keys only asked for in the prompt (OpenAI-style {@code json_object}). */
+        JSON_OBJECT
+    }
+
+    LlmProviderSettings settings();
+
+    /** {@code gemini}, {@code openai} or {@code stub}; the {@code provider} metric tag. */
+    String type();
+
+    /**
+     * @return the generated text, or null when the answer was empty
+     * @throws RuntimeException when the call failed
+     */
+    String generate(LlmRequest request);
+}
@@ -0,0 +1,19 @@
+package kishanMitra.demo.llm;
+
+import java.util.Collections;
+import java.util.Set;
+
+/**
+ * The configuration of one {@link LlmProvider}.
+ *
+ * @param cost USD per million output tokens, weighed against latency by the router
+ */
+public record LlmProviderSettings(String name, String url, String apiKey, String model, double cost,
+                                  Set<LlmProvider.Capability> capabilities, Set<LlmRequest.Workload> workloads) {
+
+    public boolean supports(LlmRequest request) {
+        if (!workloads.contains(request.workload())) return false;
+        return !request.wantsJson() || !Collections.disjoint(capabilities,
+                Set.of(LlmProvider.Capability.JSON_SCHEMA, LlmProvider.Capability.JSON_OBJECT));
+    }
+}
@@ -0,0 +1,26 @@
+package kishanMitra.demo.llm;
+
+import java.util.Map;
+
+/**
+ * One generation call, independent of the provider that serves it.
+ *
+ * @param jsonSchema the OpenAPI-style schema the answer must follow (Gemini's dialect, as in
+ *                   {@code responseSchema}), or null for plain text
+ */
+public record LlmRequest(Workload workload, String prompt, int maxOutputTokens, double temperature,
+                         Map<String, Object> jsonSchema) {
+
+    /** What the call is for; providers are configured per workload, so chat cannot eat the data quota. */
+    public enum Workload {
+        DATA, CHAT
+    }
+
+    public static LlmRequest text(Workload workload, String prompt, int maxOutputTokens, double temperature) {
+        return new LlmRequest(workload, prompt, maxOutputTokens, temperature, null);
+    }
+
+    public boolean wantsJson() {
+        return jsonSchema != null;
+    }
+}
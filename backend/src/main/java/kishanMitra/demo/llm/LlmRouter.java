@@ -0,0 +1,180 @@
+package kishanMitra.demo.llm;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import kishanMitra.demo.monitoring.LlmPromptEvent;
+import kishanMitra.demo.monitoring.SampledLogFilter;
+
+/**
+ * Picks the {@link LlmProvider} for each call, and falls back to the next one when it fails.
+ * The providers that serve the request's workload and output format are ranked by
+ * <pre>
+ *   latency EWMA + error-rate EWMA × errorPenalty + cost × costWeight
+ * </pre>
+ * so a provider that keeps failing is skipped without a round trip to it, and a cheaper one wins
+ * between similar latencies. A provider not measured yet ranks on cost alone, so each is tried
+ * early. The error rate decays while a provider is not used, and every {@code exploreEvery}-th
+ * call goes to the provider used least recently, so one that recovered, or got faster, is
+ * noticed. Each attempt is timed as {@code llm.requests}, tagged with the provider type and name.
+ */
+public class LlmRouter {
+
+    private static final Logger log = LoggerFactory.getLogger(LlmRouter.class);
+
+    private static final double ALPHA = 0.2;
+
+    private final List<Route> routes = new ArrayList<>();
+    private final MeterRegistry meterRegistry;
+    private final int maxAttempts;
+    private final double errorPenaltyMillis;
+    private final double costWeightMillis;
+    private final double errorHalfLifeMillis;
+    private final int exploreEvery;
+    private final AtomicLong calls = new AtomicLong();
+
+    public LlmRouter(List<LlmProvider> providers, MeterRegistry meterRegistry, int maxAttempts, Duration errorPenalty,
+                     double costWeightMillis, Duration errorHalfLife, int exploreEvery) {
+        for (LlmProvider provider : providers) {
+            routes.add(new Route(provider));
+        }
+        this.meterRegistry = meterRegistry;
+        this.maxAttempts = Math.max(maxAttempts, 1);
+        this.errorPenaltyMillis = errorPenalty.toMillis();
+        this.costWeightMillis = costWeightMillis;
+        this.errorHalfLifeMillis = Math.max(errorHalfLife.toMillis(), 1);
+        this.exploreEvery = exploreEvery;
+    }
+
+    /** @return the generated text, or null when no provider can serve the request or every one tried failed */
+    public String generate(LlmRequest request) {
+        long now = System.currentTimeMillis();
+        List<Route> ranked = new ArrayList<>();
+        for (Route route : routes) {
+            if (route.provider.settings().supports(request)) ranked.add(route);
+        }
+        if (ranked.isEmpty()) {
+            log.error("No LLM provider configured for {}{} requests", request.workload(), request.wantsJson() ? " JSON" : "");
+            return null;
+        }
+        ranked.sort(Comparator.comparingDouble(route -> route.score(now)));
+        if (exploreEvery > 0 && ranked.size() > 1 && calls.incrementAndGet() % exploreEvery == 0) {
+            Route stalest = ranked.stream().min(Comparator.comparingLong(route -> route.lastUsed)).orElseThrow();
+            ranked.remove(stalest);
+            ranked.add(0, stalest);
+        }
+
+        for (int i = 0; i < Math.min(maxAttempts, ranked.size()); i++) {
+            Route route = ranked.get(i);
+            String result = call(route, request);
+            if (result != null) {
+                if (i > 0 && log.isInfoEnabled(SampledLogFilter.SAMPLED)) {
+                    log.atInfo().addKeyValue("provider", route.name()).addKeyValue("attempt", i + 1)
+                            .log("LLM provider {} answered after {} failed", route.name(), ranked.get(i - 1).name());
+                }
+                return result;
+            }
+            log.atWarn().addKeyValue("provider", route.name()).addKeyValue("attempt", i + 1)
+                    .log("LLM provider {} failed{}", route.name(), i + 1 < Math.min(maxAttempts, ranked.size()) ? ", trying the next one" : "");
+        }
+        return null;
+    }
+
+    public List<String> getProviderNames() {
+        return routes.stream().map(Route::name).toList();
+    }
+
+    public double getLatencyMillis(String provider) {
+        return find(provider).latencyMillis;
+    }
+
+    public double getErrorRate(String provider) {
+        return find(provider).errorRate(System.currentTimeMillis());
+    }
+
+    private Route find(String provider) {
+        return routes.stream().filter(route -> route.name().equals(provider)).findFirst().orElseThrow();
+    }
+
+    private String call(Route route, LlmRequest request) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        LlmPromptEvent event = new LlmPromptEvent();
+        event.begin();
+        long start = System.nanoTime();
+        String outcome = "failure";
+        try {
+            String text = route.provider.generate(request);
+            if (text == null) {
+                outcome = "empty";
+                return null;
+            }
+            outcome = "success";
+            event.responseChars = text.length();
+            return text;
+        } catch (Exception e) {
+            log.atWarn().addKeyValue("provider", route.name()).log("Error calling LLM provider {}: {}", route.name(), e.getMessage());
+            return null;
+        } finally {
+            route.record(outcome.equals("success"), (System.nanoTime() - start) / 1e6);
+            event.end();
+            if (event.shouldCommit()) {
+                event.provider = route.provider.type();
+                event.keyTier = route.name();
+                event.promptChars = request.prompt().length();
+                event.outcome = outcome;
+                event.commit();
+            }
+            sample.stop(Timer.builder("llm.requests")
+                    .description("LLM generation calls per provider")
+                    .tag("provider", route.provider.type())
+                    .tag("key", route.name())
+                    .tag("outcome", outcome)
+                    .publishPercentileHistogram()
+                    .register(meterRegistry));
+        }
+    }
+
+    private final class Route {
+        final LlmProvider provider;
+        double latencyMillis;
+        boolean measured;
+        double errorRate;
+        long errorUpdated;
+        volatile long lastUsed;
+
+        Route(LlmProvider provider) {
+            this.provider = provider;
+        }
+
+        String name() {
+            return provider.settings().name();
+        }
+
+        synchronized double score(long now) {
+            return latencyMillis + errorRate(now) * errorPenaltyMillis + provider.settings().cost() * costWeightMillis;
+        }
+
+        synchronized double errorRate(long now) {
+            return errorRate * Math.pow(0.5, (now - errorUpdated) / errorHalfLifeMillis);
+        }
+
+        synchronized void record(boolean success, double millis) {
+            long now = System.currentTimeMillis();
+            lastUsed = now;
+            errorRate = errorRate(now) + ALPHA * ((success ? 0 : 1) - errorRate(now));
+            errorUpdated = now;
+            // Failures are often fast (a refused key); they count in the error rate only
+            if (!success) return;
+            latencyMillis = measured ? latencyMillis + ALPHA * (millis - latencyMillis) : millis;
+            measured = true;
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package kishanMitra.demo.llm;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.web.client.RestTemplate;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+/**
+ * An OpenAI-style {@code chat/completions} API: OpenAI itself, DeepSeek, or a self-hosted
+ * server. The prompt is sent as one user message. JSON requests use {@code json_schema} when the
+ * provider has {@link Capability#JSON_SCHEMA}, otherwise {@code json_object}, which relies on the
+ * prompt listing the keys (the soil prompt does).
+ */
+public final class OpenAiCompatibleLlmProvider implements LlmProvider {
+
+    private final LlmProviderSettings settings;
+    private final RestTemplate restTemplate;
+
+    public OpenAiCompatibleLlmProvider(LlmProviderSettings settings, RestTemplate restTemplate) {
+        this.settings = settings;
+        this.restTemplate = restTemplate;
+    }
+
+    @Override
+    public LlmProviderSettings settings() {
+        return settings;
+    }
+
+    @Override
+    public String type() {
+        return "openai";
+    }
+
+    @Override
+    public String generate(LlmRequest request) {
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("model", settings.model());
+        body.put("messages", List.of(Map.of("role", "user", "content", request.prompt())));
+        body.put("max_tokens", request.maxOutputTokens());
+        body.put("temperature", request.temperature());
+        if (request.wantsJson()) {
+            body.put("response_format", settings.capabilities().contains(Capability.JSON_SCHEMA)
+                    ? Map.of("type", "json_schema", "json_schema", Map.of("name", "response", "schema", toJsonSchema(request.jsonSchema())))
+                    : Map.of("type", "json_object"));
+        }
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        headers.setBearerAuth(settings.apiKey());
+        JsonNode response = restTemplate.postForObject(settings.url(), new HttpEntity<>(body, headers), JsonNode.class);
+        JsonNode content = response == null ? null : response.path("choices").path(0).path("message").path("content");
+        return content != null && content.isTextual() ? content.asText() : null;
+    }
+
+    /** Gemini's schema dialect to JSON Schema: lower-case types, no {@code propertyOrdering}. */
+    @SuppressWarnings("unchecked")
+    static Object toJsonSchema(Object schema) {
+        if (schema instanceof Map<?, ?> map) {
+            Map<String, Object> converted = new LinkedHashMap<>();
+            ((Map<String, Object>) map).forEach((key, value) -> {
+                if (key.equals("propertyOrdering")) return;
+                converted.put(key, key.equals("type") && value instanceof String type
+                        ? type.toLowerCase(Locale.ROOT) : toJsonSchema(value));
+            });
+            return converted;
+        }
+        if (schema instanceof List<?> list) {
+            return list.stream().map(OpenAiCompatibleLlmProvider::toJsonSchema).toList();
+        }
+        return schema;
+    }
+}
@@ -0,0 +1,61 @@
+package kishanMitra.demo.llm;
+
+import java.time.Duration;
+import java.util.Map;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+/**
+ * Answers locally, for development without API keys and for tests: the configured
+ * {@code response}, or for JSON requests an object with a placeholder for each schema property.
+ */
+public final class StubLlmProvider implements LlmProvider {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private final LlmProviderSettings settings;
+    private final String response;
+    private final Duration latency;
+
+    public StubLlmProvider(LlmProviderSettings settings, String response, Duration latency) {
+        this.settings = settings;
+        this.response = response;
+        this.latency = latency;
+    }
+
+    @Override
+    public LlmProviderSettings settings() {
+        return settings;
+    }
+
+    @Override
+    public String type() {
+        return "stub";
+    }
+
+    @Override
+    public String generate(LlmRequest request) {
+        if (!latency.isZero()) {
+            try {
+                Thread.sleep(latency);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted", e);
+            }
+        }
+        if (response != null && !response.isEmpty()) return response;
+        if (!request.wantsJson()) return "Stub answer from " + settings.name() + ".";
+        ObjectNode json = MAPPER.createObjectNode();
+        Object properties = request.jsonSchema().get("properties");
+        if (properties instanceof Map<?, ?> map) {
+            map.forEach((key, property) -> {
+                Object type = property instanceof Map<?, ?> p ? p.get("type") : null;
+                if ("STRING".equalsIgnoreCase(String.valueOf(type))) json.put(key.toString(), "stub");
+                else if ("BOOLEAN".equalsIgnoreCase(String.valueOf(type))) json.put(key.toString(), false);
+                else json.put(key.toString(), 0);
+            });
+        }
+        return json.toString();
+    }
+}
@@ -0,0 +1,43 @@
+package kishanMitra.demo.monitoring;
+
+import java.io.IOException;
+import java.util.Map;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.stereotype.Component;
+
+import kishanMitra.demo.dto.IngestReport;
+import kishanMitra.demo.service.MarketPriceIngestService;
+
+/**
+ * {@code GET /actuator/agmarknet} shows the last bulk ingest;
+ * {@code POST /actuator/agmarknet} with {@code {"file": "agmarknet-2025-10-01.csv"}} loads a dump
+ * from {@code agmarknet.ingest.dir}. An ingest replaces every bulk price, so the write operation is
+ * off unless {@code management.endpoint.agmarknet.access=unrestricted}.
+ */
+@Component
+@Endpoint(id = "agmarknet")
+public class AgmarknetEndpoint {
+
+    private final MarketPriceIngestService marketPriceIngestService;
+    private volatile IngestReport lastReport;
+
+    public AgmarknetEndpoint(MarketPriceIngestService marketPriceIngestService) {
+        this.marketPriceIngestService = marketPriceIngestService;
+    }
+
+    @ReadOperation
+    public Map<String, Object> status() {
+        IngestReport report = lastReport;
+        return report != null ? Map.of("lastIngest", report) : Map.of();
+    }
+
+    @WriteOperation
+    public IngestReport ingest(String file) throws IOException {
+        IngestReport report = marketPriceIngestService.ingestFromDirectory(file);
+        lastReport = report;
+        return report;
+    }
+}
@@ -0,0 +1,36 @@
+package kishanMitra.demo.monitoring;
+
+import java.util.Map;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.stereotype.Component;
+
+import kishanMitra.demo.alerts.WeatherAlertService;
+
+/**
+ * {@code GET /actuator/alerts} shows the weather alert subscriptions and the last poll;
+ * {@code POST /actuator/alerts} polls now; it is off unless
+ * {@code management.endpoint.alerts.access=unrestricted}.
+ */
+@Component
+@Endpoint(id = "alerts")
+public class AlertsEndpoint {
+
+    private final WeatherAlertService weatherAlertService;
+
+    public AlertsEndpoint(WeatherAlertService weatherAlertService) {
+        this.weatherAlertService = weatherAlertService;
+    }
+
+    @ReadOperation
+    public Map<String, Object> status() {
+        return weatherAlertService.status();
+    }
+
+    @WriteOperation
+    public Map<String, Object> run() {
+        return weatherAlertService.startAsync();
+    }
+}
@@ -0,0 +1,30 @@
+package kishanMitra.demo.monitoring;
+
+import jdk.jfr.Category;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("kishanmitra.CacheLookup")
+@Label("Cache Lookup")
+@Category({"Kishan Mitra", "Cache"})
+@StackTrace(false)
+public class CacheLookupEvent extends Event {
+
+    @Label("Cache")
+    public String cache;
+
+    @Label("Hit")
+    public boolean hit;
+
+    /** Cheap enough for hot paths: when no recording has the event enabled this is a no-op. */
+    public static void record(String cache, boolean hit) {
+        CacheLookupEvent event = new CacheLookupEvent();
+        if (event.isEnabled()) {
+            event.cache = cache;
+            event.hit = hit;
+            event.commit();
+        }
+    }
+}
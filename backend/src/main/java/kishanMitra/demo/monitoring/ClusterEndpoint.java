@@ -0,0 +1,32 @@
+package kishanMitra.demo.monitoring;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import kishanMitra.demo.cache.SharedCacheTier;
+import kishanMitra.demo.cluster.ClusterMembership;
+
+/** {@code GET /actuator/cluster} shows the cluster nodes as this one sees them and the shared cache tier. */
+@Component
+@Endpoint(id = "cluster")
+public class ClusterEndpoint {
+
+    private final ClusterMembership membership;
+    private final SharedCacheTier sharedCache;
+
+    public ClusterEndpoint(ClusterMembership membership, SharedCacheTier sharedCache) {
+        this.membership = membership;
+        this.sharedCache = sharedCache;
+    }
+
+    @ReadOperation
+    public Map<String, Object> status() {
+        Map<String, Object> status = new LinkedHashMap<>(membership.status());
+        status.put("sharedCache", sharedCache.getType());
+        return status;
+    }
+}
@@ -0,0 +1,44 @@
+package kishanMitra.demo.monitoring;
+
+import java.io.IOException;
+import java.util.Map;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+/**
+ * {@code GET /actuator/jfr} shows the recording status;
+ * {@code POST /actuator/jfr} with {@code {"action": "start|dump|stop", "settings": "profile"}} drives it.
+ * A dump answers with the file name only, inside {@code jfr.dump.dir}.
+ */
+@Component
+@Endpoint(id = "jfr")
+public class JfrEndpoint {
+
+    private final JfrRecordingService jfrRecordingService;
+
+    public JfrEndpoint(JfrRecordingService jfrRecordingService) {
+        this.jfrRecordingService = jfrRecordingService;
+    }
+
+    @ReadOperation
+    public Map<String, Object> status() {
+        return jfrRecordingService.status();
+    }
+
+    @WriteOperation
+    public Map<String, Object> control(String action, @Nullable String settings) throws IOException {
+        return switch (action) {
+            case "start" -> jfrRecordingService.start(settings);
+            case "dump" -> Map.of("file", jfrRecordingService.dump().getFileName().toString());
+            case "stop" -> {
+                jfrRecordingService.stop();
+                yield jfrRecordingService.status();
+            }
+            default -> throw new IllegalArgumentException("Unknown action '" + action + "', expected start, dump or stop");
+        };
+    }
+}
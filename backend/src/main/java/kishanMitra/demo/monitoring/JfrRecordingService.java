@@ -0,0 +1,118 @@
+package kishanMitra.demo.monitoring;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import jdk.jfr.RecordingState;
+
+/**
+ * Starts, dumps and stops an in-process Flight Recorder recording, so production hot paths can
+ * be opened in JMC without attaching an agent or shelling into the container.
+ * Set {@code jfr.recording.enabled=true} to start recording at boot; the {@code jfr} actuator
+ * endpoint drives it at runtime.
+ */
+@Service
+public class JfrRecordingService {
+
+    private static final Logger log = LoggerFactory.getLogger(JfrRecordingService.class);
+
+    private static final DateTimeFormatter FILE_STAMP = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
+
+    @Value("${jfr.recording.enabled:false}")
+    private boolean startOnBoot;
+
+    @Value("${jfr.recording.settings:profile}")
+    private String defaultSettings;
+
+    @Value("${jfr.recording.max-age:30m}")
+    private Duration maxAge;
+
+    @Value("${jfr.dump.dir:logs}")
+    private String dumpDir;
+
+    private Recording recording;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void startOnBoot() {
+        if (startOnBoot) {
+            start(defaultSettings);
+        }
+    }
+
+    public synchronized Map<String, Object> start(String settings) {
+        if (isRunning()) {
+            return status();
+        }
+        if (settings == null || settings.isBlank()) {
+            settings = defaultSettings;
+        }
+        try {
+            Recording newRecording = new Recording(Configuration.getConfiguration(settings));
+            newRecording.setName("kishan-mitra");
+            newRecording.setMaxAge(maxAge);
+            newRecording.setToDisk(true);
+            newRecording.enable(UpstreamCallEvent.class);
+            newRecording.enable(LlmPromptEvent.class);
+            newRecording.enable(CacheLookupEvent.class);
+            newRecording.start();
+            recording = newRecording;
+            log.info("JFR recording started with '{}' settings, keeping the last {}", settings, maxAge);
+        } catch (IOException | ParseException e) {
+            throw new IllegalArgumentException("Unknown JFR settings '" + settings + "': " + e.getMessage(), e);
+        }
+        return status();
+    }
+
+    /** Writes the recording so far to the dump directory; the recording keeps running. */
+    public synchronized Path dump() throws IOException {
+        if (!isRunning()) {
+            throw new IllegalStateException("No JFR recording is running");
+        }
+        Path dir = Path.of(dumpDir);
+        Files.createDirectories(dir);
+        Path file = dir.resolve("kishan-mitra-" + LocalDateTime.now().format(FILE_STAMP) + ".jfr").toAbsolutePath();
+        recording.dump(file);
+        log.info("JFR recording dumped to {}", file);
+        return file;
+    }
+
+    @PreDestroy
+    public synchronized void stop() {
+        if (recording != null) {
+            recording.close();
+            recording = null;
+        }
+    }
+
+    public synchronized Map<String, Object> status() {
+        Map<String, Object> status = new LinkedHashMap<>();
+        status.put("running", isRunning());
+        if (recording != null) {
+            status.put("startTime", recording.getStartTime());
+            status.put("maxAge", recording.getMaxAge());
+            status.put("sizeBytes", recording.getSize());
+        }
+        return status;
+    }
+
+    private boolean isRunning() {
+        return recording != null && recording.getState() == RecordingState.RUNNING;
+    }
+}
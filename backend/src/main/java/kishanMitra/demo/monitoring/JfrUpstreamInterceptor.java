@@ -0,0 +1,63 @@
+package kishanMitra.demo.monitoring;
+
+import java.io.IOException;
+import java.net.URI;
+import java.util.regex.Pattern;
+
+import org.springframework.http.HttpRequest;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.stereotype.Component;
+
+import kishanMitra.demo.upstream.UpstreamResolver;
+
+/**
+ * Emits an {@link UpstreamCallEvent} for every call through the shared RestTemplate, so JMC
+ * can line up slow upstreams with what the JVM was doing at the time.
+ */
+@Component
+public class JfrUpstreamInterceptor implements ClientHttpRequestInterceptor {
+
+    /** A path segment that is a number or a comma-separated list of them, such as coordinates. */
+    private static final Pattern NUMERIC_SEGMENT = Pattern.compile("(?<=/)[-+]?\\d+(\\.\\d+)?(,[-+]?\\d+(\\.\\d+)?)*(?=/|$)");
+
+    private final UpstreamResolver upstreamResolver;
+
+    public JfrUpstreamInterceptor(UpstreamResolver upstreamResolver) {
+        this.upstreamResolver = upstreamResolver;
+    }
+
+    @Override
+    public ClientHttpResponse intercept(HttpRequest request, byte[] body, ClientHttpRequestExecution execution) throws IOException {
+        UpstreamCallEvent event = new UpstreamCallEvent();
+        if (!event.isEnabled()) {
+            return execution.execute(request, body);
+        }
+        event.begin();
+        event.status = -1;
+        event.responseBytes = -1;
+        try {
+            ClientHttpResponse response = execution.execute(request, body);
+            event.status = response.getStatusCode().value();
+            event.responseBytes = response.getHeaders().getContentLength();
+            return response;
+        } finally {
+            event.end();
+            if (event.shouldCommit()) {
+                URI uri = request.getURI();
+                event.upstream = upstreamResolver.resolve(uri).tag();
+                event.host = uri.getHost();
+                event.path = pathTemplate(uri.getPath());
+                event.method = request.getMethod().name();
+                event.requestBytes = body.length;
+                event.commit();
+            }
+        }
+    }
+
+    /** @return the path with numeric segments replaced by {@code {}}, so recordings carry no farm locations */
+    static String pathTemplate(String path) {
+        return path == null ? null : NUMERIC_SEGMENT.matcher(path).replaceAll("{}");
+    }
+}
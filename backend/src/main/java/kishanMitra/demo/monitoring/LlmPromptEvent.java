@@ -0,0 +1,31 @@
+package kishanMitra.demo.monitoring;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("kishanmitra.LlmPrompt")
+@Label("LLM Prompt")
+@Description("One LLM generation call with a single API key")
+@Category({"Kishan Mitra", "LLM"})
+@StackTrace(false)
+public class LlmPromptEvent extends Event {
+
+    @Label("Provider")
+    public String provider;
+
+    @Label("Key Tier")
+    public String keyTier;
+
+    @Label("Prompt Characters")
+    public int promptChars;
+
+    @Label("Response Characters")
+    public int responseChars;
+
+    @Label("Outcome")
+    public String outcome;
+}
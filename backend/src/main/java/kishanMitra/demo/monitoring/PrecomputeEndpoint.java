@@ -0,0 +1,37 @@
+package kishanMitra.demo.monitoring;
+
+import java.util.Map;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.stereotype.Component;
+
+import kishanMitra.demo.service.RecommendationPrecomputeService;
+
+/**
+ * {@code GET /actuator/precompute} shows the live recommendation snapshot and the last run;
+ * {@code POST /actuator/precompute} starts a run now instead of waiting for the nightly one. A run
+ * spends Gemini quota on every tile, so the write operation is off unless
+ * {@code management.endpoint.precompute.access=unrestricted}.
+ */
+@Component
+@Endpoint(id = "precompute")
+public class PrecomputeEndpoint {
+
+    private final RecommendationPrecomputeService precomputeService;
+
+    public PrecomputeEndpoint(RecommendationPrecomputeService precomputeService) {
+        this.precomputeService = precomputeService;
+    }
+
+    @ReadOperation
+    public Map<String, Object> status() {
+        return precomputeService.status();
+    }
+
+    @WriteOperation
+    public Map<String, Object> run() {
+        return precomputeService.startAsync();
+    }
+}
@@ -0,0 +1,36 @@
+package kishanMitra.demo.monitoring;
+
+import java.util.Map;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.stereotype.Component;
+
+import kishanMitra.demo.service.CachePrewarmService;
+
+/**
+ * {@code GET /actuator/prewarm} lists the busiest tiles and languages and the last pre-warm run;
+ * {@code POST /actuator/prewarm} starts a run now; it is off unless
+ * {@code management.endpoint.prewarm.access=unrestricted}.
+ */
+@Component
+@Endpoint(id = "prewarm")
+public class PrewarmEndpoint {
+
+    private final CachePrewarmService prewarmService;
+
+    public PrewarmEndpoint(CachePrewarmService prewarmService) {
+        this.prewarmService = prewarmService;
+    }
+
+    @ReadOperation
+    public Map<String, Object> status() {
+        return prewarmService.status();
+    }
+
+    @WriteOperation
+    public Map<String, Object> run() {
+        return prewarmService.startAsync();
+    }
+}
@@ -0,0 +1,102 @@
+package kishanMitra.demo.monitoring;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Per-request record of the stages a request went through (location, soil, weather, each
+ * Gemini and Translate call, ...), kept on the request thread. It feeds the
+ * {@code Server-Timing} response header and the slow-request log.
+ * Work handed to other threads is not recorded here; it still shows up as a trace span.
+ */
+public final class RequestTimeline {
+
+    private static final ThreadLocal<RequestTimeline> CURRENT = new ThreadLocal<>();
+    private static final int MAX_ENTRIES = 512;
+
+    private final long startNanos = System.nanoTime();
+    private final List<Entry> entries = new ArrayList<>();
+    private int depth;
+
+    static RequestTimeline start() {
+        RequestTimeline timeline = new RequestTimeline();
+        CURRENT.set(timeline);
+        return timeline;
+    }
+
+    static void clear() {
+        CURRENT.remove();
+    }
+
+    /** @return the timeline of the request running on this thread, or null outside a request. */
+    public static RequestTimeline current() {
+        return CURRENT.get();
+    }
+
+    /** @return a handle for {@link #end(int)}, or -1 when the timeline is full. */
+    int begin(String stage) {
+        if (entries.size() >= MAX_ENTRIES) return -1;
+        entries.add(new Entry(stage, depth++, System.nanoTime()));
+        return entries.size() - 1;
+    }
+
+    void end(int handle) {
+        if (handle < 0) return;
+        entries.get(handle).endNanos = System.nanoTime();
+        depth--;
+    }
+
+    public long elapsedNanos() {
+        return System.nanoTime() - startNanos;
+    }
+
+    /**
+     * Renders the W3C Server-Timing value. Stages that ran several times (e.g. one translate call
+     * per crop field) are summed into one metric with the call count as its description.
+     */
+    public String toServerTiming() {
+        Map<String, double[]> totals = new LinkedHashMap<>(); // stage -> {millis, count}
+        for (Entry entry : entries) {
+            if (entry.endNanos == 0) continue;
+            double[] total = totals.computeIfAbsent(entry.stage, s -> new double[2]);
+            total[0] += (entry.endNanos - entry.startNanos) / 1e6;
+            total[1]++;
+        }
+        StringBuilder header = new StringBuilder(32 * (totals.size() + 1));
+        totals.forEach((stage, total) -> {
+            header.append(stage).append(";dur=").append(String.format(Locale.ROOT, "%.1f", total[0]));
+            if (total[1] > 1) header.append(";desc=\"").append((int) total[1]).append(" calls\"");
+            header.append(", ");
+        });
+        header.append("total;dur=").append(String.format(Locale.ROOT, "%.1f", elapsedNanos() / 1e6));
+        return header.toString();
+    }
+
+    /** Indented stage tree with offsets from the start of the request, for the slow-request log. */
+    public String renderTree() {
+        StringBuilder tree = new StringBuilder();
+        for (Entry entry : entries) {
+            tree.append('\n').append("  ".repeat(entry.depth + 1)).append(entry.stage)
+                    .append(String.format(Locale.ROOT, " +%.1fms ", (entry.startNanos - startNanos) / 1e6))
+                    .append(entry.endNanos == 0 ? "(unfinished)"
+                            : String.format(Locale.ROOT, "%.1fms", (entry.endNanos - entry.startNanos) / 1e6));
+        }
+        return tree.toString();
+    }
+
+    private static final class Entry {
+        private final String stage;
+        private final int depth;
+        private final long startNanos;
+        private long endNanos;
+
+        Entry(String stage, int depth, long startNanos) {
+            this.stage = stage;
+            this.depth = depth;
+            this.startNanos = startNanos;
+        }
+    }
+}
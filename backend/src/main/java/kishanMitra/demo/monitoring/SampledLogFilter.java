@@ -0,0 +1,53 @@
+package kishanMitra.demo.monitoring;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Marker;
+import org.slf4j.MarkerFactory;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.turbo.TurboFilter;
+import ch.qos.logback.core.spi.FilterReply;
+
+/**
+ * Keeps one in {@code every} of the INFO and DEBUG messages marked {@link #SAMPLED}, counted per
+ * message template, so lines written on every request ("location found") show up without
+ * costing a console write each time. WARN and ERROR always pass. Runs before the event is
+ * created, so a dropped message is not formatted either. Configured in {@code logback-spring.xml}.
+ * <p>
+ * Logback does not run TurboFilters for the fluent API ({@code atInfo().addKeyValue(...)}), so a
+ * sampled line with key-value pairs is guarded with {@code isInfoEnabled(SAMPLED)} instead,
+ * which has no template and is counted per logger.
+ */
+public class SampledLogFilter extends TurboFilter {
+
+    public static final Marker SAMPLED = MarkerFactory.getMarker("SAMPLED");
+
+    private final Map<String, AtomicLong> counts = new ConcurrentHashMap<>();
+    private final AtomicLong dropped = new AtomicLong();
+    private int every = 100;
+
+    public void setEvery(int every) {
+        this.every = every;
+    }
+
+    public long getDropped() {
+        return dropped.get();
+    }
+
+    @Override
+    public FilterReply decide(Marker marker, Logger logger, Level level, String format, Object[] params, Throwable t) {
+        if (marker == null || every <= 1 || level.isGreaterOrEqual(Level.WARN) || !marker.contains(SAMPLED)) {
+            return FilterReply.NEUTRAL;
+        }
+        String template = format != null ? format : logger.getName();
+        if (counts.computeIfAbsent(template, key -> new AtomicLong()).getAndIncrement() % every == 0) {
+            return FilterReply.NEUTRAL;
+        }
+        dropped.incrementAndGet();
+        return FilterReply.DENY;
+    }
+}
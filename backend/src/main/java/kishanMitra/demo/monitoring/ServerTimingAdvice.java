@@ -0,0 +1,34 @@
+package kishanMitra.demo.monitoring;
+
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+/**
+ * Adds the per-stage {@code Server-Timing} header to API responses. A ResponseBodyAdvice runs
+ * after the controller finished but before the body is written and the headers are committed,
+ * which a plain servlet filter can't guarantee.
+ */
+@ControllerAdvice
+public class ServerTimingAdvice implements ResponseBodyAdvice<Object> {
+
+    @Override
+    public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+        return true;
+    }
+
+    @Override
+    public Object beforeBodyWrite(Object body, MethodParameter returnType, MediaType selectedContentType,
+                                  Class<? extends HttpMessageConverter<?>> selectedConverterType,
+                                  ServerHttpRequest request, ServerHttpResponse response) {
+        RequestTimeline timeline = RequestTimeline.current();
+        if (timeline != null) {
+            response.getHeaders().add("Server-Timing", timeline.toServerTiming());
+        }
+        return body;
+    }
+}
@@ -0,0 +1,55 @@
+package kishanMitra.demo.monitoring;
+
+import java.io.IOException;
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Opens a {@link RequestTimeline} for every /api request and logs the full stage tree of
+ * a sample of the requests that exceed the slow-request threshold.
+ * The header itself is written by {@link ServerTimingAdvice}, just before the body.
+ */
+@Component
+public class ServerTimingFilter extends OncePerRequestFilter {
+
+    private static final Logger log = LoggerFactory.getLogger(ServerTimingFilter.class);
+
+    @Value("${tracing.slow-request.threshold-ms:3000}")
+    private long slowRequestThresholdMs;
+
+    @Value("${tracing.slow-request.sample-rate:1.0}")
+    private double slowRequestSampleRate;
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !request.getRequestURI().startsWith("/api/");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        RequestTimeline timeline = RequestTimeline.start();
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            RequestTimeline.clear();
+            long elapsedMs = timeline.elapsedNanos() / 1_000_000;
+            if (elapsedMs >= slowRequestThresholdMs && ThreadLocalRandom.current().nextDouble() < slowRequestSampleRate) {
+                String query = request.getQueryString() != null ? "?" + request.getQueryString() : "";
+                log.atWarn().addKeyValue("method", request.getMethod()).addKeyValue("uri", request.getRequestURI())
+                        .addKeyValue("elapsedMs", elapsedMs)
+                        .log("Slow request: {} {}{} took {} ms{}", request.getMethod(), request.getRequestURI(), query, elapsedMs, timeline.renderTree());
+            }
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package kishanMitra.demo.monitoring;
+
+import java.util.function.Supplier;
+
+import org.springframework.stereotype.Component;
+
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+
+/**
+ * Wraps one step of the request pipeline in a Micrometer {@link Observation} (exported as an
+ * OpenTelemetry span and a {@code kishanmitra.stage} timer) and records it on the current
+ * {@link RequestTimeline} for the Server-Timing header.
+ */
+@Component
+public class StageTracer {
+
+    private final ObservationRegistry observationRegistry;
+
+    public StageTracer(ObservationRegistry observationRegistry) {
+        this.observationRegistry = observationRegistry;
+    }
+
+    public <T> T trace(String stage, Supplier<T> work) {
+        RequestTimeline timeline = RequestTimeline.current();
+        int handle = timeline != null ? timeline.begin(stage) : -1;
+        try {
+            return Observation.createNotStarted("kishanmitra.stage", observationRegistry)
+                    .contextualName(stage)
+                    .lowCardinalityKeyValue("stage", stage)
+                    .observe(work);
+        } finally {
+            if (timeline != null) timeline.end(handle);
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package kishanMitra.demo.monitoring;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("kishanmitra.UpstreamCall")
+@Label("Upstream Call")
+@Description("Outbound HTTP call made through the shared RestTemplate")
+@Category({"Kishan Mitra", "Upstream"})
+@StackTrace(false)
+public class UpstreamCallEvent extends Event {
+
+    @Label("Upstream")
+    public String upstream;
+
+    @Label("Host")
+    public String host;
+
+    @Label("Path")
+    @Description("Request path template: no query string (which carries API keys and coordinates), numeric segments as {}")
+    public String path;
+
+    @Label("Method")
+    public String method;
+
+    @Label("Status")
+    @Description("HTTP status, or -1 when the call failed before a response arrived")
+    public int status;
+
+    @Label("Request Bytes")
+    @DataAmount
+    public long requestBytes;
+
+    @Label("Response Bytes")
+    @Description("Content-Length of the response, or -1 when the upstream streams it")
+    @DataAmount
+    public long responseBytes;
+}
@@ -0,0 +1,4 @@
+package kishanMitra.demo.precompute;
+
+/** The one-line crop recommendation and the matching farmer summary generated for a tile. */
+public record PrecomputedRecommendation(String recommendation, String summary) {}
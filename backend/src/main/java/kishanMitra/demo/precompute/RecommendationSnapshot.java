@@ -0,0 +1,143 @@
+package kishanMitra.demo.precompute;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+import kishanMitra.demo.geo.GeoTile;
+
+/**
+ * Read-only view over a snapshot file of precomputed recommendations, memory-mapped so that a
+ * lookup is a binary search over the tile index plus decoding two strings, with nothing on
+ * the heap per tile. Layout (big-endian):
+ * <pre>
+ * magic "KMRS", format int, version long, tile size double, season (int length + UTF-8), count int
+ * index: count x (tile key int, record offset int), sorted by tile key
+ * records: recommendation and summary, each as int length + UTF-8
+ * </pre>
+ */
+public final class RecommendationSnapshot {
+
+    private static final int MAGIC = 0x4B4D5253; // "KMRS"
+    private static final int FORMAT = 1;
+    private static final int INDEX_ENTRY_BYTES = 8;
+
+    private final Path file;
+    private final ByteBuffer buffer;
+    private final long version;
+    private final String season;
+    private final int count;
+    private final int indexStart;
+
+    private RecommendationSnapshot(Path file, ByteBuffer buffer) {
+        this.file = file;
+        this.buffer = buffer;
+        if (buffer.getInt(0) != MAGIC || buffer.getInt(4) != FORMAT) {
+            throw new IllegalArgumentException(file + " is not a recommendation snapshot (format " + FORMAT + ")");
+        }
+        if (buffer.getDouble(16) != GeoTile.SIZE_DEGREES) {
+            throw new IllegalArgumentException(file + " was written for " + buffer.getDouble(16) + "° tiles");
+        }
+        this.version = buffer.getLong(8);
+        int seasonLength = buffer.getInt(24);
+        this.season = decode(28, seasonLength);
+        this.count = buffer.getInt(28 + seasonLength);
+        this.indexStart = 32 + seasonLength;
+    }
+
+    public static RecommendationSnapshot open(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            // The mapping stays valid after the channel is closed, and after the file is deleted
+            MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            return new RecommendationSnapshot(file, mapped);
+        }
+    }
+
+    /** Writes {@code entries} (tile key to recommendation) as a snapshot file. */
+    public static void write(Path file, long version, String season,
+                             Map<Integer, PrecomputedRecommendation> entries) throws IOException {
+        SortedMap<Integer, PrecomputedRecommendation> sorted = new TreeMap<>(entries);
+        byte[] seasonBytes = season.getBytes(StandardCharsets.UTF_8);
+        int headerBytes = 32 + seasonBytes.length;
+
+        ByteBuffer records = ByteBuffer.allocate(1024);
+        ByteBuffer index = ByteBuffer.allocate(sorted.size() * INDEX_ENTRY_BYTES);
+        int recordsStart = headerBytes + index.capacity();
+        for (Map.Entry<Integer, PrecomputedRecommendation> entry : sorted.entrySet()) {
+            index.putInt(entry.getKey()).putInt(recordsStart + records.position());
+            records = putString(records, entry.getValue().recommendation());
+            records = putString(records, entry.getValue().summary());
+        }
+
+        ByteBuffer header = ByteBuffer.allocate(headerBytes);
+        header.putInt(MAGIC).putInt(FORMAT).putLong(version).putDouble(GeoTile.SIZE_DEGREES)
+                .putInt(seasonBytes.length).put(seasonBytes).putInt(sorted.size());
+        try (OutputStream out = Files.newOutputStream(file)) {
+            out.write(header.array());
+            out.write(index.array());
+            out.write(records.array(), 0, records.position());
+        }
+    }
+
+    /** @return the entry for the tile, or null when this snapshot has none. */
+    public PrecomputedRecommendation get(GeoTile tile) {
+        int key = tile.key();
+        int lo = 0, hi = count - 1;
+        while (lo <= hi) {
+            int mid = (lo + hi) >>> 1;
+            int midKey = buffer.getInt(indexStart + mid * INDEX_ENTRY_BYTES);
+            if (midKey < key) lo = mid + 1;
+            else if (midKey > key) hi = mid - 1;
+            else return read(buffer.getInt(indexStart + mid * INDEX_ENTRY_BYTES + 4));
+        }
+        return null;
+    }
+
+    public Path getFile() {
+        return file;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public String getSeason() {
+        return season;
+    }
+
+    public int size() {
+        return count;
+    }
+
+    private PrecomputedRecommendation read(int offset) {
+        int recommendationLength = buffer.getInt(offset);
+        String recommendation = decode(offset + 4, recommendationLength);
+        int summaryOffset = offset + 4 + recommendationLength;
+        return new PrecomputedRecommendation(recommendation, decode(summaryOffset + 4, buffer.getInt(summaryOffset)));
+    }
+
+    private String decode(int offset, int length) {
+        byte[] bytes = new byte[length];
+        buffer.get(offset, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static ByteBuffer putString(ByteBuffer buffer, String value) {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        if (buffer.remaining() < 4 + bytes.length) {
+            ByteBuffer grown = ByteBuffer.allocate(Math.max(buffer.capacity() * 2, buffer.position() + 4 + bytes.length));
+            buffer.flip();
+            buffer = grown.put(buffer);
+        }
+        return buffer.putInt(bytes.length).put(bytes);
+    }
+}
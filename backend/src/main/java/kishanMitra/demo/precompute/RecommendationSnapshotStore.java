@@ -0,0 +1,158 @@
+package kishanMitra.demo.precompute;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PostConstruct;
+import kishanMitra.demo.cache.LruCache;
+import kishanMitra.demo.geo.GeoTile;
+import kishanMitra.demo.monitoring.CacheLookupEvent;
+
+/**
+ * Holds the current recommendation snapshot. Snapshots are versioned files in
+ * {@code precompute.snapshot.dir}; a {@code CURRENT} file names the live one, so publishing is
+ * an atomic rename and a restart picks up the last published version.
+ * Busy tiles outside the snapshot are kept in an in-memory overlay filled by the cache pre-warmer.
+ */
+@Component
+public class RecommendationSnapshotStore {
+
+    private static final Logger log = LoggerFactory.getLogger(RecommendationSnapshotStore.class);
+
+    private static final String CURRENT = "CURRENT";
+    private static final String PREFIX = "recommendations-";
+    private static final String SUFFIX = ".snap";
+    private static final DateTimeFormatter FILE_STAMP = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss-SSS").withZone(ZoneOffset.UTC);
+
+    @Value("${precompute.snapshot.dir:data/precompute}")
+    private String snapshotDir;
+
+    @Value("${precompute.snapshot.keep:3}")
+    private int keep;
+
+    private static final long HOT_TTL_MS = 24 * 60 * 60 * 1000; // until the next morning's pre-warm
+    private static final int HOT_MAX = 10_000;
+
+    private volatile RecommendationSnapshot current;
+    private final LruCache<Integer, HotEntry> hot = new LruCache<>(HOT_MAX);
+
+    private record HotEntry(String season, PrecomputedRecommendation entry, long createdAt) {}
+
+    @PostConstruct
+    void loadCurrent() {
+        Path pointer = Path.of(snapshotDir, CURRENT);
+        if (!Files.exists(pointer)) return;
+        try {
+            current = RecommendationSnapshot.open(Path.of(snapshotDir, Files.readString(pointer, StandardCharsets.UTF_8).trim()));
+            log.info("Loaded recommendation snapshot v{} ({} tiles, {})", current.getVersion(), current.size(), current.getSeason());
+        } catch (IOException | RuntimeException e) {
+            log.warn("Could not load recommendation snapshot, generating on demand: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * @return the precomputed entry for the tile containing the coordinates, from the snapshot or
+     * the hot overlay, or null when neither has the tile for this season.
+     */
+    public PrecomputedRecommendation lookup(double lat, double lon, String season) {
+        RecommendationSnapshot snapshot = current;
+        GeoTile tile = GeoTile.of(lat, lon);
+        PrecomputedRecommendation entry = snapshot != null && snapshot.getSeason().equals(season) ? snapshot.get(tile) : null;
+        if (entry == null) {
+            HotEntry hotEntry = hot.get(tile.key());
+            if (hotEntry != null && hotEntry.season().equals(season)
+                    && System.currentTimeMillis() - hotEntry.createdAt() < HOT_TTL_MS) {
+                entry = hotEntry.entry();
+            }
+        }
+        CacheLookupEvent.record("recommendation-snapshot", entry != null);
+        return entry;
+    }
+
+    /**
+     * Adds a tile generated outside the nightly run; lookups prefer the snapshot when it has the tile.
+     * When the overlay is full the least recently looked-up tile is dropped.
+     */
+    public void putHot(GeoTile tile, String season, PrecomputedRecommendation entry) {
+        hot.put(tile.key(), new HotEntry(season, entry, System.currentTimeMillis()));
+    }
+
+    /** Writes a new version, switches lookups to it and prunes all but the newest {@code keep} files. */
+    public synchronized RecommendationSnapshot publish(String season, Map<Integer, PrecomputedRecommendation> entries)
+            throws IOException {
+        Path dir = Files.createDirectories(Path.of(snapshotDir));
+        RecommendationSnapshot previous = current;
+        long version = Math.max(System.currentTimeMillis(), previous != null ? previous.getVersion() + 1 : 0);
+        String name = PREFIX + FILE_STAMP.format(Instant.ofEpochMilli(version)) + SUFFIX;
+
+        Path tmp = dir.resolve(name + ".tmp");
+        RecommendationSnapshot.write(tmp, version, season, entries);
+        Files.move(tmp, dir.resolve(name), StandardCopyOption.ATOMIC_MOVE);
+        RecommendationSnapshot snapshot = RecommendationSnapshot.open(dir.resolve(name));
+
+        Path pointerTmp = dir.resolve(CURRENT + ".tmp");
+        Files.writeString(pointerTmp, name, StandardCharsets.UTF_8);
+        Files.move(pointerTmp, dir.resolve(CURRENT), StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        current = snapshot;
+
+        prune(dir);
+        return snapshot;
+    }
+
+    /**
+     * @return the snapshot version when it has the tile, else when the hot overlay entry was
+     * created, else 0 (the recommendation is generated per request).
+     */
+    public long versionOf(GeoTile tile) {
+        RecommendationSnapshot snapshot = current;
+        if (snapshot != null && snapshot.get(tile) != null) return snapshot.getVersion();
+        HotEntry hotEntry = hot.get(tile.key());
+        return hotEntry != null && System.currentTimeMillis() - hotEntry.createdAt() < HOT_TTL_MS ? hotEntry.createdAt() : 0;
+    }
+
+    public Map<String, Object> status() {
+        RecommendationSnapshot snapshot = current;
+        Map<String, Object> status = new LinkedHashMap<>();
+        status.put("loaded", snapshot != null);
+        if (snapshot != null) {
+            status.put("version", snapshot.getVersion());
+            status.put("file", snapshot.getFile().getFileName().toString());
+            status.put("season", snapshot.getSeason());
+            status.put("tiles", snapshot.size());
+        }
+        status.put("hotTiles", hot.size());
+        return status;
+    }
+
+    public int getTileCount() {
+        RecommendationSnapshot snapshot = current;
+        return snapshot != null ? snapshot.size() : 0;
+    }
+
+    private void prune(Path dir) throws IOException {
+        List<Path> files = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(dir, PREFIX + "*" + SUFFIX)) {
+            stream.forEach(files::add);
+        }
+        files.sort(null); // the timestamp in the name sorts oldest first
+        for (int i = 0; i < files.size() - Math.max(keep, 1); i++) {
+            Files.deleteIfExists(files.get(i)); // an existing mapping of the file stays readable
+        }
+    }
+}
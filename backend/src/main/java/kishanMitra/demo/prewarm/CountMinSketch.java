@@ -0,0 +1,64 @@
+package kishanMitra.demo.prewarm;
+
+/**
+ * Fixed-size frequency sketch over int keys: {@code depth} rows of {@code width} counters, one
+ * hashed counter per row, the estimate is the smallest of them. Estimates never undercount and
+ * overcount by at most about {@code 2 * total / width} with high probability, however many
+ * distinct keys are seen. Updates are conservative (only the minimal counters grow), which keeps
+ * the overcount for the light keys much lower in practice. Not thread-safe.
+ */
+public final class CountMinSketch {
+
+    private static final int[] SEEDS = {0x9E3779B9, 0x85EBCA6B, 0xC2B2AE35, 0x27D4EB2F, 0x165667B1, 0xD3A2646C, 0xFD7046C5, 0xB55A4F09};
+
+    private final int[][] counters;
+    private final int mask;
+
+    /** @param width counters per row, rounded up to a power of two */
+    public CountMinSketch(int depth, int width) {
+        if (depth < 1 || depth > SEEDS.length) {
+            throw new IllegalArgumentException("depth must be between 1 and " + SEEDS.length);
+        }
+        int size = Integer.highestOneBit(Math.max(width - 1, 1)) << 1;
+        this.counters = new int[depth][size];
+        this.mask = size - 1;
+    }
+
+    /** Counts one occurrence of the key. @return its new estimate */
+    public int add(int key) {
+        int estimate = estimate(key);
+        if (estimate == Integer.MAX_VALUE) return estimate;
+        for (int row = 0; row < counters.length; row++) {
+            int[] counts = counters[row];
+            int slot = slot(key, row);
+            if (counts[slot] == estimate) counts[slot]++;
+        }
+        return estimate + 1;
+    }
+
+    public int estimate(int key) {
+        int min = Integer.MAX_VALUE;
+        for (int row = 0; row < counters.length; row++) {
+            min = Math.min(min, counters[row][slot(key, row)]);
+        }
+        return min;
+    }
+
+    /** Halves every counter, so old traffic fades and the sketch follows the recent days. */
+    public void halve() {
+        for (int[] counts : counters) {
+            for (int i = 0; i < counts.length; i++) counts[i] >>>= 1;
+        }
+    }
+
+    private int slot(int key, int row) {
+        // murmur3 fmix32 of the seeded key
+        int h = key ^ SEEDS[row];
+        h ^= h >>> 16;
+        h *= 0x85EBCA6B;
+        h ^= h >>> 13;
+        h *= 0xC2B2AE35;
+        h ^= h >>> 16;
+        return h & mask;
+    }
+}
@@ -0,0 +1,103 @@
+package kishanMitra.demo.prewarm;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeSet;
+
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import kishanMitra.demo.geo.GeoTile;
+
+/**
+ * Counts which tiles (and reply languages) farmers ask about, in constant memory: a
+ * {@link CountMinSketch} holds the frequencies and a bounded candidate set remembers which
+ * tiles currently rank highest, since a sketch cannot list its keys. The candidates are also kept
+ * ordered by their estimate, so a tile that outranks the coldest one replaces exactly that one.
+ * Counts are halved every night, so the ranking follows the last few days of traffic.
+ */
+@Component
+public class HotTileTracker {
+
+    private static final int CANDIDATES = 1024;
+    private static final int MAX_LANGUAGES = 32;
+
+    private final CountMinSketch sketch = new CountMinSketch(4, 16_384);
+    private final Map<Integer, Integer> candidates = new HashMap<>(); // tile key -> estimate
+    private final TreeSet<Long> ranking = new TreeSet<>(); // rank(estimate, tile key), coldest first
+    private final Map<String, Integer> languages = new HashMap<>();
+
+    public synchronized void record(double lat, double lon, String lang) {
+        int key = GeoTile.of(lat, lon).key();
+        int estimate = sketch.add(key);
+        Integer previous = candidates.get(key);
+        if (previous != null) {
+            ranking.remove(rank(previous, key));
+            putCandidate(key, estimate);
+        } else if (candidates.size() < CANDIDATES) {
+            putCandidate(key, estimate);
+        } else if (estimate > hits(ranking.first())) {
+            long coldest = ranking.pollFirst();
+            candidates.remove(tileKey(coldest));
+            putCandidate(key, estimate);
+        }
+
+        String language = lang == null || lang.isBlank() ? "en" : lang.toLowerCase(Locale.ROOT);
+        if (languages.containsKey(language) || languages.size() < MAX_LANGUAGES) {
+            languages.merge(language, 1, Integer::sum);
+        }
+    }
+
+    /** @return up to {@code n} tiles, most requested first. */
+    public synchronized List<HotTile> top(int n) {
+        List<HotTile> tiles = new ArrayList<>(candidates.size());
+        candidates.forEach((key, hits) -> tiles.add(new HotTile(GeoTile.fromKey(key), hits)));
+        tiles.sort(Comparator.comparingInt(HotTile::hits).reversed());
+        return tiles.size() > n ? new ArrayList<>(tiles.subList(0, n)) : tiles;
+    }
+
+    /** @return up to {@code n} requested languages other than English, most requested first. */
+    public synchronized List<String> topLanguages(int n) {
+        return languages.entrySet().stream()
+                .filter(entry -> !"en".equals(entry.getKey()))
+                .sorted(Map.Entry.<String, Integer>comparingByValue().reversed())
+                .limit(n)
+                .map(Map.Entry::getKey)
+                .toList();
+    }
+
+    @Scheduled(cron = "${prewarm.decay.cron:0 0 0 * * *}", zone = "${prewarm.zone:Asia/Kolkata}")
+    public synchronized void decay() {
+        sketch.halve();
+        candidates.replaceAll((key, hits) -> hits >>> 1);
+        candidates.values().removeIf(hits -> hits == 0);
+        ranking.clear();
+        candidates.forEach((key, hits) -> ranking.add(rank(hits, key)));
+        languages.replaceAll((language, hits) -> hits >>> 1);
+        languages.values().removeIf(hits -> hits == 0);
+    }
+
+    private void putCandidate(int key, int estimate) {
+        candidates.put(key, estimate);
+        ranking.add(rank(estimate, key));
+    }
+
+    /** Orders by estimate, then by tile key; estimates are never negative. */
+    private static long rank(int hits, int key) {
+        return ((long) hits << 32) | (key & 0xFFFF_FFFFL);
+    }
+
+    private static int hits(long rank) {
+        return (int) (rank >>> 32);
+    }
+
+    private static int tileKey(long rank) {
+        return (int) rank;
+    }
+
+    public record HotTile(GeoTile tile, int hits) {}
+}
@@ -0,0 +1,166 @@
+package kishanMitra.demo.prompt;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.function.ToDoubleFunction;
+
+import kishanMitra.demo.dto.AgronomicFeatures;
+
+/**
+ * Prompt text compiled once into literal and value segments, then rendered into a presized
+ * {@link StringBuilder}: no format-string parsing, boxing or locale lookups per request.
+ *
+ * <p>Placeholders are {@code {name}} for text and {@code {name:N}} for a number with N decimals.
+ * Names are {@link AgronomicFeatures} components or the argument names passed to
+ * {@link #compile}. Any other brace (e.g. a JSON example in the prompt) is copied verbatim.
+ */
+public final class PromptTemplate {
+
+    private static final Map<String, Function<AgronomicFeatures, String>> TEXT = Map.of(
+            "district", AgronomicFeatures::district,
+            "state", AgronomicFeatures::state,
+            "season", AgronomicFeatures::season,
+            "soilType", AgronomicFeatures::soilType,
+            "koppenClass", AgronomicFeatures::koppenClass);
+
+    private static final Map<String, ToDoubleFunction<AgronomicFeatures>> NUMBERS = Map.ofEntries(
+            Map.entry("ph", AgronomicFeatures::ph),
+            Map.entry("soilOrganicCarbon", AgronomicFeatures::soilOrganicCarbon),
+            Map.entry("cationExchangeCapacity", AgronomicFeatures::cationExchangeCapacity),
+            Map.entry("bulkDensity", AgronomicFeatures::bulkDensity),
+            Map.entry("nitrogen", AgronomicFeatures::nitrogen),
+            Map.entry("phosphorus", AgronomicFeatures::phosphorus),
+            Map.entry("potassium", AgronomicFeatures::potassium),
+            Map.entry("electricalConductivity", AgronomicFeatures::electricalConductivity),
+            Map.entry("salinity", AgronomicFeatures::salinity),
+            Map.entry("sandPercent", AgronomicFeatures::sandPercent),
+            Map.entry("siltPercent", AgronomicFeatures::siltPercent),
+            Map.entry("clayPercent", AgronomicFeatures::clayPercent),
+            Map.entry("topsoilMoisture", AgronomicFeatures::topsoilMoisture),
+            Map.entry("subsoilMoisture", AgronomicFeatures::subsoilMoisture),
+            Map.entry("soilTemperature", AgronomicFeatures::soilTemperature),
+            Map.entry("forecastAvgMaxTemp", AgronomicFeatures::forecastAvgMaxTemp),
+            Map.entry("forecastTotalRain", AgronomicFeatures::forecastTotalRain),
+            Map.entry("climateAvgTemp", AgronomicFeatures::climateAvgTemp),
+            Map.entry("annualRainfall", AgronomicFeatures::annualRainfall));
+
+    private static final long[] POW10 = {1, 10, 100, 1_000, 10_000, 100_000, 1_000_000};
+
+    private final Segment[] segments;
+    private final int capacity;
+
+    private PromptTemplate(Segment[] segments, int capacity) {
+        this.segments = segments;
+        this.capacity = capacity;
+    }
+
+    public static PromptTemplate compile(String template, String... argNames) {
+        List<Segment> segments = new ArrayList<>();
+        StringBuilder literal = new StringBuilder();
+        int capacity = 0;
+        int i = 0;
+        while (i < template.length()) {
+            char c = template.charAt(i);
+            int close = c == '{' ? placeholderEnd(template, i) : -1;
+            if (close < 0) {
+                literal.append(c);
+                i++;
+                continue;
+            }
+            if (!literal.isEmpty()) {
+                String text = literal.toString();
+                segments.add((out, features, args) -> out.append(text));
+                capacity += text.length();
+                literal.setLength(0);
+            }
+            segments.add(placeholder(template.substring(i + 1, close), argNames));
+            capacity += 16;
+            i = close + 1;
+        }
+        if (!literal.isEmpty()) {
+            String text = literal.toString();
+            segments.add((out, features, args) -> out.append(text));
+            capacity += text.length();
+        }
+        return new PromptTemplate(segments.toArray(new Segment[0]), capacity);
+    }
+
+    /** @param args values for the argument names given to {@link #compile}, in the same order. */
+    public String render(AgronomicFeatures features, String... args) {
+        StringBuilder out = new StringBuilder(capacity + 64);
+        for (Segment segment : segments) {
+            segment.append(out, features, args);
+        }
+        return out.toString();
+    }
+
+    /**
+     * Appends {@code value} rounded to {@code decimals} places, like {@code %.Nf} in the ROOT
+     * locale, without allocating. Falls back to String.format outside the exact long range.
+     */
+    public static void appendFixed(StringBuilder out, double value, int decimals) {
+        if (decimals >= POW10.length || Double.isNaN(value) || Double.isInfinite(value) || Math.abs(value) >= 1e12) {
+            out.append(String.format(Locale.ROOT, "%." + decimals + "f", value));
+            return;
+        }
+        long scale = POW10[decimals];
+        long scaled = Math.round(Math.abs(value) * scale);
+        if (value < 0 && scaled != 0) out.append('-');
+        out.append(scaled / scale);
+        if (decimals > 0) {
+            out.append('.');
+            long fraction = scaled % scale;
+            for (long digit = scale / 10; digit > fraction && digit > 1; digit /= 10) {
+                out.append('0');
+            }
+            out.append(fraction);
+        }
+    }
+
+    public static String fixed(double value, int decimals) {
+        StringBuilder out = new StringBuilder(24);
+        appendFixed(out, value, decimals);
+        return out.toString();
+    }
+
+    private static Segment placeholder(String spec, String[] argNames) {
+        int colon = spec.indexOf(':');
+        String name = colon < 0 ? spec : spec.substring(0, colon);
+        if (colon >= 0) {
+            int decimals = Integer.parseInt(spec.substring(colon + 1));
+            ToDoubleFunction<AgronomicFeatures> number = NUMBERS.get(name);
+            if (number == null) throw new IllegalArgumentException("Unknown numeric placeholder {" + spec + "}");
+            return (out, features, args) -> appendFixed(out, number.applyAsDouble(features), decimals);
+        }
+        for (int index = 0; index < argNames.length; index++) {
+            if (argNames[index].equals(name)) {
+                int argIndex = index;
+                return (out, features, args) -> out.append(args[argIndex]);
+            }
+        }
+        Function<AgronomicFeatures, String> text = TEXT.get(name);
+        if (text == null) throw new IllegalArgumentException("Unknown placeholder {" + name + "}");
+        return (out, features, args) -> out.append(text.apply(features));
+    }
+
+    /** @return the index of the closing brace when {@code {} at {@code start} opens {name} or {name:N}, else -1. */
+    private static int placeholderEnd(String template, int start) {
+        int i = start + 1;
+        if (i >= template.length() || !Character.isJavaIdentifierStart(template.charAt(i))) return -1;
+        while (i < template.length() && Character.isJavaIdentifierPart(template.charAt(i))) i++;
+        if (i < template.length() && template.charAt(i) == ':') {
+            int digits = ++i;
+            while (i < template.length() && Character.isDigit(template.charAt(i))) i++;
+            if (i == digits) return -1;
+        }
+        return i < template.length() && template.charAt(i) == '}' ? i : -1;
+    }
+
+    @FunctionalInterface
+    private interface Segment {
+        void append(StringBuilder out, AgronomicFeatures features, String[] args);
+    }
+}
@@ -1,75 +1,146 @@
 package kishanMitra.demo.service;
 
-import org.springframework.beans.factory.annotation.Value;
-import org.springframework.http.HttpEntity;
-import org.springframework.http.HttpHeaders;
-import org.springframework.http.MediaType;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
-import org.springframework.web.client.RestTemplate;
 
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 
+import kishanMitra.demo.admission.ServiceLevel;
+import kishanMitra.demo.cache.LruCache;
+import kishanMitra.demo.cache.SharedCacheTier;
+import kishanMitra.demo.dto.AgronomicFeatures;
 import kishanMitra.demo.dto.DashboardData;
 import kishanMitra.demo.dto.SoilData;
-import kishanMitra.demo.dto.gemini.GeminiRequest;
-import kishanMitra.demo.dto.gemini.GeminiResponse;
+import kishanMitra.demo.llm.LlmRequest;
+import kishanMitra.demo.llm.LlmRouter;
+import kishanMitra.demo.monitoring.CacheLookupEvent;
+import kishanMitra.demo.monitoring.StageTracer;
+import kishanMitra.demo.prompt.PromptTemplate;
 
 @Service
 public class AIService {
-    private final RestTemplate restTemplate;
+
+    private static final Logger log = LoggerFactory.getLogger(AIService.class);
+    private final LlmRouter llmRouter;
+    private final StageTracer stageTracer;
+    private final SharedCacheTier sharedCache;
     private final ObjectMapper objectMapper = new ObjectMapper();
 
-    @Value("${gemini.api.key}")
-    private String mainApiKey;
+    // Recommendations keyed by quantized features; /summary asks for the same one /all-data just produced
+    private static final long RECOMMENDATION_TTL_MS = 30 * 60 * 1000; // 30 minutes
+    private static final int RECOMMENDATION_CACHE_MAX = 10_000;
+    private final LruCache<String, CachedRecommendation> recommendationCache = new LruCache<>(RECOMMENDATION_CACHE_MAX);
+
+    record CachedRecommendation(String text, long createdAt) {}
+
+    public static final String RECOMMENDATION_UNAVAILABLE = "Could not retrieve a recommendation at this time.";
+    public static final String CHATBOT_UNAVAILABLE = "I am sorry, I am having trouble connecting right now. Please try again in a moment.";
+
+    private static final PromptTemplate SOIL_PROMPT = PromptTemplate.compile(
+            """
+            Act as a soil data simulation API. For the given Indian coordinates (latitude: {lat}, longitude: {lon}), generate a plausible set of soil properties.
+            Your response MUST be a single, raw JSON object and nothing else.
+            The JSON object must have these exact keys and value types:
+            {
+              "ph": number (5.5-8.5),
+              "soilOrganicCarbon": number (4-15),
+              "cationExchangeCapacity": number (5-25),
+              "bulkDensity": number (1.1-1.7),
+              "soilType": string,
+              "nitrogen": number, "phosphorus": number, "potassium": number,
+              "electricalConductivity": number, "salinity": number,
+              "sandPercent": number, "siltPercent": number, "clayPercent": number,
+              "subsoilMoisture": number, "soilTemperature": number
+            }
+            """, "lat", "lon");
 
-    @Value("${gemini.secondary.api.key}")
-    private String secondaryApiKey;
+    private static final PromptTemplate RECOMMENDATION_PROMPT = PromptTemplate.compile(
+            """
+            Task: Recommend the single best crop for the given Indian farm context.
+            Output: ONE line only -> <Crop name> — <10-20 word reason>. No preface, no extra text.
 
-    @Value("${gemini.tertiary.api.key}")
-    private String tertiaryApiKey;
+            Context:
+            - Location: {district}, {state}
+            - Season: {season}
+            - Soil: type={soilType}, pH={ph:1}, SOC={soilOrganicCarbon:1}, CEC={cationExchangeCapacity:1}, bulkDensity={bulkDensity:1}
+              N={nitrogen:0} kg/ha, P={phosphorus:0} kg/ha, K={potassium:0} kg/ha, EC={electricalConductivity:2} dS/m, salinity={salinity:2} ppt
+              texture: sand={sandPercent:0}%, silt={siltPercent:0}%, clay={clayPercent:0}%
+              moisture(top)={topsoilMoisture:2}, moisture(sub)={subsoilMoisture:2}, soilTemp={soilTemperature:1}°C
+            - 7-day forecast: avgMaxTemp={forecastAvgMaxTemp:1}°C, totalRain={forecastTotalRain:1} mm
+            - Climate normals: avgTemp={climateAvgTemp:1}°C, annualRain={annualRainfall:0} mm, class={koppenClass}
+            """);
 
-    @Value("${gemini.quaternary.api.key}")
-    private String quaternaryApiKey;
+    private static final PromptTemplate CHATBOT_PROMPT = PromptTemplate.compile(
+            """
+            Task: Answer the farmer's question briefly in the specified language.
+            Reply language: {lang}
+            Constraints: max 2 sentences; be practical and specific to Indian farming.
+            Focus areas: crop choice for max efficiency, input use, pest control, irrigation, soil health, cost-effectiveness. Avoid role-play/disclaimers.
 
-    @Value("${gemini.mock.data.api.key}")
-    private String mockDataApiKey;
+            Context:
+            - Location: {district}, {state}
+            - Season: {season}
+            - Soil: type={soilType}, pH={ph:1}, SOC={soilOrganicCarbon:1}, CEC={cationExchangeCapacity:1}, bulkDensity={bulkDensity:1}, moisture={topsoilMoisture:2}
+            - Weather (7d): avgMaxTemp={forecastAvgMaxTemp:1}°C, totalRain={forecastTotalRain:1} mm
+            - Climate normals: avgTemp={climateAvgTemp:1}°C, annualRain={annualRainfall:0} mm, class={koppenClass}
 
-    @Value("${gemini.api.url}")
-    private String geminiApiUrl;
+            Earlier in this conversation:
+            {history}
+            Farmer message: "{message}"
+            """, "lang", "history", "message");
 
-    public AIService(RestTemplate restTemplate) {
-        this.restTemplate = restTemplate;
+    private static final PromptTemplate SUMMARY_PROMPT = PromptTemplate.compile(
+            """
+            Create a very short, farmer-friendly plan in plain language (max 6 bullet points).
+            Language: English. No roleplay. Use simple words.
+            Include: best crop, why, pesticides/insecticides to prefer (generic names), irrigation need (low/med/high and frequency), fertilizer timing (basal/top-dress), rough harvest window.
+            You MUST use this exact crop recommendation and DO NOT change the crop:
+            "{recommendation}"
+            The first bullet MUST start with: Best crop: <that crop> (...reason...)
+            Output only the bullets, 1 line each.
+
+            Context:
+            - Location: {district}, {state}; Season: {season}
+            - Soil: type={soilType}, pH={ph:1}, SOC={soilOrganicCarbon:1}, CEC={cationExchangeCapacity:1}, bulkDensity={bulkDensity:1}
+              N={nitrogen:0}, P={phosphorus:0}, K={potassium:0}, EC={electricalConductivity:2}, salinity={salinity:2}; texture sand={sandPercent:0}% silt={siltPercent:0}% clay={clayPercent:0}%
+              moisture(top)={topsoilMoisture:2} sub={subsoilMoisture:2}; soilTemp={soilTemperature:1}°C
+            - 7-day forecast: avgMaxTemp={forecastAvgMaxTemp:1}°C, totalRain={forecastTotalRain:1} mm
+            - Climate: avgTemp={climateAvgTemp:1}°C, annualRain={annualRainfall:0} mm, class={koppenClass}
+            """, "recommendation");
+
+    // Output budgets per use case: the soil JSON is ~15 fields, the recommendation one line,
+    // the chatbot two sentences (more tokens in Indic scripts), the summary six bullets
+    private static final int SOIL_MAX_TOKENS = 400;
+    private static final int RECOMMENDATION_MAX_TOKENS = 80;
+    private static final int CHATBOT_MAX_TOKENS = 256;
+    private static final int SUMMARY_MAX_TOKENS = 400;
+
+    private static final Map<String, Object> SOIL_SCHEMA = soilSchema();
+
+    public AIService(LlmRouter llmRouter, StageTracer stageTracer, SharedCacheTier sharedCache) {
+        this.llmRouter = llmRouter;
+        this.stageTracer = stageTracer;
+        this.sharedCache = sharedCache;
     }
 
     public SoilData getAiMockSoilData(double lat, double lon) {
-        String prompt = String.format(
-                """
-                Act as a soil data simulation API. For the given Indian coordinates (latitude: %f, longitude: %f), generate a plausible set of soil properties.
-                Your response MUST be a single, raw JSON object and nothing else.
-                The JSON object must have these exact keys and value types:
-                {
-                  "ph": number (5.5-8.5),
-                  "soilOrganicCarbon": number (4-15),
-                  "cationExchangeCapacity": number (5-25),
-                  "bulkDensity": number (1.1-1.7),
-                  "soilType": string,
-                  "nitrogen": number, "phosphorus": number, "potassium": number,
-                  "electricalConductivity": number, "salinity": number,
-                  "sandPercent": number, "siltPercent": number, "clayPercent": number,
-                  "subsoilMoisture": number, "soilTemperature": number
-                }
-                """,
-                lat, lon
-        );
-
-        String rawResponse = callGeminiApiForData(prompt);
+        String prompt = buildSoilPrompt(lat, lon);
+
+        String rawResponse = stageTracer.trace("ai.soil",
+                () -> generate(new LlmRequest(LlmRequest.Workload.DATA, prompt, SOIL_MAX_TOKENS, 0.4, SOIL_SCHEMA)));
         SoilData soilData = new SoilData();
 
         // **IMPROVED CHECK**
         // If the API call failed, rawResponse will be null.
         if (rawResponse == null) {
-            System.err.println("AI_MOCK_DATA_ERROR: No response from Gemini API. Using defaults.");
+            log.warn("AI soil data: no response from any LLM provider, using defaults");
             soilData.setPh(6.5);
             soilData.setSoilOrganicCarbon(8.0);
             soilData.setSoilType("Loam");
@@ -79,6 +150,7 @@ public class AIService {
         }
 
         try {
+            // The response schema makes this plain JSON; the fence strip stays for models that ignore it
             String cleanedJson = rawResponse.replace("```json", "").replace("```", "").trim();
             JsonNode rootNode = objectMapper.readTree(cleanedJson);
             soilData.setPh(rootNode.path("ph").asDouble(6.5));
@@ -97,7 +169,7 @@ public class AIService {
             soilData.setSubsoilMoisture(rootNode.path("subsoilMoisture").asDouble(0));
             soilData.setSoilTemperature(rootNode.path("soilTemperature").asDouble(25));
         } catch (Exception e) {
-            System.err.println("AI_MOCK_DATA_ERROR: Failed to parse JSON from AI. Using defaults. Error: " + e.getMessage());
+            log.warn("AI soil data: failed to parse the JSON answer, using defaults: {}", e.getMessage());
             soilData.setPh(6.5);
             soilData.setSoilOrganicCarbon(8.0);
             soilData.setSoilType("Loam");
@@ -117,182 +189,118 @@ public class AIService {
         return soilData;
     }
 
+    String buildSoilPrompt(double lat, double lon) {
+        return SOIL_PROMPT.render(null, PromptTemplate.fixed(lat, 4), PromptTemplate.fixed(lon, 4));
+    }
+
     public String getBestCropRecommendation(DashboardData data) {
-        String prompt = String.format(
-                """
-                Task: Recommend the single best crop for the given Indian farm context.
-                Output: ONE line only -> <Crop name> — <10-20 word reason>. No preface, no extra text.
-
-                Context:
-                - Location: %s, %s
-                - Season: %s
-                - Soil: type=%s, pH=%.1f, SOC=%.1f, CEC=%.1f, bulkDensity=%.1f
-                  N=%.1f kg/ha, P=%.1f kg/ha, K=%.1f kg/ha, EC=%.2f dS/m, salinity=%.2f ppt
-                  texture: sand=%.0f%%, silt=%.0f%%, clay=%.0f%%
-                  moisture(top)=%.2f, moisture(sub)=%.2f, soilTemp=%.1f°C
-                - 7-day forecast: avgMaxTemp=%.1f°C, totalRain=%.1f mm
-                - Climate normals: avgTemp=%.1f°C, annualRain=%.1f mm, class=%s
-                """,
-                data.getDistrict(), data.getState(), data.getCurrentSeason(),
-                data.getSoilData().getSoilType(), data.getSoilData().getPh(),
-                data.getSoilData().getSoilOrganicCarbon(), data.getSoilData().getCationExchangeCapacity(),
-                data.getSoilData().getBulkDensity(),
-                data.getSoilData().getNitrogen(), data.getSoilData().getPhosphorus(), data.getSoilData().getPotassium(),
-                data.getSoilData().getElectricalConductivity(), data.getSoilData().getSalinity(),
-                data.getSoilData().getSandPercent(), data.getSoilData().getSiltPercent(), data.getSoilData().getClayPercent(),
-                data.getSoilData().getTopsoilMoisture(), data.getSoilData().getSubsoilMoisture(), data.getSoilData().getSoilTemperature(),
-                data.getWeatherData().getSevenDayForecast().stream().mapToDouble(d -> d.getMaxTemp()).average().orElse(0),
-                data.getWeatherData().getSevenDayForecast().stream().mapToDouble(d -> d.getPrecipitationSum()).sum(),
-                data.getClimateData().getAverageTemperature(), data.getClimateData().getAnnualRainfall(),
-                data.getClimateData().getKoppenGeigerClassification()
-        );
-        String recommendation = callGeminiApiForData(prompt);
+        AgronomicFeatures features = featuresOf(data);
+        String cacheKey = features.cacheKey();
+        CachedRecommendation cached = recommendationCache.get(cacheKey);
+        boolean hit = cached != null && System.currentTimeMillis() - cached.createdAt() < RECOMMENDATION_TTL_MS;
+        if (!hit) {
+            // Generated by another instance for the same features
+            cached = sharedCache.get("recommendation", cacheKey, CachedRecommendation.class);
+            hit = cached != null && System.currentTimeMillis() - cached.createdAt() < RECOMMENDATION_TTL_MS;
+            if (hit) recommendationCache.put(cacheKey, cached);
+        }
+        CacheLookupEvent.record("crop-recommendation", hit);
+        if (hit) {
+            return cached.text();
+        }
+
+        String prompt = buildRecommendationPrompt(features);
+        String recommendation = stageTracer.trace("ai.recommendation",
+                () -> generate(LlmRequest.text(LlmRequest.Workload.DATA, prompt, RECOMMENDATION_MAX_TOKENS, 0.2)));
         if (recommendation == null) {
-            return "Could not retrieve a recommendation at this time.";
+            return RECOMMENDATION_UNAVAILABLE;
         }
-        return toSingleLine(recommendation);
+        String line = toSingleLine(recommendation);
+        CachedRecommendation created = new CachedRecommendation(line, System.currentTimeMillis());
+        recommendationCache.put(cacheKey, created);
+        sharedCache.put("recommendation", cacheKey, created, Duration.ofMillis(RECOMMENDATION_TTL_MS));
+        return line;
+    }
+
+    String buildRecommendationPrompt(AgronomicFeatures features) {
+        return RECOMMENDATION_PROMPT.render(features);
     }
 
     public String getChatbotResponse(String userMessage, DashboardData data, String languageCode) {
-        String prompt = String.format(
-                """
-                Task: Answer the farmer's question briefly in the specified language.
-                Reply language: %s
-                Constraints: max 2 sentences; be practical and specific to Indian farming.
-                Focus areas: crop choice for max efficiency, input use, pest control, irrigation, soil health, cost-effectiveness. Avoid role-play/disclaimers.
-
-                Context:
-                - Location: %s, %s
-                - Season: %s
-                - Soil: type=%s, pH=%.1f, SOC=%.1f, CEC=%.1f, bulkDensity=%.1f, moisture=%.1f
-                - Weather (7d): avgMaxTemp=%.1f°C, totalRain=%.1f mm
-                - Climate normals: avgTemp=%.1f°C, annualRain=%.1f mm, class=%s
-
-                Farmer message: "%s"
-                """,
-                languageCode == null || languageCode.isBlank() ? "en" : languageCode,
-                data.getDistrict(), data.getState(), data.getCurrentSeason(),
-                data.getSoilData().getSoilType(), data.getSoilData().getPh(),
-                data.getSoilData().getSoilOrganicCarbon(), data.getSoilData().getCationExchangeCapacity(),
-                data.getSoilData().getBulkDensity(), data.getSoilData().getTopsoilMoisture(),
-                data.getWeatherData().getSevenDayForecast().stream().mapToDouble(d -> d.getMaxTemp()).average().orElse(0),
-                data.getWeatherData().getSevenDayForecast().stream().mapToDouble(d -> d.getPrecipitationSum()).sum(),
-                data.getClimateData().getAverageTemperature(), data.getClimateData().getAnnualRainfall(),
-                data.getClimateData().getKoppenGeigerClassification(),
-                userMessage
-        );
-        String response = callGeminiApiForChatbot(prompt);
-        if (response == null) {
-            return "I am sorry, I am having trouble connecting right now. Please try again in a moment.";
-        }
-        return response.replace("```", "").trim();
+        return getChatbotResponse(userMessage, featuresOf(data), "", languageCode);
     }
 
     /**
-     * Cascading fallback mechanism for chatbot API calls
-     * Level 1: Quaternary key (primary for chatbot)
-     * Level 2: Tertiary key (rollback for chatbot)
+     * @param history earlier turns of the conversation as prompt lines, empty for the first message
+     * @return the answer, or {@link #CHATBOT_UNAVAILABLE} when every provider failed
      */
-    private String callGeminiApiForChatbot(String prompt) {
-        String[] apiKeys = {quaternaryApiKey, tertiaryApiKey};
-        String[] keyNames = {"Quaternary (Chatbot Primary)", "Tertiary (Chatbot Rollback)"};
-        
-        for (int i = 0; i < apiKeys.length; i++) {
-            String result = callGeminiApi(prompt, apiKeys[i]);
-            if (result != null) {
-                if (i > 0) {
-                    System.out.println("INFO: Used " + keyNames[i] + " fallback key successfully");
-                }
-                return result;
-            }
-            System.err.println("WARNING: " + keyNames[i] + " API key failed, trying next fallback...");
+    public String getChatbotResponse(String userMessage, AgronomicFeatures features, String history, String languageCode) {
+        String prompt = buildChatbotPrompt(userMessage, features, history, languageCode);
+        String response = stageTracer.trace("ai.chatbot",
+                () -> generate(LlmRequest.text(LlmRequest.Workload.CHAT, prompt, CHATBOT_MAX_TOKENS, 0.5)));
+        if (response == null) {
+            return CHATBOT_UNAVAILABLE;
         }
-        
-        System.err.println("ERROR: All chatbot API keys failed, returning null");
-        return null;
+        return response.replace("```", "").trim();
     }
 
-    /**
-     * Cascading fallback mechanism for data API calls
-     * Level 1: Primary key (main for data)
-     * Level 2: Secondary key (rollback for data)
-     */
-    private String callGeminiApiForData(String prompt) {
-        String[] apiKeys = {mainApiKey, secondaryApiKey};
-        String[] keyNames = {"Primary (Data Main)", "Secondary (Data Rollback)"};
-        
-        for (int i = 0; i < apiKeys.length; i++) {
-            String result = callGeminiApi(prompt, apiKeys[i]);
-            if (result != null) {
-                if (i > 0) {
-                    System.out.println("INFO: Used " + keyNames[i] + " fallback key successfully");
-                }
-                return result;
-            }
-            System.err.println("WARNING: " + keyNames[i] + " API key failed, trying next fallback...");
-        }
-        
-        System.err.println("ERROR: All data API keys failed, returning null for hardcoded fallback");
-        return null;
+    String buildChatbotPrompt(String userMessage, AgronomicFeatures features, String history, String languageCode) {
+        return CHATBOT_PROMPT.render(features, languageCode == null || languageCode.isBlank() ? "en" : languageCode,
+                history == null || history.isEmpty() ? "(none)" : history, userMessage);
     }
 
-    private String callGeminiApi(String prompt, String apiKey) {
-        try {
-            HttpHeaders headers = new HttpHeaders();
-            headers.setContentType(MediaType.APPLICATION_JSON);
-            
-            // Build URL with API key as query parameter
-            String urlWithKey = geminiApiUrl + "?key=" + apiKey;
-            
-            GeminiRequest requestBody = new GeminiRequest(prompt);
-            HttpEntity<GeminiRequest> entity = new HttpEntity<>(requestBody, headers);
-            
-            GeminiResponse response = restTemplate.postForObject(urlWithKey, entity, GeminiResponse.class);
-            if (response == null || response.getFirstCandidateText() == null) {
-                return null;
-            }
-            return response.getFirstCandidateText();
-        } catch (Exception e) {
-            System.err.println("Error calling Gemini API: " + e.getMessage());
+    /**
+     * One LLM call through the router, which picks the provider. Null when load is being shed
+     * or every provider tried failed, so callers fall back the same way in both cases.
+     */
+    private String generate(LlmRequest request) {
+        if (!ServiceLevel.current().allowsLlm()) {
             return null;
         }
+        return llmRouter.generate(request);
     }
 
     public String getFarmerSummary(DashboardData data) {
         String fixedRec = getBestCropRecommendation(data);
-        String prompt = String.format(
-                """
-                Create a very short, farmer-friendly plan in plain language (max 6 bullet points).
-                Language: English. No roleplay. Use simple words.
-                Include: best crop, why, pesticides/insecticides to prefer (generic names), irrigation need (low/med/high and frequency), fertilizer timing (basal/top-dress), rough harvest window.
-                You MUST use this exact crop recommendation and DO NOT change the crop:
-                "%s"
-                The first bullet MUST start with: Best crop: <that crop> (...reason...)
-                Output only the bullets, 1 line each.
-
-                Context:
-                - Location: %s, %s; Season: %s
-                - Soil: type=%s, pH=%.1f, SOC=%.1f, CEC=%.1f, bulkDensity=%.1f
-                  N=%.1f, P=%.1f, K=%.1f, EC=%.2f, salinity=%.2f; texture sand=%.0f%% silt=%.0f%% clay=%.0f%%
-                  moisture(top)=%.2f sub=%.2f; soilTemp=%.1f°C
-                - 7-day forecast: avgMaxTemp=%.1f°C, totalRain=%.1f mm
-                - Climate: avgTemp=%.1f°C, annualRain=%.1f mm, class=%s
-                """,
-                fixedRec,
-                data.getDistrict(), data.getState(), data.getCurrentSeason(),
-                data.getSoilData().getSoilType(), data.getSoilData().getPh(), data.getSoilData().getSoilOrganicCarbon(),
-                data.getSoilData().getCationExchangeCapacity(), data.getSoilData().getBulkDensity(),
-                data.getSoilData().getNitrogen(), data.getSoilData().getPhosphorus(), data.getSoilData().getPotassium(),
-                data.getSoilData().getElectricalConductivity(), data.getSoilData().getSalinity(),
-                data.getSoilData().getSandPercent(), data.getSoilData().getSiltPercent(), data.getSoilData().getClayPercent(),
-                data.getSoilData().getTopsoilMoisture(), data.getSoilData().getSubsoilMoisture(), data.getSoilData().getSoilTemperature(),
-                data.getWeatherData().getSevenDayForecast().stream().mapToDouble(d -> d.getMaxTemp()).average().orElse(0),
-                data.getWeatherData().getSevenDayForecast().stream().mapToDouble(d -> d.getPrecipitationSum()).sum(),
-                data.getClimateData().getAverageTemperature(), data.getClimateData().getAnnualRainfall(), data.getClimateData().getKoppenGeigerClassification()
-        );
-        String res = callGeminiApiForData(prompt);
+        String prompt = buildSummaryPrompt(fixedRec, featuresOf(data));
+        String res = stageTracer.trace("ai.summary",
+                () -> generate(LlmRequest.text(LlmRequest.Workload.DATA, prompt, SUMMARY_MAX_TOKENS, 0.3)));
         return res != null ? res.replace("```", "").trim() : null;
     }
+
+    String buildSummaryPrompt(String fixedRec, AgronomicFeatures features) {
+        return SUMMARY_PROMPT.render(features, fixedRec);
+    }
+
+    /** The features computed by DataAggregationService, or derived here for dashboards built elsewhere (mock data). */
+    private static AgronomicFeatures featuresOf(DashboardData data) {
+        return data.getFeatures() != null ? data.getFeatures() : AgronomicFeatures.from(data);
+    }
+
+    public int getCachedRecommendationCount() {
+        return recommendationCache.size();
+    }
+
+    /** Mirrors the keys getAiMockSoilData reads, so the model cannot return prose or miss a field. */
+    private static Map<String, Object> soilSchema() {
+        Map<String, Object> number = Map.of("type", "NUMBER");
+        Map<String, Object> properties = new LinkedHashMap<>();
+        properties.put("ph", number);
+        properties.put("soilOrganicCarbon", number);
+        properties.put("cationExchangeCapacity", number);
+        properties.put("bulkDensity", number);
+        properties.put("soilType", Map.of("type", "STRING"));
+        for (String key : List.of("nitrogen", "phosphorus", "potassium", "electricalConductivity", "salinity",
+                "sandPercent", "siltPercent", "clayPercent", "subsoilMoisture", "soilTemperature")) {
+            properties.put(key, number);
+        }
+        return Map.of(
+                "type", "OBJECT",
+                "properties", properties,
+                "required", List.copyOf(properties.keySet()),
+                "propertyOrdering", List.copyOf(properties.keySet()));
+    }
+
     private String toSingleLine(String text) {
         String sanitized = text.replace("```", "").replace("\r", "").trim();
         int newlineIndex = sanitized.indexOf('\n');
@@ -0,0 +1,121 @@
+package kishanMitra.demo.service;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.function.Consumer;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import kishanMitra.demo.dto.BatchDashboardRequest;
+import kishanMitra.demo.dto.BatchDashboardResult;
+import kishanMitra.demo.dto.DashboardSection;
+import kishanMitra.demo.dto.KishanMitraResponse;
+import kishanMitra.demo.geo.GeoTile;
+import kishanMitra.demo.monitoring.StageTracer;
+
+/**
+ * Dashboards for many farms at once, for field officers syncing a whole village. Farms are
+ * grouped by {@link GeoTile}; each distinct tile runs the {@link DataAggregationService}
+ * pipeline (and the translation) once at the tile centre, with at most
+ * {@code batch.concurrency} tiles in flight across all batches, and every farm in it gets that
+ * dashboard. A tile whose upstreams fail gets an error instead of the built-in data.
+ * The static profiles are not repeated on every line: each dashboard carries their
+ * {@code profilesVersion}, and the client fetches {@code /api/profiles} when that is new to it.
+ */
+@Service
+public class BatchDashboardService {
+
+    private static final Logger log = LoggerFactory.getLogger(BatchDashboardService.class);
+
+    // The dashboard and the recommendation; the static profiles come from /api/profiles
+    private static final Set<DashboardSection> TILE_SECTIONS =
+            Collections.unmodifiableSet(EnumSet.range(DashboardSection.LOCATION, DashboardSection.RECOMMENDATION));
+
+    private final DataAggregationService dataAggregationService;
+    private final TranslationService translationService;
+    private final StaticProfilesService staticProfilesService;
+    private final StageTracer stageTracer;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    // Shared by every batch, so concurrent batches can't multiply the upstream load
+    private final Semaphore permits;
+
+    @Value("${batch.max-farms:500}")
+    private int maxFarms = 500;
+
+    public BatchDashboardService(DataAggregationService dataAggregationService, TranslationService translationService,
+                                 StaticProfilesService staticProfilesService, StageTracer stageTracer, @Value("${batch.concurrency:8}") int concurrency) {
+        this.permits = new Semaphore(Math.max(concurrency, 1));
+        this.dataAggregationService = dataAggregationService;
+        this.translationService = translationService;
+        this.staticProfilesService = staticProfilesService;
+        this.stageTracer = stageTracer;
+    }
+
+    public int getMaxFarms() {
+        return maxFarms;
+    }
+
+    /**
+     * Computes the dashboards in the background and hands each farm's result to {@code sink} as
+     * soon as its tile is done, so the first tiles can be sent while the rest are still running.
+     * {@code sink} is called from several threads, one farm at a time.
+     * @return completes once every farm has been passed to the sink
+     */
+    public CompletableFuture<Void> run(List<BatchDashboardRequest.Farm> farms, String lang,
+                                       Consumer<BatchDashboardResult> sink) {
+        Map<GeoTile, List<BatchDashboardRequest.Farm>> byTile = new LinkedHashMap<>();
+        for (BatchDashboardRequest.Farm farm : farms) {
+            byTile.computeIfAbsent(GeoTile.of(farm.getLat(), farm.getLon()), tile -> new ArrayList<>()).add(farm);
+        }
+        log.atInfo().addKeyValue("farms", farms.size()).addKeyValue("tiles", byTile.size())
+                .log("Batch dashboard: {} farms in {} tiles", farms.size(), byTile.size());
+
+        String profilesVersion = staticProfilesService.getVersion();
+        Object sinkLock = new Object();
+        CompletableFuture<?>[] tiles = new CompletableFuture<?>[byTile.size()];
+        int i = 0;
+        for (Map.Entry<GeoTile, List<BatchDashboardRequest.Farm>> entry : byTile.entrySet()) {
+            GeoTile tile = entry.getKey();
+            tiles[i++] = CompletableFuture.runAsync(() -> {
+                KishanMitraResponse data = null;
+                String error = null;
+                try {
+                    permits.acquire();
+                    try {
+                        data = stageTracer.trace("batch.tile", () -> {
+                            KishanMitraResponse response = dataAggregationService.getAllDataOrThrow(tile.centerLat(), tile.centerLon(), TILE_SECTIONS);
+                            translationService.translateResponse(response, lang);
+                            response.setProfilesVersion(profilesVersion);
+                            return response;
+                        });
+                    } finally {
+                        permits.release();
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    error = "interrupted";
+                } catch (Exception e) {
+                    error = e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName();
+                }
+                synchronized (sinkLock) {
+                    for (BatchDashboardRequest.Farm farm : entry.getValue()) {
+                        sink.accept(new BatchDashboardResult(farm.getId(), farm.getLat(), farm.getLon(), tile.toString(), data, error));
+                    }
+                }
+            }, executor);
+        }
+        return CompletableFuture.allOf(tiles);
+    }
+}
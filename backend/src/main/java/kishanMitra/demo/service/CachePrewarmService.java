@@ -0,0 +1,184 @@
+package kishanMitra.demo.service;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import kishanMitra.demo.dto.DashboardData;
+import kishanMitra.demo.dto.KishanMitraResponse;
+import kishanMitra.demo.geo.GeoTile;
+import kishanMitra.demo.monitoring.StageTracer;
+import kishanMitra.demo.precompute.PrecomputedRecommendation;
+import kishanMitra.demo.precompute.RecommendationSnapshotStore;
+import kishanMitra.demo.prewarm.HotTileTracker;
+
+/**
+ * Refreshes the caches behind the busiest tiles shortly before the 6-8 AM peak, so the first
+ * farmers of the day do not each pay for a cold upstream chain. For the top
+ * {@code prewarm.top-n} tiles from {@link HotTileTracker} it refetches the forecast, makes sure a
+ * recommendation and summary exist (the nightly snapshot, or generated into the hot overlay)
+ * and translates them, plus the static profiles, into the most requested languages.
+ */
+@Service
+public class CachePrewarmService {
+
+    private static final Logger log = LoggerFactory.getLogger(CachePrewarmService.class);
+
+    private final HotTileTracker hotTileTracker;
+    private final DataAggregationService dataAggregationService;
+    private final AIService aiService;
+    private final WeatherDataService weatherDataService;
+    private final TranslationService translationService;
+    private final CropInfoService cropInfoService;
+    private final PesticideInfoService pesticideInfoService;
+    private final RecommendationSnapshotStore snapshotStore;
+    private final StageTracer stageTracer;
+
+    @Value("${prewarm.enabled:false}")
+    private boolean enabled;
+
+    @Value("${prewarm.top-n:200}")
+    private int topN;
+
+    @Value("${prewarm.languages:3}")
+    private int languageCount;
+
+    @Value("${prewarm.concurrency:4}")
+    private int concurrency;
+
+    private final AtomicBoolean running = new AtomicBoolean();
+    private volatile Map<String, Object> lastRun = Map.of();
+
+    public CachePrewarmService(HotTileTracker hotTileTracker, DataAggregationService dataAggregationService,
+                               AIService aiService, WeatherDataService weatherDataService,
+                               TranslationService translationService, CropInfoService cropInfoService,
+                               PesticideInfoService pesticideInfoService, RecommendationSnapshotStore snapshotStore,
+                               StageTracer stageTracer) {
+        this.hotTileTracker = hotTileTracker;
+        this.dataAggregationService = dataAggregationService;
+        this.aiService = aiService;
+        this.weatherDataService = weatherDataService;
+        this.translationService = translationService;
+        this.cropInfoService = cropInfoService;
+        this.pesticideInfoService = pesticideInfoService;
+        this.snapshotStore = snapshotStore;
+        this.stageTracer = stageTracer;
+    }
+
+    /** Hourly through the peak by default, inside the weather cache TTL, so hot tiles never go cold. */
+    @Scheduled(cron = "${prewarm.cron:0 45 5,6,7 * * *}", zone = "${prewarm.zone:Asia/Kolkata}")
+    public void beforePeak() {
+        if (enabled) {
+            run();
+        }
+    }
+
+    /** Starts a run on a background thread, unless one is already going. */
+    public Map<String, Object> startAsync() {
+        if (!running.get()) {
+            Thread.ofVirtual().name("cache-prewarm").start(this::run);
+        }
+        return status();
+    }
+
+    public void run() {
+        if (!running.compareAndSet(false, true)) return;
+        long start = System.currentTimeMillis();
+        try {
+            List<HotTileTracker.HotTile> tiles = hotTileTracker.top(topN);
+            List<String> languages = hotTileTracker.topLanguages(languageCount);
+            AtomicInteger warmed = new AtomicInteger();
+            AtomicInteger failed = new AtomicInteger();
+
+            // The static profiles are the same for every tile: once per language
+            for (String lang : languages) {
+                KishanMitraResponse profiles = new KishanMitraResponse();
+                profiles.setCropProfiles(cropInfoService.getCropProfiles());
+                profiles.setPesticideProfiles(pesticideInfoService.getPesticideProfiles());
+                translationService.translateResponse(profiles, lang);
+            }
+
+            Semaphore permits = new Semaphore(Math.max(concurrency, 1));
+            try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+                for (HotTileTracker.HotTile hotTile : tiles) {
+                    permits.acquire();
+                    executor.submit(() -> {
+                        try {
+                            stageTracer.trace("prewarm.tile", () -> {
+                                warm(hotTile.tile(), languages);
+                                return null;
+                            });
+                            warmed.incrementAndGet();
+                        } catch (Exception e) {
+                            failed.incrementAndGet();
+                            log.warn("Pre-warm failed for tile {}: {}", hotTile.tile(), e.getMessage());
+                        } finally {
+                            permits.release();
+                        }
+                    });
+                }
+            }
+
+            Map<String, Object> report = new LinkedHashMap<>();
+            report.put("tiles", tiles.size());
+            report.put("warmed", warmed.get());
+            report.put("failed", failed.get());
+            report.put("languages", languages);
+            report.put("durationMs", System.currentTimeMillis() - start);
+            lastRun = report;
+            log.info("Cache pre-warm finished: {}", report);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            running.set(false);
+        }
+    }
+
+    public Map<String, Object> status() {
+        Map<String, Object> status = new LinkedHashMap<>();
+        status.put("running", running.get());
+        status.put("hotTiles", hotTileTracker.top(20));
+        status.put("languages", hotTileTracker.topLanguages(languageCount));
+        status.put("lastRun", lastRun);
+        return status;
+    }
+
+    private void warm(GeoTile tile, List<String> languages) {
+        weatherDataService.refresh(tile);
+        // Reads the forecast just cached; location, soil and climate are fetched as on a request
+        DashboardData dashboard = dataAggregationService.buildDashboard(tile.centerLat(), tile.centerLon());
+
+        PrecomputedRecommendation entry = snapshotStore.lookup(tile.centerLat(), tile.centerLon(), dashboard.getCurrentSeason());
+        if (entry == null) {
+            String recommendation = aiService.getBestCropRecommendation(dashboard);
+            if (AIService.RECOMMENDATION_UNAVAILABLE.equals(recommendation)) {
+                throw new IllegalStateException("no recommendation");
+            }
+            String summary = aiService.getFarmerSummary(dashboard);
+            if (summary == null) {
+                throw new IllegalStateException("no summary");
+            }
+            entry = new PrecomputedRecommendation(recommendation, summary);
+            snapshotStore.putHot(tile, dashboard.getCurrentSeason(), entry);
+        }
+
+        for (String lang : languages) {
+            translationService.translateIfNeeded(entry.recommendation(), lang);
+            translationService.translateIfNeeded(entry.summary(), lang);
+            if (dashboard.getClimateData() != null) {
+                translationService.translateIfNeeded(dashboard.getClimateData().getKoppenGeigerClassification(), lang);
+            }
+        }
+    }
+}
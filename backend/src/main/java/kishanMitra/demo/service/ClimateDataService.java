@@ -2,14 +2,22 @@ package kishanMitra.demo.service;
 
 import com.fasterxml.jackson.databind.JsonNode;
 import kishanMitra.demo.dto.ClimateData;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.web.client.RestTemplate;
 
 @Service
 public class ClimateDataService {
 
+    private static final Logger log = LoggerFactory.getLogger(ClimateDataService.class);
+
     private final RestTemplate restTemplate;
 
+    @Value("${open-meteo.climate.url}")
+    private String climateUrl;
+
     public ClimateDataService(RestTemplate restTemplate) {
         this.restTemplate = restTemplate;
     }
@@ -17,50 +25,18 @@ public class ClimateDataService {
     public ClimateData getClimateProfile(double lat, double lon) {
         // This API provides 30-year climate normals (1991-2020)
         String url = String.format(
-                "https://climate-api.open-meteo.com/v1/climate?latitude=%f&longitude=%f&models=CMCC_CM2_VHR4&temperature_unit=celsius&precipitation_unit=mm" +
+                "%s?latitude=%f&longitude=%f&models=CMCC_CM2_VHR4&temperature_unit=celsius&precipitation_unit=mm" +
                         "&start_date=1991-01-01&end_date=2020-12-31" +
                         "&daily=temperature_2m_mean,temperature_2m_max,temperature_2m_min,precipitation_sum",
-                lat, lon
+                climateUrl, lat, lon
         );
 
         ClimateData climateData = new ClimateData();
         try {
             JsonNode response = restTemplate.getForObject(url, JsonNode.class);
-            if (response != null && response.has("daily")) {
-                double tempSum = 0;
-                double precipSum = 0;
-                int count = 0;
-
-                JsonNode tempsMean = response.path("daily").path("temperature_2m_mean");
-                JsonNode tempsMax = response.path("daily").path("temperature_2m_max");
-                JsonNode tempsMin = response.path("daily").path("temperature_2m_min");
-                JsonNode precips = response.path("daily").path("precipitation_sum");
-
-                double hottestMax = Double.NEGATIVE_INFINITY;
-                double coldestMin = Double.POSITIVE_INFINITY;
-                double driest = Double.POSITIVE_INFINITY;
-
-                for (int i = 0; i < tempsMean.size(); i++) {
-                    tempSum += tempsMean.get(i).asDouble();
-                    precipSum += precips.get(i).asDouble();
-                    count++;
-
-                    hottestMax = Math.max(hottestMax, tempsMax.get(i).asDouble());
-                    coldestMin = Math.min(coldestMin, tempsMin.get(i).asDouble());
-                    driest = Math.min(driest, precips.get(i).asDouble());
-                }
-
-                if (count > 0) {
-                    climateData.setAverageTemperature(tempSum / count);
-                    // Average daily rainfall * 365.25 to get annual average over 30 years
-                    climateData.setAnnualRainfall((precipSum / count) * 365.25);
-                    climateData.setHottestMonthAvgMax(hottestMax);
-                    climateData.setColdestMonthAvgMin(coldestMin);
-                    climateData.setDriestMonthRain(driest);
-                }
-            }
+            if (response != null) climateData = parse(response);
         } catch (Exception e) {
-            System.err.println("Error fetching climate data: " + e.getMessage());
+            log.warn("Error fetching climate data: {}", e.getMessage());
         }
 
         // This is a simplified lookup. A more advanced version could use a dedicated library.
@@ -69,6 +45,45 @@ public class ClimateDataService {
         return climateData;
     }
 
+    /** Averages the 30 years of daily Open-Meteo climate values; the Köppen class is derived by the caller. */
+    ClimateData parse(JsonNode response) {
+        ClimateData climateData = new ClimateData();
+        if (response.has("daily")) {
+            double tempSum = 0;
+            double precipSum = 0;
+            int count = 0;
+
+            JsonNode tempsMean = response.path("daily").path("temperature_2m_mean");
+            JsonNode tempsMax = response.path("daily").path("temperature_2m_max");
+            JsonNode tempsMin = response.path("daily").path("temperature_2m_min");
+            JsonNode precips = response.path("daily").path("precipitation_sum");
+
+            double hottestMax = Double.NEGATIVE_INFINITY;
+            double coldestMin = Double.POSITIVE_INFINITY;
+            double driest = Double.POSITIVE_INFINITY;
+
+            for (int i = 0; i < tempsMean.size(); i++) {
+                tempSum += tempsMean.get(i).asDouble();
+                precipSum += precips.get(i).asDouble();
+                count++;
+
+                hottestMax = Math.max(hottestMax, tempsMax.get(i).asDouble());
+                coldestMin = Math.min(coldestMin, tempsMin.get(i).asDouble());
+                driest = Math.min(driest, precips.get(i).asDouble());
+            }
+
+            if (count > 0) {
+                climateData.setAverageTemperature(tempSum / count);
+                // Average daily rainfall * 365.25 to get annual average over 30 years
+                climateData.setAnnualRainfall((precipSum / count) * 365.25);
+                climateData.setHottestMonthAvgMax(hottestMax);
+                climateData.setColdestMonthAvgMin(coldestMin);
+                climateData.setDriestMonthRain(driest);
+            }
+        }
+        return climateData;
+    }
+
     private String getKoppenClassification(double avgTemp, double annualRainfall) {
         if (avgTemp >= 18) { // Tropical
             if (annualRainfall > 2000) return "Tropical rainforest (Af)";
@@ -1,14 +1,26 @@
 package kishanMitra.demo.service;
 
+import kishanMitra.demo.admission.ServiceLevel;
+import kishanMitra.demo.cluster.TileRouter;
 import kishanMitra.demo.dto.*;
+import kishanMitra.demo.geo.GeoTile;
+import kishanMitra.demo.monitoring.StageTracer;
+import kishanMitra.demo.precompute.PrecomputedRecommendation;
+import kishanMitra.demo.precompute.RecommendationSnapshotStore;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
 import java.time.Month;
 import java.time.ZonedDateTime;
-import java.util.List;
+import java.util.Collections;
+import java.util.Set;
+import java.util.function.Supplier;
 
 @Service
 public class DataAggregationService {
 
+    private static final Logger log = LoggerFactory.getLogger(DataAggregationService.class);
+
     private final DevelopmentDataService developmentDataService;
     private final LocationService locationService;
     private final SoilDataService soilDataService;
@@ -17,11 +29,15 @@ public class DataAggregationService {
     private final AIService aiService;
     private final CropInfoService cropInfoService;
     private final PesticideInfoService pesticideInfoService;
+    private final StageTracer stageTracer;
+    private final RecommendationSnapshotStore snapshotStore;
+    private final TileRouter tileRouter;
 
     public DataAggregationService(DevelopmentDataService developmentDataService, LocationService locationService,
                                   SoilDataService soilDataService, WeatherDataService weatherDataService,
                                   ClimateDataService climateDataService, AIService aiService, CropInfoService cropInfoService,
-                                  PesticideInfoService pesticideInfoService) {
+                                  PesticideInfoService pesticideInfoService, StageTracer stageTracer,
+                                  RecommendationSnapshotStore snapshotStore, TileRouter tileRouter) {
         this.developmentDataService = developmentDataService;
         this.locationService = locationService;
         this.soilDataService = soilDataService;
@@ -30,58 +46,202 @@ public class DataAggregationService {
         this.aiService = aiService;
         this.cropInfoService = cropInfoService;
         this.pesticideInfoService = pesticideInfoService;
+        this.stageTracer = stageTracer;
+        this.snapshotStore = snapshotStore;
+        this.tileRouter = tileRouter;
     }
 
     public KishanMitraResponse getAllData(double lat, double lon) {
-        // --- Step 1: Always get the real location first. ---
-        String[] location = locationService.getLocationFromCoordinates(lat, lon);
-        String state = location[0];
-        String district = location[1];
+        return getAllData(lat, lon, DashboardSection.ALL);
+    }
+
+    /**
+     * The response restricted to the requested sections. Every upstream step runs on first use,
+     * so a section costs only its own calls plus those of what it {@link DashboardSection#requires()}:
+     * a weather-only view is one Open-Meteo call, and a precomputed recommendation needs none.
+     * In a cluster the tile's owner node computes it, see {@link TileRouter}.
+     */
+    public KishanMitraResponse getAllData(double lat, double lon, Set<DashboardSection> sections) {
+        KishanMitraResponse routed = route(lat, lon, sections);
+        return routed != null ? routed : getAllDataLocally(lat, lon, sections);
+    }
+
+    /**
+     * {@link #getAllData}, except that an upstream failure is thrown instead of being answered with
+     * the built-in data; for callers that keep the result (chat sessions) or report failures (batches).
+     */
+    public KishanMitraResponse getAllDataOrThrow(double lat, double lon, Set<DashboardSection> sections) {
+        KishanMitraResponse routed = route(lat, lon, sections);
+        return routed != null ? routed : getAllDataLocallyOrThrow(lat, lon, sections);
+    }
 
+    /** {@link #getAllData} on this node, whichever node owns the tile; for requests forwarded by other nodes. */
+    public KishanMitraResponse getAllDataLocally(double lat, double lon, Set<DashboardSection> sections) {
+        if (!ServiceLevel.current().allowsUpstreams()) {
+            return getBuiltInData(lat, lon, sections);
+        }
+        Lazy<String[]> location = location(lat, lon, sections);
         try {
-            // --- Step 2: Get all other data. The soil service now handles its own primary logic. ---
-            SoilData soilData = soilDataService.getSoilData(lat, lon);
-            WeatherData weatherData = weatherDataService.getWeatherData(lat, lon);
-            ClimateData climateData = climateDataService.getClimateProfile(lat, lon);
-            double groundwaterIndex = soilDataService.getGroundwaterIndex(lat, lon);
-            String season = getCurrentSeason();
-
-            // --- Step 3: Assemble the dashboard data ---
-            DashboardData dashboardData = new DashboardData();
-            dashboardData.setDistrict(district);
-            dashboardData.setState(state);
-            dashboardData.setSoilData(soilData);
-            dashboardData.setWeatherData(weatherData);
-            dashboardData.setClimateData(climateData);
+            return assemble(lat, lon, sections, location);
+        } catch (Exception e) {
+            // --- ULTIMATE FALLBACK ---
+            log.error("Critical API failure, switching to full hardcoded mock data mode: {}", e.getMessage());
+            String[] known = location.peek();
+            return retain(developmentDataService.getMockData(known != null ? known[1] : null, known != null ? known[0] : null), sections);
+        }
+    }
+
+    /** {@link #getAllDataOrThrow} on this node; also throws while the instance serves only built-in data. */
+    public KishanMitraResponse getAllDataLocallyOrThrow(double lat, double lon, Set<DashboardSection> sections) {
+        if (!ServiceLevel.current().allowsUpstreams()) {
+            throw new IllegalStateException("Upstream calls are off while the instance is shedding load");
+        }
+        return assemble(lat, lon, sections, location(lat, lon, sections));
+    }
+
+    private KishanMitraResponse route(double lat, double lon, Set<DashboardSection> sections) {
+        if (ServiceLevel.current() != ServiceLevel.FULL) return null;
+        TileRouter.Forwarded routed = tileRouter.allData(lat, lon, sections);
+        if (routed == null) return null;
+        if (routed.weatherFetchedAt() > 0) weatherDataService.rememberFetchedAt(GeoTile.of(lat, lon), routed.weatherFetchedAt());
+        return routed.response();
+    }
+
+    // --- Step 1: Always get the real location first (when it is needed at all). ---
+    private Lazy<String[]> location(double lat, double lon, Set<DashboardSection> sections) {
+        Lazy<String[]> location = new Lazy<>(() -> stageTracer.trace("location", () -> locationService.getLocationFromCoordinates(lat, lon)));
+        if (sections.contains(DashboardSection.LOCATION)) {
+            location.get();
+        }
+        return location;
+    }
+
+    private KishanMitraResponse assemble(double lat, double lon, Set<DashboardSection> sections, Lazy<String[]> location) {
+        // --- Step 2: Get all other data on demand. The soil service now handles its own primary logic. ---
+        Lazy<SoilData> soilData = new Lazy<>(() -> stageTracer.trace("soil", () -> soilDataService.getSoilData(lat, lon)));
+        Lazy<WeatherData> weatherData = new Lazy<>(() -> stageTracer.trace("weather", () -> weatherDataService.getWeatherData(lat, lon)));
+        Lazy<ClimateData> climateData = new Lazy<>(() -> stageTracer.trace("climate", () -> climateDataService.getClimateProfile(lat, lon)));
+        String season = getCurrentSeason();
+
+        // --- Step 3: Assemble the requested dashboard sections ---
+        KishanMitraResponse finalResponse = new KishanMitraResponse();
+        DashboardData dashboardData = null;
+        if (!Collections.disjoint(sections, DashboardSection.DASHBOARD)) {
+            dashboardData = new DashboardData();
             dashboardData.setCurrentSeason(season);
-            dashboardData.setGroundwaterIndex(groundwaterIndex);
+            if (sections.contains(DashboardSection.LOCATION)) {
+                dashboardData.setState(location.get()[0]);
+                dashboardData.setDistrict(location.get()[1]);
+            }
+            if (sections.contains(DashboardSection.SOIL)) dashboardData.setSoilData(soilData.get());
+            if (sections.contains(DashboardSection.WEATHER)) dashboardData.setWeatherData(weatherData.get());
+            if (sections.contains(DashboardSection.CLIMATE)) dashboardData.setClimateData(climateData.get());
+            if (sections.contains(DashboardSection.GROUNDWATER)) {
+                dashboardData.setGroundwaterIndex(stageTracer.trace("groundwater", () -> soilDataService.getGroundwaterIndex(lat, lon)));
+            }
+            if (sections.containsAll(DashboardSection.RECOMMENDATION.requires())) {
+                dashboardData.setFeatures(AgronomicFeatures.from(dashboardData));
+            }
+            finalResponse.setDashboardData(dashboardData);
+        }
 
-            // --- Step 4: Get the AI recommendation ---
-            String recommendationText = aiService.getBestCropRecommendation(dashboardData);
+        // --- Step 4: Get the AI recommendation, from the nightly snapshot when this tile is in it ---
+        if (sections.contains(DashboardSection.RECOMMENDATION)) {
+            PrecomputedRecommendation precomputed = snapshotStore.lookup(lat, lon, season);
+            String recommendationText;
+            if (precomputed != null) {
+                recommendationText = precomputed.recommendation();
+            } else {
+                // Only a generated recommendation needs the prompt context, and so its upstream calls
+                DashboardData context = dashboardData != null && dashboardData.getFeatures() != null ? dashboardData
+                        : dashboardOf(location.get(), soilData.get(), weatherData.get(), climateData.get(), season);
+                recommendationText = stageTracer.trace("recommendation", () -> aiService.getBestCropRecommendation(context));
+            }
             AiCropRecommendation recommendation = new AiCropRecommendation();
             recommendation.setRecommendationText(recommendationText);
+            finalResponse.setCropRecommendation(recommendation);
+        }
 
-            // --- Step 5: Get static crop profiles ---
-            List<CropProfile> cropProfiles = cropInfoService.getCropProfiles();
-            var pesticideProfiles = pesticideInfoService.getPesticideProfiles();
+        // --- Step 5: Get static crop profiles ---
+        if (sections.contains(DashboardSection.CROP_PROFILES)) finalResponse.setCropProfiles(cropInfoService.getCropProfiles());
+        if (sections.contains(DashboardSection.PESTICIDE_PROFILES)) finalResponse.setPesticideProfiles(pesticideInfoService.getPesticideProfiles());
 
-            // --- Step 6: Build and return the final response ---
-            KishanMitraResponse finalResponse = new KishanMitraResponse();
-            finalResponse.setDashboardData(dashboardData);
-            finalResponse.setCropRecommendation(recommendation);
-            finalResponse.setCropProfiles(cropProfiles);
-            finalResponse.setPesticideProfiles(pesticideProfiles);
-            return finalResponse;
+        // --- Step 6: Return the final response ---
+        return finalResponse;
+    }
 
-        } catch (Exception e) {
-            // --- ULTIMATE FALLBACK ---
-            // **THIS IS THE FIX for the logging error.**
-            System.err.println(String.format("--- CRITICAL API FAILURE: Switching to full hardcoded mock data mode. Error: %s", e.getMessage()));
-            return developmentDataService.getMockData(district, state);
+    /**
+     * The farmer summary for a dashboard built by {@link #getAllData}: the precomputed one when
+     * its tile is in the snapshot (written together with the recommendation it repeats), otherwise
+     * generated now.
+     */
+    public String getFarmerSummary(double lat, double lon, DashboardData dashboardData) {
+        PrecomputedRecommendation precomputed = snapshotStore.lookup(lat, lon, dashboardData.getCurrentSeason());
+        return precomputed != null ? precomputed.summary() : aiService.getFarmerSummary(dashboardData);
+    }
+
+    /** Location, soil, weather, climate and groundwater for one point, without the AI steps; throws when an upstream fails. */
+    public DashboardData buildDashboard(double lat, double lon) {
+        String[] location = stageTracer.trace("location", () -> locationService.getLocationFromCoordinates(lat, lon));
+        SoilData soilData = stageTracer.trace("soil", () -> soilDataService.getSoilData(lat, lon));
+        WeatherData weatherData = stageTracer.trace("weather", () -> weatherDataService.getWeatherData(lat, lon));
+        ClimateData climateData = stageTracer.trace("climate", () -> climateDataService.getClimateProfile(lat, lon));
+        DashboardData dashboardData = dashboardOf(location, soilData, weatherData, climateData, getCurrentSeason());
+        dashboardData.setGroundwaterIndex(stageTracer.trace("groundwater", () -> soilDataService.getGroundwaterIndex(lat, lon)));
+        return dashboardData;
+    }
+
+    static DashboardData dashboardOf(String[] location, SoilData soilData, WeatherData weatherData,
+                                             ClimateData climateData, String season) {
+        DashboardData dashboardData = new DashboardData();
+        dashboardData.setState(location[0]);
+        dashboardData.setDistrict(location[1]);
+        dashboardData.setSoilData(soilData);
+        dashboardData.setWeatherData(weatherData);
+        dashboardData.setClimateData(climateData);
+        dashboardData.setCurrentSeason(season);
+        dashboardData.setFeatures(AgronomicFeatures.from(dashboardData));
+        return dashboardData;
+    }
+
+    /**
+     * The built-in development data, for when the instance is shedding load or a caller of
+     * {@link #getAllDataOrThrow} answers a failure anyway. The tile's precomputed recommendation
+     * is still used when the snapshot has one, since it costs no call.
+     */
+    public KishanMitraResponse getBuiltInData(double lat, double lon, Set<DashboardSection> sections) {
+        KishanMitraResponse response = retain(developmentDataService.getMockData(null, null), sections);
+        PrecomputedRecommendation precomputed = sections.contains(DashboardSection.RECOMMENDATION)
+                ? snapshotStore.lookup(lat, lon, getCurrentSeason()) : null;
+        if (precomputed != null && response.getCropRecommendation() != null) {
+            response.getCropRecommendation().setRecommendationText(precomputed.recommendation());
         }
+        return response;
     }
 
-    private String getCurrentSeason() {
+    /** Drops the sections the caller did not ask for from a full (mock) response. */
+    private static KishanMitraResponse retain(KishanMitraResponse response, Set<DashboardSection> sections) {
+        if (sections.containsAll(DashboardSection.ALL)) return response;
+        DashboardData dashboardData = response.getDashboardData();
+        if (Collections.disjoint(sections, DashboardSection.DASHBOARD)) {
+            response.setDashboardData(null);
+        } else if (dashboardData != null) {
+            if (!sections.contains(DashboardSection.LOCATION)) {
+                dashboardData.setDistrict(null);
+                dashboardData.setState(null);
+            }
+            if (!sections.contains(DashboardSection.SOIL)) dashboardData.setSoilData(null);
+            if (!sections.contains(DashboardSection.WEATHER)) dashboardData.setWeatherData(null);
+            if (!sections.contains(DashboardSection.CLIMATE)) dashboardData.setClimateData(null);
+            if (!sections.contains(DashboardSection.GROUNDWATER)) dashboardData.setGroundwaterIndex(null);
+        }
+        if (!sections.contains(DashboardSection.RECOMMENDATION)) response.setCropRecommendation(null);
+        if (!sections.contains(DashboardSection.CROP_PROFILES)) response.setCropProfiles(null);
+        if (!sections.contains(DashboardSection.PESTICIDE_PROFILES)) response.setPesticideProfiles(null);
+        return response;
+    }
+
+    String getCurrentSeason() {
         Month month = ZonedDateTime.now().getMonth();
         return switch (month) {
             case JUNE, JULY, AUGUST, SEPTEMBER, OCTOBER -> "Kharif (Monsoon)";
@@ -89,4 +249,28 @@ public class DataAggregationService {
             default -> "Zaid (Summer)";
         };
     }
-}
\ No newline at end of file
+
+    /** Computes its value on the first {@link #get()} and keeps it; used on one request thread only. */
+    private static final class Lazy<T> implements Supplier<T> {
+        private Supplier<T> supplier;
+        private T value;
+
+        Lazy(Supplier<T> supplier) {
+            this.supplier = supplier;
+        }
+
+        @Override
+        public T get() {
+            if (supplier != null) {
+                value = supplier.get();
+                supplier = null;
+            }
+            return value;
+        }
+
+        /** @return the value if it was computed, without computing it */
+        T peek() {
+            return supplier == null ? value : null;
+        }
+    }
+}
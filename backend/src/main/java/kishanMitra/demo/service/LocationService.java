@@ -1,6 +1,9 @@
 package kishanMitra.demo.service;
 
 import kishanMitra.demo.dto.LocationResponse;
+import kishanMitra.demo.monitoring.SampledLogFilter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.web.client.HttpClientErrorException;
@@ -9,12 +12,17 @@ import org.springframework.web.client.RestTemplate;
 @Service // Marks this class as a Spring service component
 public class LocationService {
 
+    private static final Logger log = LoggerFactory.getLogger(LocationService.class);
+
     private final RestTemplate restTemplate;
 
     // Injects the API key securely from your application.properties file
     @Value("${openweathermap.api.key}")
     private String apiKey;
 
+    @Value("${openweathermap.geo.url}")
+    private String geoUrl;
+
     // Spring's dependency injection provides the RestTemplate bean automatically
     public LocationService(RestTemplate restTemplate) {
         this.restTemplate = restTemplate;
@@ -29,8 +37,8 @@ public class LocationService {
     public String[] getLocationFromCoordinates(double lat, double lon) {
         // Construct the full API URL with the provided coordinates and your API key
         String url = String.format(
-                "https://api.openweathermap.org/geo/1.0/reverse?lat=%f&lon=%f&limit=1&appid=%s",
-                lat, lon, apiKey
+                "%s?lat=%f&lon=%f&limit=1&appid=%s",
+                geoUrl, lat, lon, apiKey
         );
 
         try {
@@ -44,15 +52,18 @@ public class LocationService {
                 String state = location.getState() != null ? location.getState() : "Unknown State";
                 String district = location.getName() != null ? location.getName() : "Unknown District";
 
-                System.out.println("Location Found: " + district + ", " + state);
+                if (log.isInfoEnabled(SampledLogFilter.SAMPLED)) {
+                    log.atInfo().addKeyValue("district", district).addKeyValue("state", state)
+                            .log("Location found: {}, {}", district, state);
+                }
                 return new String[]{state, district};
             }
         } catch (HttpClientErrorException e) {
             // This will catch errors like 401 (Invalid API Key) or 400 (Bad Request)
-            System.err.println("Error calling OpenWeatherMap API: " + e.getStatusCode() + " " + e.getResponseBodyAsString());
+            log.warn("Error calling OpenWeatherMap API: {} {}", e.getStatusCode(), e.getResponseBodyAsString());
         } catch (Exception e) {
             // This will catch other errors like network issues
-            System.err.println("An unexpected error occurred: " + e.getMessage());
+            log.warn("Error calling OpenWeatherMap API: {}", e.getMessage());
         }
 
         // If the API call fails or returns no data, return a default value
@@ -0,0 +1,86 @@
+package kishanMitra.demo.service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.stereotype.Service;
+
+import kishanMitra.demo.dto.NearbyMandi;
+import kishanMitra.demo.geo.GeoKdTree;
+
+/**
+ * Finds the mandis closest to a farmer, so market prices follow their location instead of the
+ * one hardcoded city per state in {@link MarketPriceService}. The geocoded mandi list is loaded
+ * once from {@code data/mandis.csv} into a k-d tree; a lookup is a few microseconds.
+ */
+@Service
+public class MandiLocationService {
+
+    private static final Logger log = LoggerFactory.getLogger(MandiLocationService.class);
+
+    private static final String MANDI_RESOURCE = "data/mandis.csv";
+
+    private final List<Mandi> mandis;
+    private final GeoKdTree<Mandi> index;
+
+    public MandiLocationService() {
+        this.mandis = loadMandis();
+        this.index = GeoKdTree.build(mandis, Mandi::latitude, Mandi::longitude);
+        log.info("Loaded {} geocoded mandis", index.size());
+    }
+
+    /**
+     * @return the {@code count} nearest mandis to the given coordinates, nearest first.
+     */
+    public List<NearbyMandi> findNearest(double lat, double lon, int count) {
+        List<GeoKdTree.Neighbor<Mandi>> neighbors = index.nearest(lat, lon, count);
+        List<NearbyMandi> result = new ArrayList<>(neighbors.size());
+        for (GeoKdTree.Neighbor<Mandi> neighbor : neighbors) {
+            Mandi mandi = neighbor.item();
+            double km = Math.round(neighbor.distanceKm() * 10.0) / 10.0;
+            result.add(new NearbyMandi(mandi.market(), mandi.state(), mandi.latitude(), mandi.longitude(), km));
+        }
+        return result;
+    }
+
+    /** @return every geocoded mandi, as a list of {@link NearbyMandi} with a distance of 0. */
+    public List<NearbyMandi> getAllMandis() {
+        List<NearbyMandi> result = new ArrayList<>(mandis.size());
+        for (Mandi mandi : mandis) {
+            result.add(new NearbyMandi(mandi.market(), mandi.state(), mandi.latitude(), mandi.longitude(), 0));
+        }
+        return result;
+    }
+
+    public int getMandiCount() {
+        return index.size();
+    }
+
+    private List<Mandi> loadMandis() {
+        List<Mandi> mandis = new ArrayList<>();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+                new ClassPathResource(MANDI_RESOURCE).getInputStream(), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank() || line.startsWith("#") || line.startsWith("market,")) continue;
+                String[] parts = line.split(",");
+                if (parts.length < 4) continue;
+                mandis.add(new Mandi(parts[0].trim(), parts[1].trim(),
+                        Double.parseDouble(parts[2].trim()), Double.parseDouble(parts[3].trim())));
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not load " + MANDI_RESOURCE, e);
+        }
+        return mandis;
+    }
+
+    record Mandi(String market, String state, double latitude, double longitude) {}
+}
@@ -0,0 +1,486 @@
+package kishanMitra.demo.service;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeFormatterBuilder;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+import kishanMitra.demo.dto.IngestReport;
+import kishanMitra.demo.dto.MarketPrice;
+
+/**
+ * Streams the daily agmarknet CSV/JSON exports straight into the {@link MarketPriceService}
+ * bulk store, instead of asking the proxy for one commodity/state/market combination at a time.
+ * The CSV path reads the file through a {@link FileChannel} into one reusable buffer and parses
+ * fields in place; only the text columns become Strings, and repeated ones (commodity, mandi,
+ * state, date) are interned so a multi-GB dump doesn't allocate millions of copies of "Wheat".
+ */
+@Service
+public class MarketPriceIngestService {
+
+    private static final Logger log = LoggerFactory.getLogger(MarketPriceIngestService.class);
+
+    private static final int READ_BUFFER_BYTES = 4 * 1024 * 1024;
+    private static final int MAX_COLUMNS = 32;
+
+    // Column slots, in the order MarketPriceService.toMarketPrice takes them
+    private static final int SERIAL = 0, CITY = 1, COMMODITY = 2, MIN = 3, MAX = 4, MODAL = 5, DATE = 6, STATE = 7;
+    private static final int SLOTS = 8;
+
+    // "01 Oct 2025" as the live API and the portal export it, then the data.gov.in and ISO forms
+    private static final DateTimeFormatter[] DATE_FORMATS = {
+            new DateTimeFormatterBuilder().parseCaseInsensitive().appendPattern("d MMM yyyy").toFormatter(Locale.ENGLISH),
+            DateTimeFormatter.ofPattern("d/M/yyyy"),
+            DateTimeFormatter.ISO_LOCAL_DATE
+    };
+
+    private static final double[] POW10 = {
+            1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11, 1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18
+    };
+
+    private final MarketPriceService marketPriceService;
+    private final JsonFactory jsonFactory = new JsonFactory();
+
+    @Value("${agmarknet.ingest.dir:data/agmarknet}")
+    private String ingestDir = "data/agmarknet";
+
+    @Value("${agmarknet.ingest.batch-size:50000}")
+    private int batchSize = 50_000;
+
+    // Dumps can carry years of history; keep only the most recent rows per mandi/commodity
+    @Value("${agmarknet.ingest.max-rows-per-market:30}")
+    private int maxRowsPerMarket = 30;
+
+    public MarketPriceIngestService(MarketPriceService marketPriceService) {
+        this.marketPriceService = marketPriceService;
+    }
+
+    /**
+     * Ingests a dump that was dropped into the configured ingest directory.
+     * Rejects names that would escape that directory.
+     */
+    public IngestReport ingestFromDirectory(String fileName) throws IOException {
+        Path base = Path.of(ingestDir).toAbsolutePath().normalize();
+        Path file = base.resolve(fileName).normalize();
+        if (!file.startsWith(base)) {
+            throw new IllegalArgumentException("Ingest file must be inside " + base);
+        }
+        return ingest(file);
+    }
+
+    /**
+     * Parses the whole file, then swaps the new generation of prices into the store in one step,
+     * so readers never see a half-loaded dump.
+     */
+    public IngestReport ingest(Path file) throws IOException {
+        String name = file.getFileName().toString().toLowerCase(Locale.ROOT);
+        boolean json = name.endsWith(".json");
+
+        IngestReport report = new IngestReport();
+        report.setFile(file.getFileName().toString());
+        report.setFormat(json ? "json" : "csv");
+
+        BatchLoader loader = new BatchLoader(batchSize, maxRowsPerMarket);
+        long start = System.nanoTime();
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            if (json) {
+                report.setBytesRead(channel.size());
+                ingestJson(channel, loader, report);
+            } else {
+                ingestCsv(channel, loader, report);
+            }
+        }
+        Map<String, List<MarketPrice>> prices = loader.finish();
+        marketPriceService.replaceBulkPrices(prices);
+        long elapsedNanos = System.nanoTime() - start;
+
+        report.setRowsLoaded(loader.rows);
+        report.setBatches(loader.batches);
+        report.setMarketsLoaded(prices.size());
+        report.setElapsedMs(elapsedNanos / 1_000_000);
+        report.setRowsPerSecond(elapsedNanos > 0 ? loader.rows / (elapsedNanos / 1e9) : loader.rows);
+
+        log.info("Agmarknet ingest: {} -> {} rows ({} skipped), {} markets in {} ms ({} rows/s)",
+                report.getFile(), report.getRowsLoaded(), report.getRowsSkipped(), report.getMarketsLoaded(),
+                report.getElapsedMs(), Math.round(report.getRowsPerSecond()));
+        return report;
+    }
+
+    private void ingestCsv(FileChannel channel, BatchLoader loader, IngestReport report) throws IOException {
+        byte[] buf = new byte[READ_BUFFER_BYTES];
+        ByteBuffer byteBuffer = ByteBuffer.wrap(buf);
+        CsvRowParser parser = new CsvRowParser();
+        int filled = 0;
+        boolean eof = false;
+
+        while (!eof) {
+            byteBuffer.limit(buf.length).position(filled);
+            int read = channel.read(byteBuffer);
+            if (read < 0) {
+                eof = true;
+            } else {
+                filled += read;
+                report.setBytesRead(report.getBytesRead() + read);
+            }
+
+            int lineStart = 0;
+            for (int i = 0; i < filled; i++) {
+                if (buf[i] == '\n') {
+                    parser.line(buf, lineStart, i, loader, report);
+                    lineStart = i + 1;
+                }
+            }
+            if (eof) {
+                if (lineStart < filled) {
+                    parser.line(buf, lineStart, filled, loader, report);
+                }
+                break;
+            }
+
+            int remaining = filled - lineStart;
+            if (remaining == buf.length) {
+                throw new IOException("CSV line longer than " + READ_BUFFER_BYTES + " bytes");
+            }
+            System.arraycopy(buf, lineStart, buf, 0, remaining);
+            filled = remaining;
+        }
+    }
+
+    private void ingestJson(FileChannel channel, BatchLoader loader, IngestReport report) throws IOException {
+        Map<String, String> canonical = new HashMap<>();
+        String[] values = new String[SLOTS];
+        // Jackson buffers internally, so the unbuffered channel stream is fine here
+        try (JsonParser parser = jsonFactory.createParser(Channels.newInputStream(channel))) {
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                throw new IOException("Expected a JSON array of agmarknet rows");
+            }
+            while (parser.nextToken() == JsonToken.START_OBJECT) {
+                Arrays.fill(values, null);
+                while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                    int slot = slotFor(parser.currentName());
+                    JsonToken value = parser.nextToken();
+                    if (slot >= 0 && value.isScalarValue()) {
+                        values[slot] = parser.getText();
+                    } else {
+                        parser.skipChildren();
+                    }
+                }
+                if (isBlank(values[CITY]) || isBlank(values[COMMODITY])) {
+                    report.setRowsSkipped(report.getRowsSkipped() + 1);
+                    continue;
+                }
+                loader.add(MarketPriceService.toMarketPrice(
+                        values[SERIAL],
+                        canonical.computeIfAbsent(values[CITY], v -> v),
+                        canonical.computeIfAbsent(values[COMMODITY], v -> v),
+                        price(values[MIN]),
+                        price(values[MAX]),
+                        price(values[MODAL]),
+                        values[DATE] != null ? canonical.computeIfAbsent(values[DATE], v -> v) : "",
+                        values[STATE] != null ? canonical.computeIfAbsent(values[STATE], v -> v) : "Unknown"));
+            }
+        }
+    }
+
+    private static int slotFor(String column) {
+        if (column == null) return -1;
+        return switch (column.trim()) {
+            case MarketPriceService.FIELD_SERIAL_NO -> SERIAL;
+            case MarketPriceService.FIELD_CITY -> CITY;
+            case MarketPriceService.FIELD_COMMODITY -> COMMODITY;
+            case MarketPriceService.FIELD_MIN_PRICE -> MIN;
+            case MarketPriceService.FIELD_MAX_PRICE -> MAX;
+            case MarketPriceService.FIELD_MODAL_PRICE -> MODAL;
+            case MarketPriceService.FIELD_DATE -> DATE;
+            case MarketPriceService.FIELD_STATE -> STATE;
+            default -> -1;
+        };
+    }
+
+    private static double price(String value) {
+        return value == null ? 0.0 : MarketPriceService.parseDouble(value);
+    }
+
+    private static boolean isBlank(String s) {
+        return s == null || s.isBlank();
+    }
+
+    /**
+     * Same semantics as {@link MarketPriceService#parseDouble(String)} (drop everything but
+     * digits and '.', 0.0 when that isn't a number) without building the intermediate String.
+     */
+    static double parsePrice(byte[] b, int from, int to) {
+        long mantissa = 0;
+        int digits = 0;
+        int fractionDigits = -1; // -1 until we see the decimal point
+        for (int i = from; i < to; i++) {
+            byte c = b[i];
+            if (c >= '0' && c <= '9') {
+                if (digits == 18) {
+                    return MarketPriceService.parseDouble(new String(b, from, to - from, StandardCharsets.UTF_8));
+                }
+                mantissa = mantissa * 10 + (c - '0');
+                digits++;
+                if (fractionDigits >= 0) fractionDigits++;
+            } else if (c == '.') {
+                if (fractionDigits >= 0) return 0.0; // "1.2.3" is not a number
+                fractionDigits = 0;
+            }
+        }
+        if (digits == 0) return 0.0;
+        return fractionDigits > 0 ? mantissa / POW10[fractionDigits] : mantissa;
+    }
+
+    /**
+     * Splits CSV lines in place. The first non-empty line is the header; after that each line
+     * becomes one MarketPrice. Quoted fields (agmarknet quotes prices like "2,450") are supported,
+     * embedded newlines are not.
+     */
+    private static final class CsvRowParser {
+        private final int[] starts = new int[MAX_COLUMNS];
+        private final int[] ends = new int[MAX_COLUMNS];
+        private final boolean[] escaped = new boolean[MAX_COLUMNS];
+        private final int[] field = new int[SLOTS]; // slot -> column index, -1 when absent
+        private final BytesInterner interner = new BytesInterner();
+        private int[] columnSlots; // column index -> slot, -1 when unused
+
+        void line(byte[] b, int from, int to, BatchLoader loader, IngestReport report) throws IOException {
+            if (to > from && b[to - 1] == '\r') to--;
+            if (to <= from) return;
+
+            int columns = split(b, from, to);
+            if (columnSlots == null) {
+                readHeader(b, columns);
+                return;
+            }
+
+            Arrays.fill(field, -1);
+            for (int c = 0; c < columns && c < columnSlots.length; c++) {
+                if (columnSlots[c] >= 0) field[columnSlots[c]] = c;
+            }
+            if (isEmpty(field[CITY]) || isEmpty(field[COMMODITY])) {
+                report.setRowsSkipped(report.getRowsSkipped() + 1);
+                return;
+            }
+            loader.add(MarketPriceService.toMarketPrice(
+                    field[SERIAL] >= 0 ? text(b, field[SERIAL], false) : "",
+                    text(b, field[CITY], true),
+                    text(b, field[COMMODITY], true),
+                    price(b, field[MIN]),
+                    price(b, field[MAX]),
+                    price(b, field[MODAL]),
+                    field[DATE] >= 0 ? text(b, field[DATE], true) : "",
+                    field[STATE] >= 0 && !isEmpty(field[STATE]) ? text(b, field[STATE], true) : "Unknown"));
+        }
+
+        private int split(byte[] b, int from, int to) {
+            int columns = 0;
+            int p = from;
+            while (p <= to && columns < MAX_COLUMNS) {
+                boolean hasEscapes = false;
+                if (p < to && b[p] == '"') {
+                    int q = p + 1;
+                    starts[columns] = q;
+                    while (q < to) {
+                        if (b[q] == '"') {
+                            if (q + 1 < to && b[q + 1] == '"') {
+                                hasEscapes = true;
+                                q += 2;
+                                continue;
+                            }
+                            break;
+                        }
+                        q++;
+                    }
+                    ends[columns] = q;
+                    p = q + 1;
+                    while (p < to && b[p] != ',') p++;
+                } else {
+                    starts[columns] = p;
+                    while (p < to && b[p] != ',') p++;
+                    ends[columns] = p;
+                }
+                escaped[columns] = hasEscapes;
+                columns++;
+                p++; // step over the comma
+            }
+            return columns;
+        }
+
+        private void readHeader(byte[] b, int columns) throws IOException {
+            columnSlots = new int[columns];
+            boolean hasCity = false, hasCommodity = false;
+            for (int c = 0; c < columns; c++) {
+                int start = starts[c];
+                // Excel likes to prefix exports with a UTF-8 BOM
+                if (c == 0 && ends[c] - start >= 3 && b[start] == (byte) 0xEF && b[start + 1] == (byte) 0xBB && b[start + 2] == (byte) 0xBF) {
+                    start += 3;
+                }
+                int slot = slotFor(new String(b, start, ends[c] - start, StandardCharsets.UTF_8));
+                columnSlots[c] = slot;
+                hasCity |= slot == CITY;
+                hasCommodity |= slot == COMMODITY;
+            }
+            if (!hasCity || !hasCommodity) {
+                throw new IOException("CSV header must contain '" + MarketPriceService.FIELD_CITY
+                        + "' and '" + MarketPriceService.FIELD_COMMODITY + "' columns");
+            }
+        }
+
+        private boolean isEmpty(int column) {
+            return column < 0 || ends[column] <= starts[column];
+        }
+
+        private double price(byte[] b, int column) {
+            return column < 0 ? 0.0 : parsePrice(b, starts[column], ends[column]);
+        }
+
+        private String text(byte[] b, int column, boolean intern) {
+            if (escaped[column]) {
+                return new String(b, starts[column], ends[column] - starts[column], StandardCharsets.UTF_8).replace("\"\"", "\"");
+            }
+            return intern ? interner.intern(b, starts[column], ends[column])
+                    : new String(b, starts[column], ends[column] - starts[column], StandardCharsets.UTF_8);
+        }
+    }
+
+    /**
+     * Fixed-size open-addressing table from raw bytes to a shared String. Once it fills up we
+     * simply stop interning, which only costs allocations, never correctness.
+     */
+    private static final class BytesInterner {
+        private static final int CAPACITY = 1 << 15;
+        private static final int MAX_PROBES = 8;
+        private final byte[][] keys = new byte[CAPACITY][];
+        private final String[] values = new String[CAPACITY];
+        private int size;
+
+        String intern(byte[] b, int from, int to) {
+            int length = to - from;
+            if (length == 0) return "";
+            int hash = 1;
+            for (int i = from; i < to; i++) hash = 31 * hash + b[i];
+            int index = (hash ^ (hash >>> 16)) & (CAPACITY - 1);
+            for (int probe = 0; probe < MAX_PROBES; probe++) {
+                byte[] key = keys[index];
+                if (key == null) {
+                    String value = new String(b, from, length, StandardCharsets.UTF_8);
+                    if (size < CAPACITY * 3 / 4) {
+                        keys[index] = Arrays.copyOfRange(b, from, to);
+                        values[index] = value;
+                        size++;
+                    }
+                    return value;
+                }
+                if (Arrays.equals(key, 0, key.length, b, from, to)) {
+                    return values[index];
+                }
+                index = (index + 1) & (CAPACITY - 1);
+            }
+            return new String(b, from, length, StandardCharsets.UTF_8);
+        }
+    }
+
+    /**
+     * Collects parsed rows and folds them into the new store generation a batch at a time,
+     * keeping only the newest {@code maxRowsPerMarket} rows for each key by arrival date, so a
+     * dump that isn't sorted by date still keeps the latest prices. Rows of the same day keep
+     * their file order.
+     */
+    private static final class BatchLoader {
+        private static final Comparator<Staged> OLDEST_FIRST =
+                Comparator.comparingLong(Staged::day).thenComparingLong(Staged::seq);
+
+        private final int batchSize;
+        private final int maxRowsPerMarket;
+        private final List<MarketPrice> batch;
+        // Keyed on the interned column values, so lookups hit cached String hashes and identity
+        // equals; the "commodity_state_market" store key is only built once per market in finish()
+        private final Map<MarketKey, PriorityQueue<Staged>> staged = new HashMap<>();
+        // A dump has a few hundred distinct dates at most; parse each one once
+        private final Map<String, Long> days = new HashMap<>();
+        private long rows;
+        private int batches;
+
+        BatchLoader(int batchSize, int maxRowsPerMarket) {
+            this.batchSize = Math.max(1, batchSize);
+            this.maxRowsPerMarket = Math.max(1, maxRowsPerMarket);
+            this.batch = new ArrayList<>(this.batchSize);
+        }
+
+        void add(MarketPrice price) {
+            batch.add(price);
+            rows++;
+            if (batch.size() >= batchSize) flush();
+        }
+
+        private void flush() {
+            if (batch.isEmpty()) return;
+            long seq = rows - batch.size();
+            for (MarketPrice price : batch) {
+                MarketKey key = new MarketKey(price.getCommodity(), price.getState(), price.getMarket());
+                PriorityQueue<Staged> rowsForKey = staged.computeIfAbsent(key, k -> new PriorityQueue<>(OLDEST_FIRST));
+                rowsForKey.add(new Staged(days.computeIfAbsent(price.getDate(), BatchLoader::epochDay), seq++, price));
+                if (rowsForKey.size() > maxRowsPerMarket) rowsForKey.poll();
+            }
+            batch.clear();
+            batches++;
+        }
+
+        Map<String, List<MarketPrice>> finish() {
+            flush();
+            Map<String, List<MarketPrice>> out = new HashMap<>(staged.size() * 2);
+            staged.forEach((key, queue) -> {
+                Staged[] sorted = queue.toArray(new Staged[0]);
+                Arrays.sort(sorted, OLDEST_FIRST);
+                List<MarketPrice> prices = new ArrayList<>(sorted.length);
+                for (Staged row : sorted) prices.add(row.price());
+                out.put(MarketPriceService.priceKey(key.commodity(), key.state(), key.market()), List.copyOf(prices));
+            });
+            return out;
+        }
+
+        /** Days since the epoch, or {@code Long.MIN_VALUE} (older than any row) when the date doesn't parse. */
+        private static long epochDay(String date) {
+            if (date != null) {
+                String trimmed = date.trim();
+                for (DateTimeFormatter format : DATE_FORMATS) {
+                    try {
+                        return LocalDate.parse(trimmed, format).toEpochDay();
+                    } catch (DateTimeParseException e) {
+                        // try the next format
+                    }
+                }
+            }
+            return Long.MIN_VALUE;
+        }
+    }
+
+    private record Staged(long day, long seq, MarketPrice price) {}
+
+    private record MarketKey(String commodity, String state, String market) {}
+}
@@ -4,11 +4,13 @@ import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
@@ -18,33 +20,69 @@ import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 
 import kishanMitra.demo.dto.MarketPrice;
+import kishanMitra.demo.dto.NearbyMandi;
+import kishanMitra.demo.monitoring.CacheLookupEvent;
 
 @Service
 public class MarketPriceService {
 
+    private static final Logger log = LoggerFactory.getLogger(MarketPriceService.class);
+
     @Value("${agmarknet.api.url:http://localhost:5000}")
     private String agmarknetApiUrl;
 
-    private final RestTemplate restTemplate = new RestTemplate();
+    private final RestTemplate restTemplate;
     private final ObjectMapper objectMapper = new ObjectMapper();
 
+    // agmarknet column names, shared by the live proxy and the bulk dump ingest.
+    // The upstream really does spell "Prize" this way.
+    static final String FIELD_SERIAL_NO = "S.No";
+    static final String FIELD_CITY = "City";
+    static final String FIELD_COMMODITY = "Commodity";
+    static final String FIELD_MIN_PRICE = "Min Prize";
+    static final String FIELD_MAX_PRICE = "Max Prize";
+    static final String FIELD_MODAL_PRICE = "Model Prize";
+    static final String FIELD_DATE = "Date";
+    static final String FIELD_STATE = "State";
+
     // Cache to store prices and reduce API calls
-    private final Map<String, List<MarketPrice>> priceCache = new HashMap<>();
-    private final Map<String, Long> cacheTimestamp = new HashMap<>();
+    private final Map<String, List<MarketPrice>> priceCache = new ConcurrentHashMap<>();
+    private final Map<String, Long> cacheTimestamp = new ConcurrentHashMap<>();
     private static final long CACHE_DURATION_MS = 30 * 60 * 1000; // 30 minutes
 
+    private static final List<String> DEFAULT_COMMODITIES = List.of(
+        "Rice", "Wheat", "Potato", "Onion", "Tomato",
+        "Maize", "Soybean", "Mustard", "Chickpea", "Cotton"
+    );
+
+    // Prices bulk-loaded from the daily agmarknet dump; replaced wholesale on every ingest
+    private volatile Map<String, List<MarketPrice>> bulkPrices = Map.of();
+
+    public MarketPriceService(RestTemplate restTemplate) {
+        this.restTemplate = restTemplate;
+    }
+
     /**
      * Get market prices for a commodity in a specific state and market
      * First tries the live API, falls back to mock data if unavailable
      */
     public List<MarketPrice> getMarketPrices(String commodity, String state, String market) {
-        String cacheKey = commodity + "_" + state + "_" + market;
+        String cacheKey = priceKey(commodity, state, market);
         
         // Check cache first
-        if (isCacheValid(cacheKey)) {
+        boolean cached = isCacheValid(cacheKey);
+        CacheLookupEvent.record("market-prices", cached);
+        if (cached) {
             return priceCache.get(cacheKey);
         }
 
+        // Then the last bulk ingest, which covers every mandi without a proxy round trip
+        List<MarketPrice> bulk = bulkPrices.get(cacheKey);
+        CacheLookupEvent.record("market-prices-bulk", bulk != null);
+        if (bulk != null) {
+            return bulk;
+        }
+
         try {
             // Try to call the Python agmarknet API
             String url = String.format("%s/request?commodity=%s&state=%s&market=%s", 
@@ -59,7 +97,7 @@ public class MarketPriceService {
                 return prices;
             }
         } catch (Exception e) {
-            System.err.println("Error fetching from agmarknet API: " + e.getMessage());
+            log.warn("Error fetching from agmarknet API: {}", e.getMessage());
         }
 
         // Fallback to mock data
@@ -70,53 +108,110 @@ public class MarketPriceService {
      * Get market prices for multiple commodities (default list for a state)
      */
     public List<MarketPrice> getDefaultMarketPrices(String state) {
-        List<String> defaultCommodities = Arrays.asList(
-            "Rice", "Wheat", "Potato", "Onion", "Tomato", 
-            "Maize", "Soybean", "Mustard", "Chickpea", "Cotton"
-        );
-        
         List<MarketPrice> allPrices = new ArrayList<>();
+        String market = getDefaultMarket(state);
         
-        // Get prices for each commodity - using mock data for reliability
-        for (String commodity : defaultCommodities) {
-            allPrices.addAll(getMockMarketPrices(commodity, state, getDefaultMarket(state)));
+        // Get prices for each commodity - bulk-ingested data when we have it, mock data otherwise
+        for (String commodity : DEFAULT_COMMODITIES) {
+            allPrices.addAll(getStoredOrMockPrices(commodity, state, market));
         }
         
         return allPrices;
     }
 
+    /**
+     * Get prices from the given (nearest) mandis. With a commodity this behaves like
+     * {@link #getMarketPrices} per mandi; without one it returns the default commodity list.
+     */
+    public List<MarketPrice> getMarketPricesForMandis(List<NearbyMandi> mandis, String commodity) {
+        List<MarketPrice> allPrices = new ArrayList<>();
+        for (NearbyMandi mandi : mandis) {
+            if (commodity != null) {
+                allPrices.addAll(getMarketPrices(commodity, mandi.getState(), mandi.getMarket()));
+            } else {
+                for (String defaultCommodity : DEFAULT_COMMODITIES) {
+                    allPrices.addAll(getStoredOrMockPrices(defaultCommodity, mandi.getState(), mandi.getMarket()));
+                }
+            }
+        }
+        return allPrices;
+    }
+
+    private List<MarketPrice> getStoredOrMockPrices(String commodity, String state, String market) {
+        List<MarketPrice> bulk = bulkPrices.get(priceKey(commodity, state, market));
+        return bulk != null ? bulk : getMockMarketPrices(commodity, state, market);
+    }
+
+    /**
+     * Atomically replaces the bulk price store with a freshly ingested generation.
+     * Keys must be built with {@link #priceKey(String, String, String)}.
+     */
+    public void replaceBulkPrices(Map<String, List<MarketPrice>> prices) {
+        this.bulkPrices = Map.copyOf(prices);
+    }
+
+    public int getBulkMarketCount() {
+        return bulkPrices.size();
+    }
+
+    public int getCachedMarketCount() {
+        return priceCache.size();
+    }
+
+    static String priceKey(String commodity, String state, String market) {
+        return commodity + "_" + state + "_" + market;
+    }
+
     private boolean isCacheValid(String cacheKey) {
         if (!priceCache.containsKey(cacheKey)) return false;
         Long timestamp = cacheTimestamp.get(cacheKey);
         return timestamp != null && (System.currentTimeMillis() - timestamp) < CACHE_DURATION_MS;
     }
 
-    private List<MarketPrice> parseApiResponse(String jsonResponse, String state) {
+    List<MarketPrice> parseApiResponse(String jsonResponse, String state) {
         List<MarketPrice> prices = new ArrayList<>();
         try {
             JsonNode root = objectMapper.readTree(jsonResponse);
             if (root.isArray()) {
                 for (JsonNode node : root) {
-                    MarketPrice price = new MarketPrice();
-                    price.setSerialNo(node.path("S.No").asText());
-                    price.setMarket(node.path("City").asText());
-                    price.setCommodity(node.path("Commodity").asText());
-                    price.setVariety("Local");
-                    price.setMinPrice(parseDouble(node.path("Min Prize").asText()));
-                    price.setMaxPrice(parseDouble(node.path("Max Prize").asText()));
-                    price.setModalPrice(parseDouble(node.path("Model Prize").asText()));
-                    price.setDate(node.path("Date").asText());
-                    price.setState(state);
-                    prices.add(price);
+                    prices.add(toMarketPrice(
+                            node.path(FIELD_SERIAL_NO).asText(),
+                            node.path(FIELD_CITY).asText(),
+                            node.path(FIELD_COMMODITY).asText(),
+                            parseDouble(node.path(FIELD_MIN_PRICE).asText()),
+                            parseDouble(node.path(FIELD_MAX_PRICE).asText()),
+                            parseDouble(node.path(FIELD_MODAL_PRICE).asText()),
+                            node.path(FIELD_DATE).asText(),
+                            state));
                 }
             }
         } catch (Exception e) {
-            System.err.println("Error parsing API response: " + e.getMessage());
+            log.warn("Error parsing agmarknet API response: {}", e.getMessage());
         }
         return prices;
     }
 
-    private Double parseDouble(String value) {
+    /**
+     * Maps one agmarknet row onto our DTO. Shared with {@link MarketPriceIngestService}
+     * so the live proxy and the bulk dumps agree on the field mapping.
+     */
+    static MarketPrice toMarketPrice(String serialNo, String city, String commodity,
+                                     double minPrice, double maxPrice, double modalPrice,
+                                     String date, String state) {
+        MarketPrice price = new MarketPrice();
+        price.setSerialNo(serialNo);
+        price.setMarket(city);
+        price.setCommodity(commodity);
+        price.setVariety("Local");
+        price.setMinPrice(minPrice);
+        price.setMaxPrice(maxPrice);
+        price.setModalPrice(modalPrice);
+        price.setDate(date);
+        price.setState(state);
+        return price;
+    }
+
+    static Double parseDouble(String value) {
         try {
             return Double.parseDouble(value.replaceAll("[^0-9.]", ""));
         } catch (Exception e) {
@@ -0,0 +1,191 @@
+package kishanMitra.demo.service;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import kishanMitra.demo.dto.DashboardData;
+import kishanMitra.demo.dto.NearbyMandi;
+import kishanMitra.demo.geo.GeoTile;
+import kishanMitra.demo.monitoring.StageTracer;
+import kishanMitra.demo.precompute.PrecomputedRecommendation;
+import kishanMitra.demo.precompute.RecommendationSnapshot;
+import kishanMitra.demo.precompute.RecommendationSnapshotStore;
+
+/**
+ * Nightly batch that generates the crop recommendation and farmer summary for every tile we
+ * serve (the tiles of all geocoded mandis plus any listed in {@code precompute.tiles.file}) and
+ * publishes them as a new {@link RecommendationSnapshot}. {@link DataAggregationService} serves
+ * snapshot tiles directly and only calls Gemini for tiles that are missing.
+ * <p>
+ * A tile costs up to three calls on the data keys (soil fallback, recommendation, summary), so
+ * the run is paced by {@code precompute.tiles-per-minute} and {@code precompute.concurrency}
+ * to stay inside the per-minute key quota while daytime traffic is low.
+ */
+@Service
+public class RecommendationPrecomputeService {
+
+    private static final Logger log = LoggerFactory.getLogger(RecommendationPrecomputeService.class);
+
+    private final DataAggregationService dataAggregationService;
+    private final AIService aiService;
+    private final MandiLocationService mandiLocationService;
+    private final RecommendationSnapshotStore snapshotStore;
+    private final StageTracer stageTracer;
+
+    @Value("${precompute.enabled:false}")
+    private boolean enabled;
+
+    @Value("${precompute.concurrency:2}")
+    private int concurrency;
+
+    @Value("${precompute.tiles-per-minute:6}")
+    private int tilesPerMinute;
+
+    @Value("${precompute.tiles.file:}")
+    private String tilesFile;
+
+    private final AtomicBoolean running = new AtomicBoolean();
+    private volatile Map<String, Object> lastRun = Map.of();
+
+    public RecommendationPrecomputeService(DataAggregationService dataAggregationService, AIService aiService,
+                                           MandiLocationService mandiLocationService,
+                                           RecommendationSnapshotStore snapshotStore, StageTracer stageTracer) {
+        this.dataAggregationService = dataAggregationService;
+        this.aiService = aiService;
+        this.mandiLocationService = mandiLocationService;
+        this.snapshotStore = snapshotStore;
+        this.stageTracer = stageTracer;
+    }
+
+    @Scheduled(cron = "${precompute.cron:0 30 1 * * *}", zone = "${precompute.zone:Asia/Kolkata}")
+    public void nightly() {
+        if (enabled) {
+            run();
+        }
+    }
+
+    /** Starts a run on a background thread, unless one is already going. */
+    public Map<String, Object> startAsync() {
+        if (!running.get()) {
+            Thread.ofVirtual().name("recommendation-precompute").start(this::run);
+        }
+        return status();
+    }
+
+    public void run() {
+        if (!running.compareAndSet(false, true)) {
+            log.info("Recommendation precompute already running, skipping");
+            return;
+        }
+        long start = System.currentTimeMillis();
+        try {
+            List<GeoTile> tiles = tiles();
+            log.info("Recommendation precompute started for {} tiles", tiles.size());
+            Map<Integer, PrecomputedRecommendation> entries = new ConcurrentHashMap<>();
+            AtomicReference<String> season = new AtomicReference<>();
+            AtomicInteger failed = new AtomicInteger();
+
+            Semaphore permits = new Semaphore(Math.max(concurrency, 1));
+            long spacingNanos = Duration.ofMinutes(1).toNanos() / Math.max(tilesPerMinute, 1);
+            long next = System.nanoTime();
+            try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+                for (GeoTile tile : tiles) {
+                    long wait = next - System.nanoTime();
+                    if (wait > 0) Thread.sleep(Duration.ofNanos(wait));
+                    next = Math.max(next, System.nanoTime()) + spacingNanos;
+                    permits.acquire();
+                    executor.submit(() -> {
+                        try {
+                            DashboardData dashboard = dataAggregationService.buildDashboard(tile.centerLat(), tile.centerLon());
+                            PrecomputedRecommendation entry = stageTracer.trace("precompute.tile", () -> generate(dashboard));
+                            season.compareAndSet(null, dashboard.getCurrentSeason());
+                            if (entry != null && dashboard.getCurrentSeason().equals(season.get())) {
+                                entries.put(tile.key(), entry);
+                            } else {
+                                failed.incrementAndGet();
+                            }
+                        } catch (Exception e) {
+                            failed.incrementAndGet();
+                            log.warn("Precompute failed for tile {}: {}", tile, e.getMessage());
+                        } finally {
+                            permits.release();
+                        }
+                    });
+                }
+            } // close() waits for the tiles still in flight
+
+            Map<String, Object> report = new LinkedHashMap<>();
+            report.put("tiles", tiles.size());
+            report.put("generated", entries.size());
+            report.put("failed", failed.get());
+            report.put("durationMs", System.currentTimeMillis() - start);
+            // A run that mostly failed (expired key, upstream outage) keeps serving the previous snapshot
+            if (!entries.isEmpty() && entries.size() >= failed.get()) {
+                RecommendationSnapshot snapshot = snapshotStore.publish(season.get(), entries);
+                report.put("published", snapshot.getFile().getFileName().toString());
+            }
+            lastRun = report;
+            log.info("Recommendation precompute finished: {}", report);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (IOException e) {
+            log.error("Could not publish recommendation snapshot: {}", e.getMessage());
+        } finally {
+            running.set(false);
+        }
+    }
+
+    public Map<String, Object> status() {
+        Map<String, Object> status = new LinkedHashMap<>();
+        status.put("running", running.get());
+        status.put("snapshot", snapshotStore.status());
+        status.put("lastRun", lastRun);
+        return status;
+    }
+
+    /** @return null when Gemini could not produce both parts, so the tile is left to on-demand generation. */
+    private PrecomputedRecommendation generate(DashboardData dashboard) {
+        String recommendation = aiService.getBestCropRecommendation(dashboard);
+        if (AIService.RECOMMENDATION_UNAVAILABLE.equals(recommendation)) return null;
+        String summary = aiService.getFarmerSummary(dashboard);
+        return summary != null ? new PrecomputedRecommendation(recommendation, summary) : null;
+    }
+
+    private List<GeoTile> tiles() throws IOException {
+        Set<GeoTile> tiles = new LinkedHashSet<>();
+        for (NearbyMandi mandi : mandiLocationService.getAllMandis()) {
+            tiles.add(GeoTile.of(mandi.getLatitude(), mandi.getLongitude()));
+        }
+        if (tilesFile != null && !tilesFile.isBlank()) {
+            // One "lat,lon" per line, e.g. district headquarters; '#' starts a comment
+            for (String line : Files.readAllLines(Path.of(tilesFile), StandardCharsets.UTF_8)) {
+                String[] parts = line.split(",");
+                if (line.isBlank() || line.startsWith("#") || parts.length < 2) continue;
+                tiles.add(GeoTile.of(Double.parseDouble(parts[0].trim()), Double.parseDouble(parts[1].trim())));
+            }
+        }
+        return new ArrayList<>(tiles);
+    }
+}
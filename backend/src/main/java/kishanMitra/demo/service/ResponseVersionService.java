@@ -0,0 +1,80 @@
+package kishanMitra.demo.service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.HexFormat;
+import java.util.Locale;
+import java.util.Set;
+
+import org.springframework.stereotype.Service;
+
+import kishanMitra.demo.dto.DashboardSection;
+import kishanMitra.demo.geo.GeoTile;
+import kishanMitra.demo.precompute.RecommendationSnapshotStore;
+
+/**
+ * Builds the {@code /api/all-data} ETag from the versions of the data behind the requested
+ * sections (the tile's weather fetch time, the recommendation snapshot version, the static
+ * profiles version), so a repeat request is answered 304 before any of it is computed.
+ */
+@Service
+public class ResponseVersionService {
+
+    private static final ZoneId IST = ZoneId.of("Asia/Kolkata");
+
+    private final WeatherDataService weatherDataService;
+    private final RecommendationSnapshotStore snapshotStore;
+    private final StaticProfilesService staticProfilesService;
+
+    public ResponseVersionService(WeatherDataService weatherDataService, RecommendationSnapshotStore snapshotStore,
+                                  StaticProfilesService staticProfilesService) {
+        this.weatherDataService = weatherDataService;
+        this.snapshotStore = snapshotStore;
+        this.staticProfilesService = staticProfilesService;
+    }
+
+    /**
+     * @param withProfiles whether the static profiles are in the body (the client's
+     *                     {@code profilesVersion} was not the current one)
+     * @param accept       the Accept header, so JSON and CBOR bodies get different tags
+     * @return a weak ETag, or null when the tile's forecast is not cached and fresh, i.e. the
+     * response cannot be validated without computing it
+     */
+    public String allDataEtag(double lat, double lon, String lang, Set<DashboardSection> sections,
+                              boolean withProfiles, String accept) {
+        GeoTile tile = GeoTile.of(lat, lon);
+        StringBuilder key = new StringBuilder(128)
+                .append(String.format(Locale.ROOT, "%.5f,%.5f", lat, lon)).append('|')
+                .append(lang == null || lang.isBlank() ? "en" : lang.toLowerCase(Locale.ROOT)).append('|')
+                .append(accept).append('|')
+                .append(staticProfilesService.getVersion()).append(withProfiles ? "+" : "-");
+        for (DashboardSection section : sections) {
+            key.append('|').append(section.param());
+        }
+
+        if (sections.contains(DashboardSection.WEATHER) || sections.contains(DashboardSection.RECOMMENDATION)) {
+            long fetchedAt = weatherDataService.getFetchedAt(tile);
+            if (fetchedAt == 0) return null;
+            key.append("|w").append(fetchedAt);
+        } else if (sections.stream().anyMatch(DashboardSection.DASHBOARD::contains)) {
+            // Location, soil and climate barely change; revalidate them once a day
+            key.append("|d").append(LocalDate.now(IST));
+        }
+        if (sections.contains(DashboardSection.RECOMMENDATION)) {
+            key.append("|r").append(snapshotStore.versionOf(tile));
+        }
+        return "W/\"" + tile.key() + "-" + digest(key) + "\"";
+    }
+
+    private static String digest(CharSequence key) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(key.toString().getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(hash, 0, 8);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
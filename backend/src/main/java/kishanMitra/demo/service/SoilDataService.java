@@ -3,31 +3,43 @@ package kishanMitra.demo.service;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.web.client.RestTemplate;
 
 import com.fasterxml.jackson.databind.JsonNode;
 
 import kishanMitra.demo.dto.SoilData;
+import kishanMitra.demo.monitoring.SampledLogFilter;
 
 @Service
 public class SoilDataService {
 
+    private static final Logger log = LoggerFactory.getLogger(SoilDataService.class);
+
     private final RestTemplate restTemplate;
     private final AIService aiService;
 
+    @Value("${open-meteo.forecast.url}")
+    private String forecastUrl;
+
+    @Value("${open-meteo.archive.url}")
+    private String archiveUrl;
+
     public SoilDataService(RestTemplate restTemplate, AIService aiService) {
         this.restTemplate = restTemplate;
         this.aiService = aiService;
     }
     public SoilData getSoilData(double lat, double lon) {
-        System.out.println("--- Using Gemini AI Soil Simulator as primary data source... ---");
+        log.info(SampledLogFilter.SAMPLED, "Using the AI soil simulator as primary data source");
         SoilData aiMockData = aiService.getAiMockSoilData(lat, lon);
 
         // Check if the AI failed and returned its default, hardcoded values.
         // This indicates that the AI API key might be exhausted or the service is down.
         if (aiMockData.getPh() == 6.5 && aiMockData.getSoilOrganicCarbon() == 8.0) {
-            System.out.println("--- AI Soil Simulator failed or returned default values. Triggering final fallback... ---");
+            log.warn("AI soil simulator failed or returned default values, triggering the final fallback");
             // We throw a specific exception to trigger the final fallback in the DataAggregationService.
             throw new RuntimeException("AI_SOIL_SIMULATOR_FAILED");
         }
@@ -46,8 +58,8 @@ public class SoilDataService {
         LocalDate endDate = LocalDate.now().minusDays(1);
         LocalDate startDate = endDate.minusDays(90);
         String url = String.format(
-                "https://archive-api.open-meteo.com/v1/archive?latitude=%f&longitude=%f&start_date=%s&end_date=%s&daily=precipitation_sum",
-                lat, lon, startDate.format(DateTimeFormatter.ISO_LOCAL_DATE), endDate.format(DateTimeFormatter.ISO_LOCAL_DATE)
+                "%s?latitude=%f&longitude=%f&start_date=%s&end_date=%s&daily=precipitation_sum",
+                archiveUrl, lat, lon, startDate.format(DateTimeFormatter.ISO_LOCAL_DATE), endDate.format(DateTimeFormatter.ISO_LOCAL_DATE)
         );
         try {
             JsonNode response = restTemplate.getForObject(url, JsonNode.class);
@@ -60,7 +72,7 @@ public class SoilDataService {
             double index = (totalRainfall / 400.0) * 100;
             return Math.min(index, 100.0);
         } catch (Exception e) {
-            System.err.println("GROUNDWATER_INDEX_ERROR: " + e.getMessage());
+            log.warn("Groundwater index failed: {}", e.getMessage());
             return 0; // Return a default value on failure
         }
     }
@@ -69,12 +81,12 @@ public class SoilDataService {
      * Fetches real-time topsoil moisture from the reliable Open-Meteo API.
      */
     private double fetchOpenMeteoProperty(double lat, double lon, String property) {
-        String url = String.format("https://api.open-meteo.com/v1/forecast?latitude=%f&longitude=%f&current=%s", lat, lon, property);
+        String url = String.format("%s?latitude=%f&longitude=%f&current=%s", forecastUrl, lat, lon, property);
         try {
             JsonNode response = restTemplate.getForObject(url, JsonNode.class);
             return response.path("current").path(property).asDouble(0);
         } catch (Exception e) {
-            System.err.println("OPENMETEO_REQUEST_FAILED for " + property + ": " + e.getMessage());
+            log.atWarn().addKeyValue("property", property).log("Open-Meteo request failed for {}: {}", property, e.getMessage());
             return 0;
         }
     }
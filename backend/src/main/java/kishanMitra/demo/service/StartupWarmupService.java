@@ -0,0 +1,213 @@
+package kishanMitra.demo.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.core.env.Environment;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.client.SimpleClientHttpRequestFactory;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.stereotype.Service;
+import org.springframework.web.client.HttpStatusCodeException;
+import org.springframework.web.client.RestClientException;
+import org.springframework.web.client.RestTemplate;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import kishanMitra.demo.dto.AgronomicFeatures;
+import kishanMitra.demo.dto.AiCropRecommendation;
+import kishanMitra.demo.dto.ClimateData;
+import kishanMitra.demo.dto.DashboardData;
+import kishanMitra.demo.dto.KishanMitraResponse;
+import kishanMitra.demo.dto.ProfilesResponse;
+import kishanMitra.demo.dto.SoilData;
+import kishanMitra.demo.dto.WeatherData;
+
+/**
+ * Warms the instance up before it reports ready. As an {@link ApplicationRunner} it runs after
+ * Tomcat has started but before Spring Boot publishes {@code ACCEPTING_TRAFFIC}, so
+ * {@code /actuator/health/readiness} stays {@code OUT_OF_SERVICE} until it is done. It
+ * <ul>
+ *   <li>runs the decode, dashboard, prompt and serialization path on the recorded upstream
+ *   payloads in {@code warmup/} {@code warmup.iterations} times, so it is JIT-compiled before
+ *   farmers hit it;</li>
+ *   <li>opens a connection to every upstream host (DNS, TLS handshake and session cache);</li>
+ *   <li>translates and serializes the static profiles for {@code warmup.languages}.</li>
+ * </ul>
+ * The network steps are cut off at {@code warmup.timeout} and carry on in the background.
+ */
+@Service
+public class StartupWarmupService implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(StartupWarmupService.class);
+
+    private static final String[] UPSTREAM_URL_PROPERTIES = {
+            "gemini.api.url", "open-meteo.forecast.url", "open-meteo.archive.url", "open-meteo.climate.url",
+            "openweathermap.geo.url", "translate.google.api.url", "agmarknet.api.url"};
+    private static final String[] FIXTURE_LOCATION = {"Uttar Pradesh", "Kanpur Nagar"};
+
+    @Value("${warmup.enabled:false}")
+    private boolean enabled;
+
+    @Value("${warmup.iterations:500}")
+    private int iterations = 500;
+
+    @Value("${warmup.languages:hi}")
+    private List<String> languages = List.of("hi");
+
+    @Value("${warmup.timeout:60s}")
+    private Duration timeout = Duration.ofSeconds(60);
+
+    private final WeatherDataService weatherDataService;
+    private final ClimateDataService climateDataService;
+    private final MarketPriceService marketPriceService;
+    private final AIService aiService;
+    private final StaticProfilesService staticProfilesService;
+    private final ObjectMapper objectMapper;
+    private final Environment environment;
+
+    public StartupWarmupService(WeatherDataService weatherDataService, ClimateDataService climateDataService,
+                                MarketPriceService marketPriceService, AIService aiService,
+                                StaticProfilesService staticProfilesService, ObjectMapper objectMapper,
+                                Environment environment) {
+        this.weatherDataService = weatherDataService;
+        this.climateDataService = climateDataService;
+        this.marketPriceService = marketPriceService;
+        this.aiService = aiService;
+        this.staticProfilesService = staticProfilesService;
+        this.objectMapper = objectMapper;
+        this.environment = environment;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) throws Exception {
+        if (!enabled) return;
+        long start = System.nanoTime();
+        ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+        try {
+            CompletableFuture<Integer> connections = CompletableFuture.supplyAsync(() -> openUpstreamConnections(executor), executor);
+            CompletableFuture<Void> catalogs = CompletableFuture.runAsync(this::loadCatalogs, executor);
+
+            long fixtureMillis = exerciseHotPaths();
+
+            long deadline = start + timeout.toNanos();
+            int opened = await(connections, deadline, "upstream connections", 0);
+            await(catalogs, deadline, "translated catalogs", null);
+            log.info("Warm-up done in {} ms: {} fixture passes in {} ms, {}/{} upstream hosts reached, catalogs for en,{}",
+                    (System.nanoTime() - start) / 1_000_000, iterations, fixtureMillis, opened, UPSTREAM_URL_PROPERTIES.length,
+                    String.join(",", languages));
+        } finally {
+            // Anything still running finishes in the background; readiness does not wait for it
+            executor.shutdown();
+        }
+    }
+
+    /** @return the time spent, in ms */
+    long exerciseHotPaths() throws IOException {
+        byte[] forecast = fixture("open-meteo-forecast.json");
+        byte[] climate = fixture("open-meteo-climate.json");
+        byte[] soil = fixture("soil.json");
+        String agmarknet = new String(fixture("agmarknet.json"), StandardCharsets.UTF_8);
+        ObjectMapper cbor = Jackson2ObjectMapperBuilder.cbor().build();
+        ProfilesResponse profiles = staticProfilesService.getProfiles("en");
+
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            WeatherData weather = weatherDataService.parse(objectMapper.readTree(forecast));
+            ClimateData climateData = climateDataService.parse(objectMapper.readTree(climate));
+            SoilData soilData = objectMapper.readValue(soil, SoilData.class);
+            marketPriceService.parseApiResponse(agmarknet, "Delhi");
+
+            DashboardData dashboard = DataAggregationService.dashboardOf(FIXTURE_LOCATION, soilData, weather, climateData, "Rabi (Winter)");
+            AgronomicFeatures features = dashboard.getFeatures();
+            features.cacheKey();
+            String recommendation = aiService.buildRecommendationPrompt(features);
+            aiService.buildChatbotPrompt("Which fertilizer should I apply this week?", features, "", "hi");
+            aiService.buildSummaryPrompt(recommendation, features);
+            aiService.buildSoilPrompt(26.4499, 80.3319);
+
+            KishanMitraResponse response = new KishanMitraResponse();
+            response.setDashboardData(dashboard);
+            AiCropRecommendation cropRecommendation = new AiCropRecommendation();
+            cropRecommendation.setRecommendationText(recommendation);
+            response.setCropRecommendation(cropRecommendation);
+            response.setCropProfiles(profiles.getCropProfiles());
+            response.setPesticideProfiles(profiles.getPesticideProfiles());
+            response.setProfilesVersion(profiles.getVersion());
+            objectMapper.writeValueAsBytes(response);
+            cbor.writeValueAsBytes(response);
+        }
+        return (System.nanoTime() - start) / 1_000_000;
+    }
+
+    /**
+     * A HEAD to each upstream. The answer does not matter (most reply 404 or 405); what stays is
+     * the DNS entry, the JDK's TLS session for a resumed handshake and, briefly, the keep-alive
+     * connection. A separate RestTemplate keeps these out of the upstream metrics.
+     * @return how many hosts answered
+     */
+    private int openUpstreamConnections(ExecutorService executor) {
+        SimpleClientHttpRequestFactory factory = new SimpleClientHttpRequestFactory();
+        factory.setConnectTimeout(Duration.ofSeconds(5));
+        factory.setReadTimeout(Duration.ofSeconds(5));
+        RestTemplate restTemplate = new RestTemplate(factory);
+        List<CompletableFuture<Boolean>> heads = new ArrayList<>();
+        for (String property : UPSTREAM_URL_PROPERTIES) {
+            String url = environment.getProperty(property);
+            if (url == null || url.isBlank()) continue;
+            heads.add(CompletableFuture.supplyAsync(() -> {
+                try {
+                    restTemplate.execute(URI.create(url), HttpMethod.HEAD, null, null);
+                    return true;
+                } catch (HttpStatusCodeException e) {
+                    return true;
+                } catch (RestClientException | IllegalArgumentException e) {
+                    log.warn("Warm-up could not reach {}: {}", property, e.getMessage());
+                    return false;
+                }
+            }, executor));
+        }
+        return (int) heads.stream().filter(CompletableFuture::join).count();
+    }
+
+    private void loadCatalogs() {
+        staticProfilesService.getSerialized("en");
+        for (String language : languages) {
+            staticProfilesService.getSerialized(language.trim());
+        }
+    }
+
+    private static <T> T await(CompletableFuture<T> step, long deadlineNanos, String name, T fallback) throws InterruptedException {
+        try {
+            return step.get(Math.max(0, deadlineNanos - System.nanoTime()), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            log.warn("Warm-up: {} not done in time, continuing in the background", name);
+        } catch (ExecutionException e) {
+            log.warn("Warm-up: {} failed: {}", name, String.valueOf(e.getCause()));
+        }
+        return fallback;
+    }
+
+    private static byte[] fixture(String name) throws IOException {
+        try (InputStream in = new ClassPathResource("warmup/" + name).getInputStream()) {
+            return in.readAllBytes();
+        }
+    }
+}
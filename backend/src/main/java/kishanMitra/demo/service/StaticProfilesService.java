@@ -0,0 +1,120 @@
+package kishanMitra.demo.service;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.zip.GZIPOutputStream;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import kishanMitra.demo.dto.KishanMitraResponse;
+import kishanMitra.demo.dto.ProfilesResponse;
+
+/**
+ * The crop and pesticide profiles are the same for every farmer and make up most of an
+ * {@code /api/all-data} payload. They get a content version (a hash of the English source), are
+ * served on their own from {@code /api/profiles}, and clients that already hold the current
+ * version pass it as {@code profilesVersion} so /all-data leaves them out.
+ * Each supported language ({@code profiles.languages}) is translated, serialized and gzipped once,
+ * and served from those bytes; any other {@code lang} gets the English profiles, so the cache
+ * stays one entry per supported language and an unknown code never costs a round of Translate calls.
+ */
+@Service
+public class StaticProfilesService {
+
+    private static final long TRANSLATED_TTL_MS = 60 * 60 * 1000; // retry failed translations hourly
+
+    private final CropInfoService cropInfoService;
+    private final PesticideInfoService pesticideInfoService;
+    private final TranslationService translationService;
+    private final ObjectMapper objectMapper;
+    private final String version;
+    private final Map<String, CachedProfiles> byLanguage = new ConcurrentHashMap<>();
+
+    @Value("${profiles.languages:en,hi,bn,te,ta,mr,gu,kn,or,pa}")
+    private Set<String> languages = Set.of("en", "hi", "bn", "te", "ta", "mr", "gu", "kn", "or", "pa");
+
+    private record CachedProfiles(ProfilesResponse profiles, SerializedProfiles serialized, long createdAt) {}
+
+    /** The JSON body of {@code /api/profiles} for one language, plain and gzipped, with its ETag. */
+    public record SerializedProfiles(String etag, byte[] json, byte[] gzipped) {}
+
+    public StaticProfilesService(CropInfoService cropInfoService, PesticideInfoService pesticideInfoService,
+                                 TranslationService translationService, ObjectMapper objectMapper) {
+        this.cropInfoService = cropInfoService;
+        this.pesticideInfoService = pesticideInfoService;
+        this.translationService = translationService;
+        this.objectMapper = objectMapper;
+        this.version = contentVersion();
+    }
+
+    public String getVersion() {
+        return version;
+    }
+
+    /** @return the profiles translated into {@code lang}; shared, callers must not modify them. */
+    public ProfilesResponse getProfiles(String lang) {
+        return cached(lang).profiles();
+    }
+
+    public SerializedProfiles getSerialized(String lang) {
+        return cached(lang).serialized();
+    }
+
+    private CachedProfiles cached(String lang) {
+        String language = lang == null ? "en" : lang.trim().toLowerCase(Locale.ROOT);
+        if (!languages.contains(language)) language = "en";
+        CachedProfiles cached = byLanguage.get(language);
+        if (cached != null && System.currentTimeMillis() - cached.createdAt() < TRANSLATED_TTL_MS) {
+            return cached;
+        }
+        KishanMitraResponse holder = new KishanMitraResponse();
+        holder.setCropProfiles(cropInfoService.getCropProfiles());
+        holder.setPesticideProfiles(pesticideInfoService.getPesticideProfiles());
+        translationService.translateResponse(holder, language);
+        ProfilesResponse profiles = new ProfilesResponse(version, language, holder.getCropProfiles(), holder.getPesticideProfiles());
+
+        byte[] json;
+        try {
+            json = objectMapper.writeValueAsBytes(profiles);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize the static profiles", e);
+        }
+        SerializedProfiles serialized = new SerializedProfiles("W/\"" + version + "-" + language + "\"", json, gzip(json));
+        cached = new CachedProfiles(profiles, serialized, System.currentTimeMillis());
+        byLanguage.put(language, cached);
+        return cached;
+    }
+
+    private String contentVersion() {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(objectMapper.writeValueAsBytes(cropInfoService.getCropProfiles()));
+            digest.update(objectMapper.writeValueAsBytes(pesticideInfoService.getPesticideProfiles()));
+            return HexFormat.of().formatHex(digest.digest(), 0, 6);
+        } catch (NoSuchAlgorithmException | JsonProcessingException e) {
+            throw new IllegalStateException("Could not version the static profiles", e);
+        }
+    }
+
+    private static byte[] gzip(byte[] body) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(body.length / 3);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(body);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+}
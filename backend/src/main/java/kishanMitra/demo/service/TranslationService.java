@@ -1,6 +1,8 @@
 package kishanMitra.demo.service;
 
 import com.fasterxml.jackson.databind.JsonNode;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpHeaders;
@@ -8,19 +10,41 @@ import org.springframework.http.MediaType;
 import org.springframework.stereotype.Service;
 import org.springframework.web.client.RestTemplate;
 
+import kishanMitra.demo.admission.ServiceLevel;
+import kishanMitra.demo.cache.LruCache;
+import kishanMitra.demo.dto.KishanMitraResponse;
+import kishanMitra.demo.monitoring.CacheLookupEvent;
+import kishanMitra.demo.monitoring.StageTracer;
+
+import java.time.Duration;
 import java.util.Objects;
 
 @Service
 public class TranslationService {
 
+    private static final Logger log = LoggerFactory.getLogger(TranslationService.class);
+
     private final RestTemplate restTemplate;
+    private final StageTracer stageTracer;
 
     @Value("${translate.google.api.key:}")
     private String googleApiKey;
-    private static final String GOOGLE_TRANSLATE_URL = "https://translation.googleapis.com/language/translate/v2";
+    @Value("${translate.google.api.url}")
+    private String translateUrl;
+    @Value("${translate.cache.ttl:24h}")
+    private Duration cacheTtl = Duration.ofHours(24);
+
+    // Most translated text repeats: the static crop and pesticide profiles for every dashboard,
+    // and one recommendation per tile. Keyed by target language + source text; the profiles are
+    // looked up on every request, so they stay while rarely used recommendations are evicted.
+    private static final int CACHE_MAX = 50_000;
+    private final LruCache<String, CachedTranslation> cache = new LruCache<>(CACHE_MAX);
+
+    private record CachedTranslation(String text, long createdAt) {}
 
-    public TranslationService(RestTemplate restTemplate) {
+    public TranslationService(RestTemplate restTemplate, StageTracer stageTracer) {
         this.restTemplate = restTemplate;
+        this.stageTracer = stageTracer;
     }
 
     public String translateIfNeeded(String text, String targetLang) {
@@ -34,18 +58,71 @@ public class TranslationService {
             return text;
         }
 
+        String cacheKey = normalized + '\u0000' + text;
+        CachedTranslation cached = cache.get(cacheKey);
+        boolean hit = cached != null && System.currentTimeMillis() - cached.createdAt() < cacheTtl.toMillis();
+        CacheLookupEvent.record("translation", hit);
+        if (hit) {
+            return cached.text();
+        }
+        if (!ServiceLevel.current().allowsUpstreams()) {
+            return text;
+        }
+
         try {
-            String translated = translateWithGoogle(text, normalized);
+            String translated = stageTracer.trace("translate", () -> translateWithGoogle(text, normalized));
             if (translated != null && !translated.isBlank()) {
+                cache.put(cacheKey, new CachedTranslation(translated, System.currentTimeMillis()));
                 return translated;
             }
         } catch (Exception e) {
-            System.err.println("Google Translate error: " + e.getMessage());
+            log.warn("Google Translate error: {}", e.getMessage());
         }
 
         return text; // fallback to original
     }
 
+    /**
+     * Translates the user-facing text of a dashboard response in place: the recommendation,
+     * crop and pesticide profiles and the Koppen label.
+     */
+    public void translateResponse(KishanMitraResponse resp, String lang) {
+        if (lang == null || lang.isBlank() || "en".equals(lang)) return;
+        // Translate select text fields for UI: recommendation, crop names/notes, pesticide fields, Koppen label
+        if (resp.getCropRecommendation() != null) {
+            resp.getCropRecommendation().setRecommendationText(
+                    translateIfNeeded(resp.getCropRecommendation().getRecommendationText(), lang)
+            );
+        }
+        if (resp.getCropProfiles() != null) {
+            resp.getCropProfiles().forEach(c -> {
+                c.setName(translateIfNeeded(c.getName(), lang));
+                c.setSeason(translateIfNeeded(c.getSeason(), lang));
+                c.setSoil(translateIfNeeded(c.getSoil(), lang));
+                c.setNotes(translateIfNeeded(c.getNotes(), lang));
+            });
+        }
+        if (resp.getPesticideProfiles() != null) {
+            resp.getPesticideProfiles().forEach(p -> {
+                p.setName(translateIfNeeded(p.getName(), lang));
+                p.setTargetPest(translateIfNeeded(p.getTargetPest(), lang));
+                p.setCrop(translateIfNeeded(p.getCrop(), lang));
+                p.setModeOfAction(translateIfNeeded(p.getModeOfAction(), lang));
+                p.setToxicity(translateIfNeeded(p.getToxicity(), lang));
+                p.setPreHarvestInterval(translateIfNeeded(p.getPreHarvestInterval(), lang));
+                p.setNotes(translateIfNeeded(p.getNotes(), lang));
+            });
+        }
+        if (resp.getDashboardData() != null && resp.getDashboardData().getClimateData() != null) {
+            var c = resp.getDashboardData().getClimateData();
+            c.setKoppenGeigerClassification(translateIfNeeded(c.getKoppenGeigerClassification(), lang));
+        }
+    }
+
+    public int getCachedTranslationCount() {
+        return cache.size();
+    }
+
     private String normalizeTargetLang(String lang) {
         if (lang == null) return "en";
         return lang.toLowerCase();
@@ -56,7 +133,7 @@ public class TranslationService {
         HttpHeaders headers = new HttpHeaders();
         headers.setContentType(MediaType.APPLICATION_JSON);
 
-        String url = GOOGLE_TRANSLATE_URL + "?key=" + googleApiKey;
+        String url = translateUrl + "?key=" + googleApiKey;
 
         // Minimal JSON body
         String bodyJson = String.format("{\"q\":%s,\"target\":%s,\"format\":\"text\"}",
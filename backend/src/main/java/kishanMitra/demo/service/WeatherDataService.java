@@ -1,64 +1,164 @@
 package kishanMitra.demo.service;
 
 import com.fasterxml.jackson.databind.JsonNode;
+import kishanMitra.demo.cache.LruCache;
+import kishanMitra.demo.cache.SharedCacheTier;
 import kishanMitra.demo.dto.WeatherData;
+import kishanMitra.demo.geo.GeoTile;
+import kishanMitra.demo.monitoring.CacheLookupEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.web.client.RestTemplate;
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.List;
 
 @Service
 public class WeatherDataService {
 
+    private static final Logger log = LoggerFactory.getLogger(WeatherDataService.class);
+
     private final RestTemplate restTemplate;
+    private final SharedCacheTier sharedCache;
+
+    @Value("${open-meteo.forecast.url}")
+    private String forecastUrl;
+
+    @Value("${weather.cache.ttl:60m}")
+    private Duration cacheTtl = Duration.ofMinutes(60);
+
+    // Forecasts per GeoTile: farmers in the same ~28 km cell share one fetch, and the pre-warmer
+    // refreshes the busiest tiles before the morning peak; the least recently used tiles go first
+    private static final int CACHE_MAX = 20_000;
+    private final LruCache<Integer, CachedWeather> cache = new LruCache<>(CACHE_MAX);
 
-    public WeatherDataService(RestTemplate restTemplate) {
+    // When the owner node fetched the tiles this node forwards (and so does not cache), for the ETags
+    private final LruCache<Integer, Long> ownerFetchedAt = new LruCache<>(CACHE_MAX);
+
+    record CachedWeather(WeatherData data, long fetchedAt) {}
+
+    public WeatherDataService(RestTemplate restTemplate, SharedCacheTier sharedCache) {
         this.restTemplate = restTemplate;
+        this.sharedCache = sharedCache;
     }
 
+    /** The tile's forecast, fetched at the tile centre like every other path, so any point in it gets the same one. */
     public WeatherData getWeatherData(double lat, double lon) {
+        GeoTile geoTile = GeoTile.of(lat, lon);
+        int tile = geoTile.key();
+        CachedWeather cached = cache.get(tile);
+        boolean hit = cached != null && System.currentTimeMillis() - cached.fetchedAt() < cacheTtl.toMillis();
+        if (!hit) {
+            // Another instance may have fetched this tile; keep its fetch time, the ETags are built from it
+            cached = sharedCache.get("weather", tile, CachedWeather.class);
+            hit = cached != null && System.currentTimeMillis() - cached.fetchedAt() < cacheTtl.toMillis();
+            if (hit) cache.put(tile, cached);
+        }
+        CacheLookupEvent.record("weather", hit);
+        if (hit) {
+            return cached.data();
+        }
+        WeatherData data = fetch(geoTile.centerLat(), geoTile.centerLon());
+        if (complete(data)) {
+            put(tile, data);
+        }
+        return data;
+    }
+
+    /** Fetches the forecast for the tile centre now, replacing any cached one; returns false when the fetch failed. */
+    public boolean refresh(GeoTile tile) {
+        WeatherData data = fetch(tile.centerLat(), tile.centerLon());
+        if (!complete(data)) return false;
+        put(tile.key(), data);
+        return true;
+    }
+
+    /**
+     * @return when the tile's cached forecast was fetched, or when its owner node last reported
+     * fetching it; 0 when neither is still fresh.
+     */
+    public long getFetchedAt(GeoTile tile) {
+        CachedWeather cached = cache.get(tile.key());
+        Long reported = ownerFetchedAt.get(tile.key());
+        long fetchedAt = Math.max(cached != null ? cached.fetchedAt() : 0, reported != null ? reported : 0);
+        return System.currentTimeMillis() - fetchedAt < cacheTtl.toMillis() ? fetchedAt : 0;
+    }
+
+    /** Records the fetch time an owner node reported for a tile forwarded to it, see {@link #getFetchedAt}. */
+    public void rememberFetchedAt(GeoTile tile, long fetchedAt) {
+        ownerFetchedAt.put(tile.key(), fetchedAt);
+    }
+
+    public int getCachedTileCount() {
+        return cache.size();
+    }
+
+    private void put(int tile, WeatherData data) {
+        CachedWeather cached = new CachedWeather(data, System.currentTimeMillis());
+        cache.put(tile, cached);
+        sharedCache.put("weather", tile, cached, cacheTtl);
+    }
+
+    private WeatherData fetch(double lat, double lon) {
         String url = String.format(
-                "https://api.open-meteo.com/v1/forecast?latitude=%f&longitude=%f&timezone=auto" +
+                "%s?latitude=%f&longitude=%f&timezone=auto" +
                         "&current=temperature_2m,relative_humidity_2m,apparent_temperature,wind_speed_10m,wind_gusts_10m,pressure_msl,visibility,uv_index" +
                         "&daily=temperature_2m_max,temperature_2m_min,precipitation_sum,wind_speed_10m_max,uv_index_max",
-                lat, lon
+                forecastUrl, lat, lon
         );
 
+        // Whatever was parsed before a failure is still returned, but only a complete forecast is cached
         WeatherData weatherData = new WeatherData();
         try {
             JsonNode response = restTemplate.getForObject(url, JsonNode.class);
-            if (response == null) return weatherData;
-
-            // Current Weather
-            JsonNode current = response.path("current");
-            WeatherData.CurrentWeather currentWeather = new WeatherData.CurrentWeather();
-            currentWeather.setTemperature(current.path("temperature_2m").asDouble());
-            currentWeather.setHumidity(current.path("relative_humidity_2m").asDouble());
-            currentWeather.setRealFeel(current.path("apparent_temperature").asDouble());
-            currentWeather.setWindSpeed(current.path("wind_speed_10m").asDouble());
-            currentWeather.setWindGust(current.path("wind_gusts_10m").asDouble());
-            currentWeather.setPressure(current.path("pressure_msl").asDouble());
-            currentWeather.setVisibility(current.path("visibility").asDouble());
-            currentWeather.setUvIndex(current.path("uv_index").asDouble());
-            weatherData.setCurrent(currentWeather);
-
-            // 7-Day Forecast
-            JsonNode daily = response.path("daily");
-            List<WeatherData.DailyForecast> forecastList = new ArrayList<>();
-            for (int i = 0; i < daily.path("time").size(); i++) {
-                WeatherData.DailyForecast forecast = new WeatherData.DailyForecast();
-                forecast.setDate(daily.path("time").get(i).asText());
-                forecast.setMaxTemp(daily.path("temperature_2m_max").get(i).asDouble());
-                forecast.setMinTemp(daily.path("temperature_2m_min").get(i).asDouble());
-                forecast.setPrecipitationSum(daily.path("precipitation_sum").get(i).asDouble());
-                forecast.setWindMax(daily.path("wind_speed_10m_max").get(i).asDouble());
-                forecast.setUvMax(daily.path("uv_index_max").get(i).asDouble());
-                forecastList.add(forecast);
-            }
-            weatherData.setSevenDayForecast(forecastList);
+            if (response != null) parseInto(response, weatherData);
         } catch (Exception e) {
-            System.err.println("Error fetching weather data: " + e.getMessage());
+            log.warn("Error fetching weather data: {}", e.getMessage());
         }
         return weatherData;
     }
+
+    /** The seven-day forecast is parsed last, so a response that failed halfway has none. */
+    private static boolean complete(WeatherData data) {
+        return data.getCurrent() != null && data.getSevenDayForecast() != null;
+    }
+
+    /** Maps an Open-Meteo forecast response onto {@link WeatherData}. */
+    WeatherData parse(JsonNode response) {
+        WeatherData weatherData = new WeatherData();
+        parseInto(response, weatherData);
+        return weatherData;
+    }
+
+    private static void parseInto(JsonNode response, WeatherData weatherData) {
+        // Current Weather
+        JsonNode current = response.path("current");
+        WeatherData.CurrentWeather currentWeather = new WeatherData.CurrentWeather();
+        currentWeather.setTemperature(current.path("temperature_2m").asDouble());
+        currentWeather.setHumidity(current.path("relative_humidity_2m").asDouble());
+        currentWeather.setRealFeel(current.path("apparent_temperature").asDouble());
+        currentWeather.setWindSpeed(current.path("wind_speed_10m").asDouble());
+        currentWeather.setWindGust(current.path("wind_gusts_10m").asDouble());
+        currentWeather.setPressure(current.path("pressure_msl").asDouble());
+        currentWeather.setVisibility(current.path("visibility").asDouble());
+        currentWeather.setUvIndex(current.path("uv_index").asDouble());
+        weatherData.setCurrent(currentWeather);
+
+        // 7-Day Forecast
+        JsonNode daily = response.path("daily");
+        List<WeatherData.DailyForecast> forecastList = new ArrayList<>();
+        for (int i = 0; i < daily.path("time").size(); i++) {
+            WeatherData.DailyForecast forecast = new WeatherData.DailyForecast();
+            forecast.setDate(daily.path("time").get(i).asText());
+            forecast.setMaxTemp(daily.path("temperature_2m_max").get(i).asDouble());
+            forecast.setMinTemp(daily.path("temperature_2m_min").get(i).asDouble());
+            forecast.setPrecipitationSum(daily.path("precipitation_sum").get(i).asDouble());
+            forecast.setWindMax(daily.path("wind_speed_10m_max").get(i).asDouble());
+            forecast.setUvMax(daily.path("uv_index_max").get(i).asDouble());
+            forecastList.add(forecast);
+        }
+        weatherData.setSevenDayForecast(forecastList);
+    }
 }
\ No newline at end of file
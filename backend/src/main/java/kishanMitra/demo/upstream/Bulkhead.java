@@ -0,0 +1,62 @@
+package kishanMitra.demo.upstream;
+
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Caps the calls in flight to one upstream. Callers beyond {@code maxConcurrent} wait for a
+ * permit, but only up to {@code maxWaiting} of them and for at most {@code maxWait}; everyone
+ * else is turned away at once, so a slow upstream holds a bounded number of request threads.
+ */
+public final class Bulkhead {
+
+    private final int maxConcurrent;
+    private final int maxWaiting;
+    private final long maxWaitNanos;
+    private final Semaphore permits;
+    private final AtomicInteger waiting = new AtomicInteger();
+
+    public Bulkhead(int maxConcurrent, int maxWaiting, Duration maxWait) {
+        this.maxConcurrent = Math.max(maxConcurrent, 1);
+        this.maxWaiting = Math.max(maxWaiting, 0);
+        this.maxWaitNanos = maxWait.toNanos();
+        this.permits = new Semaphore(this.maxConcurrent);
+    }
+
+    /** @return true with a permit that must be {@link #release() released}, false when the call is turned away. */
+    public boolean tryAcquire() throws InterruptedException {
+        if (permits.tryAcquire()) return true;
+        if (waiting.incrementAndGet() > maxWaiting) {
+            waiting.decrementAndGet();
+            return false;
+        }
+        try {
+            return permits.tryAcquire(maxWaitNanos, TimeUnit.NANOSECONDS);
+        } finally {
+            waiting.decrementAndGet();
+        }
+    }
+
+    /** @return true with a permit that must be {@link #release() released}, false when none is free right now. */
+    public boolean tryAcquireNow() {
+        return permits.tryAcquire();
+    }
+
+    public void release() {
+        permits.release();
+    }
+
+    public int getActive() {
+        return maxConcurrent - permits.availablePermits();
+    }
+
+    public int getWaiting() {
+        return waiting.get();
+    }
+
+    public int getMaxConcurrent() {
+        return maxConcurrent;
+    }
+}
@@ -0,0 +1,29 @@
+package kishanMitra.demo.upstream;
+
+/**
+ * Caps hedged calls at a share of all calls. Every call deposits {@code ratio} of a token, up
+ * to {@code maxTokens}; every hedge spends a whole one. A burst of slow calls can therefore spend
+ * at most {@code maxTokens} hedges before falling back to the steady {@code ratio}.
+ */
+public final class HedgeBudget {
+
+    private final double ratio;
+    private final double maxTokens;
+    private double tokens;
+
+    public HedgeBudget(double ratio, double maxTokens) {
+        this.ratio = ratio;
+        this.maxTokens = maxTokens;
+    }
+
+    public synchronized void onCall() {
+        tokens = Math.min(maxTokens, tokens + ratio);
+    }
+
+    /** @return true when a hedge may be sent, having spent its token. */
+    public synchronized boolean tryHedge() {
+        if (tokens < 1) return false;
+        tokens--;
+        return true;
+    }
+}
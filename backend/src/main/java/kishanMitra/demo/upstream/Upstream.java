@@ -0,0 +1,46 @@
+package kishanMitra.demo.upstream;
+
+import java.net.URI;
+
+/**
+ * The external services the backend depends on. The tag is used for metric tags and
+ * configuration keys, so keep it stable.
+ */
+public enum Upstream {
+    GEMINI("gemini"),
+    OPENAI("openai"),
+    DEEPSEEK("deepseek"),
+    OPEN_METEO_FORECAST("open-meteo-forecast"),
+    OPEN_METEO_ARCHIVE("open-meteo-archive"),
+    OPEN_METEO_CLIMATE("open-meteo-climate"),
+    OPENWEATHERMAP_GEO("openweathermap-geo"),
+    GOOGLE_TRANSLATE("google-translate"),
+    AGMARKNET("agmarknet"),
+    OTHER("other");
+
+    private final String tag;
+
+    Upstream(String tag) {
+        this.tag = tag;
+    }
+
+    public String tag() {
+        return tag;
+    }
+
+    /** Classifies an outbound request by the public host of each API. */
+    public static Upstream fromUri(URI uri) {
+        String host = uri.getHost() == null ? "" : uri.getHost();
+        return switch (host) {
+            case "generativelanguage.googleapis.com" -> GEMINI;
+            case "api.openai.com" -> OPENAI;
+            case "api.deepseek.com" -> DEEPSEEK;
+            case "api.open-meteo.com" -> OPEN_METEO_FORECAST;
+            case "archive-api.open-meteo.com" -> OPEN_METEO_ARCHIVE;
+            case "climate-api.open-meteo.com" -> OPEN_METEO_CLIMATE;
+            case "api.openweathermap.org" -> OPENWEATHERMAP_GEO;
+            case "translation.googleapis.com" -> GOOGLE_TRANSLATE;
+            default -> OTHER;
+        };
+    }
+}
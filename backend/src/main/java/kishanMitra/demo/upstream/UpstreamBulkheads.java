@@ -0,0 +1,150 @@
+package kishanMitra.demo.upstream;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.springframework.core.env.Environment;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRequest;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.http.client.SimpleClientHttpRequestFactory;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * One {@link Bulkhead} and one read timeout per upstream, so a Gemini slowdown cannot take
+ * the threads that weather and market-price requests need. Each upstream is configured under
+ * {@code bulkhead.<tag>.*} ({@code max-concurrent}, {@code max-waiting}, {@code max-wait},
+ * {@code timeout}). A call turned away fails with a {@link BulkheadFullException}, which the
+ * RestTemplate reports like any other I/O error, so the callers' existing fallbacks apply.
+ * A call holds its permit until its response is closed, since the body is still being read from
+ * the upstream after the headers arrive.
+ */
+@Component
+public class UpstreamBulkheads implements ClientHttpRequestInterceptor {
+
+    private static final Duration CONNECT_TIMEOUT = Duration.ofSeconds(3);
+    private static final Duration DEFAULT_TIMEOUT = Duration.ofSeconds(30);
+
+    private final UpstreamResolver upstreamResolver;
+    private final MeterRegistry meterRegistry;
+    private final Map<Upstream, Bulkhead> bulkheads = new EnumMap<>(Upstream.class);
+    private final Map<Upstream, SimpleClientHttpRequestFactory> requestFactories = new EnumMap<>(Upstream.class);
+
+    public UpstreamBulkheads(UpstreamResolver upstreamResolver, MeterRegistry meterRegistry, Environment environment) {
+        this.upstreamResolver = upstreamResolver;
+        this.meterRegistry = meterRegistry;
+        for (Upstream upstream : Upstream.values()) {
+            String prefix = "bulkhead." + upstream.tag() + ".";
+            Duration timeout = environment.getProperty(prefix + "timeout", Duration.class, DEFAULT_TIMEOUT);
+            requestFactories.put(upstream, requestFactory(timeout));
+            if (upstream == Upstream.OTHER) continue;
+            bulkheads.put(upstream, new Bulkhead(
+                    environment.getProperty(prefix + "max-concurrent", Integer.class, 20),
+                    environment.getProperty(prefix + "max-waiting", Integer.class, 20),
+                    environment.getProperty(prefix + "max-wait", Duration.class, Duration.ofSeconds(1))));
+        }
+    }
+
+    @Override
+    public ClientHttpResponse intercept(HttpRequest request, byte[] body, ClientHttpRequestExecution execution) throws IOException {
+        Upstream upstream = upstreamResolver.resolve(request.getURI());
+        Bulkhead bulkhead = bulkheads.get(upstream);
+        if (bulkhead == null) return execution.execute(request, body);
+        try {
+            if (!bulkhead.tryAcquire()) {
+                meterRegistry.counter("bulkhead.rejected", "upstream", upstream.tag()).increment();
+                throw new BulkheadFullException(upstream);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted waiting for the " + upstream.tag() + " bulkhead");
+        }
+        ClientHttpResponse response = null;
+        try {
+            response = execution.execute(request, body);
+            return releaseOnClose(response, bulkhead);
+        } finally {
+            if (response == null) bulkhead.release();
+        }
+    }
+
+    /** @return {@code response}, releasing one permit of {@code bulkhead} when it is first closed. */
+    static ClientHttpResponse releaseOnClose(ClientHttpResponse response, Bulkhead bulkhead) {
+        return new PermitHoldingResponse(response, bulkhead);
+    }
+
+    /** Creates each request with the connect and read timeouts of the upstream it goes to. */
+    public ClientHttpRequestFactory requestFactory() {
+        return (uri, method) -> requestFactories.get(upstreamResolver.resolve(uri)).createRequest(uri, method);
+    }
+
+    public Map<Upstream, Bulkhead> getBulkheads() {
+        return Collections.unmodifiableMap(bulkheads);
+    }
+
+    private static SimpleClientHttpRequestFactory requestFactory(Duration readTimeout) {
+        SimpleClientHttpRequestFactory factory = new SimpleClientHttpRequestFactory();
+        factory.setConnectTimeout(CONNECT_TIMEOUT);
+        factory.setReadTimeout(readTimeout);
+        return factory;
+    }
+
+    private static final class PermitHoldingResponse implements ClientHttpResponse {
+
+        private final ClientHttpResponse delegate;
+        private final Bulkhead bulkhead;
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        PermitHoldingResponse(ClientHttpResponse delegate, Bulkhead bulkhead) {
+            this.delegate = delegate;
+            this.bulkhead = bulkhead;
+        }
+
+        @Override
+        public HttpStatusCode getStatusCode() throws IOException {
+            return delegate.getStatusCode();
+        }
+
+        @Override
+        public String getStatusText() throws IOException {
+            return delegate.getStatusText();
+        }
+
+        @Override
+        public HttpHeaders getHeaders() {
+            return delegate.getHeaders();
+        }
+
+        @Override
+        public InputStream getBody() throws IOException {
+            return delegate.getBody();
+        }
+
+        @Override
+        public void close() {
+            try {
+                delegate.close();
+            } finally {
+                if (released.compareAndSet(false, true)) bulkhead.release();
+            }
+        }
+    }
+
+    public static class BulkheadFullException extends IOException {
+        public BulkheadFullException(Upstream upstream) {
+            super("Too many concurrent calls to " + upstream.tag());
+        }
+    }
+}
@@ -0,0 +1,331 @@
+package kishanMitra.demo.upstream;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.env.Environment;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.client.AbstractClientHttpRequest;
+import org.springframework.http.client.ClientHttpRequest;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Hedged calls for the upstreams in {@code hedge.upstreams}. When a call has not answered after
+ * the upstream's hedge delay, the same request is sent again; the first successful response wins
+ * and the other attempt is abandoned, its connection closed as soon as it answers. The delay is {@code hedge.<tag>.delay} when set, otherwise
+ * the p95 of the upstream's recent calls (no hedging until enough calls were seen). A
+ * {@link HedgeBudget} per upstream keeps hedges to {@code hedge.budget} of its calls.
+ * A Gemini hedge goes out with the other key of the same pair, so it does not share the quota
+ * of the key that is being slow.
+ *
+ * Sits below the interceptors: metrics and Flight Recorder see one call. The hedge takes a
+ * permit of its own from the upstream's {@link Bulkhead} and is skipped when none is free, and
+ * the attempts run on at most {@code hedge.max-threads} threads; when those are busy, calls go
+ * out unhedged on the caller's thread.
+ */
+@Component
+public class UpstreamHedging {
+
+    private static final int MIN_SAMPLES = 50;
+
+    private final boolean enabled;
+    private final UpstreamResolver upstreamResolver;
+    private final UpstreamBulkheads upstreamBulkheads;
+    private final MeterRegistry meterRegistry;
+    private final Map<Upstream, Policy> policies = new EnumMap<>(Upstream.class);
+    private final Map<String, String> alternateGeminiKeys = new HashMap<>();
+    // Platform threads: HttpURLConnection blocks inside synchronized methods, which would pin
+    // the carrier of a virtual thread and can stall the hedge behind the slow call it is racing
+    private final ExecutorService executor;
+
+    public UpstreamHedging(UpstreamResolver upstreamResolver, UpstreamBulkheads upstreamBulkheads, MeterRegistry meterRegistry,
+                           Environment environment,
+                           @Value("${hedge.enabled:false}") boolean enabled,
+                           @Value("${hedge.max-threads:64}") int maxThreads,
+                           @Value("${hedge.upstreams:open-meteo-forecast,open-meteo-archive,gemini}") Set<String> upstreams,
+                           @Value("${hedge.budget:0.05}") double budget,
+                           @Value("${hedge.min-delay:50ms}") Duration minDelay,
+                           @Value("${gemini.api.key}") String mainKey,
+                           @Value("${gemini.secondary.api.key}") String secondaryKey,
+                           @Value("${gemini.tertiary.api.key}") String tertiaryKey,
+                           @Value("${gemini.quaternary.api.key}") String quaternaryKey) {
+        this.enabled = enabled;
+        this.upstreamResolver = upstreamResolver;
+        this.upstreamBulkheads = upstreamBulkheads;
+        this.meterRegistry = meterRegistry;
+        this.executor = new ThreadPoolExecutor(0, Math.max(maxThreads, 2), 60, TimeUnit.SECONDS, new SynchronousQueue<>(),
+                Thread.ofPlatform().daemon().name("hedge-", 0).factory());
+        for (Upstream upstream : Upstream.values()) {
+            if (!upstreams.contains(upstream.tag())) continue;
+            Duration delay = environment.getProperty("hedge." + upstream.tag() + ".delay", Duration.class);
+            policies.put(upstream, new Policy(upstream, delay, minDelay.toNanos(), new HedgeBudget(budget, 10)));
+        }
+        // The two Gemini providers; the chat pair only applies when both are configured as Gemini
+        pair(mainKey, secondaryKey);
+        pair(quaternaryKey, tertiaryKey);
+    }
+
+    /** @return {@code delegate}, hedging the calls to the configured upstreams when hedging is enabled. */
+    public ClientHttpRequestFactory wrap(ClientHttpRequestFactory delegate) {
+        if (!enabled) return delegate;
+        return (uri, method) -> {
+            Policy policy = policies.get(upstreamResolver.resolve(uri));
+            return policy != null ? new HedgedRequest(delegate, policy, uri, method) : delegate.createRequest(uri, method);
+        };
+    }
+
+    private void pair(String a, String b) {
+        if (a == null || b == null || a.equals(b)) return;
+        alternateGeminiKeys.putIfAbsent(a, b);
+        alternateGeminiKeys.putIfAbsent(b, a);
+    }
+
+    private URI hedgeUri(Upstream upstream, URI uri) {
+        if (upstream != Upstream.GEMINI || uri.getRawQuery() == null) return uri;
+        String query = Arrays.stream(uri.getRawQuery().split("&"))
+                .map(param -> param.startsWith("key=") && alternateGeminiKeys.containsKey(param.substring(4))
+                        ? "key=" + alternateGeminiKeys.get(param.substring(4)) : param)
+                .collect(Collectors.joining("&"));
+        String s = uri.toString();
+        return URI.create(s.substring(0, s.indexOf('?') + 1) + query);
+    }
+
+    private void count(Upstream upstream, String outcome) {
+        meterRegistry.counter("upstream.hedges", "upstream", upstream.tag(), "outcome", outcome).increment();
+    }
+
+    private final class HedgedRequest extends AbstractClientHttpRequest {
+
+        private final ClientHttpRequestFactory delegate;
+        private final Policy policy;
+        private final URI uri;
+        private final HttpMethod method;
+        private final ByteArrayOutputStream body = new ByteArrayOutputStream(1024);
+
+        HedgedRequest(ClientHttpRequestFactory delegate, Policy policy, URI uri, HttpMethod method) {
+            this.delegate = delegate;
+            this.policy = policy;
+            this.uri = uri;
+            this.method = method;
+        }
+
+        @Override
+        public HttpMethod getMethod() {
+            return method;
+        }
+
+        @Override
+        public URI getURI() {
+            return uri;
+        }
+
+        @Override
+        protected OutputStream getBodyInternal(HttpHeaders headers) {
+            return body;
+        }
+
+        @Override
+        protected ClientHttpResponse executeInternal(HttpHeaders headers) throws IOException {
+            byte[] bytes = body.toByteArray();
+            policy.budget.onCall();
+            long start = System.nanoTime();
+            long delay = policy.delayNanos();
+            ExecutorCompletionService<ClientHttpResponse> attempts = new ExecutorCompletionService<>(executor);
+            Future<ClientHttpResponse> primary = null;
+            if (delay > 0) {
+                try {
+                    primary = attempts.submit(() -> attempt(uri, headers, bytes, null));
+                } catch (RejectedExecutionException e) {
+                    count(policy.upstream, "no-thread");
+                }
+            }
+            if (primary == null) {
+                // Still learning the upstream's latency, or out of threads: a plain call on this thread
+                try {
+                    ClientHttpResponse response = send(uri, headers, bytes);
+                    response.getStatusCode();
+                    return response;
+                } finally {
+                    policy.record(System.nanoTime() - start);
+                }
+            }
+            Future<ClientHttpResponse> hedge = null;
+            try {
+                Future<ClientHttpResponse> first = attempts.poll(delay, TimeUnit.NANOSECONDS);
+                if (first == null && policy.budget.tryHedge()) {
+                    hedge = submitHedge(attempts, headers, bytes);
+                } else if (first == null) {
+                    count(policy.upstream, "no-budget");
+                }
+                if (first == null) first = attempts.take();
+                if (hedge == null) {
+                    policy.record(System.nanoTime() - start);
+                    return result(first);
+                }
+
+                Future<ClientHttpResponse> second = first == primary ? hedge : primary;
+                ClientHttpResponse response = null;
+                IOException failure = null;
+                try {
+                    response = result(first);
+                    if (response.getStatusCode().is2xxSuccessful()) {
+                        cancel(second);
+                        count(policy.upstream, first == hedge ? "won" : "lost");
+                        return response;
+                    }
+                } catch (IOException e) {
+                    failure = e;
+                }
+                // The first answer was an error; the other attempt may still succeed
+                try {
+                    ClientHttpResponse other = attempts.take().get();
+                    if (other.getStatusCode().is2xxSuccessful() || response == null) {
+                        if (response != null) response.close();
+                        count(policy.upstream, second == hedge ? "won" : "lost");
+                        return other;
+                    }
+                    other.close();
+                } catch (ExecutionException e) {
+                    if (response == null) throw failure;
+                }
+                count(policy.upstream, "lost");
+                return response;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                cancel(primary);
+                if (hedge != null) cancel(hedge);
+                throw new InterruptedIOException("Interrupted waiting for " + policy.upstream.tag());
+            } finally {
+                if (hedge != null) policy.record(System.nanoTime() - start);
+            }
+        }
+
+        private ClientHttpResponse send(URI target, HttpHeaders headers, byte[] bytes) throws IOException {
+            ClientHttpRequest request = delegate.createRequest(target, method);
+            request.getHeaders().putAll(headers);
+            if (bytes.length > 0) request.getBody().write(bytes);
+            return request.execute();
+        }
+
+        /** @return the hedge, or null when the upstream's bulkhead or the hedge threads are full */
+        private Future<ClientHttpResponse> submitHedge(ExecutorCompletionService<ClientHttpResponse> attempts,
+                                                       HttpHeaders headers, byte[] bytes) {
+            Bulkhead bulkhead = upstreamBulkheads.getBulkheads().get(policy.upstream);
+            if (bulkhead != null && !bulkhead.tryAcquireNow()) {
+                count(policy.upstream, "no-permit");
+                return null;
+            }
+            try {
+                return attempts.submit(() -> attempt(hedgeUri(policy.upstream, uri), headers, bytes, bulkhead));
+            } catch (RejectedExecutionException e) {
+                if (bulkhead != null) bulkhead.release();
+                count(policy.upstream, "no-thread");
+                return null;
+            }
+        }
+
+        /** One attempt; {@code bulkhead}, when given, holds a permit that the response releases when closed. */
+        private ClientHttpResponse attempt(URI target, HttpHeaders headers, byte[] bytes, Bulkhead bulkhead) throws IOException {
+            ClientHttpResponse response;
+            try {
+                response = send(target, headers, bytes);
+            } catch (IOException | RuntimeException e) {
+                if (bulkhead != null) bulkhead.release();
+                throw e;
+            }
+            if (bulkhead != null) response = UpstreamBulkheads.releaseOnClose(response, bulkhead);
+            try {
+                // HttpURLConnection sends on execute() but only waits for the answer here
+                response.getStatusCode();
+            } catch (IOException | RuntimeException e) {
+                response.close();
+                throw e;
+            }
+            if (Thread.currentThread().isInterrupted()) {
+                // Lost the race while the headers were arriving
+                response.close();
+            }
+            return response;
+        }
+    }
+
+    private static ClientHttpResponse result(Future<ClientHttpResponse> attempt) throws IOException, InterruptedException {
+        try {
+            return attempt.get();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException io) throw io;
+            if (e.getCause() instanceof UncheckedIOException io) throw io.getCause();
+            if (e.getCause() instanceof RuntimeException re) throw re;
+            throw new IOException(e.getCause());
+        }
+    }
+
+    /** Marks the attempt as abandoned, so it closes its response on arrival; closes it now if it already arrived. */
+    private static void cancel(Future<ClientHttpResponse> attempt) {
+        if (!attempt.cancel(true) && attempt.state() == Future.State.SUCCESS) {
+            attempt.resultNow().close();
+        }
+    }
+
+    private static final class Policy {
+        private final Upstream upstream;
+        private final long fixedDelayNanos;
+        private final long minDelayNanos;
+        private final HedgeBudget budget;
+        private final long[] window = new long[512];
+        private long samples;
+        private volatile long p95Nanos;
+
+        Policy(Upstream upstream, Duration fixedDelay, long minDelayNanos, HedgeBudget budget) {
+            this.upstream = upstream;
+            this.fixedDelayNanos = fixedDelay != null ? fixedDelay.toNanos() : 0;
+            this.minDelayNanos = minDelayNanos;
+            this.budget = budget;
+        }
+
+        /** @return how long to wait before hedging, or 0 for not at all. */
+        long delayNanos() {
+            if (fixedDelayNanos > 0) return fixedDelayNanos;
+            long p95 = p95Nanos;
+            return p95 > 0 ? Math.max(p95, minDelayNanos) : 0;
+        }
+
+        /**
+         * Records how long a call took. A hedged call records the time to the winning answer,
+         * which understates the primary's latency only for the few calls that were hedged.
+         */
+        synchronized void record(long nanos) {
+            window[(int) (samples++ % window.length)] = nanos;
+            if (samples >= MIN_SAMPLES && samples % 32 == 0) {
+                long[] sorted = Arrays.copyOf(window, (int) Math.min(samples, window.length));
+                Arrays.sort(sorted);
+                p95Nanos = sorted[(int) (sorted.length * 0.95)];
+            }
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package kishanMitra.demo.upstream;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.http.HttpRequest;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Times every call made through the shared RestTemplate as {@code upstream.requests},
+ * tagged with the upstream it went to and the response status. The timer stops when the
+ * response headers arrive; body reads happen afterwards in the calling service.
+ */
+@Component
+public class UpstreamMetricsInterceptor implements ClientHttpRequestInterceptor {
+
+    private final MeterRegistry meterRegistry;
+    private final UpstreamResolver upstreamResolver;
+
+    public UpstreamMetricsInterceptor(MeterRegistry meterRegistry, UpstreamResolver upstreamResolver) {
+        this.meterRegistry = meterRegistry;
+        this.upstreamResolver = upstreamResolver;
+    }
+
+    @Override
+    public ClientHttpResponse intercept(HttpRequest request, byte[] body, ClientHttpRequestExecution execution) throws IOException {
+        Upstream upstream = upstreamResolver.resolve(request.getURI());
+        String status = "IO_ERROR";
+        long start = System.nanoTime();
+        try {
+            ClientHttpResponse response = execution.execute(request, body);
+            status = String.valueOf(response.getStatusCode().value());
+            return response;
+        } finally {
+            Timer.builder("upstream.requests")
+                    .description("Outbound calls to external APIs")
+                    .tag("upstream", upstream.tag())
+                    .tag("method", request.getMethod().name())
+                    .tag("status", status)
+                    .publishPercentileHistogram()
+                    .register(meterRegistry)
+                    .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package kishanMitra.demo.upstream;
+
+import java.net.URI;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Maps an outbound request to the {@link Upstream} it targets. Every upstream base URL is
+ * configurable (the agmarknet proxy and the load-test stubs have no fixed public host), so
+ * requests are matched on the configured host and port first, then on the public hosts.
+ */
+@Component
+public class UpstreamResolver {
+
+    private final Map<String, Upstream> byAuthority = new HashMap<>();
+
+    public UpstreamResolver(@Value("${gemini.api.url}") String geminiUrl,
+                            @Value("${open-meteo.forecast.url}") String forecastUrl,
+                            @Value("${open-meteo.archive.url}") String archiveUrl,
+                            @Value("${open-meteo.climate.url}") String climateUrl,
+                            @Value("${openweathermap.geo.url}") String geoUrl,
+                            @Value("${translate.google.api.url}") String translateUrl,
+                            @Value("${agmarknet.api.url:http://localhost:5000}") String agmarknetUrl) {
+        register(geminiUrl, Upstream.GEMINI);
+        register(forecastUrl, Upstream.OPEN_METEO_FORECAST);
+        register(archiveUrl, Upstream.OPEN_METEO_ARCHIVE);
+        register(climateUrl, Upstream.OPEN_METEO_CLIMATE);
+        register(geoUrl, Upstream.OPENWEATHERMAP_GEO);
+        register(translateUrl, Upstream.GOOGLE_TRANSLATE);
+        register(agmarknetUrl, Upstream.AGMARKNET);
+    }
+
+    public Upstream resolve(URI uri) {
+        Upstream configured = byAuthority.get(authority(uri));
+        return configured != null ? configured : Upstream.fromUri(uri);
+    }
+
+    private void register(String url, Upstream upstream) {
+        byAuthority.putIfAbsent(authority(URI.create(url)), upstream);
+    }
+
+    private static String authority(URI uri) {
+        int port = uri.getPort();
+        if (port == -1) port = "https".equalsIgnoreCase(uri.getScheme()) ? 443 : 80;
+        return (uri.getHost() == null ? "" : uri.getHost().toLowerCase()) + ":" + port;
+    }
+}
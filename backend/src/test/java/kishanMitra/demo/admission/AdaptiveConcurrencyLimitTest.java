@@ -0,0 +1,55 @@
+package kishanMitra.demo.admission;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class AdaptiveConcurrencyLimitTest {
+
+    private static final long MS = 1_000_000;
+
+    @Test
+    void limitGrowsWhileUsedAndBacksOffWhenLatencyRises() {
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(10, 4, 20, 2.0, 0.5);
+        limit.onSample("/api/all-data", 100 * MS, 10);
+        for (int i = 0; i < 100; i++) {
+            limit.onSample("/api/all-data", 100 * MS, 10);
+        }
+        int grown = limit.getLimit();
+        assertTrue(grown > 10, "limit should grow, was " + grown);
+
+        // An idle instance learns nothing about its capacity
+        for (int i = 0; i < 100; i++) {
+            limit.onSample("/api/all-data", 100 * MS, 1);
+        }
+        assertEquals(grown, limit.getLimit());
+
+        // Queueing: cut once, not once per slow sample in the same interval
+        limit.onSample("/api/all-data", 1_000 * MS, 10);
+        limit.onSample("/api/all-data", 1_000 * MS, 10);
+        assertEquals(grown / 2, limit.getLimit());
+
+        // Other endpoints are judged against their own baseline
+        limit.onSample("/api/market-prices", 5 * MS, 1);
+        limit.onSample("/api/market-prices", 5 * MS, 1);
+        assertEquals(grown / 2, limit.getLimit());
+    }
+
+    @Test
+    void dashboardsDegradeBeforeTheyAreRefused() {
+        AdmissionInterceptor interceptor = new AdmissionInterceptor(new SimpleMeterRegistry(), 40, 8, 150, 2.0, 0.9);
+        AdmissionInterceptor.Priority high = AdmissionInterceptor.priorityOf("/api/all-data");
+        assertEquals(ServiceLevel.FULL, interceptor.decide(high, 40, 40));
+        assertEquals(ServiceLevel.NO_LLM, interceptor.decide(high, 41, 40));
+        assertEquals(ServiceLevel.STATIC, interceptor.decide(high, 51, 40));
+        assertNull(interceptor.decide(high, 61, 40));
+
+        AdmissionInterceptor.Priority low = AdmissionInterceptor.priorityOf("/api/all-data/batch");
+        assertNull(interceptor.decide(low, 21, 40));
+        assertEquals(ServiceLevel.FULL, interceptor.decide(AdmissionInterceptor.priorityOf("/api/ping"), 500, 40));
+    }
+}
@@ -0,0 +1,95 @@
+package kishanMitra.demo.alerts;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import kishanMitra.demo.dto.WeatherAlert;
+
+class AlertSubscriptionTest {
+
+    private static TileForecast forecast(long firstDay, float... rain) {
+        long[] days = new long[rain.length];
+        for (int i = 0; i < days.length; i++) days[i] = firstDay + i;
+        return new TileForecast(days, rain, new float[rain.length], new float[rain.length]);
+    }
+
+    @Test
+    void onlyChangesArePublished() {
+        AlertSubscription subscription = new AlertSubscription("s", 1, 50, 40, 40);
+
+        List<WeatherAlert> first = subscription.evaluate(forecast(20_000, 10, 70, 5));
+        assertEquals(1, first.size());
+        assertEquals("heavy-rain", first.get(0).getType());
+        assertEquals(70.0, first.get(0).getValue());
+        assertTrue(first.get(0).isActive());
+
+        // Same alerts, different amounts: nothing to send
+        assertTrue(subscription.evaluate(forecast(20_000, 12, 80, 5)).isEmpty());
+
+        List<WeatherAlert> second = subscription.evaluate(forecast(20_000, 60, 20, 5));
+        assertEquals(2, second.size());
+        assertTrue(second.get(0).isActive());
+        assertEquals(LocalDate.ofEpochDay(20_000).toString(), second.get(0).getDate());
+        assertFalse(second.get(1).isActive());
+        assertEquals(LocalDate.ofEpochDay(20_001).toString(), second.get(1).getDate());
+
+        // The alerted day passes: dropped without a cleared message
+        assertTrue(subscription.evaluate(forecast(20_001, 20, 5, 5)).isEmpty());
+    }
+
+    @Test
+    void listenersCatchUpFromTheMailbox() {
+        AlertSubscription subscription = new AlertSubscription("s", 1, 50, 40, 40);
+        subscription.evaluate(forecast(20_000, 70, 70));
+
+        List<WeatherAlert> received = new ArrayList<>();
+        subscription.listen(1, alerts -> received.addAll(alerts));
+        assertEquals(List.of(2L), received.stream().map(WeatherAlert::getSequence).toList());
+
+        subscription.evaluate(forecast(20_000, 70, 10));
+        assertEquals(List.of(2L, 3L), received.stream().map(WeatherAlert::getSequence).toList());
+        assertEquals(3, subscription.since(0).size());
+    }
+
+    @Test
+    void aStalledStreamDoesNotHoldUpThePoller() throws Exception {
+        CountDownLatch unblock = new CountDownLatch(1);
+        CountDownLatch sending = new CountDownLatch(1);
+        SseEmitter stalled = new SseEmitter() {
+            @Override
+            public void send(SseEventBuilder builder) throws IOException {
+                sending.countDown();
+                try {
+                    unblock.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        };
+        AlertSubscription subscription = new AlertSubscription("s", 1, 50, 40, 40);
+        AlertStreamListener listener = new AlertStreamListener(stalled);
+        subscription.listen(0, listener);
+
+        long start = System.nanoTime();
+        subscription.evaluate(forecast(20_000, 70));
+        assertTrue(sending.await(5, TimeUnit.SECONDS));
+        // The client's socket is stuck; the poller keeps publishing until the client is too far behind
+        for (int i = 0; i <= AlertSubscription.MAILBOX_SIZE; i++) {
+            subscription.evaluate(forecast(20_000, i % 2 == 0 ? 10 : 70));
+        }
+        assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(1));
+        assertFalse(listener.test(List.of()), "disconnected once its queue is full");
+        unblock.countDown();
+    }
+}
@@ -0,0 +1,36 @@
+package kishanMitra.demo.cache;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+import org.junit.jupiter.api.Test;
+
+class LruCacheTest {
+
+    @Test
+    void evictsTheLeastRecentlyUsedInsteadOfEverything() {
+        LruCache<Integer, String> cache = new LruCache<>(1_600);
+        for (int key = 0; key < 1_600; key++) {
+            cache.put(key, "v" + key);
+        }
+        for (int key = 0; key < 100; key++) {
+            assertNotNull(cache.get(key)); // the first hundred are in use again
+        }
+        for (int key = 1_600; key < 2_000; key++) {
+            cache.put(key, "v" + key);
+        }
+
+        assertEquals(1_600, cache.size());
+        for (int key = 0; key < 100; key++) {
+            assertEquals("v" + key, cache.get(key));
+        }
+        for (int key = 1_600; key < 2_000; key++) {
+            assertEquals("v" + key, cache.get(key));
+        }
+        int evicted = 0;
+        for (int key = 100; key < 1_600; key++) {
+            if (cache.get(key) == null) evicted++;
+        }
+        assertEquals(400, evicted, "only the oldest unused entries are evicted");
+    }
+}
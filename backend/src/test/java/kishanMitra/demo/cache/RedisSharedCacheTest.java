@@ -0,0 +1,149 @@
+package kishanMitra.demo.cache;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/** Against a fake server that speaks just enough RESP: AUTH, GET and SET ... PX. */
+class RedisSharedCacheTest {
+
+    private ServerSocket server;
+    private final Map<String, byte[]> store = new ConcurrentHashMap<>();
+    private final List<String> commands = Collections.synchronizedList(new ArrayList<>());
+    private final AtomicInteger closedByClient = new AtomicInteger();
+
+    @BeforeEach
+    void startServer() throws IOException {
+        server = new ServerSocket(0, 50, InetAddress.getLoopbackAddress());
+        Thread.ofPlatform().daemon().start(() -> {
+            while (!server.isClosed()) {
+                try {
+                    Socket socket = server.accept();
+                    Thread.ofPlatform().daemon().start(() -> serve(socket));
+                } catch (IOException e) {
+                    return;
+                }
+            }
+        });
+    }
+
+    @AfterEach
+    void stopServer() throws IOException {
+        server.close();
+    }
+
+    @Test
+    void valuesRoundTripThroughThePool() throws IOException {
+        try (RedisSharedCache cache = new RedisSharedCache("redis://:pw@127.0.0.1:" + server.getLocalPort(), 2, Duration.ofSeconds(1))) {
+            byte[] value = {0, 1, '\r', '\n', (byte) 0xFF};
+            cache.put("km:weather:1", value, Duration.ofMinutes(5));
+            assertArrayEquals(value, cache.get("km:weather:1"));
+            assertNull(cache.get("km:weather:2"));
+        }
+        // One connection, authenticated once, reused for every command
+        assertEquals(List.of("AUTH pw", "SET km:weather:1 PX 300000", "GET km:weather:1", "GET km:weather:2"), commands);
+    }
+
+    @Test
+    void unreachableServerFailsFastAfterTheFirstError() throws IOException {
+        int port = server.getLocalPort();
+        server.close();
+        RedisSharedCache cache = new RedisSharedCache("redis://127.0.0.1:" + port, 2, Duration.ofMillis(200));
+        assertThrows(IOException.class, () -> cache.get("key"));
+        IOException skipped = assertThrows(IOException.class, () -> cache.get("key"));
+        assertEquals("Redis at 127.0.0.1:" + port + " is marked down", skipped.getMessage());
+    }
+
+    @Test
+    void aReplyThatDoesNotParseClosesTheConnection() throws Exception {
+        try (RedisSharedCache cache = new RedisSharedCache("redis://127.0.0.1:" + server.getLocalPort(), 1, Duration.ofSeconds(1))) {
+            assertThrows(NumberFormatException.class, () -> cache.get("malformed"));
+            for (int i = 0; i < 100 && closedByClient.get() == 0; i++) Thread.sleep(20);
+            assertEquals(1, closedByClient.get());
+            // The next command gets a fresh connection rather than the one left mid-reply
+            assertNull(cache.get("km:weather:1"));
+        }
+    }
+
+    private void serve(Socket socket) {
+        try (socket; InputStream in = new BufferedInputStream(socket.getInputStream()); OutputStream out = socket.getOutputStream()) {
+            while (true) {
+                int type = in.read();
+                if (type == -1) closedByClient.incrementAndGet();
+                if (type != '*') return;
+                int count = Integer.parseInt(line(in));
+                List<byte[]> args = new ArrayList<>();
+                for (int i = 0; i < count; i++) {
+                    in.read(); // '$'
+                    args.add(in.readNBytes(Integer.parseInt(line(in))));
+                    line(in);
+                }
+                String name = new String(args.get(0), StandardCharsets.US_ASCII);
+                switch (name) {
+                    case "AUTH" -> {
+                        commands.add("AUTH " + new String(args.get(1), StandardCharsets.UTF_8));
+                        out.write("+OK\r\n".getBytes(StandardCharsets.US_ASCII));
+                    }
+                    case "SET" -> {
+                        String key = new String(args.get(1), StandardCharsets.UTF_8);
+                        commands.add("SET " + key + " " + new String(args.get(3), StandardCharsets.US_ASCII)
+                                + " " + new String(args.get(4), StandardCharsets.US_ASCII));
+                        store.put(key, args.get(2));
+                        out.write("+OK\r\n".getBytes(StandardCharsets.US_ASCII));
+                    }
+                    case "GET" -> {
+                        String key = new String(args.get(1), StandardCharsets.UTF_8);
+                        commands.add("GET " + key);
+                        byte[] value = store.get(key);
+                        if (key.equals("malformed")) {
+                            out.write("$not-a-length\r\n".getBytes(StandardCharsets.US_ASCII));
+                        } else if (value == null) {
+                            out.write("$-1\r\n".getBytes(StandardCharsets.US_ASCII));
+                        } else {
+                            out.write(("$" + value.length + "\r\n").getBytes(StandardCharsets.US_ASCII));
+                            out.write(value);
+                            out.write("\r\n".getBytes(StandardCharsets.US_ASCII));
+                        }
+                    }
+                    default -> out.write("-ERR unknown command\r\n".getBytes(StandardCharsets.US_ASCII));
+                }
+                out.flush();
+            }
+        } catch (IOException | RuntimeException e) {
+            // Client went away
+        }
+    }
+
+    private static String line(InputStream in) throws IOException {
+        ByteArrayOutputStream line = new ByteArrayOutputStream();
+        int b;
+        while ((b = in.read()) != '\r') {
+            if (b == -1) throw new IOException("closed");
+            line.write(b);
+        }
+        in.read();
+        return line.toString(StandardCharsets.US_ASCII);
+    }
+}
@@ -0,0 +1,32 @@
+package kishanMitra.demo.chat;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import kishanMitra.demo.geo.GeoTile;
+
+class ChatSessionTest {
+
+    @Test
+    void historyKeepsTheNewestTurnsWithinTheBudget() {
+        ChatSession session = new ChatSession("s", GeoTile.of(26.45, 80.33), null);
+        session.addTurn("पहला सवाल", "first answer", 600, 3);
+        session.addTurn("second", "second answer", 600, 3);
+        session.addTurn("third", "third answer", 600, 3);
+        session.addTurn("fourth", "fourth answer", 600, 3);
+
+        List<ChatSession.Turn> turns = session.getTurns();
+        assertEquals(List.of("second", "third", "fourth"), turns.stream().map(ChatSession.Turn::question).toList());
+        assertEquals("Farmer: second\nAssistant: second answer\nFarmer: third\nAssistant: third answer\n"
+                + "Farmer: fourth\nAssistant: fourth answer", session.renderHistory());
+
+        // A turn over the whole token budget is still kept on its own
+        session.addTurn("x".repeat(5000), "long", 100, 3);
+        turns = session.getTurns();
+        assertEquals(1, turns.size());
+        assertEquals(ChatSession.MAX_STORED_CHARS, turns.get(0).question().length());
+    }
+}
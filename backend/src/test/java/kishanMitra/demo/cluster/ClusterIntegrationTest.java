@@ -0,0 +1,174 @@
+package kishanMitra.demo.cluster;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.MethodOrderer;
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestMethodOrder;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.sun.net.httpserver.HttpServer;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import kishanMitra.demo.DemoApplication;
+import kishanMitra.demo.cache.InProcessSharedCache;
+
+/**
+ * Three nodes in this JVM, on their own ports, sharing an in-process cache tier; the forecast
+ * upstream is a local stub that counts its calls per coordinate.
+ */
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+class ClusterIntegrationTest {
+
+    private static final String FORECAST = """
+            {"current":{"temperature_2m":31.5,"relative_humidity_2m":60,"apparent_temperature":34,"wind_speed_10m":9,
+            "wind_gusts_10m":15,"pressure_msl":1008,"visibility":20000,"uv_index":7},
+            "daily":{"time":["2026-10-19"],"temperature_2m_max":[33],"temperature_2m_min":[22],"precipitation_sum":[1.5],
+            "wind_speed_10m_max":[12],"uv_index_max":[7]}}""";
+
+    private static HttpServer upstream;
+    private static final Map<String, AtomicInteger> forecastCalls = new ConcurrentHashMap<>();
+    private static final List<ConfigurableApplicationContext> nodes = new ArrayList<>();
+    private static final List<String> urls = new ArrayList<>();
+    private static final HttpClient client = HttpClient.newHttpClient();
+
+    @BeforeAll
+    static void startCluster() throws Exception {
+        upstream = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        upstream.createContext("/v1/forecast", exchange -> {
+            String latitude = exchange.getRequestURI().getQuery().replaceAll(".*latitude=([^&]*).*", "$1");
+            forecastCalls.computeIfAbsent(latitude, key -> new AtomicInteger()).incrementAndGet();
+            byte[] body = FORECAST.getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, body.length);
+            exchange.getResponseBody().write(body);
+            exchange.close();
+        });
+        upstream.start();
+
+        for (int i = 0; i < 3; i++) {
+            try (ServerSocket socket = new ServerSocket(0)) {
+                urls.add("http://127.0.0.1:" + socket.getLocalPort());
+            }
+        }
+        InProcessSharedCache.named("cluster-test", 1_000).clear();
+        for (String url : urls) {
+            nodes.add(new SpringApplicationBuilder(DemoApplication.class).run(
+                    "--server.port=" + URI.create(url).getPort(),
+                    "--management.server.port=0",
+                    "--spring.main.banner-mode=off",
+                    "--open-meteo.forecast.url=http://127.0.0.1:" + upstream.getAddress().getPort() + "/v1/forecast",
+                    "--cluster.enabled=true",
+                    "--cluster.nodes=" + String.join(",", urls),
+                    "--cluster.self=" + url,
+                    "--cluster.secret=test-secret",
+                    "--cache.shared.type=memory",
+                    "--cache.shared.memory.name=cluster-test"));
+        }
+    }
+
+    @AfterAll
+    static void stopCluster() {
+        nodes.forEach(ConfigurableApplicationContext::close);
+        upstream.stop(0);
+    }
+
+    @Test
+    @Order(1)
+    void eachTileIsComputedOnceByItsOwner() throws Exception {
+        for (int tile = 0; tile < 12; tile++) {
+            for (String url : urls) {
+                HttpResponse<String> response = weather(url, tile);
+                assertEquals(200, response.statusCode());
+                assertTrue(response.body().contains("\"temperature\":31.5"), response.body());
+                // Tagged with the owner's fetch time, so it revalidates on whichever node served it
+                String etag = response.headers().firstValue("ETag").orElseThrow();
+                assertEquals(304, weather(url, tile, etag).statusCode());
+            }
+        }
+        assertEquals(12, forecastCalls.size());
+        assertTrue(forecastCalls.values().stream().allMatch(calls -> calls.get() == 1), forecastCalls.toString());
+        // Every tile was asked of all three nodes; the two that do not own it forwarded
+        double forwarded = nodes.stream()
+                .mapToDouble(node -> node.getBean(MeterRegistry.class).counter("cluster.forwards", "outcome", "ok").count())
+                .sum();
+        assertEquals(24.0, forwarded);
+    }
+
+    @Test
+    @Order(2)
+    void tilesOfAStoppedNodeAreServedByTheOthers() throws Exception {
+        nodes.get(2).close();
+        for (int tile = 0; tile < 12; tile++) {
+            HttpResponse<String> response = weather(urls.get(0), tile);
+            assertEquals(200, response.statusCode());
+            assertTrue(response.body().contains("\"temperature\":31.5"), response.body());
+        }
+        // The stopped node's tiles were in the shared cache, so nothing is fetched again
+        assertTrue(forecastCalls.values().stream().allMatch(calls -> calls.get() == 1), forecastCalls.toString());
+        Object status = nodes.get(0).getBean(ClusterMembership.class).status().get("nodes");
+        assertEquals("down", ((Map<?, ?>) status).get(urls.get(2)));
+    }
+
+    @Test
+    void removingANodeOnlyMovesItsTiles() {
+        HashRing three = new HashRing(List.of("http://a", "http://b", "http://c"), 160);
+        HashRing two = new HashRing(List.of("http://a", "http://b"), 160);
+        Map<String, Integer> owned = new HashMap<>();
+        for (int tile = 0; tile < 30_000; tile++) {
+            String before = three.owner(tile, node -> true);
+            owned.merge(before, 1, Integer::sum);
+            if (!before.equals("http://c")) assertEquals(before, two.owner(tile, node -> true));
+            assertEquals(two.owner(tile, node -> true), three.owner(tile, node -> !node.equals("http://c")));
+        }
+        assertTrue(owned.values().stream().allMatch(count -> count > 7_500 && count < 12_500),
+                owned.entrySet().stream().map(Map.Entry::toString).collect(Collectors.joining(", ")));
+    }
+
+    @Test
+    void internalCallsNeedTheSecret() throws Exception {
+        ClusterMembership membership = new ClusterMembership(true, "http://a,http://b", "http://a", 160, Duration.ofSeconds(10));
+        assertThrows(IllegalStateException.class,
+                () -> new TileRouter(membership, new SimpleMeterRegistry(), Duration.ofSeconds(1), ""));
+
+        HttpResponse<String> unauthenticated = client.send(HttpRequest.newBuilder(
+                URI.create(urls.get(0) + TileRouter.ALL_DATA_PATH + "?lat=10&lon=75&fields=weather")).build(),
+                HttpResponse.BodyHandlers.ofString());
+        assertEquals(403, unauthenticated.statusCode());
+    }
+
+    private static HttpResponse<String> weather(String node, int tile) throws Exception {
+        return weather(node, tile, null);
+    }
+
+    private static HttpResponse<String> weather(String node, int tile, String ifNoneMatch) throws Exception {
+        double lat = 10 + tile;
+        double lon = 75 + tile * 0.5;
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(node + "/api/all-data?fields=weather&lat=" + lat + "&lon=" + lon));
+        if (ifNoneMatch != null) request.header("If-None-Match", ifNoneMatch);
+        return client.send(request.build(), HttpResponse.BodyHandlers.ofString());
+    }
+}
@@ -0,0 +1,116 @@
+package kishanMitra.demo.controller;
+
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.time.Duration;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import io.micrometer.observation.ObservationRegistry;
+import kishanMitra.demo.chat.ChatSessionStore;
+import kishanMitra.demo.dto.DashboardData;
+import kishanMitra.demo.dto.KishanMitraResponse;
+import kishanMitra.demo.geo.GeoTile;
+import kishanMitra.demo.monitoring.StageTracer;
+import kishanMitra.demo.precompute.RecommendationSnapshotStore;
+import kishanMitra.demo.prewarm.HotTileTracker;
+import kishanMitra.demo.service.AIService;
+import kishanMitra.demo.service.BatchDashboardService;
+import kishanMitra.demo.service.DataAggregationService;
+import kishanMitra.demo.service.MandiLocationService;
+import kishanMitra.demo.service.MarketPriceService;
+import kishanMitra.demo.service.ResponseVersionService;
+import kishanMitra.demo.service.StaticProfilesService;
+import kishanMitra.demo.service.TranslationService;
+import kishanMitra.demo.service.WeatherDataService;
+
+class AllDataEtagTest {
+
+    private static final double LAT = 26.45;
+    private static final double LON = 80.33;
+
+    private final DataAggregationService dataAggregationService = mock(DataAggregationService.class);
+    private final WeatherDataService weatherDataService = mock(WeatherDataService.class);
+    private final StaticProfilesService staticProfilesService = mock(StaticProfilesService.class);
+    private final MockMvc mockMvc;
+
+    AllDataEtagTest() {
+        TranslationService translationService = mock(TranslationService.class);
+        RecommendationController controller = new RecommendationController(dataAggregationService, mock(AIService.class),
+                translationService, mock(MarketPriceService.class), mock(MandiLocationService.class), mock(HotTileTracker.class),
+                new BatchDashboardService(dataAggregationService, translationService, staticProfilesService, new StageTracer(ObservationRegistry.NOOP), 1),
+                staticProfilesService, new ResponseVersionService(weatherDataService, mock(RecommendationSnapshotStore.class), staticProfilesService),
+                mock(ChatSessionStore.class));
+        ReflectionTestUtils.setField(controller, "allDataMaxAge", Duration.ofMinutes(5));
+        mockMvc = MockMvcBuilders.standaloneSetup(controller).build();
+    }
+
+    @BeforeEach
+    void setUp() {
+        when(staticProfilesService.getVersion()).thenReturn("p1");
+        when(weatherDataService.getFetchedAt(GeoTile.of(LAT, LON))).thenReturn(1_700_000_000_000L);
+    }
+
+    @Test
+    void aMatchingTagIsAnsweredNotModified() throws Exception {
+        when(dataAggregationService.getAllDataOrThrow(anyDouble(), anyDouble(), any())).thenReturn(dashboard());
+        String etag = mockMvc.perform(get("/api/all-data").param("lat", "26.45").param("lon", "80.33").param("fields", "weather"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertNotNull(etag);
+
+        mockMvc.perform(get("/api/all-data").param("lat", "26.45").param("lon", "80.33").param("fields", "weather")
+                        .header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, etag));
+    }
+
+    @Test
+    void anotherLanguageOrBodyFormatIsSentInFull() throws Exception {
+        when(dataAggregationService.getAllDataOrThrow(anyDouble(), anyDouble(), any())).thenReturn(dashboard());
+        String etag = mockMvc.perform(get("/api/all-data").param("lat", "26.45").param("lon", "80.33").param("fields", "weather"))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        String hindi = mockMvc.perform(get("/api/all-data").param("lat", "26.45").param("lon", "80.33").param("fields", "weather")
+                        .param("lang", "hi").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        String cbor = mockMvc.perform(get("/api/all-data").param("lat", "26.45").param("lon", "80.33").param("fields", "weather")
+                        .header(HttpHeaders.ACCEPT, "application/cbor").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertNotEquals(etag, hindi);
+        assertNotEquals(etag, cbor);
+    }
+
+    @Test
+    void theBuiltInDataIsNotTagged() throws Exception {
+        when(dataAggregationService.getAllDataOrThrow(anyDouble(), anyDouble(), any()))
+                .thenThrow(new IllegalStateException("AI_SOIL_SIMULATOR_FAILED"));
+        when(dataAggregationService.getBuiltInData(anyDouble(), anyDouble(), any())).thenReturn(dashboard());
+
+        mockMvc.perform(get("/api/all-data").param("lat", "26.45").param("lon", "80.33").param("fields", "soil,climate"))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(HttpHeaders.ETAG))
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "no-cache"));
+    }
+
+    private static KishanMitraResponse dashboard() {
+        KishanMitraResponse response = new KishanMitraResponse();
+        response.setDashboardData(new DashboardData());
+        return response;
+    }
+}
@@ -0,0 +1,102 @@
+package kishanMitra.demo.controller;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.micrometer.observation.ObservationRegistry;
+import kishanMitra.demo.chat.ChatSessionStore;
+import kishanMitra.demo.dto.CropProfile;
+import kishanMitra.demo.dto.DashboardData;
+import kishanMitra.demo.dto.DashboardSection;
+import kishanMitra.demo.dto.KishanMitraResponse;
+import kishanMitra.demo.dto.PesticideProfile;
+import kishanMitra.demo.monitoring.StageTracer;
+import kishanMitra.demo.prewarm.HotTileTracker;
+import kishanMitra.demo.service.AIService;
+import kishanMitra.demo.service.BatchDashboardService;
+import kishanMitra.demo.service.DataAggregationService;
+import kishanMitra.demo.service.MandiLocationService;
+import kishanMitra.demo.service.MarketPriceService;
+import kishanMitra.demo.service.ResponseVersionService;
+import kishanMitra.demo.service.StaticProfilesService;
+import kishanMitra.demo.service.TranslationService;
+
+class BatchDashboardEndpointTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final DataAggregationService dataAggregationService = mock(DataAggregationService.class);
+    private final StaticProfilesService staticProfilesService = mock(StaticProfilesService.class);
+    private final MockMvc mockMvc;
+
+    BatchDashboardEndpointTest() {
+        TranslationService translationService = mock(TranslationService.class);
+        RecommendationController controller = new RecommendationController(dataAggregationService, mock(AIService.class),
+                translationService, mock(MarketPriceService.class), mock(MandiLocationService.class), mock(HotTileTracker.class),
+                new BatchDashboardService(dataAggregationService, translationService, staticProfilesService, new StageTracer(ObservationRegistry.NOOP), 4),
+                staticProfilesService, mock(ResponseVersionService.class), mock(ChatSessionStore.class));
+        ReflectionTestUtils.setField(controller, "batchTimeoutMs", 10_000L);
+        mockMvc = MockMvcBuilders.standaloneSetup(controller).build();
+    }
+
+    @Test
+    void streamsOneLinePerFarmWithTheFailedTilesErrors() throws Exception {
+        when(staticProfilesService.getVersion()).thenReturn("p1");
+        when(dataAggregationService.getAllDataOrThrow(anyDouble(), anyDouble(), any())).thenAnswer(call -> {
+            if ((double) call.getArgument(0) > 28) throw new IllegalStateException("Open-Meteo unavailable");
+            Set<DashboardSection> sections = call.getArgument(2);
+            KishanMitraResponse response = new KishanMitraResponse();
+            response.setDashboardData(new DashboardData());
+            if (sections.contains(DashboardSection.CROP_PROFILES)) response.setCropProfiles(List.of(new CropProfile("Wheat", "Rabi", "Loam", "120 days", "6.0-7.5", "Moderate", "")));
+            if (sections.contains(DashboardSection.PESTICIDE_PROFILES)) response.setPesticideProfiles(List.of(new PesticideProfile()));
+            return response;
+        });
+        String body = objectMapper.writeValueAsString(Map.of("lang", "en", "farms", List.of(
+                Map.of("id", "a", "lat", 26.45, "lon", 80.33),
+                Map.of("id", "b", "lat", 26.46, "lon", 80.34),
+                Map.of("id", "c", "lat", 28.61, "lon", 77.21))));
+
+        MvcResult started = mockMvc.perform(post("/api/all-data/batch").contentType(MediaType.APPLICATION_JSON).content(body))
+                .andExpect(request().asyncStarted()).andReturn();
+        String ndjson = mockMvc.perform(asyncDispatch(started)).andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        Map<String, JsonNode> lines = new HashMap<>();
+        for (String line : ndjson.split("\n")) {
+            JsonNode node = objectMapper.readTree(line);
+            lines.put(node.get("id").asText(), node);
+        }
+        assertEquals(3, lines.size(), ndjson);
+        assertTrue(lines.get("a").has("data") && !lines.get("a").has("error"), ndjson);
+        assertEquals(lines.get("a").get("tile"), lines.get("b").get("tile"));
+        JsonNode data = lines.get("a").get("data");
+        assertEquals("p1", data.get("profilesVersion").asText());
+        assertTrue(data.has("dashboardData"), ndjson);
+        assertFalse(data.has("cropProfiles") || data.has("pesticideProfiles"), ndjson);
+        assertEquals("Open-Meteo unavailable", lines.get("c").get("error").asText());
+        assertFalse(lines.get("c").has("data"), ndjson);
+    }
+}
@@ -0,0 +1,75 @@
+package kishanMitra.demo.controller;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import io.micrometer.observation.ObservationRegistry;
+import kishanMitra.demo.chat.ChatSessionStore;
+import kishanMitra.demo.dto.ChatbotRequest;
+import kishanMitra.demo.dto.DashboardData;
+import kishanMitra.demo.dto.KishanMitraResponse;
+import kishanMitra.demo.monitoring.StageTracer;
+import kishanMitra.demo.prewarm.HotTileTracker;
+import kishanMitra.demo.service.AIService;
+import kishanMitra.demo.service.BatchDashboardService;
+import kishanMitra.demo.service.DataAggregationService;
+import kishanMitra.demo.service.MandiLocationService;
+import kishanMitra.demo.service.MarketPriceService;
+import kishanMitra.demo.service.ResponseVersionService;
+import kishanMitra.demo.service.StaticProfilesService;
+import kishanMitra.demo.service.TranslationService;
+
+class ChatbotSessionTest {
+
+    private final DataAggregationService dataAggregationService = mock(DataAggregationService.class);
+    private final AIService aiService = mock(AIService.class);
+    private final ChatSessionStore chatSessionStore = new ChatSessionStore();
+    private final RecommendationController controller = new RecommendationController(dataAggregationService, aiService,
+            mock(TranslationService.class), mock(MarketPriceService.class), mock(MandiLocationService.class), mock(HotTileTracker.class),
+            new BatchDashboardService(dataAggregationService, mock(TranslationService.class), mock(StaticProfilesService.class), new StageTracer(ObservationRegistry.NOOP), 1),
+            mock(StaticProfilesService.class), mock(ResponseVersionService.class), chatSessionStore);
+
+    @Test
+    void aFailedContextIsNotKeptInASession() {
+        when(aiService.getChatbotResponse(anyString(), any(), anyString(), any())).thenReturn("Irrigate on Thursday.");
+        when(dataAggregationService.getAllDataOrThrow(anyDouble(), anyDouble(), any()))
+                .thenThrow(new IllegalStateException("Open-Meteo unavailable"));
+
+        Map<String, String> first = controller.handleChatbotQuery(request(null));
+
+        assertEquals("Irrigate on Thursday.", first.get("response"));
+        assertFalse(first.containsKey("sessionId"));
+        assertEquals(0, chatSessionStore.getSessionCount());
+
+        KishanMitraResponse context = new KishanMitraResponse();
+        context.setDashboardData(new DashboardData());
+        doReturn(context).when(dataAggregationService).getAllDataOrThrow(anyDouble(), anyDouble(), any());
+
+        Map<String, String> second = controller.handleChatbotQuery(request(null));
+
+        assertNotNull(second.get("sessionId"));
+        assertEquals(1, chatSessionStore.getSessionCount());
+        assertEquals(1, chatSessionStore.get(second.get("sessionId")).getTurns().size());
+    }
+
+    private static ChatbotRequest request(String sessionId) {
+        ChatbotRequest request = new ChatbotRequest();
+        request.setMessage("When should I irrigate?");
+        request.setLatitude(26.45);
+        request.setLongitude(80.33);
+        request.setLanguageCode("en");
+        request.setSessionId(sessionId);
+        return request;
+    }
+}
@@ -0,0 +1,57 @@
+package kishanMitra.demo.geo;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+class GeoKdTreeTest {
+
+    record Point(double lat, double lon) {}
+
+    @Test
+    void nearestMatchesBruteForce() {
+        Random random = new Random(42);
+        List<Point> points = new ArrayList<>();
+        for (int i = 0; i < 2000; i++) {
+            points.add(new Point(6 + random.nextDouble() * 31, 68 + random.nextDouble() * 29));
+        }
+        GeoKdTree<Point> tree = GeoKdTree.build(points, Point::lat, Point::lon);
+
+        for (int q = 0; q < 200; q++) {
+            double lat = 6 + random.nextDouble() * 31;
+            double lon = 68 + random.nextDouble() * 29;
+            List<Point> expected = points.stream()
+                    .sorted(Comparator.comparingDouble(p -> haversineKm(lat, lon, p.lat(), p.lon())))
+                    .limit(5)
+                    .toList();
+
+            List<GeoKdTree.Neighbor<Point>> actual = tree.nearest(lat, lon, 5);
+
+            assertEquals(expected, actual.stream().map(GeoKdTree.Neighbor::item).toList());
+            assertEquals(haversineKm(lat, lon, expected.get(0).lat(), expected.get(0).lon()), actual.get(0).distanceKm(), 1e-6);
+        }
+    }
+
+    @Test
+    void handlesSmallAndEmptyTrees() {
+        GeoKdTree<Point> empty = GeoKdTree.build(List.of(), Point::lat, Point::lon);
+        assertEquals(0, empty.nearest(20, 78, 3).size());
+
+        GeoKdTree<Point> two = GeoKdTree.build(List.of(new Point(28.7, 77.2), new Point(19.1, 73.0)), Point::lat, Point::lon);
+        assertEquals(2, two.nearest(20, 78, 5).size());
+        assertEquals(new Point(19.1, 73.0), two.nearest(18.9, 72.8, 1).get(0).item());
+    }
+
+    private static double haversineKm(double lat1, double lon1, double lat2, double lon2) {
+        double dLat = Math.toRadians(lat2 - lat1);
+        double dLon = Math.toRadians(lon2 - lon1);
+        double a = Math.sin(dLat / 2) * Math.sin(dLat / 2)
+                + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2)) * Math.sin(dLon / 2) * Math.sin(dLon / 2);
+        return 2 * GeoKdTree.EARTH_RADIUS_KM * Math.asin(Math.sqrt(a));
+    }
+}
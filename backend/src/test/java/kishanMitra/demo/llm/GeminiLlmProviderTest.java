@@ -0,0 +1,65 @@
+package kishanMitra.demo.llm;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.content;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.jsonPath;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.method;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.requestTo;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withSuccess;
+
+import java.util.EnumSet;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.client.MockRestServiceServer;
+import org.springframework.web.client.RestTemplate;
+
+class GeminiLlmProviderTest {
+
+    private static final String URL = "https://generativelanguage.googleapis.com/v1beta/models/gemini-2.5-flash:generateContent";
+    private static final String ANSWER = """
+            {"candidates": [{"content": {"parts": [{"text": "{\\"ph\\": 7.1}"}]}}]}
+            """;
+
+    private final RestTemplate restTemplate = new RestTemplate();
+    private final MockRestServiceServer server = MockRestServiceServer.bindTo(restTemplate).build();
+    private final GeminiLlmProvider provider = new GeminiLlmProvider(new LlmProviderSettings("gemini-primary", URL, "test-key", "",
+            1.0, EnumSet.allOf(LlmProvider.Capability.class), EnumSet.allOf(LlmRequest.Workload.class)), restTemplate, 0);
+
+    @Test
+    void structuredRequestSendsTheSchemaInGenerationConfig() {
+        Map<String, Object> schema = Map.of("type", "OBJECT", "properties", Map.of("ph", Map.of("type", "NUMBER")), "required", new String[]{"ph"});
+        server.expect(requestTo(URL + "?key=test-key"))
+                .andExpect(method(HttpMethod.POST))
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.contents[0].parts[0].text").value("Soil for 26.45, 80.33"))
+                .andExpect(jsonPath("$.generationConfig.responseMimeType").value("application/json"))
+                .andExpect(jsonPath("$.generationConfig.responseSchema.type").value("OBJECT"))
+                .andExpect(jsonPath("$.generationConfig.responseSchema.properties.ph.type").value("NUMBER"))
+                .andExpect(jsonPath("$.generationConfig.responseSchema.required[0]").value("ph"))
+                .andExpect(jsonPath("$.generationConfig.maxOutputTokens").value(400))
+                .andExpect(jsonPath("$.generationConfig.temperature").value(0.1))
+                .andExpect(jsonPath("$.generationConfig.thinkingConfig.thinkingBudget").value(0))
+                .andRespond(withSuccess(ANSWER, MediaType.APPLICATION_JSON));
+
+        String text = provider.generate(new LlmRequest(LlmRequest.Workload.DATA, "Soil for 26.45, 80.33", 400, 0.1, schema));
+
+        assertEquals("{\"ph\": 7.1}", text);
+        server.verify();
+    }
+
+    @Test
+    void textRequestLeavesTheJsonModeOut() {
+        server.expect(requestTo(URL + "?key=test-key"))
+                .andExpect(jsonPath("$.generationConfig.maxOutputTokens").value(120))
+                .andExpect(jsonPath("$.generationConfig.responseMimeType").doesNotExist())
+                .andExpect(jsonPath("$.generationConfig.responseSchema").doesNotExist())
+                .andRespond(withSuccess(ANSWER, MediaType.APPLICATION_JSON));
+
+        provider.generate(LlmRequest.text(LlmRequest.Workload.CHAT, "Kya boun?", 120, 0.7));
+
+        server.verify();
+    }
+}
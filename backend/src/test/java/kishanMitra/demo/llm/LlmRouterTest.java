@@ -0,0 +1,111 @@
+package kishanMitra.demo.llm;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class LlmRouterTest {
+
+    private static final LlmRequest DATA = LlmRequest.text(LlmRequest.Workload.DATA, "prompt", 10, 0.2);
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    @Test
+    void fasterProviderWinsOnceMeasured() {
+        LlmRouter router = router(1, stub("slow", 1.0, Duration.ofMillis(40)), stub("fast", 1.0, Duration.ZERO));
+
+        assertEquals("slow", router.generate(DATA));
+        for (int i = 0; i < 5; i++) {
+            assertEquals("fast", router.generate(DATA));
+        }
+        assertTrue(router.getLatencyMillis("slow") >= 40);
+    }
+
+    @Test
+    void failingProviderIsFailedOverAndThenAvoided() {
+        LlmRouter router = router(2, failing("broken", 0.1), stub("working", 1.0, Duration.ZERO));
+
+        assertEquals("working", router.generate(DATA));
+        assertEquals("working", router.generate(DATA));
+        assertEquals(1, registry.timer("llm.requests", "provider", "gemini", "key", "broken", "outcome", "failure").count());
+        assertTrue(router.getErrorRate("broken") > 0);
+        assertEquals(0.0, router.getErrorRate("working"));
+    }
+
+    @Test
+    void attemptsStopAtMaxAttempts() {
+        LlmRouter router = router(1, failing("broken", 0.1), stub("working", 1.0, Duration.ZERO));
+
+        assertNull(router.generate(DATA));
+        assertEquals("working", router.generate(DATA));
+    }
+
+    @Test
+    void providersOnlyServeTheirWorkloadsAndFormats() {
+        LlmProvider chatOnly = new StubLlmProvider(settings("chat-only", 0.1, Set.of(LlmProvider.Capability.JSON_SCHEMA),
+                Set.of(LlmRequest.Workload.CHAT)), "chat-only", Duration.ZERO);
+        LlmProvider textOnly = new StubLlmProvider(settings("text-only", 0.1, Set.of(),
+                EnumSet.allOf(LlmRequest.Workload.class)), "text-only", Duration.ZERO);
+        LlmRouter router = router(2, chatOnly, textOnly);
+
+        assertEquals("text-only", router.generate(DATA));
+        assertEquals("chat-only", router.generate(new LlmRequest(LlmRequest.Workload.CHAT, "prompt", 10, 0.2,
+                Map.of("type", "OBJECT"))));
+        assertNull(router.generate(new LlmRequest(LlmRequest.Workload.DATA, "prompt", 10, 0.2, Map.of("type", "OBJECT"))));
+    }
+
+    @Test
+    void geminiSchemaIsConvertedToJsonSchema() {
+        Map<String, Object> schema = Map.of("type", "OBJECT",
+                "properties", Map.of("ph", Map.of("type", "NUMBER")),
+                "propertyOrdering", List.of("ph"));
+
+        assertEquals(Map.of("type", "object", "properties", Map.of("ph", Map.of("type", "number"))),
+                OpenAiCompatibleLlmProvider.toJsonSchema(schema));
+    }
+
+    private LlmRouter router(int maxAttempts, LlmProvider... providers) {
+        return new LlmRouter(List.of(providers), registry, maxAttempts, Duration.ofSeconds(5), 100, Duration.ofMinutes(2), 0);
+    }
+
+    private static LlmProvider stub(String name, double cost, Duration latency) {
+        return new StubLlmProvider(settings(name, cost, EnumSet.allOf(LlmProvider.Capability.class),
+                EnumSet.allOf(LlmRequest.Workload.class)), name, latency);
+    }
+
+    private static LlmProvider failing(String name, double cost) {
+        LlmProviderSettings settings = settings(name, cost, EnumSet.allOf(LlmProvider.Capability.class),
+                EnumSet.allOf(LlmRequest.Workload.class));
+        return new LlmProvider() {
+            @Override
+            public LlmProviderSettings settings() {
+                return settings;
+            }
+
+            @Override
+            public String type() {
+                return "gemini";
+            }
+
+            @Override
+            public String generate(LlmRequest request) {
+                throw new IllegalStateException("400 API key not valid");
+            }
+        };
+    }
+
+    private static LlmProviderSettings settings(String name, double cost, Set<LlmProvider.Capability> capabilities,
+                                                Set<LlmRequest.Workload> workloads) {
+        return new LlmProviderSettings(name, "", "", "", cost, capabilities, workloads);
+    }
+}
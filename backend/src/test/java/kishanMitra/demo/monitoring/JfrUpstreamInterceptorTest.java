@@ -0,0 +1,17 @@
+package kishanMitra.demo.monitoring;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.junit.jupiter.api.Test;
+
+class JfrUpstreamInterceptorTest {
+
+    @Test
+    void pathTemplateHidesCoordinatesButKeepsNames() {
+        assertEquals("/v1beta/models/gemini-2.5-flash:generateContent",
+                JfrUpstreamInterceptor.pathTemplate("/v1beta/models/gemini-2.5-flash:generateContent"));
+        assertEquals("/points/{}/{}/forecast", JfrUpstreamInterceptor.pathTemplate("/points/26.4499/-80.3319/forecast"));
+        assertEquals("/tiles/{}", JfrUpstreamInterceptor.pathTemplate("/tiles/26.45,80.33"));
+        assertEquals("/v1/forecast", JfrUpstreamInterceptor.pathTemplate("/v1/forecast"));
+    }
+}
@@ -0,0 +1,65 @@
+package kishanMitra.demo.monitoring;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalManagementPort;
+import org.springframework.boot.test.web.server.LocalServerPort;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {"management.server.port=0", "jfr.dump.dir=target/jfr"})
+class ManagementPortTest {
+
+    private static final HttpClient client = HttpClient.newHttpClient();
+
+    @LocalServerPort
+    private int serverPort;
+
+    @LocalManagementPort
+    private int managementPort;
+
+    @Test
+    void actuatorIsOnlyServedOnTheManagementPort() throws Exception {
+        assertEquals(404, get(serverPort, "/actuator/jfr").statusCode());
+        assertEquals(404, post(serverPort, "/actuator/jfr", "{\"action\":\"start\"}").statusCode());
+        assertEquals(200, get(serverPort, "/livez").statusCode());
+
+        assertEquals(200, post(managementPort, "/actuator/jfr", "{\"action\":\"start\"}").statusCode());
+        HttpResponse<String> dump = post(managementPort, "/actuator/jfr", "{\"action\":\"dump\"}");
+        post(managementPort, "/actuator/jfr", "{\"action\":\"stop\"}");
+        assertEquals(200, dump.statusCode());
+        assertFalse(dump.body().contains("/"), dump.body()); // the file name, not where the server keeps it
+    }
+
+    @Test
+    void quotaSpendingRunsAreNotTriggeredOverHttpByDefault() throws Exception {
+        assertEquals(404, post(serverPort, "/actuator/precompute", "{}").statusCode());
+        assertEquals(200, get(managementPort, "/actuator/precompute").statusCode());
+        assertEquals(405, post(managementPort, "/actuator/precompute", "{}").statusCode());
+        assertEquals(404, post(serverPort, "/actuator/prewarm", "{}").statusCode());
+        assertEquals(405, post(managementPort, "/actuator/prewarm", "{}").statusCode());
+        assertEquals(404, post(serverPort, "/actuator/alerts", "{}").statusCode());
+        assertEquals(405, post(managementPort, "/actuator/alerts", "{}").statusCode());
+        assertEquals(404, post(serverPort, "/api/market-prices/ingest?file=x.csv", "{}").statusCode());
+        assertEquals(200, get(managementPort, "/actuator/agmarknet").statusCode());
+        assertEquals(405, post(managementPort, "/actuator/agmarknet", "{\"file\":\"x.csv\"}").statusCode());
+    }
+
+    private static HttpResponse<String> get(int port, String path) throws Exception {
+        return client.send(HttpRequest.newBuilder(URI.create("http://127.0.0.1:" + port + path)).build(),
+                HttpResponse.BodyHandlers.ofString());
+    }
+
+    private static HttpResponse<String> post(int port, String path, String json) throws Exception {
+        return client.send(HttpRequest.newBuilder(URI.create("http://127.0.0.1:" + port + path))
+                        .header("Content-Type", "application/json")
+                        .POST(HttpRequest.BodyPublishers.ofString(json)).build(),
+                HttpResponse.BodyHandlers.ofString());
+    }
+}
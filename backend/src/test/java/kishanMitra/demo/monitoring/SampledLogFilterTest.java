@@ -0,0 +1,52 @@
+package kishanMitra.demo.monitoring;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.slf4j.event.KeyValuePair;
+
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.read.ListAppender;
+
+class SampledLogFilterTest {
+
+    @Test
+    void keepsOneInEveryPerTemplateAndAllWarnings() {
+        LoggerContext context = new LoggerContext();
+        SampledLogFilter filter = new SampledLogFilter();
+        filter.setEvery(5);
+        filter.start();
+        context.addTurboFilter(filter);
+        ListAppender<ILoggingEvent> appender = new ListAppender<>();
+        appender.setContext(context);
+        appender.start();
+        Logger log = context.getLogger("sampling");
+        log.addAppender(appender);
+
+        for (int i = 0; i < 10; i++) {
+            log.info(SampledLogFilter.SAMPLED, "Location found: {}", i);
+            if (log.isInfoEnabled(SampledLogFilter.SAMPLED)) {
+                log.atInfo().addKeyValue("provider", "gemini").log("LLM provider answered");
+            }
+            log.warn(SampledLogFilter.SAMPLED, "Fallback {}", i);
+            log.info("Unsampled {}", i);
+        }
+
+        assertEquals(List.of("Location found: 0", "Location found: 5"), messages(appender, "Location found"));
+        assertEquals(2, messages(appender, "LLM provider").size());
+        assertEquals(10, messages(appender, "Fallback").size());
+        assertEquals(10, messages(appender, "Unsampled").size());
+        assertEquals(16, filter.getDropped());
+        ILoggingEvent structured = appender.list.stream()
+                .filter(event -> event.getFormattedMessage().startsWith("LLM provider")).findFirst().orElseThrow();
+        assertEquals(List.of(new KeyValuePair("provider", "gemini")).toString(), structured.getKeyValuePairs().toString());
+    }
+
+    private static List<String> messages(ListAppender<ILoggingEvent> appender, String prefix) {
+        return appender.list.stream().map(ILoggingEvent::getFormattedMessage).filter(message -> message.startsWith(prefix)).toList();
+    }
+}
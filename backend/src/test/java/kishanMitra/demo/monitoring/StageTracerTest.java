@@ -0,0 +1,70 @@
+package kishanMitra.demo.monitoring;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+
+import io.opentelemetry.sdk.testing.exporter.InMemorySpanExporter;
+import io.opentelemetry.sdk.trace.SdkTracerProvider;
+import io.opentelemetry.sdk.trace.data.SpanData;
+
+@SpringBootTest(properties = "management.tracing.sampling.probability=1.0")
+class StageTracerTest {
+
+    @TestConfiguration
+    static class InMemoryExporterConfig {
+        @Bean
+        InMemorySpanExporter inMemorySpanExporter() {
+            return InMemorySpanExporter.create();
+        }
+    }
+
+    @Autowired
+    private StageTracer stageTracer;
+
+    @Autowired
+    private InMemorySpanExporter exporter;
+
+    @Autowired
+    private SdkTracerProvider tracerProvider;
+
+    @BeforeEach
+    void reset() {
+        exporter.reset();
+    }
+
+    @Test
+    void nestedStagesBecomeParentChildSpansAndServerTimingEntries() {
+        RequestTimeline timeline = RequestTimeline.start();
+        try {
+            String result = stageTracer.trace("soil", () -> stageTracer.trace("ai.soil", () -> "loam"));
+            stageTracer.trace("translate", () -> "a");
+            stageTracer.trace("translate", () -> "b");
+
+            assertEquals("loam", result);
+            String header = timeline.toServerTiming();
+            assertTrue(header.startsWith("soil;dur="), header);
+            assertTrue(header.contains("ai.soil;dur="), header);
+            assertTrue(header.contains("translate;dur=") && header.contains("desc=\"2 calls\""), header);
+            assertTrue(header.contains("total;dur="), header);
+        } finally {
+            RequestTimeline.clear();
+        }
+
+        tracerProvider.forceFlush().join(5, TimeUnit.SECONDS);
+        List<SpanData> spans = exporter.getFinishedSpanItems();
+        SpanData soil = spans.stream().filter(s -> s.getName().equals("soil")).findFirst().orElseThrow();
+        SpanData aiSoil = spans.stream().filter(s -> s.getName().equals("ai.soil")).findFirst().orElseThrow();
+        assertEquals(soil.getSpanId(), aiSoil.getParentSpanId());
+        assertEquals(4, spans.size());
+    }
+}
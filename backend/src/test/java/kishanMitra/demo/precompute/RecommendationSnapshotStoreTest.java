@@ -0,0 +1,62 @@
+package kishanMitra.demo.precompute;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import kishanMitra.demo.geo.GeoTile;
+
+class RecommendationSnapshotStoreTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void publishedSnapshotIsServedPerTileAndSeason() throws Exception {
+        Map<Integer, PrecomputedRecommendation> entries = new HashMap<>();
+        for (int i = 0; i < 500; i++) {
+            entries.put(GeoTile.of(8.1 + (i % 25) * 0.25, 68.1 + (i / 25) * 0.25).key(), new PrecomputedRecommendation("Crop " + i, "- plan " + i));
+        }
+        entries.put(GeoTile.of(26.4499, 80.3319).key(), new PrecomputedRecommendation("गेहूं — रबी के लिए उपयुक्त", "- Best crop: Wheat"));
+
+        RecommendationSnapshotStore store = store();
+        store.publish("Rabi (Winter)", entries);
+
+        PrecomputedRecommendation kanpur = store.lookup(26.40, 80.26, "Rabi (Winter)"); // same 0.25° tile
+        assertEquals("गेहूं — रबी के लिए उपयुक्त", kanpur.recommendation());
+        assertEquals("- Best crop: Wheat", kanpur.summary());
+        assertEquals("Crop 7", store.lookup(9.9, 68.2, "Rabi (Winter)").recommendation());
+        assertNull(store.lookup(26.4499, 80.3319, "Kharif (Monsoon)"));
+        assertNull(store.lookup(-33.9, 18.4, "Rabi (Winter)"));
+    }
+
+    @Test
+    void restartLoadsTheLatestVersionAndOldFilesArePruned() throws Exception {
+        RecommendationSnapshotStore store = store();
+        for (int version = 1; version <= 4; version++) {
+            store.publish("Zaid (Summer)", Map.of(GeoTile.of(20, 78).key(), new PrecomputedRecommendation("v" + version, "")));
+        }
+
+        RecommendationSnapshotStore restarted = store();
+        restarted.loadCurrent();
+        assertEquals("v4", restarted.lookup(20, 78, "Zaid (Summer)").recommendation());
+        try (var files = Files.list(dir)) {
+            assertEquals(3 + 1, files.count()); // kept versions plus CURRENT
+        }
+    }
+
+    private RecommendationSnapshotStore store() {
+        RecommendationSnapshotStore store = new RecommendationSnapshotStore();
+        ReflectionTestUtils.setField(store, "snapshotDir", dir.toString());
+        ReflectionTestUtils.setField(store, "keep", 3);
+        return store;
+    }
+}
@@ -0,0 +1,61 @@
+package kishanMitra.demo.prewarm;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import kishanMitra.demo.geo.GeoTile;
+
+class HotTileTrackerTest {
+
+    @Test
+    void skewedTrafficSurfacesTheBusiestTilesAndLanguages() {
+        HotTileTracker tracker = new HotTileTracker();
+        Random random = new Random(42);
+        // 100k requests over 20k distinct tiles, with ten hot districts taking half of them
+        for (int i = 0; i < 100_000; i++) {
+            if (i % 2 == 0) {
+                int hot = i / 2 % 10;
+                tracker.record(20 + hot, 75 + hot * 0.5, hot < 7 ? "hi" : "mr");
+            } else {
+                tracker.record(8 + random.nextInt(200) * 0.25, 68 + random.nextInt(100) * 0.25, "en");
+            }
+        }
+
+        List<HotTileTracker.HotTile> top = tracker.top(10);
+        assertEquals(10, top.size());
+        for (HotTileTracker.HotTile tile : top) {
+            int hot = (int) Math.round(tile.tile().centerLat() - 20);
+            assertEquals(GeoTile.of(20 + hot, 75 + hot * 0.5), tile.tile());
+            assertTrue(tile.hits() >= 5_000, "estimates never undercount");
+        }
+        assertEquals(List.of("hi", "mr"), tracker.topLanguages(3));
+
+        tracker.decay();
+        assertTrue(tracker.top(1).get(0).hits() < 5_000 / 2 + 100);
+    }
+
+    @Test
+    void aTileThatOutranksTheColdestCandidateReplacesIt() {
+        HotTileTracker tracker = new HotTileTracker();
+        for (int i = 0; i < 1024; i++) {
+            tracker.record(8 + i / 32 * 0.25, 68 + i % 32 * 0.25, "en");
+            if (i > 0) tracker.record(8 + i / 32 * 0.25, 68 + i % 32 * 0.25, "en");
+        }
+        GeoTile coldest = GeoTile.of(8, 68);
+        tracker.record(30, 90, "en"); // one request: ties the coldest, stays out
+        tracker.record(31, 91, "en");
+        tracker.record(31, 91, "en"); // two requests: outranks it
+
+        List<GeoTile> candidates = tracker.top(2048).stream().map(HotTileTracker.HotTile::tile).toList();
+        assertEquals(1024, candidates.size());
+        assertTrue(candidates.contains(GeoTile.of(31, 91)));
+        assertFalse(candidates.contains(coldest));
+        assertFalse(candidates.contains(GeoTile.of(30, 90)));
+    }
+}
@@ -0,0 +1,59 @@
+package kishanMitra.demo.prompt;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.Locale;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import kishanMitra.demo.dto.AgronomicFeatures;
+
+class PromptTemplateTest {
+
+    private static final AgronomicFeatures FEATURES = new AgronomicFeatures(
+            "Kanpur Nagar", "Uttar Pradesh", "Rabi (Winter)", "Alluvial loam",
+            7.25, 6.4, 18.5, 1.38, 240, 18, 260, 0.42, 0.3, 38, 40, 22, 0.31, 0.28, 27.5,
+            32.43, 18.6, 25.1, 874.2, "Humid subtropical (Cwa)");
+
+    @Test
+    void rendersFeaturesArgumentsAndLiteralBraces() {
+        PromptTemplate template = PromptTemplate.compile(
+                "{district}, {state}: pH={ph:1} N={nitrogen:0} rain={forecastTotalRain:2} {\"json\": {1}} to {lang}: \"{message}\" 100%",
+                "lang", "message");
+
+        assertEquals("Kanpur Nagar, Uttar Pradesh: pH=7.3 N=240 rain=18.60 {\"json\": {1}} to hi: \"Kya boun?\" 100%",
+                template.render(FEATURES, "hi", "Kya boun?"));
+    }
+
+    @Test
+    void unknownPlaceholdersFailAtCompileTime() {
+        assertThrows(IllegalArgumentException.class, () -> PromptTemplate.compile("{nope}"));
+        assertThrows(IllegalArgumentException.class, () -> PromptTemplate.compile("{district:1}"));
+    }
+
+    @Test
+    void appendFixedMatchesStringFormat() {
+        Random random = new Random(42);
+        for (int i = 0; i < 10_000; i++) {
+            // Stay off exact .5 ties, where the binary value decides the rounding
+            double value = (random.nextDouble() - 0.3) * Math.pow(10, random.nextInt(7)) + 1e-7;
+            for (int decimals = 0; decimals <= 3; decimals++) {
+                String expected = String.format(Locale.ROOT, "%." + decimals + "f", value);
+                if (expected.matches("-0\\.?0*")) expected = expected.substring(1);
+                assertEquals(expected, PromptTemplate.fixed(value, decimals), value + " to " + decimals);
+            }
+        }
+        assertEquals("NaN", PromptTemplate.fixed(Double.NaN, 1));
+    }
+
+    @Test
+    void cacheKeyIgnoresInsignificantDifferences() {
+        AgronomicFeatures nearlySame = new AgronomicFeatures(
+                "Kanpur Nagar", "Uttar Pradesh", "Rabi (Winter)", "Alluvial loam",
+                7.27, 6.3, 18.6, 1.41, 242, 19, 259, 0.38, 0.31, 37.5, 40.5, 22, 0.305, 0.28, 27.6,
+                32.1, 19.4, 25.3, 860, "Humid subtropical (Cwa)");
+        assertEquals(FEATURES.cacheKey(), nearlySame.cacheKey());
+    }
+}
@@ -0,0 +1,81 @@
+package kishanMitra.demo.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+import io.micrometer.observation.ObservationRegistry;
+import kishanMitra.demo.dto.BatchDashboardRequest;
+import kishanMitra.demo.dto.BatchDashboardResult;
+import kishanMitra.demo.dto.KishanMitraResponse;
+import kishanMitra.demo.monitoring.StageTracer;
+
+class BatchDashboardServiceTest {
+
+    private final DataAggregationService dataAggregationService = mock(DataAggregationService.class);
+
+    @Test
+    void farmsInAFailedTileGetItsError() throws Exception {
+        KishanMitraResponse kanpur = new KishanMitraResponse();
+        when(dataAggregationService.getAllDataOrThrow(anyDouble(), anyDouble(), any())).thenAnswer(call -> {
+            if ((double) call.getArgument(0) > 28) throw new IllegalStateException("Open-Meteo unavailable");
+            return kanpur;
+        });
+        Map<String, BatchDashboardResult> results = new ConcurrentHashMap<>();
+
+        service(8).run(List.of(farm("a", 26.45, 80.33), farm("b", 26.46, 80.34), farm("c", 28.61, 77.21)), "en",
+                result -> results.put(result.getId(), result)).get(5, TimeUnit.SECONDS);
+
+        assertEquals(3, results.size());
+        assertEquals(kanpur, results.get("a").getData());
+        assertEquals(kanpur, results.get("b").getData());
+        assertNull(results.get("c").getData());
+        assertEquals("Open-Meteo unavailable", results.get("c").getError());
+    }
+
+    @Test
+    void concurrentBatchesShareOneLimit() throws Exception {
+        AtomicInteger inFlight = new AtomicInteger();
+        AtomicInteger maxInFlight = new AtomicInteger();
+        when(dataAggregationService.getAllDataOrThrow(anyDouble(), anyDouble(), any())).thenAnswer(call -> {
+            maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+            Thread.sleep(20);
+            inFlight.decrementAndGet();
+            return new KishanMitraResponse();
+        });
+        BatchDashboardService service = service(2);
+
+        CompletableFuture<?>[] batches = new CompletableFuture<?>[4];
+        for (int i = 0; i < batches.length; i++) {
+            batches[i] = service.run(List.of(farm("a", 10 + i, 75), farm("b", 20 + i, 75), farm("c", 30 + i, 75)), "en", result -> {});
+        }
+        CompletableFuture.allOf(batches).get(10, TimeUnit.SECONDS);
+
+        assertEquals(2, maxInFlight.get());
+    }
+
+    private BatchDashboardService service(int concurrency) {
+        return new BatchDashboardService(dataAggregationService, mock(TranslationService.class),
+                mock(StaticProfilesService.class), new StageTracer(ObservationRegistry.NOOP), concurrency);
+    }
+
+    static BatchDashboardRequest.Farm farm(String id, double lat, double lon) {
+        BatchDashboardRequest.Farm farm = new BatchDashboardRequest.Farm();
+        farm.setId(id);
+        farm.setLat(lat);
+        farm.setLon(lon);
+        return farm;
+    }
+}
@@ -0,0 +1,100 @@
+package kishanMitra.demo.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import java.nio.file.Path;
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import io.micrometer.observation.ObservationRegistry;
+import kishanMitra.demo.cluster.TileRouter;
+import kishanMitra.demo.dto.ClimateData;
+import kishanMitra.demo.dto.DashboardSection;
+import kishanMitra.demo.dto.KishanMitraResponse;
+import kishanMitra.demo.dto.SoilData;
+import kishanMitra.demo.dto.WeatherData;
+import kishanMitra.demo.geo.GeoTile;
+import kishanMitra.demo.monitoring.StageTracer;
+import kishanMitra.demo.precompute.PrecomputedRecommendation;
+import kishanMitra.demo.precompute.RecommendationSnapshotStore;
+
+class DataAggregationServiceTest {
+
+    private static final double LAT = 26.4499;
+    private static final double LON = 80.3319;
+
+    @TempDir
+    Path dir;
+
+    private final LocationService locationService = mock(LocationService.class);
+    private final SoilDataService soilDataService = mock(SoilDataService.class);
+    private final WeatherDataService weatherDataService = mock(WeatherDataService.class);
+    private final ClimateDataService climateDataService = mock(ClimateDataService.class);
+    private final AIService aiService = mock(AIService.class);
+    private final CropInfoService cropInfoService = mock(CropInfoService.class);
+    private final RecommendationSnapshotStore snapshotStore = new RecommendationSnapshotStore();
+    private DataAggregationService service;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(snapshotStore, "snapshotDir", dir.toString());
+        ReflectionTestUtils.setField(snapshotStore, "keep", 1);
+        when(locationService.getLocationFromCoordinates(anyDouble(), anyDouble())).thenReturn(new String[]{"Uttar Pradesh", "Kanpur Nagar"});
+        when(soilDataService.getSoilData(anyDouble(), anyDouble())).thenReturn(new SoilData());
+        when(weatherDataService.getWeatherData(anyDouble(), anyDouble())).thenReturn(new WeatherData());
+        when(climateDataService.getClimateProfile(anyDouble(), anyDouble())).thenReturn(new ClimateData());
+        when(aiService.getBestCropRecommendation(any())).thenReturn("Wheat");
+        service = new DataAggregationService(mock(DevelopmentDataService.class), locationService, soilDataService, weatherDataService,
+                climateDataService, aiService, cropInfoService, mock(PesticideInfoService.class),
+                new StageTracer(ObservationRegistry.NOOP), snapshotStore, mock(TileRouter.class));
+    }
+
+    @Test
+    void parsesFieldsCaseInsensitively() {
+        assertEquals(EnumSet.of(DashboardSection.WEATHER, DashboardSection.CROP_PROFILES), DashboardSection.parse(" weather, CROPPROFILES,"));
+        assertEquals(DashboardSection.DASHBOARD, DashboardSection.parse("dashboardData"));
+        assertEquals(DashboardSection.ALL, DashboardSection.parse(" "));
+        assertEquals(DashboardSection.ALL, DashboardSection.parse(","));
+        assertThrows(IllegalArgumentException.class, () -> DashboardSection.parse("weather,forecast"));
+    }
+
+    @Test
+    void precomputedRecommendationCallsNoUpstream() throws Exception {
+        snapshotStore.publish(service.getCurrentSeason(),
+                Map.of(GeoTile.of(LAT, LON).key(), new PrecomputedRecommendation("Mustard", "- Best crop: Mustard")));
+
+        KishanMitraResponse response = service.getAllDataLocally(LAT, LON, Set.of(DashboardSection.RECOMMENDATION));
+
+        assertEquals("Mustard", response.getCropRecommendation().getRecommendationText());
+        assertNull(response.getDashboardData());
+        verifyNoInteractions(locationService, soilDataService, weatherDataService, climateDataService, aiService, cropInfoService);
+    }
+
+    @Test
+    void generatedRecommendationFetchesItsContextOnce() {
+        KishanMitraResponse response = service.getAllDataLocally(LAT, LON, EnumSet.of(DashboardSection.WEATHER, DashboardSection.RECOMMENDATION));
+
+        assertEquals("Wheat", response.getCropRecommendation().getRecommendationText());
+        assertNull(response.getDashboardData().getSoilData());
+        verify(locationService, times(1)).getLocationFromCoordinates(LAT, LON);
+        verify(soilDataService, times(1)).getSoilData(LAT, LON);
+        verify(weatherDataService, times(1)).getWeatherData(LAT, LON);
+        verify(climateDataService, times(1)).getClimateProfile(LAT, LON);
+        verifyNoInteractions(cropInfoService);
+    }
+}
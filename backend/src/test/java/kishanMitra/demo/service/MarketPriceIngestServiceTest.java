@@ -0,0 +1,88 @@
+package kishanMitra.demo.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.client.RestTemplate;
+
+import kishanMitra.demo.dto.IngestReport;
+import kishanMitra.demo.dto.MarketPrice;
+
+class MarketPriceIngestServiceTest {
+
+    @TempDir
+    Path dir;
+
+    private final MarketPriceService marketPriceService = new MarketPriceService(new RestTemplate());
+    private final MarketPriceIngestService ingestService = new MarketPriceIngestService(marketPriceService);
+
+    @Test
+    void csvDumpIsLoadedWithTheLiveFieldMapping() throws Exception {
+        Path csv = dir.resolve("dump.csv");
+        Files.writeString(csv, "\uFEFFS.No,City,Commodity,Min Prize,Max Prize,Model Prize,Date,State\r\n"
+                + "1,Azadpur,Onion,\"Rs 1,500\",2500,2000.50,01 Oct 2025,Delhi\r\n"
+                + "2,Azadpur,Onion,1600,2600,2100,02 Oct 2025,Delhi\r\n"
+                + "3,,Onion,1600,2600,2100,02 Oct 2025,Delhi\r\n"
+                + "4,\"Karnal \"\"Main\"\"\",Wheat,2200,2400,2300,02 Oct 2025,Haryana", StandardCharsets.UTF_8);
+
+        IngestReport report = ingestService.ingest(csv);
+
+        assertEquals(3, report.getRowsLoaded());
+        assertEquals(1, report.getRowsSkipped());
+        assertEquals(2, report.getMarketsLoaded());
+
+        List<MarketPrice> onion = marketPriceService.getMarketPrices("Onion", "Delhi", "Azadpur");
+        assertEquals(2, onion.size());
+        assertEquals(1500.0, onion.get(0).getMinPrice());
+        assertEquals(2000.5, onion.get(0).getModalPrice());
+        assertEquals("Local", onion.get(0).getVariety());
+        assertSame(onion.get(0).getCommodity(), onion.get(1).getCommodity());
+
+        assertEquals(2300.0, marketPriceService.getMarketPrices("Wheat", "Haryana", "Karnal \"Main\"").get(0).getModalPrice());
+    }
+
+    @Test
+    void jsonDumpReplacesThePreviousGeneration() throws Exception {
+        Path json = dir.resolve("dump.json");
+        Files.writeString(json, """
+                [{"S.No":"1","City":"Lucknow","Commodity":"Potato","Min Prize":"1200","Max Prize":"2000","Model Prize":"1600","Date":"01 Oct 2025","State":"Uttar Pradesh","Extra":{"a":1}}]
+                """, StandardCharsets.UTF_8);
+
+        ingestService.ingest(json);
+
+        assertEquals(1, marketPriceService.getBulkMarketCount());
+        assertEquals(1600.0, marketPriceService.getMarketPrices("Potato", "Uttar Pradesh", "Lucknow").get(0).getModalPrice());
+    }
+
+    @Test
+    void keepsTheLatestRowsByDateNotByFileOrder() throws Exception {
+        ReflectionTestUtils.setField(ingestService, "maxRowsPerMarket", 2);
+        Path csv = dir.resolve("unsorted.csv");
+        Files.writeString(csv, "City,Commodity,Model Prize,Date,State\n"
+                + "Azadpur,Onion,2300,03 Oct 2025,Delhi\n"
+                + "Azadpur,Onion,2100,01 Oct 2025,Delhi\n"
+                + "Azadpur,Onion,2200,02 OCT 2025,Delhi\n"
+                + "Azadpur,Onion,1900,29 Sep 2025,Delhi\n", StandardCharsets.UTF_8);
+
+        ingestService.ingest(csv);
+
+        List<MarketPrice> onion = marketPriceService.getMarketPrices("Onion", "Delhi", "Azadpur");
+        assertEquals(List.of("02 OCT 2025", "03 Oct 2025"), onion.stream().map(MarketPrice::getDate).toList());
+    }
+
+    @Test
+    void parsePriceMatchesTheStringParser() {
+        for (String value : new String[] {"2,450", "Rs. 1200", "12.5", ".5", "5.", "", ".", "1.2.3", "abc", "1234567890123456789012"}) {
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            assertEquals(MarketPriceService.parseDouble(value), MarketPriceIngestService.parsePrice(bytes, 0, bytes.length), value);
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package kishanMitra.demo.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import org.junit.jupiter.api.Test;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+class StaticProfilesServiceTest {
+
+    private final TranslationService translationService = mock(TranslationService.class);
+    private final StaticProfilesService service = new StaticProfilesService(new CropInfoService(), new PesticideInfoService(),
+            translationService, new ObjectMapper());
+
+    @Test
+    void unsupportedLanguagesShareTheEnglishProfiles() {
+        StaticProfilesService.SerializedProfiles english = service.getSerialized("en");
+
+        for (int i = 0; i < 100; i++) {
+            assertSame(english, service.getSerialized("x" + i));
+        }
+        assertSame(english, service.getSerialized(null));
+        verify(translationService, never()).translateResponse(any(), eq("x0"));
+    }
+
+    @Test
+    void eachSupportedLanguageIsTranslatedOnce() {
+        assertEquals("hi", service.getProfiles(" HI").getLang());
+        service.getSerialized("hi");
+
+        verify(translationService, times(1)).translateResponse(any(), eq("hi"));
+    }
+}
@@ -0,0 +1,70 @@
+package kishanMitra.demo.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.contains;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.client.RestTemplate;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import kishanMitra.demo.cache.SharedCacheTier;
+import kishanMitra.demo.dto.WeatherData;
+import kishanMitra.demo.geo.GeoTile;
+
+class WeatherDataServiceTest {
+
+    @Test
+    void aResponseThatFailsHalfwayKeepsWhatWasParsedButIsNotCached() throws Exception {
+        // No precipitation_sum column: the daily loop fails after the current conditions were read
+        JsonNode response = new ObjectMapper().readTree("""
+                {"current": {"temperature_2m": 31.5, "relative_humidity_2m": 62},
+                 "daily": {"time": ["2025-10-01"], "temperature_2m_max": [33], "temperature_2m_min": [24]}}
+                """);
+        RestTemplate restTemplate = mock(RestTemplate.class);
+        when(restTemplate.getForObject(anyString(), eq(JsonNode.class))).thenReturn(response);
+        WeatherDataService service = new WeatherDataService(restTemplate, SharedCacheTier.none());
+        ReflectionTestUtils.setField(service, "forecastUrl", "https://api.open-meteo.com/v1/forecast");
+
+        WeatherData data = service.getWeatherData(26.45, 80.33);
+
+        assertEquals(31.5, data.getCurrent().getTemperature());
+        assertNull(data.getSevenDayForecast());
+        service.getWeatherData(26.45, 80.33);
+        verify(restTemplate, times(2)).getForObject(anyString(), eq(JsonNode.class));
+    }
+
+    @Test
+    void pointsInOneTileShareOneFetchAtItsCentre() throws Exception {
+        JsonNode response = new ObjectMapper().readTree("""
+                {"current": {"temperature_2m": 31.5, "relative_humidity_2m": 62},
+                 "daily": {"time": ["2025-10-01"], "temperature_2m_max": [33], "temperature_2m_min": [24],
+                           "precipitation_sum": [0.4], "wind_speed_10m_max": [12], "uv_index_max": [8]}}
+                """);
+        RestTemplate restTemplate = mock(RestTemplate.class);
+        when(restTemplate.getForObject(anyString(), eq(JsonNode.class))).thenReturn(response);
+        WeatherDataService service = new WeatherDataService(restTemplate, SharedCacheTier.none());
+        ReflectionTestUtils.setField(service, "forecastUrl", "https://api.open-meteo.com/v1/forecast");
+        GeoTile tile = GeoTile.of(26.45, 80.33);
+        double otherLat = tile.centerLat() + 0.05;
+        assertEquals(tile, GeoTile.of(otherLat, 80.33));
+
+        WeatherData first = service.getWeatherData(26.45, 80.33);
+        WeatherData second = service.getWeatherData(otherLat, 80.33);
+
+        assertSame(first, second);
+        verify(restTemplate, times(1)).getForObject(
+                contains(String.format("latitude=%f&longitude=%f", tile.centerLat(), tile.centerLon())), eq(JsonNode.class));
+        verify(restTemplate, times(1)).getForObject(anyString(), eq(JsonNode.class));
+    }
+}
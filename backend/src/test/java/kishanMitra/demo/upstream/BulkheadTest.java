@@ -0,0 +1,75 @@
+package kishanMitra.demo.upstream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.convert.ApplicationConversionService;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.mock.http.client.MockClientHttpRequest;
+import org.springframework.mock.http.client.MockClientHttpResponse;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class BulkheadTest {
+
+    @Test
+    void callersBeyondTheQueueAreTurnedAwayAtOnce() throws Exception {
+        Bulkhead bulkhead = new Bulkhead(1, 1, Duration.ofSeconds(5));
+        assertTrue(bulkhead.tryAcquire());
+
+        CompletableFuture<Boolean> queued = CompletableFuture.supplyAsync(() -> {
+            try {
+                return bulkhead.tryAcquire();
+            } catch (InterruptedException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        while (bulkhead.getWaiting() == 0) Thread.onSpinWait();
+
+        long start = System.nanoTime();
+        assertFalse(bulkhead.tryAcquire());
+        assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(1));
+
+        bulkhead.release();
+        assertTrue(queued.get(5, TimeUnit.SECONDS));
+        assertEquals(1, bulkhead.getActive());
+        bulkhead.release();
+        assertEquals(0, bulkhead.getActive());
+    }
+
+    @Test
+    void waitingEndsAfterMaxWait() throws Exception {
+        Bulkhead bulkhead = new Bulkhead(1, 5, Duration.ofMillis(50));
+        assertTrue(bulkhead.tryAcquire());
+        assertFalse(bulkhead.tryAcquire());
+        assertEquals(0, bulkhead.getWaiting());
+    }
+
+    @Test
+    void aCallHoldsItsPermitUntilTheResponseIsClosed() throws Exception {
+        UpstreamResolver resolver = new UpstreamResolver("http://gemini.test", "http://forecast.test", "http://archive.test",
+                "http://climate.test", "http://geo.test", "http://translate.test", "http://agmarknet.test");
+        MockEnvironment environment = new MockEnvironment().withProperty("bulkhead.open-meteo-forecast.max-concurrent", "1");
+        environment.setConversionService(new ApplicationConversionService());
+        UpstreamBulkheads bulkheads = new UpstreamBulkheads(resolver, new SimpleMeterRegistry(), environment);
+        Bulkhead forecast = bulkheads.getBulkheads().get(Upstream.OPEN_METEO_FORECAST);
+
+        ClientHttpResponse response = bulkheads.intercept(new MockClientHttpRequest(HttpMethod.GET, "http://forecast.test/v1/forecast"),
+                new byte[0], (request, body) -> new MockClientHttpResponse("{}".getBytes(StandardCharsets.UTF_8), HttpStatus.OK));
+        assertEquals(1, forecast.getActive(), "the body is still to be read");
+
+        response.close();
+        response.close();
+        assertEquals(0, forecast.getActive());
+    }
+}
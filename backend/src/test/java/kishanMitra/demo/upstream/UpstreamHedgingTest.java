@@ -0,0 +1,106 @@
+package kishanMitra.demo.upstream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.convert.ApplicationConversionService;
+import org.springframework.http.client.SimpleClientHttpRequestFactory;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.web.client.RestTemplate;
+
+import com.sun.net.httpserver.HttpServer;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class UpstreamHedgingTest {
+
+    private HttpServer server;
+    private final AtomicInteger calls = new AtomicInteger();
+    private final List<String> keys = Collections.synchronizedList(new ArrayList<>());
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private UpstreamBulkheads bulkheads;
+    private String url;
+
+    @BeforeEach
+    void startServer() throws Exception {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.createContext("/", exchange -> {
+            keys.add(exchange.getRequestURI().getQuery());
+            // The first call hangs, every later one answers at once
+            if (calls.incrementAndGet() == 1) {
+                try {
+                    Thread.sleep(5_000);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            byte[] body = "{\"ok\":true}".getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, body.length);
+            exchange.getResponseBody().write(body);
+            exchange.close();
+        });
+        server.start();
+    }
+
+    @AfterEach
+    void stopServer() {
+        server.stop(0);
+    }
+
+    @Test
+    void slowCallIsHedgedToTheOtherKey() {
+        UpstreamHedging hedging = hedging();
+        RestTemplate restTemplate = new RestTemplate(hedging.wrap(new SimpleClientHttpRequestFactory()));
+
+        long start = System.nanoTime();
+        String body = restTemplate.postForObject(url + "?key=main", "{}", String.class);
+        long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+
+        assertEquals("{\"ok\":true}", body);
+        assertTrue(elapsedMs < 2_000, "hedge should answer long before the slow call, took " + elapsedMs + " ms");
+        assertEquals(List.of("key=main", "key=secondary"), keys);
+        assertEquals(1.0, registry.counter("upstream.hedges", "upstream", "gemini", "outcome", "won").count());
+        assertEquals(0, bulkheads.getBulkheads().get(Upstream.GEMINI).getActive(), "the hedge's permit is released with its response");
+    }
+
+    @Test
+    void noHedgeWithoutABulkheadPermit() throws Exception {
+        UpstreamHedging hedging = hedging();
+        RestTemplate restTemplate = new RestTemplate(hedging.wrap(new SimpleClientHttpRequestFactory()));
+        Bulkhead gemini = bulkheads.getBulkheads().get(Upstream.GEMINI);
+        assertTrue(gemini.tryAcquire()); // the permit the primary call holds above the hedging
+
+        assertEquals("{\"ok\":true}", restTemplate.postForObject(url + "?key=main", "{}", String.class));
+
+        assertEquals(List.of("key=main"), keys);
+        assertEquals(1.0, registry.counter("upstream.hedges", "upstream", "gemini", "outcome", "no-permit").count());
+        gemini.release();
+    }
+
+    private UpstreamHedging hedging() {
+        url = "http://127.0.0.1:" + server.getAddress().getPort() + "/v1/generate";
+        UpstreamResolver resolver = new UpstreamResolver(url, "http://forecast.test", "http://archive.test",
+                "http://climate.test", "http://geo.test", "http://translate.test", "http://agmarknet.test");
+        MockEnvironment environment = new MockEnvironment().withProperty("hedge.gemini.delay", "100ms")
+                .withProperty("bulkhead.gemini.max-concurrent", "1");
+        environment.setConversionService(new ApplicationConversionService());
+        bulkheads = new UpstreamBulkheads(resolver, registry, environment);
+        return new UpstreamHedging(resolver, bulkheads, registry, environment, true, 8, Set.of("gemini"),
+                1.0, Duration.ofMillis(50), "main", "secondary", "tertiary", "quaternary");
+    }
+}